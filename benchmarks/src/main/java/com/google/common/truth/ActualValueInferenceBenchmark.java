@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link ActualValueInference}, which reads the bytecode of the test method that
+ * failed. The {@code SHORT} test has one assertion, and the {@code LONG} test has dozens, failing
+ * at the last one, like a test that checks every field of a large result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActualValueInferenceBenchmark {
+  /** The test methods of {@link ReportTest}. */
+  public enum TestMethod {
+    SHORT,
+    LONG
+  }
+
+  @Param TestMethod test;
+
+  private StackTraceElement failingFrame;
+
+  @Setup
+  public void setUp() {
+    FailureCapture failures = new FailureCapture();
+    Report report = new Report();
+    if (test == TestMethod.SHORT) {
+      ReportTest.shortTest(failures.expect(), report);
+    } else {
+      ReportTest.longTest(failures.expect(), report);
+    }
+    // The failure's stack trace is cleaned, so it starts at the test method.
+    failingFrame = failures.takeFailure().getStackTrace()[0];
+    if (describe() == null) {
+      throw new IllegalStateException("no description inferred for " + failingFrame);
+    }
+  }
+
+  @Benchmark
+  public String describeActualValue() {
+    return describe();
+  }
+
+  private String describe() {
+    return ActualValueInference.describeActualValue(
+        failingFrame.getClassName(), failingFrame.getMethodName(), failingFrame.getLineNumber());
+  }
+
+  static final class Report {
+    final String title = "Quarterly report";
+    final int year = 2023;
+    final long revenue = 1_000_000L;
+    final double growth = 0.12;
+    final boolean published = true;
+    final List<String> authors = ImmutableList.of("alice", "bob", "carol");
+    final Map<String, Integer> pagesBySection = ImmutableMap.of("intro", 2, "body", 30, "end", 1);
+    final int[] quarters = {1, 2, 3, 4};
+
+    String summary() {
+      return title + " " + year;
+    }
+
+    Report previous() {
+      return this;
+    }
+  }
+
+  /** Stands in for a test class. Each method fails at its last assertion. */
+  static final class ReportTest {
+    static void shortTest(StandardSubjectBuilder expect, Report report) {
+      expect.that(report.summary()).isEqualTo("Annual report 2023");
+    }
+
+    static void longTest(StandardSubjectBuilder expect, Report report) {
+      expect.that(report.title).isEqualTo("Quarterly report");
+      expect.that(report.title).startsWith("Quarterly");
+      expect.that(report.title).contains("report");
+      expect.that(report.title).hasLength(16);
+      expect.that(report.year).isEqualTo(2023);
+      expect.that(report.year).isGreaterThan(2000);
+      expect.that(report.year).isAtMost(2100);
+      expect.that(report.revenue).isEqualTo(1_000_000L);
+      expect.that(report.revenue).isGreaterThan(0L);
+      expect.that(report.growth).isWithin(1e-9).of(0.12);
+      expect.that(report.growth).isGreaterThan(0.0);
+      expect.that(report.published).isTrue();
+      expect.that(report.authors).hasSize(3);
+      expect.that(report.authors).contains("alice");
+      expect.that(report.authors).containsExactly("alice", "bob", "carol").inOrder();
+      expect.that(report.authors).containsNoDuplicates();
+      expect.that(report.authors).doesNotContain("mallory");
+      expect.that(report.authors.get(0)).isEqualTo("alice");
+      expect.that(report.authors.get(1)).isEqualTo("bob");
+      expect.that(report.authors.get(2)).isEqualTo("carol");
+      expect.that(report.pagesBySection).hasSize(3);
+      expect.that(report.pagesBySection).containsKey("intro");
+      expect.that(report.pagesBySection).containsEntry("body", 30);
+      expect.that(report.pagesBySection).doesNotContainKey("appendix");
+      expect.that(report.pagesBySection.get("intro")).isEqualTo(2);
+      expect.that(report.pagesBySection.get("end")).isEqualTo(1);
+      expect.that(report.pagesBySection.keySet()).containsExactly("intro", "body", "end");
+      expect.that(report.pagesBySection.values()).containsExactly(2, 30, 1);
+      expect.that(report.quarters).hasLength(4);
+      expect.that(report.quarters).asList().containsExactly(1, 2, 3, 4).inOrder();
+      expect.that(report.quarters[0]).isEqualTo(1);
+      expect.that(report.quarters[3]).isEqualTo(4);
+      Report previous = report.previous();
+      expect.that(previous).isNotNull();
+      expect.that(previous.title).isEqualTo(report.title);
+      expect.that(previous.year).isEqualTo(report.year);
+      expect.that(previous.revenue).isAtMost(report.revenue);
+      expect.that(previous.authors).containsAtLeastElementsIn(report.authors);
+      expect.that(previous.pagesBySection).containsAtLeastEntriesIn(report.pagesBySection);
+      expect.that(report.summary()).isEqualTo("Annual report 2023");
+    }
+
+    private ReportTest() {}
+  }
+}
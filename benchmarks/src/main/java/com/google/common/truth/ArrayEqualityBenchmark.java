@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for how {@link Subject#isEqualTo} compares arrays, for object arrays and for arrays of
+ * arrays, which are compared element by element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayEqualityBenchmark {
+  private static final int INNER_LENGTH = 10;
+
+  @Param({"10", "1000", "100000", "1000000"})
+  int size;
+
+  @Param
+  BenchmarkElement element;
+
+  private Object[] actual;
+  private Object[] equal;
+  private Object[] lastElementDifferent;
+  private Object[][] nestedActual;
+  private Object[][] nestedEqual;
+  private Object[][] nestedLastElementDifferent;
+  private final FailureCapture failures = new FailureCapture();
+
+  @Setup
+  public void setUp() {
+    actual = element.list(size).toArray();
+    equal = element.list(size).toArray();
+    lastElementDifferent = element.list(size).toArray();
+    lastElementDifferent[size - 1] = element.create(size);
+
+    // The same number of elements in total, in arrays of INNER_LENGTH elements.
+    nestedActual = nested(actual);
+    nestedEqual = nested(equal);
+    nestedLastElementDifferent = nested(lastElementDifferent);
+  }
+
+  private static Object[][] nested(Object[] elements) {
+    Object[][] nested = new Object[elements.length / INNER_LENGTH][];
+    for (int i = 0; i < nested.length; i++) {
+      nested[i] = new Object[INNER_LENGTH];
+      System.arraycopy(elements, i * INNER_LENGTH, nested[i], 0, INNER_LENGTH);
+    }
+    return nested;
+  }
+
+  @Benchmark
+  public void objectArray_isEqualTo() {
+    assertThat((Object) actual).isEqualTo(equal);
+  }
+
+  @Benchmark
+  public void objectArraySubject_isEqualTo() {
+    assertThat(actual).isEqualTo(equal);
+  }
+
+  @Benchmark
+  public void nestedArray_isEqualTo() {
+    assertThat((Object) nestedActual).isEqualTo(nestedEqual);
+  }
+
+  @Benchmark
+  public AssertionError objectArray_isEqualTo_fail() {
+    failures.expect().that((Object) actual).isEqualTo(lastElementDifferent);
+    return failures.takeFailure();
+  }
+
+  @Benchmark
+  public AssertionError nestedArray_isEqualTo_fail() {
+    failures.expect().that((Object) nestedActual).isEqualTo(nestedLastElementDifferent);
+    return failures.takeFailure();
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The kinds of elements that the collection benchmarks are run with. This is public because the
+ * code that JMH generates for the benchmarks, in another package, refers to it.
+ */
+public enum BenchmarkElement {
+  /** Boxed integers, which have well-distributed hash codes. */
+  HASHABLE {
+    @Override
+    Object create(int value) {
+      return value;
+    }
+  },
+
+  /**
+   * Values that share each hash code with {@link #COLLISIONS} - 1 others and that aren't {@link
+   * Comparable}, so that hash-based collections degrade to searching linked lists. These stand in
+   * for element types whose {@code hashCode} is unusable, which Truth must still handle.
+   */
+  NON_HASHABLE {
+    @Override
+    Object create(int value) {
+      return new Colliding(value);
+    }
+  };
+
+  static final int COLLISIONS = 64;
+
+  abstract Object create(int value);
+
+  /** Returns the elements {@code 0} through {@code size - 1}, in order. */
+  List<Object> list(int size) {
+    List<Object> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(create(i));
+    }
+    return list;
+  }
+
+  /** Returns a copy of the list in an order that is random but the same in every run. */
+  static <T> List<T> shuffled(List<T> list) {
+    List<T> copy = new ArrayList<>(list);
+    Collections.shuffle(copy, new Random(0));
+    return copy;
+  }
+
+  private static final class Colliding {
+    final int value;
+
+    Colliding(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Colliding && ((Colliding) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return value / COLLISIONS;
+    }
+
+    @Override
+    public String toString() {
+      return "Colliding(" + value + ")";
+    }
+  }
+}
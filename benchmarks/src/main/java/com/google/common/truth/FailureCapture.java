@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A failure strategy that keeps the failure instead of throwing it, so that benchmarks of failing
+ * assertions measure building the failure rather than unwinding the stack.
+ */
+public final class FailureCapture implements FailureStrategy {
+  private @Nullable AssertionError failure;
+
+  /** Returns a builder whose assertions report their failures to this capture. */
+  public StandardSubjectBuilder expect() {
+    return StandardSubjectBuilder.forCustomFailureStrategy(this);
+  }
+
+  @Override
+  public void fail(AssertionError failure) {
+    this.failure = failure;
+  }
+
+  /**
+   * Returns the failure of the last assertion and forgets it, or throws if that assertion passed,
+   * since a benchmark of a failing assertion that passes measures the wrong thing.
+   */
+  public AssertionError takeFailure() {
+    AssertionError result = failure;
+    if (result == null) {
+      throw new IllegalStateException("expected the assertion to fail");
+    }
+    failure = null;
+    return result;
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end benchmarks for failing assertions: capturing the stack, cleaning it, inferring the
+ * description of the actual value from the bytecode of this class, and rendering the message. Each
+ * assertion runs at the bottom of {@code calls} nested reflective calls, each of which adds about
+ * four frames to the stack, as layers of test helpers and frameworks would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FailureConstructionBenchmark {
+  private static final int LINES = 1000;
+
+  private static final Method CALL_NESTED;
+
+  static {
+    try {
+      CALL_NESTED =
+          FailureConstructionBenchmark.class.getDeclaredMethod(
+              "callNested", int.class, Runnable.class);
+    } catch (NoSuchMethodException e) {
+      throw new LinkageError(e.toString());
+    }
+  }
+
+  @Param({"1", "40"})
+  int calls;
+
+  private final FailureCapture failures = new FailureCapture();
+  private Report report;
+  private String expectedText;
+  private List<String> expectedLines;
+
+  @Setup
+  public void setUp() {
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < LINES; i++) {
+      lines.add("line " + i + ": the quick brown fox jumps over the lazy dog");
+    }
+    report = new Report(lines);
+    List<String> changed = new ArrayList<>(lines);
+    changed.set(LINES / 2, "line " + LINES / 2 + ": the quick brown fox jumps over the dog");
+    expectedText = Joiner.on('\n').join(changed);
+    expectedLines = changed;
+  }
+
+  @Benchmark
+  public AssertionError isEqualTo_fail() throws Exception {
+    callNested(calls, () -> failures.expect().that(report.lineCount()).isEqualTo(LINES + 1));
+    return failures.takeFailure();
+  }
+
+  @Benchmark
+  public AssertionError stringIsEqualTo_fail() throws Exception {
+    callNested(calls, () -> failures.expect().that(report.text()).isEqualTo(expectedText));
+    return failures.takeFailure();
+  }
+
+  @Benchmark
+  public AssertionError containsExactlyElementsIn_fail() throws Exception {
+    callNested(
+        calls,
+        () -> failures.expect().that(report.lines()).containsExactlyElementsIn(expectedLines));
+    return failures.takeFailure();
+  }
+
+  /** Runs {@code assertion} inside {@code remaining} levels of reflective calls to this method. */
+  private static void callNested(int remaining, Runnable assertion) throws Exception {
+    if (remaining == 0) {
+      assertion.run();
+      return;
+    }
+    try {
+      CALL_NESTED.invoke(null, remaining - 1, assertion);
+    } catch (InvocationTargetException e) {
+      throw (Exception) e.getCause();
+    }
+  }
+
+  private static final class Report {
+    private final ImmutableList<String> lines;
+
+    Report(List<String> lines) {
+      this.lines = ImmutableList.copyOf(lines);
+    }
+
+    int lineCount() {
+      return lines.size();
+    }
+
+    ImmutableList<String> lines() {
+      return lines;
+    }
+
+    String text() {
+      return Joiner.on('\n').join(lines);
+    }
+  }
+}
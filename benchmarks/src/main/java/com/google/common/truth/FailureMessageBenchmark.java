@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Fact.fact;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for rendering failure messages: {@link Fact#makeMessage}, {@link
+ * ComparisonFailures#formatExpectedAndActual} and {@link DiffUtils}. The texts have {@code lines}
+ * lines, which differ either in one line in the middle or in every {@link
+ * #SCATTERED_CHANGE_EVERY}th line. There are at most 10,000 lines, because {@link DiffUtils} keeps
+ * a table with a cell for each pair of differing lines, which for 100,000 lines with scattered
+ * changes doesn't fit in a default heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FailureMessageBenchmark {
+  private static final int SCATTERED_CHANGE_EVERY = 50;
+
+  @Param({"10", "1000", "10000"})
+  int lines;
+
+  private List<String> expectedLines;
+  private List<String> oneLineChanged;
+  private List<String> scatteredLinesChanged;
+  private String expected;
+  private String actualOneLineChanged;
+  private String actualScatteredLinesChanged;
+  private String expectedSingleLine;
+  private String actualSingleLine;
+  private ImmutableList<Fact> diffFacts;
+  private ImmutableList<Fact> manyFacts;
+
+  @Setup
+  public void setUp() {
+    expectedLines = new ArrayList<>();
+    for (int i = 0; i < lines; i++) {
+      expectedLines.add("line " + i + ": the quick brown fox jumps over the lazy dog");
+    }
+    oneLineChanged = new ArrayList<>(expectedLines);
+    oneLineChanged.set(lines / 2, "line " + lines / 2 + ": the quick brown fox jumps over the dog");
+    scatteredLinesChanged = new ArrayList<>(expectedLines);
+    for (int i = 0; i < lines; i += SCATTERED_CHANGE_EVERY) {
+      scatteredLinesChanged.set(i, expectedLines.get(i).toUpperCase());
+    }
+
+    Joiner newlines = Joiner.on('\n');
+    expected = newlines.join(expectedLines);
+    actualOneLineChanged = newlines.join(oneLineChanged);
+    actualScatteredLinesChanged = newlines.join(scatteredLinesChanged);
+
+    // About as many characters as the multi-line texts, but with no line breaks.
+    String half = Strings.repeat("the quick brown fox jumps over the lazy dog ", lines / 2);
+    expectedSingleLine = half + "expected" + half;
+    actualSingleLine = half + "actual" + half;
+
+    diffFacts =
+        ImmutableList.<Fact>builder()
+            .add(fact("value of", "report.render()"))
+            .addAll(
+                ComparisonFailures.formatExpectedAndActual(expected, actualScatteredLinesChanged))
+            .add(fact("report was", "Report{id=1234}"))
+            .build();
+    ImmutableList.Builder<Fact> manyFacts = ImmutableList.builder();
+    for (int i = 0; i < lines; i++) {
+      manyFacts.add(fact("key " + Strings.repeat("k", i % 20), "value " + i));
+    }
+    this.manyFacts = manyFacts.build();
+  }
+
+  @Benchmark
+  public ImmutableList<Fact> formatExpectedAndActual_oneLineChanged() {
+    return ComparisonFailures.formatExpectedAndActual(expected, actualOneLineChanged);
+  }
+
+  @Benchmark
+  public ImmutableList<Fact> formatExpectedAndActual_scatteredLinesChanged() {
+    return ComparisonFailures.formatExpectedAndActual(expected, actualScatteredLinesChanged);
+  }
+
+  @Benchmark
+  public ImmutableList<Fact> formatExpectedAndActual_singleLine() {
+    return ComparisonFailures.formatExpectedAndActual(expectedSingleLine, actualSingleLine);
+  }
+
+  @Benchmark
+  public List<String> generateUnifiedDiff_oneLineChanged() {
+    return DiffUtils.generateUnifiedDiff(expectedLines, oneLineChanged, /* contextSize= */ 3);
+  }
+
+  @Benchmark
+  public List<String> generateUnifiedDiff_scatteredLinesChanged() {
+    return DiffUtils.generateUnifiedDiff(
+        expectedLines, scatteredLinesChanged, /* contextSize= */ 3);
+  }
+
+  @Benchmark
+  public String makeMessage_diff() {
+    return Fact.makeMessage(ImmutableList.<String>of(), diffFacts);
+  }
+
+  @Benchmark
+  public String makeMessage_manyFacts() {
+    return Fact.makeMessage(ImmutableList.of("custom message"), manyFacts);
+  }
+}
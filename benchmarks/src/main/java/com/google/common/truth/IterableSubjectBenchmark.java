@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.BenchmarkElement.shuffled;
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link IterableSubject}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterableSubjectBenchmark {
+  @Param({"10", "1000", "100000", "1000000"})
+  int size;
+
+  @Param
+  BenchmarkElement element;
+
+  private List<Object> actual;
+  private List<Object> sameOrder;
+  private List<Object> otherOrder;
+  private List<Object> everyOtherElement;
+  private List<Object> lastElementDifferent;
+  private final FailureCapture failures = new FailureCapture();
+
+  @Setup
+  public void setUp() {
+    actual = element.list(size);
+    sameOrder = new ArrayList<>(actual);
+    otherOrder = shuffled(actual);
+    everyOtherElement = new ArrayList<>();
+    for (int i = 0; i < size; i += 2) {
+      everyOtherElement.add(actual.get(i));
+    }
+    lastElementDifferent = new ArrayList<>(actual);
+    lastElementDifferent.set(size - 1, element.create(size));
+  }
+
+  @Benchmark
+  public void containsExactlyElementsIn_inOrder() {
+    assertThat(actual).containsExactlyElementsIn(sameOrder).inOrder();
+  }
+
+  @Benchmark
+  public void containsExactlyElementsIn_otherOrder() {
+    assertThat(actual).containsExactlyElementsIn(otherOrder);
+  }
+
+  @Benchmark
+  public void containsAtLeastElementsIn() {
+    assertThat(actual).containsAtLeastElementsIn(everyOtherElement).inOrder();
+  }
+
+  @Benchmark
+  public void containsNoDuplicates() {
+    assertThat(actual).containsNoDuplicates();
+  }
+
+  @Benchmark
+  public void contains() {
+    assertThat(actual).contains(sameOrder.get(size - 1));
+  }
+
+  @Benchmark
+  public AssertionError containsExactlyElementsIn_fail() {
+    failures.expect().that(actual).containsExactlyElementsIn(lastElementDifferent);
+    return failures.takeFailure();
+  }
+
+  @Benchmark
+  public AssertionError containsExactlyElementsIn_inOrder_fail() {
+    failures.expect().that(actual).containsExactlyElementsIn(otherOrder).inOrder();
+    return failures.takeFailure();
+  }
+
+  @Benchmark
+  public AssertionError isEqualTo_fail() {
+    failures.expect().that(actual).isEqualTo(lastElementDifferent);
+    return failures.takeFailure();
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.BenchmarkElement.shuffled;
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link MapSubject}. The keys are of the benchmarked element type. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapSubjectBenchmark {
+  private static final Correspondence<Integer, Integer> EQUALITY =
+      Correspondence.from(Integer::equals, "is equal to");
+
+  @Param({"10", "1000", "100000", "1000000"})
+  int size;
+
+  @Param
+  BenchmarkElement element;
+
+  private Map<Object, Integer> actual;
+  private Map<Object, Integer> sameOrder;
+  private Map<Object, Integer> otherOrder;
+  private Map<Object, Integer> tenEntries;
+  private Map<Object, Integer> lastValueDifferent;
+  private final FailureCapture failures = new FailureCapture();
+
+  @Setup
+  public void setUp() {
+    List<Object> keys = element.list(size);
+    actual = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      actual.put(keys.get(i), i);
+    }
+    sameOrder = new LinkedHashMap<>(actual);
+    otherOrder = new LinkedHashMap<>();
+    for (Object key : shuffled(keys)) {
+      otherOrder.put(key, actual.get(key));
+    }
+    tenEntries = new LinkedHashMap<>();
+    for (int i = 0; i < size; i += size / 10) {
+      tenEntries.put(keys.get(i), i);
+    }
+    lastValueDifferent = new LinkedHashMap<>(actual);
+    lastValueDifferent.put(keys.get(size - 1), -1);
+  }
+
+  @Benchmark
+  public void containsExactlyEntriesIn_inOrder() {
+    assertThat(actual).containsExactlyEntriesIn(sameOrder).inOrder();
+  }
+
+  @Benchmark
+  public void containsExactlyEntriesIn_otherOrder() {
+    assertThat(actual).containsExactlyEntriesIn(otherOrder);
+  }
+
+  @Benchmark
+  public void containsAtLeastEntriesIn_fewEntries() {
+    assertThat(actual).containsAtLeastEntriesIn(tenEntries).inOrder();
+  }
+
+  @Benchmark
+  public void isEqualTo() {
+    assertThat(actual).isEqualTo(otherOrder);
+  }
+
+  @Benchmark
+  public void comparingValuesUsing_containsExactlyEntriesIn() {
+    assertThat(actual).comparingValuesUsing(EQUALITY).containsExactlyEntriesIn(otherOrder);
+  }
+
+  @Benchmark
+  public AssertionError containsExactlyEntriesIn_fail() {
+    failures.expect().that(actual).containsExactlyEntriesIn(lastValueDifferent);
+    return failures.takeFailure();
+  }
+
+  @Benchmark
+  public AssertionError containsExactlyEntriesIn_inOrder_fail() {
+    failures.expect().that(actual).containsExactlyEntriesIn(otherOrder).inOrder();
+    return failures.takeFailure();
+  }
+
+  @Benchmark
+  public AssertionError comparingValuesUsing_containsExactlyEntriesIn_fail() {
+    failures
+        .expect()
+        .that(actual)
+        .comparingValuesUsing(EQUALITY)
+        .containsExactlyEntriesIn(lastValueDifferent);
+    return failures.takeFailure();
+  }
+}
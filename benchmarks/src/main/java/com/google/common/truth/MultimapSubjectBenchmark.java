@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.BenchmarkElement.shuffled;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link MultimapSubject}. The multimaps have {@code size} entries, with {@link
+ * #VALUES_PER_KEY} values for each key, and the keys are of the benchmarked element type. The
+ * "other order" multimap has both the keys and each key's values in a different order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultimapSubjectBenchmark {
+  private static final int VALUES_PER_KEY = 10;
+
+  private static final Correspondence<Integer, Integer> EQUALITY =
+      Correspondence.from(Integer::equals, "is equal to");
+
+  @Param({"10", "1000", "100000", "1000000"})
+  int size;
+
+  @Param
+  BenchmarkElement element;
+
+  private ListMultimap<Object, Integer> actual;
+  private ListMultimap<Object, Integer> sameOrder;
+  private ListMultimap<Object, Integer> otherOrder;
+  private ListMultimap<Object, Integer> firstKey;
+  private ListMultimap<Object, Integer> lastValueDifferent;
+  private final FailureCapture failures = new FailureCapture();
+
+  @Setup
+  public void setUp() {
+    List<Object> keys = element.list(size / VALUES_PER_KEY);
+    actual = LinkedListMultimap.create();
+    for (int i = 0; i < size; i++) {
+      actual.put(keys.get(i / VALUES_PER_KEY), i);
+    }
+    sameOrder = LinkedListMultimap.create(actual);
+    otherOrder = LinkedListMultimap.create();
+    for (Object key : shuffled(keys)) {
+      otherOrder.putAll(key, Lists.reverse(actual.get(key)));
+    }
+    firstKey = LinkedListMultimap.create();
+    firstKey.putAll(keys.get(0), actual.get(keys.get(0)));
+    lastValueDifferent = LinkedListMultimap.create(actual);
+    lastValueDifferent.put(keys.get(keys.size() - 1), -1);
+    lastValueDifferent.remove(keys.get(keys.size() - 1), size - 1);
+  }
+
+  @Benchmark
+  public void containsExactlyEntriesIn_inOrder() {
+    assertThat(actual).containsExactlyEntriesIn(sameOrder).inOrder();
+  }
+
+  @Benchmark
+  public void containsExactlyEntriesIn_otherOrder() {
+    assertThat(actual).containsExactlyEntriesIn(otherOrder);
+  }
+
+  @Benchmark
+  public void containsAtLeastEntriesIn_oneKey() {
+    assertThat(actual).containsAtLeastEntriesIn(firstKey);
+  }
+
+  @Benchmark
+  public void comparingValuesUsing_containsExactlyEntriesIn() {
+    assertThat(actual).comparingValuesUsing(EQUALITY).containsExactlyEntriesIn(otherOrder);
+  }
+
+  @Benchmark
+  public AssertionError containsExactlyEntriesIn_fail() {
+    failures.expect().that(actual).containsExactlyEntriesIn(lastValueDifferent);
+    return failures.takeFailure();
+  }
+
+  @Benchmark
+  public AssertionError containsExactlyEntriesIn_inOrder_fail() {
+    failures.expect().that(actual).containsExactlyEntriesIn(otherOrder).inOrder();
+    return failures.takeFailure();
+  }
+}
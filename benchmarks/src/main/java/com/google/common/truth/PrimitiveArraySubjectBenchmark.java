@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.primitives.Ints;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for the primitive array subjects. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveArraySubjectBenchmark {
+  @Param({"10", "1000", "100000", "1000000"})
+  int size;
+
+  private int[] ints;
+  private int[] equalInts;
+  private int[] lastIntDifferent;
+  private byte[] bytes;
+  private byte[] equalBytes;
+  private byte[] lastByteDifferent;
+  private double[] doubles;
+  private double[] nearbyDoubles;
+  private double[] lastDoubleDifferent;
+  private final FailureCapture failures = new FailureCapture();
+
+  @Setup
+  public void setUp() {
+    ints = new int[size];
+    bytes = new byte[size];
+    doubles = new double[size];
+    nearbyDoubles = new double[size];
+    for (int i = 0; i < size; i++) {
+      ints[i] = i;
+      bytes[i] = (byte) i;
+      doubles[i] = i;
+      nearbyDoubles[i] = i + 0.001;
+    }
+    equalInts = ints.clone();
+    lastIntDifferent = ints.clone();
+    lastIntDifferent[size - 1] = -1;
+    equalBytes = bytes.clone();
+    lastByteDifferent = bytes.clone();
+    lastByteDifferent[size - 1] ^= 1;
+    lastDoubleDifferent = doubles.clone();
+    lastDoubleDifferent[size - 1] = -1;
+  }
+
+  @Benchmark
+  public void intArray_isEqualTo() {
+    assertThat(ints).isEqualTo(equalInts);
+  }
+
+  @Benchmark
+  public void byteArray_isEqualTo() {
+    assertThat(bytes).isEqualTo(equalBytes);
+  }
+
+  @Benchmark
+  public void doubleArray_usingTolerance_containsExactly() {
+    assertThat(doubles).usingTolerance(0.01).containsExactly(nearbyDoubles).inOrder();
+  }
+
+  @Benchmark
+  public void intArray_asList_containsExactlyElementsIn() {
+    assertThat(ints).asList().containsExactlyElementsIn(Ints.asList(equalInts)).inOrder();
+  }
+
+  @Benchmark
+  public void intArray_hasLength() {
+    assertThat(ints).hasLength(size);
+  }
+
+  @Benchmark
+  public AssertionError intArray_isEqualTo_fail() {
+    failures.expect().that(ints).isEqualTo(lastIntDifferent);
+    return failures.takeFailure();
+  }
+
+  @Benchmark
+  public AssertionError byteArray_isEqualTo_fail() {
+    failures.expect().that(bytes).isEqualTo(lastByteDifferent);
+    return failures.takeFailure();
+  }
+
+  @Benchmark
+  public AssertionError doubleArray_usingTolerance_containsExactly_fail() {
+    failures.expect().that(doubles).usingTolerance(0.01).containsExactly(lastDoubleDifferent);
+    return failures.takeFailure();
+  }
+}
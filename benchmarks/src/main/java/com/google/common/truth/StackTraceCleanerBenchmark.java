@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link StackTraceCleaner}, on synthetic stack traces like those of a failure in a
+ * JUnit 4 test: Truth frames on top, then the test and its helpers, then JUnit's rules and runners.
+ * The cleaner looks at, and loads the class of, every frame.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackTraceCleanerBenchmark {
+  private static final String TEST_CLASS = StackTraceCleanerBenchmark.class.getName();
+
+  private static final StackTraceElement[] TRUTH_FRAMES = {
+    frame(FailureMetadata.class.getName(), "doFail"),
+    frame(FailureMetadata.class.getName(), "fail"),
+    frame(Subject.class.getName(), "failEqualityCheck"),
+    frame(Subject.class.getName(), "standardIsEqualTo"),
+    frame(Subject.class.getName(), "isEqualTo"),
+  };
+
+  /**
+   * Frames between the test and JUnit, repeated as needed: test helpers that call each other
+   * reflectively and through futures, whose frames the cleaner collapses.
+   */
+  private static final StackTraceElement[] MIDDLE_FRAMES = {
+    frame(TEST_CLASS, "withFixture"),
+    frame(
+        "com.google.common.util.concurrent.AbstractTransformFuture$TransformFuture", "doTransform"),
+    frame("com.google.common.util.concurrent.AbstractTransformFuture", "run"),
+    frame("com.google.common.util.concurrent.DirectExecutor", "execute"),
+    frame("com.google.common.util.concurrent.AbstractFuture", "addListener"),
+    frame(TEST_CLASS, "inFixture"),
+    frame("jdk.internal.reflect.NativeMethodAccessorImpl", "invoke0"),
+    frame("jdk.internal.reflect.NativeMethodAccessorImpl", "invoke"),
+    frame("jdk.internal.reflect.DelegatingMethodAccessorImpl", "invoke"),
+    frame("java.lang.reflect.Method", "invoke"),
+  };
+
+  private static final StackTraceElement[] RUNNER_FRAMES = {
+    frame("org.junit.runners.model.FrameworkMethod$1", "runReflectiveCall"),
+    frame("org.junit.internal.runners.model.ReflectiveCallable", "run"),
+    frame("org.junit.runners.model.FrameworkMethod", "invokeExplosively"),
+    frame("org.junit.internal.runners.statements.InvokeMethod", "evaluate"),
+    frame("org.junit.internal.runners.statements.RunBefores", "evaluate"),
+    frame("org.junit.rules.ExternalResource$1", "evaluate"),
+    frame("org.junit.rules.RunRules", "evaluate"),
+    frame("org.junit.runners.ParentRunner$3", "evaluate"),
+    frame("org.junit.runners.BlockJUnit4ClassRunner$1", "evaluate"),
+    frame("org.junit.runners.ParentRunner", "runLeaf"),
+    frame("org.junit.runners.BlockJUnit4ClassRunner", "runChild"),
+    frame("org.junit.runners.ParentRunner$4", "run"),
+    frame("org.junit.runners.ParentRunner$1", "schedule"),
+    frame("org.junit.runners.ParentRunner", "runChildren"),
+    frame("org.junit.runners.ParentRunner$2", "evaluate"),
+    frame("org.junit.runners.ParentRunner", "run"),
+    frame("org.junit.runners.Suite", "runChild"),
+    frame("org.junit.runner.JUnitCore", "run"),
+    frame("org.junit.runner.JUnitCore", "runMain"),
+    frame("org.junit.runner.JUnitCore", "main"),
+  };
+
+  @Param({"20", "200"})
+  int frames;
+
+  private StackTraceElement[] stackTrace;
+
+  @Setup
+  public void setUp() {
+    List<StackTraceElement> stackTrace = new ArrayList<>();
+    stackTrace.addAll(Arrays.asList(TRUTH_FRAMES));
+    stackTrace.add(frame(TEST_CLASS, "assertReportMatches"));
+    stackTrace.add(frame(TEST_CLASS, "testReport"));
+    for (int i = 0; stackTrace.size() < frames - RUNNER_FRAMES.length; i++) {
+      stackTrace.add(MIDDLE_FRAMES[i % MIDDLE_FRAMES.length]);
+    }
+    stackTrace.addAll(Arrays.asList(RUNNER_FRAMES));
+    this.stackTrace = stackTrace.toArray(new StackTraceElement[0]);
+  }
+
+  private static StackTraceElement frame(String className, String methodName) {
+    return new StackTraceElement(className, methodName, className + ".java", 42);
+  }
+
+  @Benchmark
+  public AssertionError cleanStackTrace() {
+    AssertionError failure = new AssertionError("failure");
+    failure.setStackTrace(stackTrace);
+    StackTraceCleaner.cleanStackTrace(failure);
+    return failure;
+  }
+
+  @Benchmark
+  public AssertionError cleanStackTrace_withCause() {
+    Exception cause = new IllegalStateException("cause");
+    cause.setStackTrace(stackTrace);
+    AssertionError failure = new AssertionError("failure", cause);
+    failure.setStackTrace(stackTrace);
+    StackTraceCleaner.cleanStackTrace(failure);
+    return failure;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the messages for the proto benchmarks. Messages built with the same arguments are equal
+ * but not the same instances, so comparisons can't take shortcuts through identity.
+ */
+final class BenchmarkMessages {
+  /** How many levels of {@code child} messages hang under each root message. */
+  static final int DEPTH = 32;
+
+  /** One in this many items carries unknown fields. */
+  private static final int UNKNOWN_FIELDS_EVERY = 10;
+
+  /** The difference in weights between the "nearby" messages and the others. */
+  static final double WEIGHT_OFFSET = 1e-9;
+
+  /** How a message differs from the one built from the same size and {@code SAME}. */
+  enum Variant {
+    /** Equal to the {@code SAME} message of the same size. */
+    SAME,
+    /** Differs from {@code SAME} in the last item's label and in the deepest child's name. */
+    CHANGED,
+    /** Differs from {@code SAME} only by {@link #WEIGHT_OFFSET} in the items' weights. */
+    NEARBY
+  }
+
+  /**
+   * Returns a message with {@code size} repeated values and items, a map of a tenth as many items,
+   * Any payloads, and {@link #DEPTH} levels of child messages.
+   */
+  static BenchmarkMessage message(int size, Variant variant) {
+    BenchmarkMessage.Builder root = BenchmarkMessage.newBuilder();
+    fillScalars(root, 0);
+    double weightOffset = variant == Variant.NEARBY ? WEIGHT_OFFSET : 0;
+    for (int i = 0; i < size; i++) {
+      root.addValues(i * 31L);
+      root.addItems(item(i, weightOffset));
+    }
+    for (int i = 0; i < Math.max(1, size / 10); i++) {
+      root.putItemsByName("item" + i, item(i, weightOffset));
+    }
+    root.setPayload(Any.pack(item(-1, 0)));
+    for (int i = 0; i < 3; i++) {
+      root.addPayloads(Any.pack(item(-2 - i, 0)));
+    }
+    if (variant == Variant.CHANGED && size > 0) {
+      root.setItems(size - 1, root.getItems(size - 1).toBuilder().setLabel("changed"));
+    }
+
+    BenchmarkMessage child = null;
+    for (int depth = DEPTH; depth > 0; depth--) {
+      BenchmarkMessage.Builder builder = BenchmarkMessage.newBuilder();
+      fillScalars(builder, depth);
+      builder.addItems(item(depth, 0));
+      builder.setPayload(Any.pack(item(depth, 0)));
+      if (child != null) {
+        builder.setChild(child);
+      } else if (variant == Variant.CHANGED) {
+        builder.setName("changed");
+      }
+      child = builder.build();
+    }
+    return root.setChild(child).build();
+  }
+
+  /**
+   * Returns a copy of {@code list} in which the elements of each consecutive block of {@code
+   * window} elements are shuffled, the same way in every run.
+   */
+  static <T> List<T> shuffledWithin(List<T> list, int window) {
+    List<T> result = new ArrayList<>(list);
+    Random random = new Random(0);
+    for (int start = 0; start < result.size(); start += window) {
+      Collections.shuffle(
+          result.subList(start, Math.min(start + window, result.size())), random);
+    }
+    return result;
+  }
+
+  private static void fillScalars(BenchmarkMessage.Builder builder, int id) {
+    builder.setId(id).setName("message" + id).setScore(id * 0.5).setRatio(id * 0.25f);
+  }
+
+  private static BenchmarkItem item(int id, double weightOffset) {
+    BenchmarkItem item =
+        BenchmarkItem.newBuilder()
+            .setId(id)
+            .setLabel("item" + id)
+            .setWeight(id * 0.1 + weightOffset)
+            .addTags("tag" + id % 7)
+            .addTags("tag" + id % 11)
+            .build();
+    if (id % UNKNOWN_FIELDS_EVERY != 0) {
+      return item;
+    }
+    try {
+      BenchmarkItemWithExtras withExtras =
+          BenchmarkItemWithExtras.newBuilder()
+              .mergeFrom(item.toByteString())
+              .setNote("note" + id)
+              .addHistory(id)
+              .addHistory(id + 1L)
+              .setRelated(BenchmarkItem.newBuilder().setId(id + 1))
+              .build();
+      return BenchmarkItem.parseFrom(withExtras.toByteString());
+    } catch (InvalidProtocolBufferException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private BenchmarkMessages() {}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.extensions.proto.BenchmarkMessages.message;
+
+import com.google.common.truth.extensions.proto.BenchmarkMessages.Variant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for building field scopes from messages: {@link FieldScopes#fromSetFields}, which
+ * also renders the messages for the scope's description, and the {@link FieldNumberTree} that such
+ * a scope is built on, including the trees of unknown fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldScopesBenchmark {
+  @Param({"10", "1000", "100000"})
+  int size;
+
+  private BenchmarkMessage message;
+  private List<BenchmarkItem> items;
+
+  @Setup
+  public void setUp() {
+    message = message(size, Variant.SAME);
+    items = message.getItemsList();
+  }
+
+  @Benchmark
+  public FieldNumberTree fieldNumberTree_fromMessage() {
+    return FieldNumberTree.fromMessage(message);
+  }
+
+  @Benchmark
+  public FieldNumberTree fieldNumberTree_fromMessages() {
+    return FieldNumberTree.fromMessages(items);
+  }
+
+  @Benchmark
+  public FieldScope fromSetFields_message() {
+    return FieldScopes.fromSetFields(message);
+  }
+
+  @Benchmark
+  public FieldScope fromSetFields_items() {
+    return FieldScopes.fromSetFields(items);
+  }
+}
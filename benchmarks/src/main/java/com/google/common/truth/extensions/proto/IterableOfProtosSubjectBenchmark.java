@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.extensions.proto.BenchmarkMessages.message;
+import static com.google.common.truth.extensions.proto.BenchmarkMessages.shuffledWithin;
+import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
+
+import com.google.common.truth.FailureCapture;
+import com.google.common.truth.extensions.proto.BenchmarkMessages.Variant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link IterableOfProtosSubject}, whose fluent configs compare elements through a
+ * correspondence. The iterables hold {@code size} items, each a small message, some with unknown
+ * fields. The sizes stop at 1000 because unordered comparisons through a correspondence may compare
+ * every pair of elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterableOfProtosSubjectBenchmark {
+  @Param({"10", "100", "1000"})
+  int size;
+
+  private List<BenchmarkItem> actual;
+  private List<BenchmarkItem> same;
+  private List<BenchmarkItem> shuffled;
+  private List<BenchmarkItem> nearby;
+  private List<BenchmarkItem> lastChanged;
+  private final FailureCapture failures = new FailureCapture();
+
+  @Setup
+  public void setUp() {
+    actual = message(size, Variant.SAME).getItemsList();
+    same = new ArrayList<>(message(size, Variant.SAME).getItemsList());
+    shuffled = shuffledWithin(same, 16);
+    nearby = message(size, Variant.NEARBY).getItemsList();
+    lastChanged = message(size, Variant.CHANGED).getItemsList();
+  }
+
+  @Benchmark
+  public void containsExactlyElementsIn_inOrder() {
+    assertThat(actual).containsExactlyElementsIn(same).inOrder();
+  }
+
+  @Benchmark
+  public void ignoringFields_containsExactlyElementsIn_inOrder() {
+    assertThat(actual)
+        .ignoringFields(BenchmarkItem.LABEL_FIELD_NUMBER)
+        .containsExactlyElementsIn(lastChanged)
+        .inOrder();
+  }
+
+  @Benchmark
+  public void usingDoubleTolerance_containsExactlyElementsIn() {
+    assertThat(actual).usingDoubleTolerance(1e-6).containsExactlyElementsIn(nearby);
+  }
+
+  @Benchmark
+  public void ignoringRepeatedFieldOrder_containsExactlyElementsIn_shuffled() {
+    assertThat(actual).ignoringRepeatedFieldOrder().containsExactlyElementsIn(shuffled);
+  }
+
+  @Benchmark
+  public void ignoringFieldAbsence_containsAtLeastElementsIn() {
+    assertThat(actual)
+        .ignoringFieldAbsence()
+        .containsAtLeastElementsIn(same.subList(0, Math.min(size, 10)));
+  }
+
+  @Benchmark
+  public AssertionError ignoringFieldAbsence_containsExactlyElementsIn_fail() {
+    failures
+        .expect()
+        .about(ProtoTruth.protos())
+        .that(actual)
+        .ignoringFieldAbsence()
+        .containsExactlyElementsIn(lastChanged);
+    return failures.takeFailure();
+  }
+}
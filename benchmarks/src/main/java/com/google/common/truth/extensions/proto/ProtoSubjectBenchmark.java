@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.extensions.proto.BenchmarkMessages.message;
+import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
+
+import com.google.common.truth.FailureCapture;
+import com.google.common.truth.extensions.proto.BenchmarkMessages.Variant;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.TypeRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link ProtoSubject#isEqualTo} with the default config and with the fluent
+ * configs, on the messages of {@link BenchmarkMessages}. Each benchmark is one comparison, so JMH's
+ * GC profiler reports the allocations per comparison as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtoSubjectBenchmark {
+  private static final TypeRegistry TYPE_REGISTRY =
+      TypeRegistry.newBuilder().add(BenchmarkItem.getDescriptor()).build();
+  private static final FieldDescriptor NAME =
+      BenchmarkMessage.getDescriptor().findFieldByNumber(BenchmarkMessage.NAME_FIELD_NUMBER);
+  private static final FieldDescriptor LABEL =
+      BenchmarkItem.getDescriptor().findFieldByNumber(BenchmarkItem.LABEL_FIELD_NUMBER);
+
+  @Param({"10", "1000", "100000"})
+  int size;
+
+  private BenchmarkMessage actual;
+  private BenchmarkMessage same;
+  private BenchmarkMessage changed;
+  private BenchmarkMessage nearby;
+  private FieldScope setFieldsOfExpected;
+  private final FailureCapture failures = new FailureCapture();
+
+  @Setup
+  public void setUp() {
+    actual = message(size, Variant.SAME);
+    same = message(size, Variant.SAME);
+    changed = message(size, Variant.CHANGED);
+    nearby = message(size, Variant.NEARBY);
+    setFieldsOfExpected = FieldScopes.fromSetFields(same);
+  }
+
+  @Benchmark
+  public void isEqualTo() {
+    assertThat(actual).isEqualTo(same);
+  }
+
+  @Benchmark
+  public void ignoringFieldAbsence_isEqualTo() {
+    assertThat(actual).ignoringFieldAbsence().isEqualTo(same);
+  }
+
+  @Benchmark
+  public void ignoringFields_isEqualTo() {
+    assertThat(actual).ignoringFields(BenchmarkMessage.SCORE_FIELD_NUMBER).isEqualTo(same);
+  }
+
+  @Benchmark
+  public void ignoringFieldDescriptors_isEqualTo() {
+    // The fields in which the changed message differs, at every level.
+    assertThat(actual).ignoringFieldDescriptors(NAME, LABEL).isEqualTo(changed);
+  }
+
+  @Benchmark
+  public void ignoringExtraRepeatedFieldElements_isEqualTo() {
+    assertThat(actual).ignoringExtraRepeatedFieldElements().isEqualTo(same);
+  }
+
+  @Benchmark
+  public void usingDoubleTolerance_isEqualTo() {
+    assertThat(actual).usingDoubleTolerance(1e-6).isEqualTo(nearby);
+  }
+
+  @Benchmark
+  public void withPartialScope_fromSetFields_isEqualTo() {
+    assertThat(actual).withPartialScope(setFieldsOfExpected).isEqualTo(same);
+  }
+
+  @Benchmark
+  public void withPartialScope_newFromSetFields_isEqualTo() {
+    // Includes building the scope's field number tree, which the scope caches.
+    assertThat(actual).withPartialScope(FieldScopes.fromSetFields(same)).isEqualTo(same);
+  }
+
+  @Benchmark
+  public void comparingExpectedFieldsOnly_isEqualTo() {
+    assertThat(actual).comparingExpectedFieldsOnly().isEqualTo(same);
+  }
+
+  @Benchmark
+  public void unpackingAnyUsing_isEqualTo() {
+    assertThat(actual)
+        .unpackingAnyUsing(TYPE_REGISTRY, ExtensionRegistry.getEmptyRegistry())
+        .isEqualTo(same);
+  }
+
+  @Benchmark
+  public AssertionError isEqualTo_fail() {
+    failures.expect().about(ProtoTruth.protos()).that(actual).isEqualTo(changed);
+    return failures.takeFailure();
+  }
+
+  @Benchmark
+  public AssertionError reportingMismatchesOnly_isEqualTo_fail() {
+    failures
+        .expect()
+        .about(ProtoTruth.protos())
+        .that(actual)
+        .reportingMismatchesOnly()
+        .isEqualTo(changed);
+    return failures.takeFailure();
+  }
+}
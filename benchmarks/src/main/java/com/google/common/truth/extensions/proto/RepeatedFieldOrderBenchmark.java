@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.extensions.proto.BenchmarkMessages.message;
+import static com.google.common.truth.extensions.proto.BenchmarkMessages.shuffledWithin;
+import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
+
+import com.google.common.truth.FailureCapture;
+import com.google.common.truth.extensions.proto.BenchmarkMessages.Variant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@code ignoringRepeatedFieldOrder()}. The expected message has its repeated values
+ * and items shuffled within consecutive blocks of {@code window} elements. Matching is greedy, so
+ * it costs about {@code size * window} element comparisons: pass {@code -p window=<size>} to
+ * measure a full shuffle, which is quadratic and slow at the larger sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepeatedFieldOrderBenchmark {
+  @Param({"10", "1000", "100000"})
+  int size;
+
+  @Param({"16"})
+  int window;
+
+  private BenchmarkMessage actual;
+  private BenchmarkMessage shuffled;
+  private BenchmarkMessage shuffledAndChanged;
+  private final FailureCapture failures = new FailureCapture();
+
+  @Setup
+  public void setUp() {
+    actual = message(size, Variant.SAME);
+    shuffled = shuffle(message(size, Variant.SAME));
+    shuffledAndChanged = shuffle(message(size, Variant.CHANGED));
+  }
+
+  private BenchmarkMessage shuffle(BenchmarkMessage message) {
+    return message.toBuilder()
+        .clearValues()
+        .addAllValues(shuffledWithin(message.getValuesList(), window))
+        .clearItems()
+        .addAllItems(shuffledWithin(message.getItemsList(), window))
+        .build();
+  }
+
+  @Benchmark
+  public void ignoringRepeatedFieldOrder_isEqualTo() {
+    assertThat(actual).ignoringRepeatedFieldOrder().isEqualTo(shuffled);
+  }
+
+  @Benchmark
+  public void ignoringRepeatedFieldOrder_ignoringExtraRepeatedFieldElements_isEqualTo() {
+    assertThat(actual)
+        .ignoringRepeatedFieldOrder()
+        .ignoringExtraRepeatedFieldElements()
+        .isEqualTo(shuffled);
+  }
+
+  @Benchmark
+  public AssertionError ignoringRepeatedFieldOrder_isEqualTo_fail() {
+    failures
+        .expect()
+        .about(ProtoTruth.protos())
+        .that(actual)
+        .ignoringRepeatedFieldOrder()
+        .isEqualTo(shuffledAndChanged);
+    return failures.takeFailure();
+  }
+}
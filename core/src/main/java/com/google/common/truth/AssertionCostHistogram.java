@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link AssertionListener} that records how long assertions take at each call site and, when
+ * the JVM exits, prints the call sites that took the most time in total to {@code System.err}.
+ *
+ * <p>To use it, run tests with {@code
+ * -Dcom.google.common.truth.assertion_listener=com.google.common.truth.AssertionCostHistogram}.
+ * The number of call sites printed is 20, or the value of the {@code
+ * com.google.common.truth.assertion_cost_histogram_size} system property.
+ *
+ * <p>A call site is the first stack frame outside Truth, so recording an assertion costs a stack
+ * walk. As {@link AssertionListener} explains, an assertion's time runs until it fails or the next
+ * one starts, so the last assertion of a test is charged for whatever runs before the thread's next
+ * assertion. Durations are kept in power-of-two buckets, so the percentiles reported are upper
+ * bounds that may be up to twice the true value.
+ */
+@GwtIncompatible("java.util.concurrent.atomic.AtomicLongArray")
+public final class AssertionCostHistogram implements AssertionListener {
+  static final String SIZE_PROPERTY = "com.google.common.truth.assertion_cost_histogram_size";
+  private static final int DEFAULT_SIZE = 20;
+
+  private final ConcurrentMap<String, CallSite> callSites = new ConcurrentHashMap<>();
+  private final ThreadLocal<String> currentCallSite = new ThreadLocal<>();
+
+  /** Creates a histogram that prints its report when the JVM exits. */
+  public AssertionCostHistogram() {
+    this(/* printAtExit= */ true);
+  }
+
+  @VisibleForTesting
+  AssertionCostHistogram(boolean printAtExit) {
+    if (printAtExit) {
+      final int size = reportSize();
+      Runtime.getRuntime()
+          .addShutdownHook(
+              new Thread("Truth assertion cost report") {
+                @Override
+                public void run() {
+                  printReport(System.err, size);
+                }
+              });
+    }
+  }
+
+  @Override
+  public void assertionStarted(Class<? extends Subject> subjectClass, long actualSize) {
+    // The assertion finishes only once the test has moved on, so find its call site now.
+    currentCallSite.set(callSite());
+  }
+
+  @Override
+  public void assertionFinished(
+      Class<? extends Subject> subjectClass, long actualSize, long elapsedNanos) {
+    String key = currentCallSite.get() + " " + subjectClass.getSimpleName();
+    currentCallSite.remove();
+    CallSite callSite = callSites.get(key);
+    if (callSite == null) {
+      CallSite newCallSite = new CallSite(key);
+      callSite = callSites.putIfAbsent(key, newCallSite);
+      if (callSite == null) {
+        callSite = newCallSite;
+      }
+    }
+    callSite.record(elapsedNanos, actualSize);
+  }
+
+  @Override
+  public void failureConstructed(
+      @Nullable Class<? extends Subject> subjectClass,
+      int messageLength,
+      int factCount,
+      long stackCleaningNanos,
+      long inferenceNanos,
+      long diffNanos) {
+    // Building the failure is part of the assertion, whose total time is recorded anyway.
+  }
+
+  /** Prints the {@code size} call sites that took the most time in total. */
+  void printReport(PrintStream out, int size) {
+    List<CallSite> sorted = new ArrayList<>(callSites.values());
+    if (sorted.isEmpty()) {
+      return;
+    }
+    Collections.sort(
+        sorted,
+        new Comparator<CallSite>() {
+          @Override
+          public int compare(CallSite a, CallSite b) {
+            long aTotal = a.totalNanos.get();
+            long bTotal = b.totalNanos.get();
+            return aTotal < bTotal ? 1 : aTotal > bTotal ? -1 : 0;
+          }
+        });
+    out.println(
+        "Truth assertion costs: top "
+            + Math.min(size, sorted.size())
+            + " of "
+            + sorted.size()
+            + " call sites by total time");
+    out.println(
+        String.format(
+            Locale.ROOT,
+            "%12s %10s %10s %10s %10s %10s  %s",
+            "total ms",
+            "count",
+            "p50 us",
+            "p99 us",
+            "max us",
+            "max size",
+            "call site"));
+    for (CallSite callSite : sorted.subList(0, Math.min(size, sorted.size()))) {
+      out.println(callSite.describe());
+    }
+    out.flush();
+  }
+
+  /** Returns the first frame of the current stack that is not in Truth or the JDK. */
+  private static String callSite() {
+    for (StackTraceElement frame : new Throwable().getStackTrace()) {
+      String className = frame.getClassName();
+      if (!isTruthOrJdk(className)) {
+        return frame.toString();
+      }
+    }
+    return "(unknown)";
+  }
+
+  private static boolean isTruthOrJdk(String className) {
+    if (className.startsWith("java.") || className.startsWith("sun.")) {
+      return true;
+    }
+    if (!className.startsWith("com.google.common.truth.")) {
+      return false;
+    }
+    // Truth's own tests are call sites, too.
+    int nested = className.indexOf('$');
+    String outer = nested < 0 ? className : className.substring(0, nested);
+    return !outer.endsWith("Test");
+  }
+
+  private static int reportSize() {
+    // Reading system properties might be forbidden.
+    try {
+      String size = System.getProperty(SIZE_PROPERTY);
+      return size == null ? DEFAULT_SIZE : Integer.parseInt(size.trim());
+    } catch (SecurityException e) {
+      return DEFAULT_SIZE;
+    } catch (NumberFormatException e) {
+      return DEFAULT_SIZE;
+    }
+  }
+
+  private static final class CallSite {
+    final String key;
+    final AtomicLong count = new AtomicLong();
+    final AtomicLong totalNanos = new AtomicLong();
+    final AtomicLong maxNanos = new AtomicLong();
+    final AtomicLong maxSize = new AtomicLong(-1);
+    // buckets[i] counts durations in [2^i, 2^(i+1)) nanoseconds; buckets[0] also counts 0.
+    final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+
+    CallSite(String key) {
+      this.key = key;
+    }
+
+    void record(long elapsedNanos, long size) {
+      long nanos = Math.max(elapsedNanos, 0);
+      count.incrementAndGet();
+      totalNanos.addAndGet(nanos);
+      raiseTo(maxNanos, nanos);
+      raiseTo(maxSize, size);
+      buckets.incrementAndGet(nanos == 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /** Returns an upper bound on the given percentile of the durations, in nanoseconds. */
+    long percentileNanos(int percentile) {
+      long total = 0;
+      for (int i = 0; i < buckets.length(); i++) {
+        total += buckets.get(i);
+      }
+      long rank = (total * percentile + 99) / 100;
+      long seen = 0;
+      for (int i = 0; i < buckets.length(); i++) {
+        seen += buckets.get(i);
+        if (seen >= rank && seen > 0) {
+          return i >= Long.SIZE - 2 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+        }
+      }
+      return maxNanos.get();
+    }
+
+    String describe() {
+      return String.format(
+          Locale.ROOT,
+          "%12.3f %10d %10.1f %10.1f %10.1f %10s  %s",
+          totalNanos.get() / 1e6,
+          count.get(),
+          Math.min(percentileNanos(50), maxNanos.get()) / 1e3,
+          Math.min(percentileNanos(99), maxNanos.get()) / 1e3,
+          maxNanos.get() / 1e3,
+          maxSize.get() < 0 ? "-" : Long.toString(maxSize.get()),
+          key);
+    }
+
+    private static void raiseTo(AtomicLong max, long value) {
+      for (long current = max.get(); value > current; current = max.get()) {
+        if (max.compareAndSet(current, value)) {
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Table;
+import java.lang.reflect.Array;
+import java.nio.Buffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Notifies the {@link AssertionListener}s, if there are any, of each assertion and each failure,
+ * along with the time spent building the failure.
+ *
+ * <p>{@link FailureMetadata} calls this when a subject is created for a new assertion and when a
+ * failure is reported, so that every assertion is covered, whichever subject it is made on, without
+ * each assertion method having to announce itself.
+ */
+@GwtIncompatible("java.util.ServiceLoader")
+final class AssertionInstrumentation {
+  static final String LISTENER_PROPERTY = "com.google.common.truth.assertion_listener";
+
+  /** The parts of building a failure that are timed separately. */
+  enum Phase {
+    STACK_CLEANING,
+    INFERENCE,
+    DIFF,
+  }
+
+  // A constant, so that when it's null the JIT can drop the hooks entirely.
+  private static final @Nullable AssertionListener LISTENER = loadListener();
+
+  private static final ThreadLocal<ThreadState> STATE =
+      new ThreadLocal<ThreadState>() {
+        @Override
+        protected ThreadState initialValue() {
+          return new ThreadState();
+        }
+      };
+
+  /** What is in progress on one thread. */
+  private static final class ThreadState {
+    // The assertion in progress, if any, and when it started.
+    @Nullable Class<? extends Subject> subjectClass;
+    long actualSize;
+    long startNanos;
+
+    // The number of phases in progress, and the time spent in each since the last failure.
+    int phaseDepth;
+    final long[] phaseNanos = new long[Phase.values().length];
+  }
+
+  private AssertionInstrumentation() {}
+
+  /**
+   * Finishes the assertion in progress on this thread, if any, and starts a new one whose subject
+   * is {@code subject}.
+   */
+  static void start(Subject subject) {
+    AssertionListener listener = LISTENER;
+    if (listener == null) {
+      return;
+    }
+    ThreadState state = STATE.get();
+    finish(listener, state);
+    Class<? extends Subject> subjectClass = subject.getClass();
+    long actualSize = sizeOf(subject.actual());
+    // If the listener throws, the assertion is never started, so it is never finished either.
+    listener.assertionStarted(subjectClass, actualSize);
+    state.subjectClass = subjectClass;
+    state.actualSize = actualSize;
+    Arrays.fill(state.phaseNanos, 0);
+    state.startNanos = System.nanoTime();
+  }
+
+  /** Finishes the assertion in progress on this thread, if any. */
+  @VisibleForTesting
+  static void finish() {
+    AssertionListener listener = LISTENER;
+    if (listener == null) {
+      return;
+    }
+    finish(listener, STATE.get());
+  }
+
+  private static void finish(AssertionListener listener, ThreadState state) {
+    Class<? extends Subject> subjectClass = state.subjectClass;
+    if (subjectClass == null) {
+      return;
+    }
+    long elapsedNanos = System.nanoTime() - state.startNanos;
+    state.subjectClass = null;
+    listener.assertionFinished(subjectClass, state.actualSize, elapsedNanos);
+  }
+
+  /**
+   * Returns the time at which a phase of building a failure started, for passing to {@link
+   * #endPhase}, or 0 if there is no listener.
+   */
+  static long startPhase() {
+    if (LISTENER == null) {
+      return 0;
+    }
+    STATE.get().phaseDepth++;
+    return System.nanoTime();
+  }
+
+  /**
+   * Adds the time since {@code start} to the given phase of the next failure. A phase that starts
+   * inside another, like the stack cleaning that inference does, counts as part of the outer one.
+   */
+  static void endPhase(Phase phase, long start) {
+    if (LISTENER == null) {
+      return;
+    }
+    long elapsedNanos = System.nanoTime() - start;
+    ThreadState state = STATE.get();
+    if (--state.phaseDepth == 0) {
+      state.phaseNanos[phase.ordinal()] += elapsedNanos;
+    }
+  }
+
+  /**
+   * Notifies the listener of a failure that is about to be reported, along with the time spent in
+   * each phase of building it since the last failure or the start of the assertion, and then
+   * finishes the assertion.
+   */
+  static void failureConstructed(AssertionError failure) {
+    AssertionListener listener = LISTENER;
+    if (listener == null) {
+      return;
+    }
+    ThreadState state = STATE.get();
+    long[] phaseNanos = state.phaseNanos;
+    String message = failure.getMessage();
+    listener.failureConstructed(
+        state.subjectClass,
+        message == null ? 0 : message.length(),
+        failure instanceof ErrorWithFacts ? ((ErrorWithFacts) failure).facts().size() : -1,
+        phaseNanos[Phase.STACK_CLEANING.ordinal()],
+        phaseNanos[Phase.INFERENCE.ordinal()],
+        phaseNanos[Phase.DIFF.ordinal()]);
+    Arrays.fill(phaseNanos, 0);
+    finish(listener, state);
+  }
+
+  /** Returns the number of elements or characters in the value, or -1 if it has no such size. */
+  static long sizeOf(@Nullable Object value) {
+    if (value instanceof Collection) {
+      return ((Collection<?>) value).size();
+    } else if (value instanceof Map) {
+      return ((Map<?, ?>) value).size();
+    } else if (value instanceof Multimap) {
+      return ((Multimap<?, ?>) value).size();
+    } else if (value instanceof Table) {
+      return ((Table<?, ?, ?>) value).size();
+    } else if (value instanceof CharSequence) {
+      return ((CharSequence) value).length();
+    } else if (value instanceof Buffer) {
+      return ((Buffer) value).remaining();
+    } else if (value != null && value.getClass().isArray()) {
+      return Array.getLength(value);
+    }
+    return -1;
+  }
+
+  private static @Nullable AssertionListener loadListener() {
+    ImmutableList<AssertionListener> all =
+        loadListeners(listenerProperty(), ServiceLoader.load(AssertionListener.class));
+    switch (all.size()) {
+      case 0:
+        return null;
+      case 1:
+        return all.get(0);
+      default:
+        return new CompositeListener(all);
+    }
+  }
+
+  /**
+   * Returns the listeners named in {@code names}, followed by the {@code providers} whose classes
+   * aren't named there.
+   */
+  static ImmutableList<AssertionListener> loadListeners(
+      @Nullable String names, Iterable<AssertionListener> providers) {
+    ImmutableList.Builder<AssertionListener> listeners = ImmutableList.builder();
+    Set<Class<?>> classes = new HashSet<>();
+    if (names != null) {
+      for (String name : Splitter.on(',').trimResults().omitEmptyStrings().split(names)) {
+        AssertionListener listener = instantiate(name);
+        if (classes.add(listener.getClass())) {
+          listeners.add(listener);
+        }
+      }
+    }
+    for (AssertionListener listener : providers) {
+      if (classes.add(listener.getClass())) {
+        listeners.add(listener);
+      }
+    }
+    return listeners.build();
+  }
+
+  private static @Nullable String listenerProperty() {
+    // Reading system properties might be forbidden.
+    try {
+      return System.getProperty(LISTENER_PROPERTY);
+    } catch (SecurityException e) {
+      return null;
+    }
+  }
+
+  private static AssertionListener instantiate(String className) {
+    try {
+      return Class.forName(className)
+          .asSubclass(AssertionListener.class)
+          .getConstructor()
+          .newInstance();
+    } catch (Exception e) {
+      throw new IllegalStateException(
+          "Could not create the AssertionListener " + className + " named by " + LISTENER_PROPERTY,
+          e);
+    }
+  }
+
+  private static final class CompositeListener implements AssertionListener {
+    private final ImmutableList<AssertionListener> listeners;
+
+    CompositeListener(ImmutableList<AssertionListener> listeners) {
+      this.listeners = listeners;
+    }
+
+    @Override
+    public void assertionStarted(Class<? extends Subject> subjectClass, long actualSize) {
+      for (AssertionListener listener : listeners) {
+        listener.assertionStarted(subjectClass, actualSize);
+      }
+    }
+
+    @Override
+    public void assertionFinished(
+        Class<? extends Subject> subjectClass, long actualSize, long elapsedNanos) {
+      for (AssertionListener listener : listeners) {
+        listener.assertionFinished(subjectClass, actualSize, elapsedNanos);
+      }
+    }
+
+    @Override
+    public void failureConstructed(
+        @Nullable Class<? extends Subject> subjectClass,
+        int messageLength,
+        int factCount,
+        long stackCleaningNanos,
+        long inferenceNanos,
+        long diffNanos) {
+      for (AssertionListener listener : listeners) {
+        listener.failureConstructed(
+            subjectClass, messageLength, factCount, stackCleaningNanos, inferenceNanos, diffNanos);
+      }
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import com.google.common.annotations.GwtIncompatible;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Receives a callback at the start and end of each assertion, so that the cost of assertions can be
+ * measured across a test suite.
+ *
+ * <p>Listeners are opt-in. Truth loads them once, when the first assertion is made, from the
+ * comma-separated class names in the {@code com.google.common.truth.assertion_listener} system
+ * property and from the {@link java.util.ServiceLoader} providers of this interface. A class that
+ * is named in both places is used once. Each listener needs a public no-arg constructor. When there
+ * are none, the hooks cost a read of a constant that the JIT folds away.
+ *
+ * <p>An assertion starts when a subject is created for it, as by {@code assertThat(actual)}, and
+ * every subject that the assertion derives from that one through {@link Subject#check} is part of
+ * it. Truth can't tell when the subject's assertion method returns, so the assertion finishes when
+ * it fails or when the next assertion starts on the same thread. Its elapsed time is therefore an
+ * upper bound that includes whatever the test did in between, and an assertion still in progress
+ * when its thread stops making assertions is never reported as finished. The size passed is that of
+ * the actual value if it is a collection, map, multimap, table, array, string or buffer, and -1
+ * otherwise.
+ *
+ * <p>Listeners are also told of each failure as it is built, with the time spent cleaning its stack
+ * trace, inferring a description of the actual value, and diffing the expected and actual values.
+ *
+ * <p>Listeners may be called from many threads at once, but the calls for one assertion are all
+ * made on the thread that made it. Exceptions they throw propagate to the test, where they may
+ * replace the assertion's own failure.
+ *
+ * <p>{@link AssertionCostHistogram} is a listener that reports the costliest call sites when the
+ * JVM exits.
+ */
+@GwtIncompatible("java.util.ServiceLoader")
+public interface AssertionListener {
+  /** Called when the subject for an assertion has been created, before the assertion does work. */
+  void assertionStarted(Class<? extends Subject> subjectClass, long actualSize);
+
+  /**
+   * Called when an assertion has failed or another has started on the same thread, with the time
+   * since it started in nanoseconds.
+   */
+  void assertionFinished(
+      Class<? extends Subject> subjectClass, long actualSize, long elapsedNanos);
+
+  /**
+   * Called when a failure has been built, before it is thrown or otherwise reported. The subject
+   * class is that of the assertion in progress on the thread, or null if there is none. The times
+   * are in nanoseconds, and {@code factCount} is -1 if the failure has no facts.
+   */
+  void failureConstructed(
+      @Nullable Class<? extends Subject> subjectClass,
+      int messageLength,
+      int factCount,
+      long stackCleaningNanos,
+      long inferenceNanos,
+      long diffNanos);
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.fact;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.ImmutableList;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Propositions for {@link ByteBuffer} subjects.
+ *
+ * <p>Like {@link ByteBuffer#equals}, the content assertions consider only the bytes between the
+ * buffer's position and its limit, and indexes in failure messages are relative to the position.
+ * The assertions read the buffers in place, without copying them or changing their positions, so
+ * they are suitable for large direct and memory-mapped buffers. Failure messages show where the
+ * content first differs, as a hexdump of the bytes around that index, rather than the full content.
+ */
+@GwtIncompatible("java.nio.ByteBuffer")
+public final class ByteBufferSubject extends ComparableSubject<ByteBuffer> {
+  // The most bytes of an expected prefix or subsequence shown in failure messages.
+  private static final int MAX_SHOWN_BYTES = 64;
+
+  private final @Nullable ByteBuffer actual;
+
+  ByteBufferSubject(FailureMetadata metadata, @Nullable ByteBuffer actual) {
+    super(metadata, actual);
+    this.actual = actual;
+  }
+
+  public static Subject.Factory<ByteBufferSubject, ByteBuffer> byteBuffers() {
+    return new Subject.Factory<ByteBufferSubject, ByteBuffer>() {
+      @Override
+      public ByteBufferSubject createSubject(
+          FailureMetadata metadata, @Nullable ByteBuffer actual) {
+        return new ByteBufferSubject(metadata, actual);
+      }
+    };
+  }
+
+  /**
+   * Fails if the subject is not equal to the given object. If it is a {@link ByteBuffer}, the
+   * buffers are equal if their remaining bytes are equal, as for {@link ByteBuffer#equals}, and a
+   * failure describes where they first differ.
+   */
+  @Override
+  public void isEqualTo(@Nullable Object expected) {
+    if (actual == null || !(expected instanceof ByteBuffer)) {
+      super.isEqualTo(expected);
+      return;
+    }
+    checkContent((ByteBuffer) expected);
+  }
+
+  /** Fails if the remaining bytes of the buffer are not exactly the given bytes. */
+  public void hasContent(byte[] expected) {
+    checkContent(ByteBuffer.wrap(checkNotNull(expected)));
+  }
+
+  /** Fails if the buffer does not have the given number of bytes remaining. */
+  public void hasRemaining(int expectedRemaining) {
+    checkArgument(
+        expectedRemaining >= 0, "expectedRemaining (%s) must be >= 0", expectedRemaining);
+    if (actual == null) {
+      failWithActual("expected a buffer with remaining", expectedRemaining);
+      return;
+    }
+    check("remaining()").that(actual.remaining()).isEqualTo(expectedRemaining);
+  }
+
+  /** Fails if the remaining bytes of the buffer do not start with the given bytes. */
+  public void startsWith(byte[] prefix) {
+    checkNotNull(prefix);
+    Fact expectedFact = fact("expected to start with", shortHexdump(prefix));
+    if (actual == null) {
+      failWithActual(expectedFact);
+      return;
+    }
+    if (actual.remaining() < prefix.length) {
+      failWithActual(expectedFact, fact("but remaining was", actual.remaining()));
+      return;
+    }
+    ByteBuffer expected = ByteBuffer.wrap(prefix);
+    int index = mismatch(bigEndian(actual), bigEndian(expected), 0, prefix.length);
+    if (index >= 0) {
+      failWithActual(
+          expectedFact,
+          fact("first difference at index", index),
+          fact("expected bytes", window(expected, index)),
+          fact("actual bytes", window(actual, index)));
+    }
+  }
+
+  /** Fails if the remaining bytes of the buffer do not contain the given bytes contiguously. */
+  public void containsSubsequence(byte[] subsequence) {
+    checkNotNull(subsequence);
+    if (actual == null) {
+      failWithActual("expected to contain", shortHexdump(subsequence));
+      return;
+    }
+    if (indexOf(actual, subsequence) < 0) {
+      failWithActual(
+          fact("expected to contain", shortHexdump(subsequence)),
+          fact("but remaining was", actual.remaining()));
+    }
+  }
+
+  private void checkContent(ByteBuffer expected) {
+    if (actual == null) {
+      failWithActual("expected a buffer with content", window(expected, 0));
+      return;
+    }
+    ByteBuffer actualBytes = bigEndian(actual);
+    ByteBuffer expectedBytes = bigEndian(expected);
+    int commonLength = Math.min(actual.remaining(), expected.remaining());
+    int firstDifference = mismatch(actualBytes, expectedBytes, 0, commonLength);
+    if (firstDifference < 0 && actual.remaining() == expected.remaining()) {
+      return;
+    }
+    int differingBytes = Math.abs(actual.remaining() - expected.remaining());
+    for (int i = firstDifference; i >= 0; ) {
+      differingBytes++;
+      i = mismatch(actualBytes, expectedBytes, i + 1, commonLength);
+    }
+    if (firstDifference < 0) {
+      // One buffer's content is a prefix of the other's.
+      firstDifference = commonLength;
+    }
+    ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+    if (actual.remaining() != expected.remaining()) {
+      facts.add(fact("expected remaining", expected.remaining()));
+      facts.add(fact("but remaining was", actual.remaining()));
+    }
+    facts.add(fact("first difference at index", firstDifference));
+    facts.add(fact("number of differing bytes", differingBytes));
+    facts.add(fact("expected bytes", window(expected, firstDifference)));
+    facts.add(fact("actual bytes", window(actual, firstDifference)));
+    failWithActual(facts.build());
+  }
+
+  /**
+   * Returns a view of the buffer's content that reads multi-byte values as big-endian, so that
+   * buffers with different byte orders can be compared eight bytes at a time.
+   */
+  private static ByteBuffer bigEndian(ByteBuffer buffer) {
+    return buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+  }
+
+  /**
+   * Returns the first index in {@code [fromIndex, length)}, relative to the buffers' positions, at
+   * which the buffers differ, or -1 if there is none.
+   */
+  private static int mismatch(ByteBuffer a, ByteBuffer b, int fromIndex, int length) {
+    int aStart = a.position();
+    int bStart = b.position();
+    int i = fromIndex;
+    // Compare eight bytes at a time, then narrow down.
+    for (; i + 8 <= length; i += 8) {
+      if (a.getLong(aStart + i) != b.getLong(bStart + i)) {
+        break;
+      }
+    }
+    for (; i < length; i++) {
+      if (a.get(aStart + i) != b.get(bStart + i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Returns the index of the first occurrence of {@code target} in the buffer, or -1. */
+  private static int indexOf(ByteBuffer buffer, byte[] target) {
+    int start = buffer.position();
+    outer:
+    for (int i = 0; i <= buffer.remaining() - target.length; i++) {
+      for (int j = 0; j < target.length; j++) {
+        if (buffer.get(start + i + j) != target[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+
+  // Renders the remaining bytes of the buffer around the given index.
+  private static String window(ByteBuffer buffer, int index) {
+    int start = (int) HexDump.windowStart(index);
+    int end = (int) HexDump.windowEnd(index, buffer.remaining());
+    if (start >= end) {
+      return "(none)";
+    }
+    byte[] bytes = new byte[end - start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(buffer.position() + start + i);
+    }
+    return HexDump.hexdump(bytes, start);
+  }
+
+  private static String shortHexdump(byte[] bytes) {
+    if (bytes.length <= MAX_SHOWN_BYTES) {
+      return HexDump.hexdump(bytes, 0);
+    }
+    return HexDump.hexdump(Arrays.copyOf(bytes, MAX_SHOWN_BYTES), 0)
+        + "\n… ("
+        + bytes.length
+        + " bytes)";
+  }
+}
@@ -16,6 +16,7 @@
 package com.google.common.truth;
 
 import static com.google.common.base.Functions.identity;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.truth.DoubleSubject.checkTolerance;
@@ -29,8 +30,11 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Objects;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -727,6 +731,125 @@ public abstract class Correspondence<A, E> {
     }
   }
 
+  /**
+   * Invokes {@link #compare}, returning either its result or the exception that it threw. Since
+   * this is a method of this class, the stack trace of such an exception can be truncated in the
+   * same way as for {@link #safeCompare}.
+   */
+  private Object compareOrException(A actual, E expected) {
+    try {
+      return compare(actual, expected);
+    } catch (RuntimeException e) {
+      return e;
+    }
+  }
+
+  /**
+   * Returns a correspondence that behaves like this one, except that it has already compared
+   * {@code actuals.get(i)} with {@code expecteds.get(i)} for each {@code i}. The comparisons are
+   * run concurrently where the platform supports it, so {@link #compare} must be thread-safe.
+   *
+   * <p>When the returned correspondence is asked to compare one of those pairs (by identity), it
+   * returns the earlier result, or rethrows the exception that was thrown then. Since it does that
+   * on the calling thread, in whatever order the caller asks, any {@link ExceptionStore} sees the
+   * same exceptions in the same order as it would have without the precomputation.
+   */
+  final Correspondence<A, E> precomputing(
+      final List<? extends A> actuals, final List<? extends E> expecteds) {
+    checkArgument(actuals.size() == expecteds.size());
+    final Object[] results = new Object[actuals.size()];
+    int chunkSize = Math.max(1, (results.length + PRECOMPUTE_CHUNKS - 1) / PRECOMPUTE_CHUNKS);
+    List<Runnable> tasks = new ArrayList<>();
+    for (int start = 0; start < results.length; start += chunkSize) {
+      final int from = start;
+      final int to = Math.min(results.length, start + chunkSize);
+      tasks.add(
+          new Runnable() {
+            @Override
+            public void run() {
+              for (int i = from; i < to; i++) {
+                results[i] = compareOrException(actuals.get(i), expecteds.get(i));
+              }
+            }
+          });
+    }
+    Platform.runConcurrently(tasks);
+    Map<IdentityPair, Object> resultsByPair = new HashMap<>();
+    for (int i = 0; i < results.length; i++) {
+      resultsByPair.put(new IdentityPair(actuals.get(i), expecteds.get(i)), results[i]);
+    }
+    return new Precomputed<>(this, resultsByPair);
+  }
+
+  /**
+   * The number of pieces that {@link #precomputing} splits its work into. This is more than the
+   * number of threads that will usually run them, so that a few slow comparisons don't hold up
+   * the rest.
+   */
+  private static final int PRECOMPUTE_CHUNKS = 64;
+
+  /** A pair of objects that is equal to another pair only if it has the same two instances. */
+  private static final class IdentityPair {
+    private final @Nullable Object first;
+    private final @Nullable Object second;
+
+    IdentityPair(@Nullable Object first, @Nullable Object second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      if (!(other instanceof IdentityPair)) {
+        return false;
+      }
+      IdentityPair that = (IdentityPair) other;
+      return first == that.first && second == that.second;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(first) + System.identityHashCode(second);
+    }
+  }
+
+  private static final class Precomputed<A, E> extends Correspondence<A, E> {
+    private final Correspondence<A, E> delegate;
+    private final Map<IdentityPair, Object> results;
+
+    Precomputed(Correspondence<A, E> delegate, Map<IdentityPair, Object> results) {
+      this.delegate = delegate;
+      this.results = results;
+    }
+
+    @Override
+    public boolean compare(A actual, E expected) {
+      Object result = results.get(new IdentityPair(actual, expected));
+      if (result == null) {
+        return delegate.compare(actual, expected);
+      }
+      if (result instanceof RuntimeException) {
+        throw (RuntimeException) result;
+      }
+      return (Boolean) result;
+    }
+
+    @Override
+    public @Nullable String formatDiff(A actual, E expected) {
+      return delegate.formatDiff(actual, expected);
+    }
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+
+    @Override
+    boolean isEquality() {
+      return delegate.isEquality();
+    }
+  }
+
   /**
    * Returns a {@link String} describing the difference between the {@code actual} and {@code
    * expected} values, if possible, or {@code null} if not.
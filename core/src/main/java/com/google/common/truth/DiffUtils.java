@@ -45,6 +45,15 @@ final class DiffUtils {
   private final List<String> reducedUnifiedDiff = new ArrayList<>();
   private int offsetHead = 0;
   private int offsetTail = 0;
+  // The number of equal lines the caller already removed from the head of both texts.
+  private final long skippedLines;
+  // Whether the caller cut off the end of the texts.
+  private final boolean truncated;
+
+  private DiffUtils(long skippedLines, boolean truncated) {
+    this.skippedLines = skippedLines;
+    this.truncated = truncated;
+  }
 
   private List<String> diff(
       List<String> originalLines, List<String> revisedLines, int contextSize) {
@@ -74,6 +83,9 @@ final class DiffUtils {
     }
 
     calcUnifiedDiff(originalLines.size(), revisedLines.size());
+    if (truncated) {
+      dropLinesAfterLastEqualLine();
+    }
 
     calcReducedUnifiedDiff(contextSize);
 
@@ -143,6 +155,16 @@ final class DiffUtils {
     Collections.reverse(unifiedDiffContentId);
   }
 
+  /**
+   * Removes the diff lines after the last equal line. When the texts were cut off, those lines may
+   * well match lines past the cut, so they would show differences which aren't there.
+   */
+  private void dropLinesAfterLastEqualLine() {
+    int end = unifiedDiffType.lastIndexOf(' ') + 1;
+    unifiedDiffType.subList(end, unifiedDiffType.size()).clear();
+    unifiedDiffContentId.subList(end, unifiedDiffContentId.size()).clear();
+  }
+
   /**
    * Generate the unified diff with a given context size
    *
@@ -152,15 +174,15 @@ final class DiffUtils {
     // The index of the next line we're going to process in fullDiff.
     int next = 0;
     // The number of lines in original/revised file after the diff lines we've processed.
-    int lineNumOrigin = offsetHead;
-    int lineNumRevised = offsetHead;
+    long lineNumOrigin = skippedLines + offsetHead;
+    long lineNumRevised = skippedLines + offsetHead;
     while (next < unifiedDiffType.size()) {
       // The start and end index of the current block in fullDiff
       int start;
       int end;
       // The start line number of the block in original/revised file.
-      int startLineOrigin;
-      int startLineRevised;
+      long startLineOrigin;
+      long startLineRevised;
       // Find the next diff line that is not an equal line.
       while (next < unifiedDiffType.size() && unifiedDiffType.get(next).equals(' ')) {
         next++;
@@ -204,8 +226,8 @@ final class DiffUtils {
       end = min(end + contextSize + 1, unifiedDiffType.size());
 
       // Calculate the size of the block content in original/revised file
-      int blockSizeOrigin = lineNumOrigin - startLineOrigin - (next - end - 1);
-      int blockSizeRevised = lineNumRevised - startLineRevised - (next - end - 1);
+      long blockSizeOrigin = lineNumOrigin - startLineOrigin - (next - end - 1);
+      long blockSizeRevised = lineNumRevised - startLineRevised - (next - end - 1);
 
       StringBuilder header = new StringBuilder();
       header
@@ -229,6 +251,28 @@ final class DiffUtils {
 
   static List<String> generateUnifiedDiff(
       List<String> original, List<String> revised, int contextSize) {
-    return new DiffUtils().diff(original, revised, contextSize);
+    return new DiffUtils(/* skippedLines= */ 0, /* truncated= */ false)
+        .diff(original, revised, contextSize);
+  }
+
+  /**
+   * Like {@link #generateUnifiedDiff(List, List, int)}, but for texts which are windows of larger
+   * texts that share their first {@code skippedLines} lines. This lets callers that can find long
+   * equal heads and tails more cheaply than by splitting the whole text into lines (for example, by
+   * comparing bytes) diff only the differing middle, while the hunk headers still carry line
+   * numbers of the full texts. The windows should include {@code contextSize} of the equal lines
+   * on each side, which this method then trims as it does for whole texts.
+   *
+   * <p>If {@code truncated} is true, the windows were also cut off before the end of the texts, so
+   * lines after the last line that the windows have in common might match lines past the cut. The
+   * diff then stops at that line, and is empty if the windows have no line in common.
+   */
+  static List<String> generateUnifiedDiff(
+      List<String> original,
+      List<String> revised,
+      int contextSize,
+      long skippedLines,
+      boolean truncated) {
+    return new DiffUtils(skippedLines, truncated).diff(original, revised, contextSize);
   }
 }
@@ -15,6 +15,8 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.base.CharMatcher.whitespace;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.padStart;
@@ -29,7 +31,9 @@ import com.google.common.base.Throwables;
 import com.google.common.truth.Truth.SimpleAssertionError;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.internal.AssumptionViolatedException;
 import org.junit.rules.ErrorCollector;
@@ -76,6 +80,10 @@ import org.junit.runners.model.Statement;
  *       thread, then that will any cover exception from plain {@code assertThat}.
  * </ul>
  *
+ * <p>{@code Expect} keeps every failure, with its stack trace, until the end of the test. Tests
+ * that may fail many times, like those that loop over many inputs, can bound that with {@link
+ * #createWithMaxFailures} or {@link #createGroupingFailures}.
+ *
  * <p>To record failures for the purpose of testing that an assertion fails when it should, see
  * {@link ExpectFailure}.
  *
@@ -85,17 +93,40 @@ import org.junit.runners.model.Statement;
 public final class Expect extends StandardSubjectBuilder implements TestRule {
 
   private static final class ExpectationGatherer implements FailureStrategy {
+    // The most failures kept, and, if grouping, the most kept from each group (otherwise 0).
+    private final int maxFailures;
+    private final int exemplarsPerGroup;
+
+    // The failures kept, if not grouping.
     @GuardedBy("this")
     private final List<AssertionError> failures = new ArrayList<AssertionError>();
 
+    // The groups of failures, by call site and fact keys, if grouping.
+    @GuardedBy("this")
+    private final Map<String, FailureGroup> groups = new LinkedHashMap<String, FailureGroup>();
+
+    // The number of failures, the number kept (in failures or as exemplars), and the number that
+    // weren't counted in any group because there was no room to keep one more.
+    @GuardedBy("this")
+    private int failureCount;
+
+    @GuardedBy("this")
+    private int keptCount;
+
+    @GuardedBy("this")
+    private int ungroupedCount;
+
     @GuardedBy("this")
     private TestPhase inRuleContext = BEFORE;
 
-    ExpectationGatherer() {}
+    ExpectationGatherer(int maxFailures, int exemplarsPerGroup) {
+      this.maxFailures = maxFailures;
+      this.exemplarsPerGroup = exemplarsPerGroup;
+    }
 
     @Override
     public synchronized void fail(AssertionError failure) {
-      record(failure);
+      record(failure, /* keepAlways= */ false);
     }
 
     synchronized void enterRuleContext() {
@@ -126,18 +157,46 @@ public final class Expect extends StandardSubjectBuilder implements TestRule {
     }
 
     synchronized boolean hasFailures() {
-      return !failures.isEmpty();
+      return failureCount > 0;
     }
 
     @Override
     public synchronized String toString() {
-      if (failures.isEmpty()) {
+      if (failureCount == 0) {
         return "No expectation failed.";
       }
-      int numFailures = failures.size();
       StringBuilder message =
           new StringBuilder(
-              numFailures + (numFailures > 1 ? " expectations" : " expectation") + " failed:\n");
+              failureCount + (failureCount > 1 ? " expectations" : " expectation") + " failed");
+      if (exemplarsPerGroup > 0) {
+        appendGroups(message);
+      } else {
+        appendFailures(message);
+      }
+      // Failures in a group but not kept as exemplars are counted in the group's description.
+      int notShown = exemplarsPerGroup > 0 ? ungroupedCount : failureCount - keptCount;
+      if (notShown > 0) {
+        message.append("  (");
+        message.append(notShown);
+        message.append(notShown > 1 ? " more failures " : " more failure ");
+        if (exemplarsPerGroup > 0) {
+          message.append("didn't fit in these groups and ");
+        }
+        message.append(notShown > 1 ? "were" : "was");
+        message.append(" only counted. At most ");
+        message.append(maxFailures);
+        message.append(maxFailures > 1 ? " failures are kept" : " failure is kept");
+        if (keptCount > maxFailures) {
+          message.append(", not counting the exception that ended the test");
+        }
+        message.append(".)\n");
+      }
+      return message.toString();
+    }
+
+    @GuardedBy("this")
+    private void appendFailures(StringBuilder message) {
+      message.append(":\n");
       int countLength = String.valueOf(failures.size() + 1).length();
       int count = 0;
       for (AssertionError failure : failures) {
@@ -155,8 +214,50 @@ public final class Expect extends StandardSubjectBuilder implements TestRule {
         }
         message.append("\n");
       }
+    }
 
-      return message.toString();
+    @GuardedBy("this")
+    private void appendGroups(StringBuilder message) {
+      message.append(", in ");
+      message.append(groups.size());
+      message.append(groups.size() > 1 ? " groups:\n" : " group:\n");
+      int countLength = String.valueOf(groups.size() + 1).length();
+      int count = 0;
+      AssertionError firstExemplar = null;
+      for (FailureGroup group : groups.values()) {
+        count++;
+        StringBuilder description = new StringBuilder();
+        description.append(group.count > 1 ? group.count + " failures" : "1 failure");
+        description.append(" at ");
+        description.append(group.callSite);
+        description.append(" with facts ");
+        description.append(group.factKeys);
+        description.append(":");
+        for (AssertionError exemplar : group.exemplars) {
+          description.append("\n");
+          if (firstExemplar == null) {
+            firstExemplar = exemplar;
+            description.append(whitespace().trimTrailingFrom(getStackTraceAsString(exemplar)));
+          } else {
+            description.append(
+                whitespace()
+                    .trimTrailingFrom(
+                        printSubsequentFailure(firstExemplar.getStackTrace(), exemplar)));
+          }
+        }
+        int notShown = group.count - group.exemplars.size();
+        if (notShown > 0) {
+          description.append("\n... and ");
+          description.append(notShown);
+          description.append(" more like ");
+          description.append(group.exemplars.size() > 1 ? "these" : "this");
+        }
+        message.append("  ");
+        message.append(padStart(String.valueOf(count), countLength, ' '));
+        message.append(". ");
+        appendIndented(countLength, message, description.toString());
+        message.append("\n");
+      }
     }
 
     private static void appendIndented(int countLength, StringBuilder builder, String toAppend) {
@@ -209,7 +310,8 @@ public final class Expect extends StandardSubjectBuilder implements TestRule {
             caught instanceof AssumptionViolatedException
                 ? "Also, after those failures, an assumption was violated:"
                 : "Also, after those failures, an exception was thrown:";
-        record(SimpleAssertionError.createWithNoStack(message, caught));
+        // Keep this one even if there's no room, since it's the only record of the exception.
+        record(SimpleAssertionError.createWithNoStack(message, caught), /* keepAlways= */ true);
         throw SimpleAssertionError.createWithNoStack(this.toString());
       } else {
         throw caught;
@@ -217,9 +319,67 @@ public final class Expect extends StandardSubjectBuilder implements TestRule {
     }
 
     @GuardedBy("this")
-    private void record(AssertionError failure) {
+    private void record(AssertionError failure, boolean keepAlways) {
       doCheckInRuleContext(failure);
-      failures.add(failure);
+      failureCount++;
+      if (exemplarsPerGroup > 0) {
+        group(failure, keepAlways);
+      } else if (keptCount < maxFailures || keepAlways) {
+        failures.add(failure);
+        keptCount++;
+      }
+    }
+
+    @GuardedBy("this")
+    private void group(AssertionError failure, boolean keepAlways) {
+      String callSite = callSite(failure);
+      String factKeys = factKeys(failure);
+      String key = callSite + " " + factKeys;
+      FailureGroup group = groups.get(key);
+      if (group == null) {
+        if (keptCount >= maxFailures && !keepAlways) {
+          // There's no room for an exemplar, and a group without one wouldn't be much use.
+          ungroupedCount++;
+          return;
+        }
+        group = new FailureGroup(callSite, factKeys);
+        groups.put(key, group);
+      }
+      group.count++;
+      if ((group.exemplars.size() < exemplarsPerGroup && keptCount < maxFailures) || keepAlways) {
+        group.exemplars.add(failure);
+        keptCount++;
+      }
+    }
+
+    /** Returns the top frame of the failure's stack trace, which has normally been cleaned. */
+    private static String callSite(AssertionError failure) {
+      StackTraceElement[] stackTrace = failure.getStackTrace();
+      return stackTrace.length == 0 ? "(unknown location)" : stackTrace[0].toString();
+    }
+
+    private static String factKeys(AssertionError failure) {
+      if (!(failure instanceof ErrorWithFacts)) {
+        return "(none)";
+      }
+      List<String> keys = new ArrayList<String>();
+      for (Fact fact : ((ErrorWithFacts) failure).facts()) {
+        keys.add(fact.key);
+      }
+      return keys.toString();
+    }
+  }
+
+  /** Failures with the same call site and fact keys, and the first few of them. */
+  private static final class FailureGroup {
+    final String callSite;
+    final String factKeys;
+    final List<AssertionError> exemplars = new ArrayList<AssertionError>();
+    int count;
+
+    FailureGroup(String callSite, String factKeys) {
+      this.callSite = callSite;
+      this.factKeys = factKeys;
     }
   }
 
@@ -227,7 +387,34 @@ public final class Expect extends StandardSubjectBuilder implements TestRule {
 
   /** Creates a new instance. */
   public static Expect create() {
-    return new Expect(new ExpectationGatherer());
+    return new Expect(new ExpectationGatherer(Integer.MAX_VALUE, 0));
+  }
+
+  /**
+   * Creates a new instance that keeps only the first {@code maxFailures} failures. Later failures
+   * still fail the test, but they are only counted, so that a test that fails many times doesn't
+   * run out of memory or produce an enormous message.
+   */
+  public static Expect createWithMaxFailures(int maxFailures) {
+    checkArgument(maxFailures > 0, "maxFailures (%s) must be > 0", maxFailures);
+    return new Expect(new ExpectationGatherer(maxFailures, 0));
+  }
+
+  /**
+   * Creates a new instance that groups failures by where they happened and by the keys of their
+   * facts, like "expected" and "but was," and reports each group once, with its number of failures
+   * and its first {@code exemplarsPerGroup} failures. This suits tests that loop over many inputs
+   * and may fail the same way for many of them. At most {@code maxFailures} failures are kept in
+   * all; failures from groups that start after that are only counted.
+   *
+   * <p>Where a failure happened is the top frame of its stack trace. Truth normally removes its own
+   * frames from there, so that is the line of the test that made the assertion.
+   */
+  public static Expect createGroupingFailures(int exemplarsPerGroup, int maxFailures) {
+    checkArgument(
+        exemplarsPerGroup > 0, "exemplarsPerGroup (%s) must be > 0", exemplarsPerGroup);
+    checkArgument(maxFailures > 0, "maxFailures (%s) must be > 0", maxFailures);
+    return new Expect(new ExpectationGatherer(maxFailures, exemplarsPerGroup));
   }
 
   private Expect(ExpectationGatherer gatherer) {
@@ -21,7 +21,9 @@ import static com.google.common.base.Verify.verifyNotNull;
 import static com.google.common.truth.ComparisonFailures.makeComparisonFailureFacts;
 import static com.google.common.truth.Fact.fact;
 import static com.google.common.truth.LazyMessage.evaluateAll;
+import static com.google.common.truth.Platform.assertionStarted;
 import static com.google.common.truth.Platform.cleanStackTrace;
+import static com.google.common.truth.Platform.failureConstructed;
 import static com.google.common.truth.Platform.inferDescription;
 import static com.google.common.truth.Platform.makeComparisonFailure;
 import static com.google.common.truth.SubjectUtils.append;
@@ -127,6 +129,10 @@ public final class FailureMetadata {
    * ThrowableSubject#hasMessageThat}.
    */
   FailureMetadata updateForSubject(Subject subject) {
+    if (steps.isEmpty()) {
+      // The subject starts a new assertion, rather than being derived from another subject.
+      assertionStarted(subject);
+    }
     ImmutableList<Step> steps = append(this.steps, Step.subjectCreation(subject));
     return derive(messages, steps);
   }
@@ -194,6 +200,7 @@ public final class FailureMetadata {
 
   private void doFail(AssertionError failure) {
     cleanStackTrace(failure);
+    failureConstructed(failure);
     strategy.fail(failure);
   }
 
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+/**
+ * Renders small windows of binary content, such as byte arrays or files, for failure messages, in
+ * the style of {@code xxd}: an offset, sixteen bytes in hex, and the same bytes as ASCII.
+ */
+final class HexDump {
+  static final int BYTES_PER_ROW = 16;
+
+  // The number of bytes shown on each side of an offset of interest, before rounding out to rows.
+  static final int CONTEXT = 32;
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  /** The first offset of the window shown around {@code offset}. */
+  static long windowStart(long offset) {
+    return Math.max(0, offset - CONTEXT) / BYTES_PER_ROW * BYTES_PER_ROW;
+  }
+
+  /** The end (exclusive) of the window shown around {@code offset}, in content of {@code size}. */
+  static long windowEnd(long offset, long size) {
+    return Math.min(size, (offset + CONTEXT) / BYTES_PER_ROW * BYTES_PER_ROW + BYTES_PER_ROW);
+  }
+
+  /**
+   * Renders {@code bytes}, which begin at {@code startOffset} of the content, one row per line.
+   * Rows start at multiples of {@link #BYTES_PER_ROW}.
+   */
+  static String hexdump(byte[] bytes, long startOffset) {
+    StringBuilder sb = new StringBuilder();
+    int lead = (int) (startOffset % BYTES_PER_ROW);
+    long rowOffset = startOffset - lead;
+    for (int i = -lead; i < bytes.length; i += BYTES_PER_ROW, rowOffset += BYTES_PER_ROW) {
+      if (sb.length() > 0) {
+        sb.append('\n');
+      }
+      String offsetHex = Long.toHexString(rowOffset);
+      for (int pad = offsetHex.length(); pad < 8; pad++) {
+        sb.append('0');
+      }
+      sb.append(offsetHex).append(':');
+      for (int j = i; j < i + BYTES_PER_ROW; j++) {
+        if ((j - i) % 2 == 0) {
+          sb.append(' ');
+        }
+        if (j < 0 || j >= bytes.length) {
+          sb.append("  ");
+        } else {
+          sb.append(HEX_DIGITS[(bytes[j] >> 4) & 0xf]).append(HEX_DIGITS[bytes[j] & 0xf]);
+        }
+      }
+      sb.append("  ");
+      for (int j = i; j < i + BYTES_PER_ROW && j < bytes.length; j++) {
+        sb.append(j < 0 ? ' ' : isPrintable(bytes[j]) ? (char) bytes[j] : '.');
+      }
+    }
+    return sb.toString();
+  }
+
+  private static boolean isPrintable(byte b) {
+    return b >= 0x20 && b < 0x7f;
+  }
+
+  private HexDump() {}
+}
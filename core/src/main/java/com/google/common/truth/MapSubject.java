@@ -30,13 +30,15 @@ import static java.util.Collections.singletonList;
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultiset;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 import com.google.common.truth.Correspondence.DiffFormatter;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -308,44 +310,72 @@ public class MapSubject extends Subject {
     private final Map<K, E> missing;
     private final Map<K, A> unexpected;
     private final Map<K, ValueDifference<A, E>> wrongValues;
-    private final Set<K> allKeys;
+    private final Map<? extends K, ?> actual;
+    private final Map<? extends K, ?> expected;
 
+    /**
+     * Compares the maps by probing {@code actual} for each expected key, so that when unexpected
+     * keys are allowed, the cost is proportional to the size of {@code expected} alone. The actual
+     * map is scanned for unexpected keys only if they're not allowed and it has more keys than were
+     * found. Nothing is allocated for the parts of the difference that are empty.
+     */
     static <K, A, E> MapDifference<K, A, E> create(
         Map<? extends K, ? extends A> actual,
         Map<? extends K, ? extends E> expected,
         boolean allowUnexpected,
         ValueTester<? super A, ? super E> valueTester) {
-      Map<K, A> unexpected = new LinkedHashMap<>(actual);
-      Map<K, E> missing = new LinkedHashMap<>();
-      Map<K, ValueDifference<A, E>> wrongValues = new LinkedHashMap<>();
+      Map<K, E> missing = null;
+      Map<K, ValueDifference<A, E>> wrongValues = null;
+      int found = 0;
       for (Map.Entry<? extends K, ? extends E> expectedEntry : expected.entrySet()) {
         K expectedKey = expectedEntry.getKey();
         E expectedValue = expectedEntry.getValue();
         if (actual.containsKey(expectedKey)) {
-          A actualValue = unexpected.remove(expectedKey);
+          found++;
+          A actualValue = actual.get(expectedKey);
           if (!valueTester.test(actualValue, expectedValue)) {
-            wrongValues.put(expectedKey, new ValueDifference<>(actualValue, expectedValue));
+            if (wrongValues == null) {
+              wrongValues = new LinkedHashMap<>();
+            }
+            wrongValues.put(expectedKey, new ValueDifference<A, E>(actualValue, expectedValue));
           }
         } else {
+          if (missing == null) {
+            missing = new LinkedHashMap<>();
+          }
           missing.put(expectedKey, expectedValue);
         }
       }
-      if (allowUnexpected) {
-        unexpected.clear();
+      Map<K, A> unexpected = null;
+      if (!allowUnexpected && actual.size() > found) {
+        for (Map.Entry<? extends K, ? extends A> actualEntry : actual.entrySet()) {
+          if (!expected.containsKey(actualEntry.getKey())) {
+            if (unexpected == null) {
+              unexpected = new LinkedHashMap<>();
+            }
+            unexpected.put(actualEntry.getKey(), actualEntry.getValue());
+          }
+        }
       }
       return new MapDifference<>(
-          missing, unexpected, wrongValues, Sets.union(actual.keySet(), expected.keySet()));
+          missing == null ? Collections.<K, E>emptyMap() : missing,
+          unexpected == null ? Collections.<K, A>emptyMap() : unexpected,
+          wrongValues == null ? Collections.<K, ValueDifference<A, E>>emptyMap() : wrongValues,
+          actual,
+          expected);
     }
 
     private MapDifference(
         Map<K, E> missing,
         Map<K, A> unexpected,
         Map<K, ValueDifference<A, E>> wrongValues,
-        Set<K> allKeys) {
+        Map<? extends K, ?> actual,
+        Map<? extends K, ?> expected) {
       this.missing = missing;
       this.unexpected = unexpected;
       this.wrongValues = wrongValues;
-      this.allKeys = allKeys;
+      this.actual = actual;
+      this.expected = expected;
     }
 
     boolean isEmpty() {
@@ -386,7 +416,7 @@ public class MapSubject extends Subject {
       keys.addAll(missing.keySet());
       keys.addAll(unexpected.keySet());
       keys.addAll(wrongValues.keySet());
-      return hasMatchingToStringPair(keys, allKeys);
+      return hasMatchingToStringPair(keys, Sets.union(actual.keySet(), expected.keySet()));
     }
   }
 
@@ -446,12 +476,11 @@ public class MapSubject extends Subject {
      */
     @Override
     public void inOrder() {
-      // We're using the fact that Sets.intersection keeps the order of the first set.
-      List<?> expectedKeyOrder =
-          Lists.newArrayList(Sets.intersection(expectedMap.keySet(), actual.keySet()));
-      List<?> actualKeyOrder =
-          Lists.newArrayList(Sets.intersection(actual.keySet(), expectedMap.keySet()));
-      if (!actualKeyOrder.equals(expectedKeyOrder)) {
+      // We're using the fact that Sets.intersection keeps the order of the first set. The views are
+      // compared element by element, so neither is copied.
+      Set<?> expectedKeyOrder = Sets.intersection(expectedMap.keySet(), actual.keySet());
+      Set<?> actualKeyOrder = Sets.intersection(actual.keySet(), expectedMap.keySet());
+      if (!Iterables.elementsEqual(actualKeyOrder, expectedKeyOrder)) {
         ImmutableList.Builder<Fact> facts =
             ImmutableList.<Fact>builder()
                 .add(
@@ -511,7 +540,7 @@ public class MapSubject extends Subject {
    */
   public final <A, E> UsingCorrespondence<A, E> comparingValuesUsing(
       Correspondence<? super A, ? super E> correspondence) {
-    return new UsingCorrespondence<>(correspondence);
+    return new UsingCorrespondence<>(correspondence, /* parallel= */ false);
   }
 
   /**
@@ -555,9 +584,26 @@ public class MapSubject extends Subject {
   public final class UsingCorrespondence<A, E> {
 
     private final Correspondence<? super A, ? super E> correspondence;
+    private final boolean parallel;
 
-    private UsingCorrespondence(Correspondence<? super A, ? super E> correspondence) {
+    private UsingCorrespondence(
+        Correspondence<? super A, ? super E> correspondence, boolean parallel) {
       this.correspondence = checkNotNull(correspondence);
+      this.parallel = parallel;
+    }
+
+    /**
+     * Returns a version of this check which, for {@link #containsExactlyEntriesIn} and {@link
+     * #containsAtLeastEntriesIn} and their varargs equivalents, compares the values for all the
+     * keys concurrently, on a shared pool of threads, before it builds the difference between the
+     * maps. This can make the check much faster when the correspondence is expensive, such as one
+     * that compares large protos. The correspondence must be thread-safe.
+     *
+     * <p>The check passes or fails, and describes the failure, exactly as it would otherwise. On
+     * platforms without threads, such as GWT, the values are compared one after another.
+     */
+    public UsingCorrespondence<A, E> inParallel() {
+      return new UsingCorrespondence<>(correspondence, /* parallel= */ true);
     }
 
     /**
@@ -739,6 +785,8 @@ public class MapSubject extends Subject {
     private <K, V extends E> Ordered internalContainsEntriesIn(
         Map<K, V> expectedMap, boolean allowUnexpected) {
       final Correspondence.ExceptionStore exceptions = Correspondence.ExceptionStore.forMapValues();
+      final Correspondence<? super A, ? super E> correspondence =
+          parallel ? precompute(expectedMap) : this.correspondence;
       MapDifference<Object, A, V> diff =
           MapDifference.create(
               getCastSubject(),
@@ -768,6 +816,20 @@ public class MapSubject extends Subject {
       return ALREADY_FAILED;
     }
 
+    /** Compares the values of the keys that are in both maps, concurrently. */
+    private Correspondence<? super A, ? super E> precompute(Map<?, ? extends E> expectedMap) {
+      Map<?, A> actualMap = getCastSubject();
+      List<A> actualValues = new ArrayList<>();
+      List<E> expectedValues = new ArrayList<>();
+      for (Map.Entry<?, ? extends E> expectedEntry : expectedMap.entrySet()) {
+        if (actualMap.containsKey(expectedEntry.getKey())) {
+          actualValues.add(actualMap.get(expectedEntry.getKey()));
+          expectedValues.add(expectedEntry.getValue());
+        }
+      }
+      return correspondence.precomputing(actualValues, expectedValues);
+    }
+
     @SuppressWarnings("UnnecessaryAnonymousClass") // for Java 7 compatibility
     private <V extends E> Differ<A, V> differ(final Correspondence.ExceptionStore exceptions) {
       return new Differ<A, V>() {
@@ -29,17 +29,19 @@ import static com.google.common.truth.SubjectUtils.retainMatchingToString;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Objects;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.ListMultimap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multiset;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -63,6 +65,13 @@ public class MultimapSubject extends Subject {
         public void inOrder() {}
       };
 
+  /**
+   * The most pairs of values for one key that {@code inParallel()} compares up front. Comparing
+   * every pair for a key with more values than that could take a lot of time and memory, even if
+   * the values match up in order, so only the pairs in the same position are compared up front.
+   */
+  private static final int MAX_PRECOMPUTED_PAIRS_PER_KEY = 1024;
+
   private final Multimap<?, ?> actual;
 
   /**
@@ -221,8 +230,10 @@ public class MultimapSubject extends Subject {
   @CanIgnoreReturnValue
   public final Ordered containsExactlyEntriesIn(Multimap<?, ?> expectedMultimap) {
     checkNotNull(expectedMultimap, "expectedMultimap");
-    ListMultimap<?, ?> missing = difference(expectedMultimap, actual);
-    ListMultimap<?, ?> extra = difference(actual, expectedMultimap);
+    MultimapDifference difference =
+        MultimapDifference.create(actual, expectedMultimap, /* allowUnexpected= */ false);
+    ListMultimap<?, ?> missing = difference.missing;
+    ListMultimap<?, ?> extra = difference.extra;
 
     // TODO(kak): Possible enhancement: Include "[1 copy]" if the element does appear in
     // the subject but not enough times. Similarly for unexpected extra items.
@@ -276,7 +287,8 @@ public class MultimapSubject extends Subject {
   @CanIgnoreReturnValue
   public final Ordered containsAtLeastEntriesIn(Multimap<?, ?> expectedMultimap) {
     checkNotNull(expectedMultimap, "expectedMultimap");
-    ListMultimap<?, ?> missing = difference(expectedMultimap, actual);
+    ListMultimap<?, ?> missing =
+        MultimapDifference.create(actual, expectedMultimap, /* allowUnexpected= */ true).missing;
 
     // TODO(kak): Possible enhancement: Include "[1 copy]" if the element does appear in
     // the subject but not enough times. Similarly for unexpected extra items.
@@ -378,17 +390,21 @@ public class MultimapSubject extends Subject {
      */
     @Override
     public void inOrder() {
-      // We use the fact that Sets.intersection's result has the same order as the first parameter
+      // We use the fact that Sets.intersection's result has the same order as the first parameter.
+      // The views are walked in step, without copying either multimap.
       boolean keysInOrder =
-          Lists.newArrayList(Sets.intersection(actual.keySet(), expectedMultimap.keySet()))
-              .equals(Lists.newArrayList(expectedMultimap.keySet()));
+          Iterables.elementsEqual(
+              Sets.intersection(actual.keySet(), expectedMultimap.keySet()),
+              expectedMultimap.keySet());
 
       LinkedHashSet<Object> keysWithValuesOutOfOrder = Sets.newLinkedHashSet();
-      for (Object key : expectedMultimap.keySet()) {
-        List<?> actualVals = Lists.newArrayList(get(actual, key));
-        List<?> expectedVals = Lists.newArrayList(get(expectedMultimap, key));
-        Iterator<?> actualIterator = actualVals.iterator();
-        for (Object value : expectedVals) {
+      for (Map.Entry<?, ? extends Collection<?>> expectedEntry :
+          expectedMultimap.asMap().entrySet()) {
+        Object key = expectedEntry.getKey();
+        Collection<?> actualVals = actual.asMap().get(key);
+        Iterator<?> actualIterator =
+            (actualVals == null ? ImmutableList.of() : actualVals).iterator();
+        for (Object value : expectedEntry.getValue()) {
           if (!advanceToFind(actualIterator, value)) {
             keysWithValuesOutOfOrder.add(key);
             break;
@@ -449,26 +465,74 @@ public class MultimapSubject extends Subject {
     }
   }
 
-  private static ListMultimap<?, ?> difference(Multimap<?, ?> minuend, Multimap<?, ?> subtrahend) {
-    ListMultimap<Object, Object> difference = LinkedListMultimap.create();
-    for (Object key : minuend.keySet()) {
-      List<?> valDifference =
-          difference(
-              Lists.newArrayList(get(minuend, key)), Lists.newArrayList(get(subtrahend, key)));
-      difference.putAll(key, valDifference);
-    }
-    return difference;
-  }
-
-  private static List<?> difference(List<?> minuend, List<?> subtrahend) {
-    LinkedHashMultiset<Object> remaining = LinkedHashMultiset.<Object>create(subtrahend);
-    List<Object> difference = Lists.newArrayList();
-    for (Object elem : minuend) {
-      if (!remaining.remove(elem)) {
-        difference.add(elem);
+  /**
+   * The entries of the expected multimap that are missing from the actual one and, unless
+   * unexpected entries are allowed, vice versa. Entries are counted separately for each key, like
+   * multisets of values, and the results are grouped by key in the order of the multimap that they
+   * come from.
+   *
+   * <p>This walks the {@link Multimap#asMap} views. The value collections for a key are compared
+   * with {@code equals} first, and only if that fails are they counted in hash multisets, so the
+   * cost of a passing assertion is mostly that of the {@code equals} calls.
+   */
+  private static final class MultimapDifference {
+    final ListMultimap<Object, Object> missing = LinkedListMultimap.create();
+    final ListMultimap<Object, Object> extra = LinkedListMultimap.create();
+
+    static MultimapDifference create(
+        Multimap<?, ?> actual, Multimap<?, ?> expected, boolean allowUnexpected) {
+      MultimapDifference difference = new MultimapDifference();
+      Map<?, ? extends Collection<?>> actualMap = actual.asMap();
+      Map<?, ? extends Collection<?>> expectedMap = expected.asMap();
+      // The unexpected values for keys that are in both multimaps but with different values.
+      Map<Object, List<Object>> extraForSharedKeys = null;
+      int sharedKeys = 0;
+      for (Map.Entry<?, ? extends Collection<?>> expectedEntry : expectedMap.entrySet()) {
+        Object key = expectedEntry.getKey();
+        Collection<?> expectedValues = expectedEntry.getValue();
+        Collection<?> actualValues = actualMap.get(key);
+        if (actualValues == null) {
+          difference.missing.putAll(key, expectedValues);
+          continue;
+        }
+        sharedKeys++;
+        if (actualValues.equals(expectedValues)) {
+          continue;
+        }
+        Multiset<Object> unmatchedActual = HashMultiset.<Object>create(actualValues);
+        for (Object value : expectedValues) {
+          if (!unmatchedActual.remove(value)) {
+            difference.missing.put(key, value);
+          }
+        }
+        if (!allowUnexpected && !unmatchedActual.isEmpty()) {
+          // Like the missing values, the unexpected ones are the last occurrences of each value.
+          Multiset<Object> unmatchedExpected = HashMultiset.<Object>create(expectedValues);
+          List<Object> extraValues = new ArrayList<>();
+          for (Object value : actualValues) {
+            if (!unmatchedExpected.remove(value)) {
+              extraValues.add(value);
+            }
+          }
+          if (extraForSharedKeys == null) {
+            extraForSharedKeys = new HashMap<>();
+          }
+          extraForSharedKeys.put(key, extraValues);
+        }
+      }
+      if (allowUnexpected || (sharedKeys == actualMap.size() && extraForSharedKeys == null)) {
+        return difference;
       }
+      for (Map.Entry<?, ? extends Collection<?>> actualEntry : actualMap.entrySet()) {
+        Object key = actualEntry.getKey();
+        if (!expectedMap.containsKey(key)) {
+          difference.extra.putAll(key, actualEntry.getValue());
+        } else if (extraForSharedKeys != null && extraForSharedKeys.containsKey(key)) {
+          difference.extra.putAll(key, extraForSharedKeys.get(key));
+        }
+      }
+      return difference;
     }
-    return difference;
   }
 
   private static String countDuplicatesMultimap(Multimap<?, ?> multimap) {
@@ -528,7 +592,7 @@ public class MultimapSubject extends Subject {
    */
   public <A, E> UsingCorrespondence<A, E> comparingValuesUsing(
       Correspondence<? super A, ? super E> correspondence) {
-    return new UsingCorrespondence<>(correspondence);
+    return new UsingCorrespondence<>(correspondence, /* parallel= */ false);
   }
 
   // TODO(b/69154276): Add formattingDiffsUsing, like we have on MapSubject, once we have
@@ -545,9 +609,28 @@ public class MultimapSubject extends Subject {
   public final class UsingCorrespondence<A, E> {
 
     private final Correspondence<? super A, ? super E> correspondence;
+    private final boolean parallel;
 
-    private UsingCorrespondence(Correspondence<? super A, ? super E> correspondence) {
+    private UsingCorrespondence(
+        Correspondence<? super A, ? super E> correspondence, boolean parallel) {
       this.correspondence = checkNotNull(correspondence);
+      this.parallel = parallel;
+    }
+
+    /**
+     * Returns a version of this check which, for {@link #containsExactlyEntriesIn} and {@link
+     * #containsAtLeastEntriesIn} and their varargs equivalents, first compares each expected value
+     * with each actual value for the same key, concurrently on a shared pool of threads, and then
+     * matches up the entries of the multimaps using those results. This can make the check much
+     * faster when the correspondence is expensive, such as one that compares large protos. The
+     * correspondence must be thread-safe. For a key with many values, only the values in the same
+     * position are compared up front, and any other pair is compared when the check needs it.
+     *
+     * <p>The check passes or fails, and describes the failure, exactly as it would otherwise. On
+     * platforms without threads, such as GWT, the values are compared one after another.
+     */
+    public UsingCorrespondence<A, E> inParallel() {
+      return new UsingCorrespondence<>(correspondence, /* parallel= */ true);
     }
 
     /**
@@ -725,7 +808,8 @@ public class MultimapSubject extends Subject {
       return check()
           .about(iterableEntries())
           .that(actual.entries())
-          .comparingElementsUsing(new EntryCorrespondence<K, A, V>(correspondence))
+          .comparingElementsUsing(
+              new EntryCorrespondence<K, A, V>(valueCorrespondence(expectedMultimap)))
           .containsExactlyElementsIn(expectedMultimap.entries());
     }
 
@@ -759,7 +843,8 @@ public class MultimapSubject extends Subject {
       return check()
           .about(iterableEntries())
           .that(actual.entries())
-          .comparingElementsUsing(new EntryCorrespondence<K, A, V>(correspondence))
+          .comparingElementsUsing(
+              new EntryCorrespondence<K, A, V>(valueCorrespondence(expectedMultimap)))
           .containsAtLeastElementsIn(expectedMultimap.entries());
     }
 
@@ -795,6 +880,47 @@ public class MultimapSubject extends Subject {
       return containsAtLeastEntriesIn(expectedMultimap);
     }
 
+    /**
+     * Returns the correspondence to compare values with. In parallel mode, that's one which has
+     * already compared each expected value with each actual value for the same key, or, for a key
+     * with too many values to compare every pair, each expected value with the actual value in the
+     * same position. Any other pair is compared when it's asked for.
+     */
+    private Correspondence<? super A, ? super E> valueCorrespondence(
+        Multimap<?, ? extends E> expectedMultimap) {
+      if (!parallel) {
+        return correspondence;
+      }
+      Map<?, ? extends Collection<A>> actualMap = getCastActual().asMap();
+      List<A> actualValues = new ArrayList<>();
+      List<E> expectedValues = new ArrayList<>();
+      for (Map.Entry<?, ? extends Collection<? extends E>> expectedEntry :
+          expectedMultimap.asMap().entrySet()) {
+        Collection<A> actualValuesForKey = actualMap.get(expectedEntry.getKey());
+        if (actualValuesForKey == null) {
+          continue;
+        }
+        Collection<? extends E> expectedValuesForKey = expectedEntry.getValue();
+        if ((long) actualValuesForKey.size() * expectedValuesForKey.size()
+            > MAX_PRECOMPUTED_PAIRS_PER_KEY) {
+          Iterator<A> actualIterator = actualValuesForKey.iterator();
+          Iterator<? extends E> expectedIterator = expectedValuesForKey.iterator();
+          while (actualIterator.hasNext() && expectedIterator.hasNext()) {
+            actualValues.add(actualIterator.next());
+            expectedValues.add(expectedIterator.next());
+          }
+          continue;
+        }
+        for (E expectedValue : expectedValuesForKey) {
+          for (A actualValue : actualValuesForKey) {
+            actualValues.add(actualValue);
+            expectedValues.add(expectedValue);
+          }
+        }
+      }
+      return correspondence.precomputing(actualValues, expectedValues);
+    }
+
     @SuppressWarnings("unchecked") // throwing ClassCastException is the correct behaviour
     private Multimap<?, A> getCastActual() {
       return (Multimap<?, A>) actual;
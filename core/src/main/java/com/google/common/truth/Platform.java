@@ -17,8 +17,11 @@ package com.google.common.truth;
 
 import static com.google.common.base.Suppliers.memoize;
 import static com.google.common.base.Throwables.throwIfUnchecked;
+import static com.google.common.truth.AssertionInstrumentation.Phase.DIFF;
+import static com.google.common.truth.AssertionInstrumentation.Phase.INFERENCE;
 import static com.google.common.truth.DiffUtils.generateUnifiedDiff;
 import static com.google.common.truth.Fact.fact;
+import static com.google.common.util.concurrent.Uninterruptibles.getUninterruptibly;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
@@ -28,7 +31,15 @@ import com.google.common.collect.ImmutableList;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.ComparisonFailure;
@@ -50,7 +61,129 @@ final class Platform {
 
   /** Determines if the given subject contains a match for the given regex. */
   static boolean containsMatch(String actual, String regex) {
-    return Pattern.compile(regex).matcher(actual).find();
+    return compile(regex).matcher(actual).find();
+  }
+
+  /** Determines if the given subject matches the given regex in its entirety. */
+  static boolean matches(String actual, String regex) {
+    return compile(regex).matcher(actual).matches();
+  }
+
+  /**
+   * Runs the tasks on a shared pool of daemon threads, one per processor, and returns when all of
+   * them have finished. If any task throws, the first such exception, in the order of the tasks, is
+   * rethrown. Tasks started from one of the pool's own threads are run on that thread, one after
+   * another, so that they can't wait on each other for a thread.
+   */
+  static void runConcurrently(List<Runnable> tasks) {
+    if (tasks.size() <= 1 || IS_CONCURRENT_TASK_THREAD.get()) {
+      for (Runnable task : tasks) {
+        task.run();
+      }
+      return;
+    }
+    ExecutorService executor = CONCURRENT_TASK_EXECUTOR.get();
+    List<Future<?>> futures = new ArrayList<>(tasks.size());
+    for (Runnable task : tasks) {
+      futures.add(executor.submit(task));
+    }
+    Throwable failure = null;
+    for (Future<?> future : futures) {
+      try {
+        getUninterruptibly(future);
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      }
+    }
+    if (failure != null) {
+      throwIfUnchecked(failure);
+      throw new RuntimeException(failure);
+    }
+  }
+
+  private static final ThreadLocal<Boolean> IS_CONCURRENT_TASK_THREAD =
+      new ThreadLocal<Boolean>() {
+        @Override
+        protected Boolean initialValue() {
+          return false;
+        }
+      };
+
+  private static final Supplier<ExecutorService> CONCURRENT_TASK_EXECUTOR =
+      memoize(
+          new Supplier<ExecutorService>() {
+            @Override
+            public ExecutorService get() {
+              return Executors.newFixedThreadPool(
+                  Runtime.getRuntime().availableProcessors(),
+                  new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                      Thread thread =
+                          new Thread(
+                              new Runnable() {
+                                @Override
+                                public void run() {
+                                  IS_CONCURRENT_TASK_THREAD.set(true);
+                                  runnable.run();
+                                }
+                              },
+                              "truth-concurrent-task-" + count.getAndIncrement());
+                      thread.setDaemon(true);
+                      return thread;
+                    }
+                  });
+            }
+          });
+
+  /**
+   * Returns the first index at or after {@code fromIndex} at which the arrays differ, or -1 if
+   * they're equal up to the length of the shorter one. The arrays are compared eight bytes at a
+   * time.
+   */
+  static int mismatch(byte[] a, byte[] b, int fromIndex) {
+    int length = Math.min(a.length, b.length);
+    ByteBuffer aBuffer = ByteBuffer.wrap(a);
+    ByteBuffer bBuffer = ByteBuffer.wrap(b);
+    int i = fromIndex;
+    for (; i + 8 <= length; i += 8) {
+      if (aBuffer.getLong(i) != bBuffer.getLong(i)) {
+        break;
+      }
+    }
+    for (; i < length; i++) {
+      if (a[i] != b[i]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static final RegexCache<Pattern> PATTERN_CACHE =
+      new RegexCache<Pattern>() {
+        @Override
+        Pattern compileUncached(String regex) {
+          return Pattern.compile(regex);
+        }
+      };
+
+  /** Returns the compiled form of the given regex, reusing an earlier compilation if possible. */
+  static Pattern compile(String regex) {
+    return PATTERN_CACHE.compile(regex);
+  }
+
+  /** Notifies any {@link AssertionListener} that an assertion has started on the given subject. */
+  static void assertionStarted(Subject subject) {
+    AssertionInstrumentation.start(subject);
+  }
+
+  /** Notifies any {@link AssertionListener} that a failure is about to be reported. */
+  static void failureConstructed(AssertionError failure) {
+    AssertionInstrumentation.failureConstructed(failure);
   }
 
   /**
@@ -81,6 +214,15 @@ final class Platform {
    * values produced by chaining calls like {@code hasMessageThat}.
    */
   static @Nullable String inferDescription() {
+    long start = AssertionInstrumentation.startPhase();
+    try {
+      return doInferDescription();
+    } finally {
+      AssertionInstrumentation.endPhase(INFERENCE, start);
+    }
+  }
+
+  private static @Nullable String doInferDescription() {
     if (isInferDescriptionDisabled()) {
       return null;
     }
@@ -136,6 +278,15 @@ final class Platform {
   private static final String DIFF_KEY = "diff (-expected +actual)";
 
   static @Nullable ImmutableList<Fact> makeDiff(String expected, String actual) {
+    long start = AssertionInstrumentation.startPhase();
+    try {
+      return doMakeDiff(expected, actual);
+    } finally {
+      AssertionInstrumentation.endPhase(DIFF, start);
+    }
+  }
+
+  private static @Nullable ImmutableList<Fact> doMakeDiff(String expected, String actual) {
     ImmutableList<String> expectedLines = splitLines(expected);
     ImmutableList<String> actualLines = splitLines(actual);
     List<String> unifiedDiff =
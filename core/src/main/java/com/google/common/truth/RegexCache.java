@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Keeps the most recently used compiled patterns, since data-driven tests often check the same
+ * few regexes against many values.
+ *
+ * <p>The cache's size can be set (or set to 0 to disable it) with the {@value #SIZE_PROPERTY}
+ * system property, which is read when the cache is created. (The RE2/J extension keeps its own
+ * cache, sized by the same property.)
+ */
+@GwtIncompatible("java.lang.System.getProperty")
+abstract class RegexCache<P> {
+  static final String SIZE_PROPERTY = "com.google.common.truth.regex_cache_size";
+
+  static final int DEFAULT_SIZE = 256;
+
+  private final @Nullable Cache<String, P> cache;
+
+  RegexCache() {
+    int size = size();
+    cache = size > 0 ? CacheBuilder.newBuilder().maximumSize(size).<String, P>build() : null;
+  }
+
+  /** Compiles the given regex, without consulting the cache. */
+  abstract P compileUncached(String regex);
+
+  /** Returns the compiled form of the given regex, reusing an earlier compilation if possible. */
+  final P compile(String regex) {
+    if (cache == null) {
+      return compileUncached(regex);
+    }
+    P pattern = cache.getIfPresent(regex);
+    if (pattern == null) {
+      // Compile outside the cache so that a syntax exception reaches the caller unwrapped.
+      pattern = compileUncached(regex);
+      cache.put(regex, pattern);
+    }
+    return pattern;
+  }
+
+  /** Returns the configured cache size, or the default if it's unset, unreadable or malformed. */
+  static int size() {
+    // Reading system properties might be forbidden.
+    try {
+      String size = System.getProperty(SIZE_PROPERTY);
+      return size == null ? DEFAULT_SIZE : Integer.parseInt(size.trim());
+    } catch (SecurityException e) {
+      // Hope for the best.
+      return DEFAULT_SIZE;
+    } catch (NumberFormatException e) {
+      return DEFAULT_SIZE;
+    }
+  }
+}
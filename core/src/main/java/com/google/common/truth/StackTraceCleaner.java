@@ -16,6 +16,7 @@
 package com.google.common.truth;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
+import static com.google.common.truth.AssertionInstrumentation.Phase.STACK_CLEANING;
 import static java.lang.Thread.currentThread;
 
 import com.google.common.annotations.GwtIncompatible;
@@ -43,7 +44,12 @@ final class StackTraceCleaner {
    * the bottom. Collapses the frames for various frameworks in the middle of the trace as well.
    */
   static void cleanStackTrace(Throwable throwable) {
-    new StackTraceCleaner(throwable).clean(Sets.<Throwable>newIdentityHashSet());
+    long start = AssertionInstrumentation.startPhase();
+    try {
+      new StackTraceCleaner(throwable).clean(Sets.<Throwable>newIdentityHashSet());
+    } finally {
+      AssertionInstrumentation.endPhase(STACK_CLEANING, start);
+    }
   }
 
   private final Throwable throwable;
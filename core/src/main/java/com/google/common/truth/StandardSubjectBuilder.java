@@ -24,6 +24,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Table;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -80,6 +81,11 @@ public class StandardSubjectBuilder {
     return new ClassSubject(metadata(), actual);
   }
 
+  @GwtIncompatible("ByteBufferSubject.java")
+  public final ByteBufferSubject that(@Nullable ByteBuffer actual) {
+    return new ByteBufferSubject(metadata(), actual);
+  }
+
   public final ThrowableSubject that(@Nullable Throwable actual) {
     return new ThrowableSubject(metadata(), actual, "throwable");
   }
@@ -119,7 +119,7 @@ public class StringSubject extends ComparableSubject<String> {
     checkNotNull(regex);
     if (actual == null) {
       failWithActual("expected a string that matches", regex);
-    } else if (!actual.matches(regex)) {
+    } else if (!Platform.matches(actual, regex)) {
       if (regex.equals(actual)) {
         failWithoutActual(
             fact("expected to match", regex),
@@ -156,7 +156,7 @@ public class StringSubject extends ComparableSubject<String> {
     checkNotNull(regex);
     if (actual == null) {
       failWithActual("expected a string that does not match", regex);
-    } else if (actual.matches(regex)) {
+    } else if (Platform.matches(actual, regex)) {
       failWithActual("expected not to match", regex);
     }
   }
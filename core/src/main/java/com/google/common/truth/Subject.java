@@ -123,9 +123,10 @@ public class Subject {
    */
   Subject(
       FailureMetadata metadata, @Nullable Object actual, @Nullable String typeDescriptionOverride) {
-    this.metadata = metadata.updateForSubject(this);
+    // Set first, since updateForSubject passes the actual value to any AssertionListener.
     this.actual = actual;
     this.typeDescriptionOverride = typeDescriptionOverride;
+    this.metadata = metadata.updateForSubject(this);
   }
 
   /** Fails if the subject is not null. */
@@ -421,7 +422,9 @@ public class Subject {
   }
 
   private String formatActualOrExpected(@Nullable Object o) {
-    if (o instanceof byte[]) {
+    if (isLargePrimitiveArray(o)) {
+      return formatLargeArray(o);
+    } else if (o instanceof byte[]) {
       return base16((byte[]) o);
     } else if (o != null && o.getClass().isArray()) {
       String wrapped = Iterables.toString(stringableIterable(new Object[] {o}));
@@ -437,13 +440,47 @@ public class Subject {
 
   // We could add a dep on com.google.common.io, but that seems overkill for base16 encoding
   private static String base16(byte[] bytes) {
-    StringBuilder sb = new StringBuilder(2 * bytes.length);
-    for (byte b : bytes) {
-      sb.append(hexDigits[(b >> 4) & 0xf]).append(hexDigits[b & 0xf]);
+    return base16(bytes, bytes.length);
+  }
+
+  private static String base16(byte[] bytes, int length) {
+    StringBuilder sb = new StringBuilder(2 * length);
+    for (int i = 0; i < length; i++) {
+      sb.append(hexDigits[(bytes[i] >> 4) & 0xf]).append(hexDigits[bytes[i] & 0xf]);
     }
     return sb.toString();
   }
 
+  /*
+   * Primitive arrays longer than this are not rendered in full in failure messages, since a 100MB
+   * array would otherwise turn into several strings of hundreds of MB. Instead, we show their first
+   * few elements and their length, and equality failures describe where the arrays first differ
+   * rather than offering a ComparisonFailure. Object arrays are still rendered in full, so that
+   * their equality failures keep offering a ComparisonFailure.
+   */
+  private static final int MAX_FORMATTED_ARRAY_LENGTH = 1000;
+
+  // The number of elements shown at the start of a large array.
+  private static final int LARGE_ARRAY_PREFIX_LENGTH = 32;
+
+  private static boolean isLargePrimitiveArray(@Nullable Object o) {
+    return o != null
+        && o.getClass().isArray()
+        && o.getClass().getComponentType().isPrimitive()
+        && Array.getLength(o) > MAX_FORMATTED_ARRAY_LENGTH;
+  }
+
+  private static String formatLargeArray(Object array) {
+    int length = Array.getLength(array);
+    if (array instanceof byte[]) {
+      return base16((byte[]) array, LARGE_ARRAY_PREFIX_LENGTH) + "… (" + length + " bytes)";
+    }
+    String prefix =
+        Iterables.toString(
+            Iterables.limit((Iterable<?>) STRINGIFY.apply(array), LARGE_ARRAY_PREFIX_LENGTH));
+    return prefix.substring(0, prefix.length() - 1) + ", …] (" + length + " elements)";
+  }
+
   private static final char[] hexDigits = "0123456789ABCDEF".toCharArray();
 
   private static Iterable<?> stringableIterable(Object[] array) {
@@ -496,7 +533,12 @@ public class Subject {
 
     /** Returns a non-equal result with the given description. */
     static ComparisonResult differentWithDescription(Fact... facts) {
-      return new ComparisonResult(ImmutableList.copyOf(facts));
+      return differentWithDescription(ImmutableList.copyOf(facts));
+    }
+
+    /** Returns a non-equal result with the given description. */
+    static ComparisonResult differentWithDescription(ImmutableList<Fact> facts) {
+      return new ComparisonResult(facts);
     }
 
     /** Returns an equal result. */
@@ -536,16 +578,55 @@ public class Subject {
   /**
    * Returns null if the arrays are equal. If not equal, returns a string comparing the two arrays,
    * displaying them in the style "[1, 2, 3]" to supplement the main failure message, which uses the
-   * style "010203."
+   * style "010203." For large arrays, instead describes where they first differ, with a hexdump of
+   * the bytes around that index.
    */
   private static ComparisonResult checkByteArrayEquals(byte[] expected, byte[] actual) {
     if (Arrays.equals(expected, actual)) {
       return ComparisonResult.equal();
     }
+    if (isLargePrimitiveArray(expected) || isLargePrimitiveArray(actual)) {
+      return describeByteArrayDifference(expected, actual);
+    }
     return ComparisonResult.differentWithDescription(
         fact("expected", Arrays.toString(expected)), fact("but was", Arrays.toString(actual)));
   }
 
+  private static ComparisonResult describeByteArrayDifference(byte[] expected, byte[] actual) {
+    int commonLength = Math.min(expected.length, actual.length);
+    int firstDifference = Platform.mismatch(expected, actual, 0);
+    int differingBytes = Math.abs(expected.length - actual.length);
+    if (firstDifference < 0) {
+      // One array is a prefix of the other.
+      firstDifference = commonLength;
+    }
+    for (int i = firstDifference; i < commonLength; i++) {
+      if (expected[i] != actual[i]) {
+        differingBytes++;
+      }
+    }
+    ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+    if (expected.length == actual.length) {
+      facts.add(fact("length", actual.length));
+    } else {
+      facts.add(fact("expected length", expected.length));
+      facts.add(fact("actual length", actual.length));
+    }
+    facts.add(fact("first difference at index", firstDifference));
+    facts.add(fact("number of differing bytes", differingBytes));
+    facts.add(fact("expected bytes", hexdumpWindow(expected, firstDifference)));
+    facts.add(fact("actual bytes", hexdumpWindow(actual, firstDifference)));
+    return ComparisonResult.differentWithDescription(facts.build());
+  }
+
+  private static String hexdumpWindow(byte[] bytes, int index) {
+    int start = (int) HexDump.windowStart(index);
+    int end = (int) HexDump.windowEnd(index, bytes.length);
+    return start >= end
+        ? "(none)"
+        : HexDump.hexdump(Arrays.copyOfRange(bytes, start, end), start);
+  }
+
   /**
    * Returns null if the arrays are equal, recursively. If not equal, returns the string of the
    * index at which they're different.
@@ -856,6 +937,16 @@ public class Subject {
     // `equal` is always false for isEqualTo, but it varies for isSameInstanceAs:
     boolean equal = difference.valuesAreEqual();
 
+    if (equalityCheck == EqualityCheck.EQUAL
+        && (isLargePrimitiveArray(actual) || isLargePrimitiveArray(expected))) {
+      // The formatted arrays show only a prefix, so there's no point in comparing or diffing them.
+      failEqualityCheckNoComparisonFailure(
+          difference,
+          fact(equalityCheck.keyForExpected, expectedString),
+          fact("but was", actualString));
+      return;
+    }
+
     if (equalityCheck == EqualityCheck.EQUAL
         && (tryFailForTrailingWhitespaceOnly(expected) || tryFailForEmptyString(expected))) {
       // tryFailForTrailingWhitespaceOnly or tryFailForEmptyString reported a failure, so we're done
@@ -17,11 +17,18 @@ package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.fact;
 import static com.google.common.truth.Fact.simpleFact;
 
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
 import com.google.common.collect.Tables;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -109,4 +116,285 @@ public final class TableSubject extends Subject {
   public void containsValue(@Nullable Object value) {
     check("values()").that(actual.values()).contains(value);
   }
+
+  /**
+   * Fails if the table does not contain exactly the cells in the given table.
+   *
+   * <p>The tables are compared row by row, and a failure reports the first missing, unexpected and
+   * wrong-valued cells, grouped by row, rather than the full contents of either table.
+   */
+  public void containsExactlyCellsIn(Table<?, ?, ?> expectedTable) {
+    checkNotNull(expectedTable);
+    containsCellsIn(expectedTable, Correspondence.equality(), /* allowUnexpected= */ false);
+  }
+
+  /**
+   * Fails if the table does not contain at least the cells in the given table.
+   *
+   * <p>Only the rows and columns of the given table are looked up in the actual one, and a failure
+   * reports the first missing and wrong-valued cells, grouped by row.
+   */
+  public void containsAtLeastCellsIn(Table<?, ?, ?> expectedTable) {
+    checkNotNull(expectedTable);
+    containsCellsIn(expectedTable, Correspondence.equality(), /* allowUnexpected= */ true);
+  }
+
+  /**
+   * Starts a method chain for a check in which the actual values (i.e. the values of the {@link
+   * Table} under test) are compared to expected values using the given {@link Correspondence}. The
+   * actual values must be of type {@code A}, the expected values must be of type {@code E}. The
+   * check is actually executed by continuing the method chain. For example:
+   *
+   * <pre>{@code
+   * assertThat(actualTable)
+   *   .comparingValuesUsing(correspondence)
+   *   .containsExactlyCellsIn(expectedTable);
+   * }</pre>
+   *
+   * where {@code actualTable} is a {@code Table<?, ?, A>} (or, more generally, a {@code Table<?, ?,
+   * ? extends A>}), {@code correspondence} is a {@code Correspondence<A, E>}, and {@code
+   * expectedTable} is a {@code Table<?, ?, E>}.
+   *
+   * <p>Any of the methods on the returned object may throw {@link ClassCastException} if they
+   * encounter an actual value that is not of type {@code A}.
+   */
+  public <A, E> UsingCorrespondence<A, E> comparingValuesUsing(
+      Correspondence<? super A, ? super E> correspondence) {
+    return new UsingCorrespondence<>(correspondence);
+  }
+
+  /**
+   * A partially specified check in which the actual values (i.e. the values of the {@link Table}
+   * under test) are compared to expected values using a {@link Correspondence}. The expected values
+   * are of type {@code E}. Call methods on this object to actually execute the check.
+   */
+  public final class UsingCorrespondence<A, E> {
+    private final Correspondence<? super A, ? super E> correspondence;
+
+    private UsingCorrespondence(Correspondence<? super A, ? super E> correspondence) {
+      this.correspondence = checkNotNull(correspondence);
+    }
+
+    /**
+     * Fails if the table does not contain exactly the row and column keys of the cells in the given
+     * table, with values that correspond to the values of those cells.
+     */
+    public void containsExactlyCellsIn(Table<?, ?, ? extends E> expectedTable) {
+      checkNotNull(expectedTable);
+      containsCellsIn(expectedTable, correspondence, /* allowUnexpected= */ false);
+    }
+
+    /**
+     * Fails if the table does not contain at least the row and column keys of the cells in the
+     * given table, with values that correspond to the values of those cells.
+     */
+    public void containsAtLeastCellsIn(Table<?, ?, ? extends E> expectedTable) {
+      checkNotNull(expectedTable);
+      containsCellsIn(expectedTable, correspondence, /* allowUnexpected= */ true);
+    }
+  }
+
+  private <A, E> void containsCellsIn(
+      Table<?, ?, ? extends E> expectedTable,
+      Correspondence<? super A, ? super E> correspondence,
+      boolean allowUnexpected) {
+    Correspondence.ExceptionStore exceptions = Correspondence.ExceptionStore.forMapValues();
+    @SuppressWarnings("unchecked") // throwing ClassCastException is the correct behaviour
+    Table<?, ?, A> actualTable = (Table<?, ?, A>) actual;
+    TableDifference<A, E> diff =
+        TableDifference.create(
+            actualTable, expectedTable, allowUnexpected, correspondence, exceptions);
+    if (diff.isEmpty()) {
+      // There's no need to check exceptions here, because if Correspondence.compare() threw then
+      // safeCompare() would return false and the diff would record a wrong value for that cell.
+      return;
+    }
+    failWithoutActual(
+        ImmutableList.<Fact>builder()
+            .addAll(diff.describe(correspondence, exceptions))
+            .add(simpleFact("---"))
+            .add(
+                fact(
+                    allowUnexpected ? "expected to contain at least" : "expected to contain",
+                    cells(expectedTable.size())))
+            .addAll(correspondence.describeForMapValues())
+            .add(fact("but contained", cells(actual.size())))
+            .addAll(exceptions.describeAsAdditionalInfo())
+            .build());
+  }
+
+  /**
+   * The cells that differ between two tables, found by walking the rows of the expected table and
+   * looking each one up in the {@link Table#rowMap} of the actual one. Rows that are equal are
+   * skipped without looking at their cells when the values are compared with {@code equals}. At
+   * most {@link #MAX_REPORTED_CELLS} cells of each kind are kept, but all of them are counted.
+   */
+  private static final class TableDifference<A, E> {
+    /** The most cells of each kind (missing, unexpected, wrong value) included in a failure. */
+    static final int MAX_REPORTED_CELLS = 50;
+
+    final CellGroup<E> missing = new CellGroup<>();
+    final CellGroup<A> unexpected = new CellGroup<>();
+    final CellGroup<ValueDifference<A, E>> wrongValues = new CellGroup<>();
+
+    static <A, E> TableDifference<A, E> create(
+        Table<?, ?, ? extends A> actual,
+        Table<?, ?, ? extends E> expected,
+        boolean allowUnexpected,
+        Correspondence<? super A, ? super E> correspondence,
+        Correspondence.ExceptionStore exceptions) {
+      TableDifference<A, E> diff = new TableDifference<>();
+      Map<?, ? extends Map<?, ? extends A>> actualRows = actual.rowMap();
+      Map<?, ? extends Map<?, ? extends E>> expectedRows = expected.rowMap();
+      boolean equality = correspondence.isEquality();
+      int sharedRows = 0;
+      for (Map.Entry<?, ? extends Map<?, ? extends E>> expectedRow : expectedRows.entrySet()) {
+        Object rowKey = expectedRow.getKey();
+        Map<?, ? extends E> expectedCells = expectedRow.getValue();
+        Map<?, ? extends A> actualCells = actualRows.get(rowKey);
+        if (actualCells == null) {
+          for (Map.Entry<?, ? extends E> cell : expectedCells.entrySet()) {
+            diff.missing.add(rowKey, cell.getKey(), cell.getValue());
+          }
+          continue;
+        }
+        sharedRows++;
+        if (equality && actualCells.equals(expectedCells)) {
+          continue;
+        }
+        int sharedColumns = 0;
+        for (Map.Entry<?, ? extends E> cell : expectedCells.entrySet()) {
+          Object columnKey = cell.getKey();
+          E expectedValue = cell.getValue();
+          if (!actualCells.containsKey(columnKey)) {
+            diff.missing.add(rowKey, columnKey, expectedValue);
+            continue;
+          }
+          sharedColumns++;
+          A actualValue = actualCells.get(columnKey);
+          if (!correspondence.safeCompare(actualValue, expectedValue, exceptions)) {
+            diff.wrongValues.add(
+                rowKey, columnKey, new ValueDifference<A, E>(actualValue, expectedValue));
+          }
+        }
+        if (!allowUnexpected && actualCells.size() > sharedColumns) {
+          for (Map.Entry<?, ? extends A> cell : actualCells.entrySet()) {
+            if (!expectedCells.containsKey(cell.getKey())) {
+              diff.unexpected.add(rowKey, cell.getKey(), cell.getValue());
+            }
+          }
+        }
+      }
+      if (!allowUnexpected && actualRows.size() > sharedRows) {
+        for (Map.Entry<?, ? extends Map<?, ? extends A>> actualRow : actualRows.entrySet()) {
+          if (!expectedRows.containsKey(actualRow.getKey())) {
+            for (Map.Entry<?, ? extends A> cell : actualRow.getValue().entrySet()) {
+              diff.unexpected.add(actualRow.getKey(), cell.getKey(), cell.getValue());
+            }
+          }
+        }
+      }
+      return diff;
+    }
+
+    boolean isEmpty() {
+      return missing.count == 0 && unexpected.count == 0 && wrongValues.count == 0;
+    }
+
+    ImmutableList<Fact> describe(
+        final Correspondence<? super A, ? super E> correspondence,
+        final Correspondence.ExceptionStore exceptions) {
+      ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+      if (wrongValues.count > 0) {
+        facts.add(
+            fact(
+                "cells with wrong values (" + wrongValues.count + ")",
+                wrongValues.format(
+                    "; ",
+                    new CellFormatter<ValueDifference<A, E>>() {
+                      @Override
+                      public String format(Object columnKey, ValueDifference<A, E> value) {
+                        String diff =
+                            correspondence.safeFormatDiff(value.actual, value.expected, exceptions);
+                        return columnKey
+                            + ": expected "
+                            + value.expected
+                            + ", but was "
+                            + value.actual
+                            + (diff == null ? "" : ", diff: " + diff);
+                      }
+                    })));
+      }
+      if (missing.count > 0) {
+        facts.add(
+            fact("missing (" + missing.count + ")", missing.format(", ", new EntryFormatter<E>())));
+      }
+      if (unexpected.count > 0) {
+        facts.add(
+            fact(
+                "unexpected (" + unexpected.count + ")",
+                unexpected.format(", ", new EntryFormatter<A>())));
+      }
+      return facts.build();
+    }
+  }
+
+  private static String cells(int count) {
+    return count + (count == 1 ? " cell" : " cells");
+  }
+
+  private static final class ValueDifference<A, E> {
+    final A actual;
+    final E expected;
+
+    ValueDifference(@Nullable A actual, @Nullable E expected) {
+      this.actual = actual;
+      this.expected = expected;
+    }
+  }
+
+  private interface CellFormatter<V> {
+    String format(Object columnKey, V value);
+  }
+
+  private static final class EntryFormatter<V> implements CellFormatter<V> {
+    @Override
+    public String format(Object columnKey, V value) {
+      return columnKey + "=" + value;
+    }
+  }
+
+  /** The first cells of some kind, by row, and the total number of them. */
+  private static final class CellGroup<V> {
+    final Map<Object, Map<Object, V>> rows = new LinkedHashMap<>();
+    int count;
+
+    void add(@Nullable Object rowKey, @Nullable Object columnKey, @Nullable V value) {
+      if (count++ >= TableDifference.MAX_REPORTED_CELLS) {
+        return;
+      }
+      Map<Object, V> row = rows.get(rowKey);
+      if (row == null) {
+        row = new LinkedHashMap<>();
+        rows.put(rowKey, row);
+      }
+      row.put(columnKey, value);
+    }
+
+    /** Returns one line for each row, or "…" for the cells that weren't kept. */
+    String format(String separator, CellFormatter<? super V> formatter) {
+      List<String> lines = new ArrayList<>();
+      for (Map.Entry<Object, Map<Object, V>> row : rows.entrySet()) {
+        List<String> cells = new ArrayList<>();
+        for (Map.Entry<Object, V> cell : row.getValue().entrySet()) {
+          cells.add(formatter.format(cell.getKey(), cell.getValue()));
+        }
+        lines.add(row.getKey() + ": {" + Joiner.on(separator).join(cells) + "}");
+      }
+      if (count > TableDifference.MAX_REPORTED_CELLS) {
+        lines.add("… (" + (count - TableDifference.MAX_REPORTED_CELLS) + " more)");
+      }
+      return Joiner.on('\n').join(lines);
+    }
+  }
 }
@@ -23,6 +23,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Table;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -161,6 +162,11 @@ public final class Truth {
     return assert_().that(actual);
   }
 
+  @GwtIncompatible("ByteBufferSubject.java")
+  public static ByteBufferSubject assertThat(@Nullable ByteBuffer actual) {
+    return assert_().that(actual);
+  }
+
   public static ThrowableSubject assertThat(@Nullable Throwable actual) {
     return assert_().that(actual);
   }
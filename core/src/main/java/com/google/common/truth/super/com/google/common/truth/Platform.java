@@ -20,6 +20,7 @@ import static java.lang.Float.parseFloat;
 import static jsinterop.annotations.JsPackage.GLOBAL;
 
 import com.google.common.collect.ImmutableList;
+import java.util.List;
 import jsinterop.annotations.JsMethod;
 import jsinterop.annotations.JsProperty;
 import jsinterop.annotations.JsType;
@@ -56,6 +57,37 @@ final class Platform {
     return compile(regex).test(subject);
   }
 
+  /** Determines if the given subject matches the given regex in its entirety. */
+  static boolean matches(String subject, String regex) {
+    return subject.matches(regex);
+  }
+
+  /** Runs the tasks one after another, since there are no other threads to run them on. */
+  static void runConcurrently(List<Runnable> tasks) {
+    for (Runnable task : tasks) {
+      task.run();
+    }
+  }
+
+  /**
+   * Returns the first index at or after {@code fromIndex} at which the arrays differ, or -1 if
+   * they're equal up to the length of the shorter one.
+   */
+  static int mismatch(byte[] a, byte[] b, int fromIndex) {
+    int length = Math.min(a.length, b.length);
+    for (int i = fromIndex; i < length; i++) {
+      if (a[i] != b[i]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Does nothing, since there is no way to register an {@code AssertionListener} under GWT. */
+  static void assertionStarted(Subject subject) {}
+
+  static void failureConstructed(AssertionError failure) {}
+
   /**
    * Returns an array containing all of the exceptions that were suppressed to deliver the given
    * exception. Delegates to the getSuppressed() method on Throwable that is available in Java 1.7+
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.annotations.GwtIncompatible;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link AssertionCostHistogram}. */
+@RunWith(JUnit4.class)
+@GwtIncompatible("java.util.concurrent.atomic.AtomicLongArray")
+public class AssertionCostHistogramTest {
+  @Test
+  public void reportsCallSitesByTotalTime() throws Exception {
+    AssertionCostHistogram histogram = new AssertionCostHistogram(/* printAtExit= */ false);
+    for (int i = 0; i < 3; i++) {
+      recordCheap(histogram);
+    }
+    recordExpensive(histogram);
+
+    String report = report(histogram, 10);
+
+    assertThat(report).contains("top 2 of 2 call sites");
+    int expensive = report.indexOf("recordExpensive");
+    int cheap = report.indexOf("recordCheap");
+    assertThat(expensive).isGreaterThan(0);
+    assertThat(cheap).isGreaterThan(expensive);
+    assertThat(report).containsMatch("5000\\.000 +1 .* 1000000 +\\S*AssertionCostHistogramTest");
+    assertThat(report).containsMatch("0\\.006 +3 .* - +\\S*AssertionCostHistogramTest");
+    assertThat(report).containsMatch("recordExpensive\\(.*\\) IterableSubject");
+  }
+
+  @Test
+  public void reportIsLimitedToSize() throws Exception {
+    AssertionCostHistogram histogram = new AssertionCostHistogram(/* printAtExit= */ false);
+    recordCheap(histogram);
+    recordExpensive(histogram);
+
+    String report = report(histogram, 1);
+
+    assertThat(report).contains("top 1 of 2 call sites");
+    assertThat(report).contains("recordExpensive");
+    assertThat(report).doesNotContain("recordCheap");
+  }
+
+  @Test
+  public void emptyReport() throws Exception {
+    assertThat(report(new AssertionCostHistogram(/* printAtExit= */ false), 10)).isEmpty();
+  }
+
+  private static void recordCheap(AssertionCostHistogram histogram) {
+    histogram.assertionStarted(Subject.class, -1);
+    histogram.assertionFinished(Subject.class, -1, 2_000);
+  }
+
+  private static void recordExpensive(AssertionCostHistogram histogram) {
+    histogram.assertionStarted(IterableSubject.class, 1_000_000);
+    histogram.assertionFinished(IterableSubject.class, 1_000_000, 5_000_000_000L);
+  }
+
+  private static String report(AssertionCostHistogram histogram, int size)
+      throws UnsupportedEncodingException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    histogram.printReport(new PrintStream(bytes, true, "UTF-8"), size);
+    return bytes.toString("UTF-8");
+  }
+}
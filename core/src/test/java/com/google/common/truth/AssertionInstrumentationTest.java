@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.Arrays.asList;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for {@link AssertionInstrumentation}.
+ *
+ * <p>{@link RecordingListener} is registered for all of Truth's tests through {@code
+ * META-INF/services}, but it records only while a test here has turned it on.
+ */
+@RunWith(JUnit4.class)
+@GwtIncompatible("java.util.ServiceLoader")
+public class AssertionInstrumentationTest extends BaseSubjectTestCase {
+  @Before
+  public void startRecording() {
+    // Start with no assertion in progress, not even one from an earlier test.
+    AssertionInstrumentation.finish();
+    RecordingListener.events = Collections.synchronizedList(new ArrayList<String>());
+  }
+
+  @After
+  public void stopRecording() {
+    RecordingListener.events = null;
+  }
+
+  @Test
+  public void reportsStartAndFinish() {
+    assertThat(asList(1, 2, 3)).containsExactlyElementsIn(ImmutableSet.of(3, 2, 1));
+
+    assertThat(stop())
+        .containsExactly("started IterableSubject 3", "finished IterableSubject 3")
+        .inOrder();
+  }
+
+  @Test
+  public void nextAssertionFinishesPrevious() {
+    assertThat("a").isEqualTo("a");
+    assertThat(ImmutableList.of(1, 2)).hasSize(2);
+
+    assertThat(stop())
+        .containsExactly(
+            "started StringSubject 1",
+            "finished StringSubject 1",
+            "started IterableSubject 2",
+            "finished IterableSubject 2")
+        .inOrder();
+  }
+
+  @Test
+  public void derivedSubjectsArePartOfAssertion() {
+    // containsKey makes its check on a subject for the map's keys.
+    assertThat(ImmutableMap.of("a", 1)).containsKey("a");
+
+    assertThat(stop())
+        .containsExactly("started MapSubject 1", "finished MapSubject 1")
+        .inOrder();
+  }
+
+  @Test
+  public void reportsFailingAssertion() {
+    expectFailure.whenTesting().that("abc").contains("abcd");
+    List<String> events = stop();
+
+    assertThat(events)
+        .containsExactly(
+            "started StringSubject 3", "failed StringSubject 2 facts", "finished StringSubject 3")
+        .inOrder();
+  }
+
+  @Test
+  public void reportsFailureConstruction() {
+    expectFailure.whenTesting().that(ImmutableList.of(1, 2))
+        .containsExactlyElementsIn(ImmutableList.of(1, 3));
+    List<String> events = stop();
+
+    assertThat(events)
+        .containsExactly(
+            "started IterableSubject 2",
+            "failed IterableSubject 5 facts",
+            "finished IterableSubject 2")
+        .inOrder();
+    assertThat(RecordingListener.lastMessageLength)
+        .isEqualTo(expectFailure.getFailure().getMessage().length());
+  }
+
+  @Test
+  public void reportsFailureWithoutSubject() {
+    expectFailure.whenTesting().fail();
+
+    assertThat(stop()).containsExactly("failed null 0 facts");
+  }
+
+  @Test
+  public void reportsCorrespondenceAssertion() {
+    assertThat(ImmutableMultimap.of("a", 1.0, "a", 2.0))
+        .comparingValuesUsing(Correspondence.tolerance(0.1))
+        .containsAtLeastEntriesIn(ImmutableMultimap.of("a", 2.05));
+
+    assertThat(stop())
+        .containsExactly("started MultimapSubject 2", "finished MultimapSubject 2")
+        .inOrder();
+  }
+
+  @Test
+  public void reportsUnknownSize() {
+    assertThat(new Object()).isNotEqualTo(new Object());
+
+    assertThat(stop()).containsExactly("started Subject -1", "finished Subject -1").inOrder();
+  }
+
+  @Test
+  public void listenerThrowingOnStart() {
+    RecordingListener.throwOnStart = true;
+    try {
+      assertThat(1).isEqualTo(1);
+      throw new AssertionError("the listener should have thrown");
+    } catch (IllegalStateException expected) {
+    } finally {
+      RecordingListener.throwOnStart = false;
+    }
+
+    // The assertion whose start failed is never reported as finished.
+    assertThat(2).isEqualTo(2);
+
+    assertThat(stop())
+        .containsExactly("started IntegerSubject -1", "finished IntegerSubject -1")
+        .inOrder();
+  }
+
+  @Test
+  public void loadListeners_propertyAndProviders() {
+    ImmutableList<AssertionListener> listeners =
+        AssertionInstrumentation.loadListeners(
+            RecordingListener.class.getName(),
+            ImmutableList.of(new AssertionCostHistogram(/* printAtExit= */ false)));
+
+    assertThat(listeners).hasSize(2);
+    assertThat(listeners.get(0)).isInstanceOf(RecordingListener.class);
+    assertThat(listeners.get(1)).isInstanceOf(AssertionCostHistogram.class);
+  }
+
+  @Test
+  public void loadListeners_classInBothPlaces() {
+    ImmutableList<AssertionListener> listeners =
+        AssertionInstrumentation.loadListeners(
+            RecordingListener.class.getName(),
+            ImmutableList.<AssertionListener>of(new RecordingListener()));
+
+    assertThat(listeners).hasSize(1);
+  }
+
+  @Test
+  public void loadListeners_providersOnly() {
+    RecordingListener provider = new RecordingListener();
+
+    assertThat(
+            AssertionInstrumentation.loadListeners(
+                null, ImmutableList.<AssertionListener>of(provider)))
+        .containsExactly(provider);
+  }
+
+  @Test
+  public void sizeOf() {
+    assertThat(AssertionInstrumentation.sizeOf(ImmutableList.of(1, 2))).isEqualTo(2);
+    assertThat(AssertionInstrumentation.sizeOf(ImmutableMap.of(1, 2))).isEqualTo(1);
+    assertThat(AssertionInstrumentation.sizeOf(ImmutableMultimap.of(1, 2, 1, 3))).isEqualTo(2);
+    assertThat(AssertionInstrumentation.sizeOf(new int[5])).isEqualTo(5);
+    assertThat(AssertionInstrumentation.sizeOf("hello")).isEqualTo(5);
+    assertThat(AssertionInstrumentation.sizeOf(ByteBuffer.allocate(8).position(6))).isEqualTo(2);
+    assertThat(AssertionInstrumentation.sizeOf(7)).isEqualTo(-1);
+    assertThat(AssertionInstrumentation.sizeOf(null)).isEqualTo(-1);
+  }
+
+  private static List<String> stop() {
+    AssertionInstrumentation.finish();
+    List<String> events = RecordingListener.events;
+    RecordingListener.events = null;
+    return events;
+  }
+
+  /** Records each event, without the elapsed time, while {@link #events} is non-null. */
+  public static final class RecordingListener implements AssertionListener {
+    static volatile @Nullable List<String> events;
+    static volatile int lastMessageLength;
+    static volatile boolean throwOnStart;
+
+    @Override
+    public void assertionStarted(Class<? extends Subject> subjectClass, long actualSize) {
+      if (throwOnStart) {
+        throw new IllegalStateException("listener failed");
+      }
+      record("started " + subjectClass.getSimpleName() + " " + actualSize);
+    }
+
+    @Override
+    public void assertionFinished(
+        Class<? extends Subject> subjectClass, long actualSize, long elapsedNanos) {
+      if (elapsedNanos < 0) {
+        throw new AssertionError("negative elapsed time: " + elapsedNanos);
+      }
+      record("finished " + subjectClass.getSimpleName() + " " + actualSize);
+    }
+
+    @Override
+    public void failureConstructed(
+        @Nullable Class<? extends Subject> subjectClass,
+        int messageLength,
+        int factCount,
+        long stackCleaningNanos,
+        long inferenceNanos,
+        long diffNanos) {
+      if (stackCleaningNanos < 0 || inferenceNanos < 0 || diffNanos < 0) {
+        throw new AssertionError("negative phase time");
+      }
+      if (events != null) {
+        lastMessageLength = messageLength;
+      }
+      record(
+          "failed "
+              + (subjectClass == null ? null : subjectClass.getSimpleName())
+              + " "
+              + factCount
+              + " facts");
+    }
+
+    private static void record(String event) {
+      List<String> events = RecordingListener.events;
+      if (events != null) {
+        events.add(event);
+      }
+    }
+  }
+}
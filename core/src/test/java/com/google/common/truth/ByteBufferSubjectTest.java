@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.annotations.GwtIncompatible;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ByteBufferSubject}. */
+@RunWith(JUnit4.class)
+@GwtIncompatible("java.nio.ByteBuffer")
+public class ByteBufferSubjectTest extends BaseSubjectTestCase {
+  @Test
+  public void isEqualTo() {
+    ByteBuffer actual = ByteBuffer.allocateDirect(100_000);
+    actual.put(70_000, (byte) 'x');
+    actual.position(10);
+    ByteBuffer expected = ByteBuffer.allocate(100_000).order(ByteOrder.LITTLE_ENDIAN);
+    expected.put(70_000, (byte) 'x');
+    expected.position(10);
+
+    assertThat(actual).isEqualTo(expected);
+    assertThat(actual.position()).isEqualTo(10);
+    assertThat(expected.position()).isEqualTo(10);
+  }
+
+  @Test
+  public void isEqualTo_onlyRemainingBytesCompared() {
+    ByteBuffer actual = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    actual.position(1);
+    assertThat(actual).isEqualTo(ByteBuffer.wrap(new byte[] {2, 3}));
+  }
+
+  @Test
+  public void isEqualTo_fail() {
+    ByteBuffer actual = ByteBuffer.allocate(100_000);
+    actual.put(70_000, (byte) 'x');
+    actual.put(90_000, (byte) 1);
+    expectFailureWhenTestingThat(actual).isEqualTo(ByteBuffer.allocate(100_000));
+    assertFailureKeys(
+        "first difference at index",
+        "number of differing bytes",
+        "expected bytes",
+        "actual bytes",
+        "but was");
+    assertFailureValue("first difference at index", "70000");
+    assertFailureValue("number of differing bytes", "2");
+    assertFailureValue(
+        "actual bytes",
+        "00011150: 0000 0000 0000 0000 0000 0000 0000 0000  ................\n"
+            + "00011160: 0000 0000 0000 0000 0000 0000 0000 0000  ................\n"
+            + "00011170: 7800 0000 0000 0000 0000 0000 0000 0000  x...............\n"
+            + "00011180: 0000 0000 0000 0000 0000 0000 0000 0000  ................\n"
+            + "00011190: 0000 0000 0000 0000 0000 0000 0000 0000  ................");
+  }
+
+  @Test
+  public void isEqualTo_fail_differentRemaining() {
+    ByteBuffer actual = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    expectFailureWhenTestingThat(actual).isEqualTo(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5}));
+    assertFailureKeys(
+        "expected remaining",
+        "but remaining was",
+        "first difference at index",
+        "number of differing bytes",
+        "expected bytes",
+        "actual bytes",
+        "but was");
+    assertFailureValue("expected remaining", "5");
+    assertFailureValue("but remaining was", "3");
+    assertFailureValue("first difference at index", "3");
+    assertFailureValue("number of differing bytes", "2");
+    assertFailureValue(
+        "expected bytes", "00000000: 0102 0304 05                             .....");
+    assertFailureValue("actual bytes", "00000000: 0102 03                                  ...");
+  }
+
+  @Test
+  public void isEqualTo_notAByteBuffer() {
+    expectFailureWhenTestingThat(ByteBuffer.allocate(1)).isEqualTo(new byte[1]);
+    assertFailureKeys("expected", "but was");
+  }
+
+  @Test
+  public void hasContent() {
+    assertThat(ByteBuffer.wrap(new byte[] {1, 2, 3})).hasContent(new byte[] {1, 2, 3});
+
+    expectFailureWhenTestingThat(ByteBuffer.wrap(new byte[] {1, 2, 3}))
+        .hasContent(new byte[] {1, 9, 3});
+    assertFailureValue("first difference at index", "1");
+    assertFailureValue("number of differing bytes", "1");
+  }
+
+  @Test
+  public void hasRemaining() {
+    assertThat(ByteBuffer.allocate(7)).hasRemaining(7);
+
+    expectFailureWhenTestingThat(ByteBuffer.allocate(7)).hasRemaining(8);
+    assertFailureKeys("value of", "expected", "but was", "byteBuffer was");
+    assertFailureValue("value of", "byteBuffer.remaining()");
+  }
+
+  @Test
+  public void hasRemaining_negative() {
+    try {
+      assertThat(ByteBuffer.allocate(7)).hasRemaining(-1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test
+  public void startsWith() {
+    ByteBuffer actual = ByteBuffer.wrap("hello, world".getBytes());
+    assertThat(actual).startsWith("hello".getBytes());
+    assertThat(actual).startsWith(new byte[0]);
+
+    expectFailureWhenTestingThat(actual).startsWith("help".getBytes());
+    assertFailureKeys(
+        "expected to start with",
+        "first difference at index",
+        "expected bytes",
+        "actual bytes",
+        "but was");
+    assertFailureValue("first difference at index", "3");
+  }
+
+  @Test
+  public void startsWith_tooShort() {
+    expectFailureWhenTestingThat(ByteBuffer.wrap("he".getBytes())).startsWith("hello".getBytes());
+    assertFailureKeys("expected to start with", "but remaining was", "but was");
+    assertFailureValue("but remaining was", "2");
+  }
+
+  @Test
+  public void containsSubsequence() {
+    ByteBuffer actual = ByteBuffer.wrap("hello, world".getBytes());
+    actual.position(2);
+    assertThat(actual).containsSubsequence("lo, w".getBytes());
+    assertThat(actual).containsSubsequence("world".getBytes());
+
+    expectFailureWhenTestingThat(actual).containsSubsequence("hello".getBytes());
+    assertFailureKeys("expected to contain", "but remaining was", "but was");
+    assertFailureValue(
+        "expected to contain", "00000000: 6865 6c6c 6f                             hello");
+  }
+
+  @Test
+  public void hasContent_nullActual() {
+    expectFailureWhenTestingThat(null).hasContent(new byte[] {1});
+    assertFailureKeys("expected a buffer with content", "but was");
+  }
+
+  @Test
+  public void hasRemaining_nullActual() {
+    expectFailureWhenTestingThat(null).hasRemaining(1);
+    assertFailureKeys("expected a buffer with remaining", "but was");
+  }
+
+  @Test
+  public void startsWith_nullActual() {
+    expectFailureWhenTestingThat(null).startsWith(new byte[] {1});
+    assertFailureKeys("expected to start with", "but was");
+  }
+
+  @Test
+  public void containsSubsequence_nullActual() {
+    expectFailureWhenTestingThat(null).containsSubsequence(new byte[] {1});
+    assertFailureKeys("expected to contain", "but was");
+  }
+
+  private ByteBufferSubject expectFailureWhenTestingThat(ByteBuffer actual) {
+    return expectFailure.whenTesting().that(actual);
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.annotations.GwtIncompatible;
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.runners.model.Statement;
+
+/** Tests for {@link Expect} instances that keep a bounded number of failures or group them. */
+@RunWith(JUnit4.class)
+@GwtIncompatible("JUnit4")
+public class ExpectBoundedTest {
+  @Test
+  public void maxFailures() {
+    final Expect expect = Expect.createWithMaxFailures(2);
+    String message =
+        failureMessage(
+            expect,
+            new Statement() {
+              @Override
+              public void evaluate() {
+                for (int i = 0; i < 5; i++) {
+                  expect.withMessage("x%s", i).fail();
+                }
+                assertThat(expect.hasFailures()).isTrue();
+              }
+            });
+
+    assertThat(message).startsWith("5 expectations failed:\n");
+    assertThat(message).contains("1. x0");
+    assertThat(message).contains("2. x1");
+    assertThat(message).doesNotContain("x2");
+    assertThat(message)
+        .endsWith("  (3 more failures were only counted. At most 2 failures are kept.)\n");
+  }
+
+  @Test
+  public void maxFailures_notReached() {
+    final Expect expect = Expect.createWithMaxFailures(2);
+    String message =
+        failureMessage(
+            expect,
+            new Statement() {
+              @Override
+              public void evaluate() {
+                expect.withMessage("x").fail();
+              }
+            });
+
+    assertThat(message).startsWith("1 expectation failed:\n");
+    assertThat(message).doesNotContain("only counted");
+  }
+
+  @Test
+  public void maxFailures_exceptionIsKept() {
+    final Expect expect = Expect.createWithMaxFailures(1);
+    String message =
+        failureMessage(
+            expect,
+            new Statement() {
+              @Override
+              public void evaluate() {
+                expect.withMessage("x").fail();
+                expect.withMessage("y").fail();
+                throw new IllegalStateException("oops");
+              }
+            });
+
+    assertThat(message).startsWith("3 expectations failed:\n");
+    assertThat(message).contains("1. x");
+    assertThat(message).contains("2. Also, after those failures, an exception was thrown:");
+    assertThat(message).contains("IllegalStateException: oops");
+    assertThat(message)
+        .contains(
+            "(1 more failure was only counted. At most 1 failure is kept, not counting the"
+                + " exception that ended the test.)");
+  }
+
+  @Test
+  public void grouping() {
+    final Expect expect = Expect.createGroupingFailures(2, 100);
+    String message =
+        failureMessage(
+            expect,
+            new Statement() {
+              @Override
+              public void evaluate() {
+                for (int i = 0; i < 1000; i++) {
+                  expect.that(i).isEqualTo(-1);
+                }
+                expect.that("abc").isEmpty();
+              }
+            });
+
+    assertThat(message).startsWith("1001 expectations failed, in 2 groups:\n");
+    assertThat(message)
+        .containsMatch(
+            "  1\\. 1000 failures at com\\.google\\.common\\.truth\\.ExpectBoundedTest\\S+"
+                + "\\(ExpectBoundedTest\\.java:\\d+\\) with facts \\[expected, but was\\]:\n");
+    assertThat(message).contains("but was : 0");
+    assertThat(message).contains("but was : 1");
+    assertThat(message).doesNotContain("but was : 2");
+    assertThat(message).contains("\n     ... and 998 more like these\n");
+    assertThat(message)
+        .containsMatch("  2\\. 1 failure at \\S+ with facts \\[expected to be empty");
+    assertThat(message).doesNotContain("only counted");
+  }
+
+  @Test
+  public void grouping_maxFailures() {
+    final Expect expect = Expect.createGroupingFailures(1, 2);
+    String message =
+        failureMessage(
+            expect,
+            new Statement() {
+              @Override
+              public void evaluate() {
+                for (int i = 0; i < 3; i++) {
+                  expect.that(i).isEqualTo(-1);
+                  expect.that(i).isNull();
+                  expect.that(i).isLessThan(0);
+                }
+              }
+            });
+
+    assertThat(message).startsWith("9 expectations failed, in 2 groups:\n");
+    assertThat(message).contains("1. 3 failures at ");
+    assertThat(message).contains("2. 3 failures at ");
+    assertThat(message).doesNotContain("3. ");
+    assertThat(message)
+        .endsWith(
+            "  (3 more failures didn't fit in these groups and were only counted. At most 2"
+                + " failures are kept.)\n");
+  }
+
+  @Test
+  public void invalidArguments() {
+    try {
+      Expect.createWithMaxFailures(0);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      Expect.createGroupingFailures(0, 10);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  private static String failureMessage(Expect expect, Statement test) {
+    try {
+      expect.apply(test, Description.EMPTY).evaluate();
+    } catch (AssertionError e) {
+      return e.getMessage();
+    } catch (Throwable t) {
+      throw new AssertionError(t);
+    }
+    throw new AssertionError("expected the test to fail");
+  }
+}
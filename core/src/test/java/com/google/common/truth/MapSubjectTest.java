@@ -23,10 +23,13 @@ import static com.google.common.truth.Truth.assertThat;
 import static java.lang.String.CASE_INSENSITIVE_ORDER;
 import static org.junit.Assert.fail;
 
+import com.google.common.collect.ForwardingMap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -511,6 +514,13 @@ public class MapSubjectTest extends BaseSubjectTestCase {
     assertFailureValue("but got value", "3");
   }
 
+  @Test
+  public void containsAtLeastOnlyProbesExpectedKeys() {
+    Map<String, Integer> actual = new UniterableMap<>(ImmutableMap.of("jan", 1, "feb", 2));
+    assertThat(actual).containsAtLeast("feb", 2);
+    assertThat(actual).containsAtLeastEntriesIn(ImmutableMap.of("jan", 1, "feb", 2));
+  }
+
   @Test
   public void containsAtLeastWrongValueWithNull() {
     // Test for https://github.com/google/truth/issues/468
@@ -1716,6 +1726,63 @@ public class MapSubjectTest extends BaseSubjectTestCase {
         .startsWith("formatDiff(null, 60) threw java.lang.NullPointerException");
   }
 
+  @Test
+  public void comparingValuesUsing_inParallel_containsExactlyEntriesIn_success() {
+    Map<Integer, Integer> expected = new LinkedHashMap<>();
+    Map<Integer, Integer> actual = new LinkedHashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      expected.put(i, i);
+      actual.put(i, i + 5);
+    }
+    assertThat(actual)
+        .comparingValuesUsing(WITHIN_10_OF)
+        .inParallel()
+        .containsExactlyEntriesIn(expected)
+        .inOrder();
+  }
+
+  @Test
+  public void comparingValuesUsing_inParallel_containsAtLeastEntriesIn_diffIsUnchanged() {
+    ImmutableMap<String, Integer> expected = ImmutableMap.of("abc", 30, "def", 60, "ghi", 90);
+    ImmutableMap<String, Integer> actual = ImmutableMap.of("abc", 35, "fed", 60, "ghi", 101);
+    expectFailureWhenTestingThat(actual)
+        .comparingValuesUsing(WITHIN_10_OF)
+        .inParallel()
+        .containsAtLeastEntriesIn(expected);
+    assertFailureKeys(
+        "keys with wrong values",
+        "for key",
+        "expected value",
+        "but got value",
+        "diff",
+        "missing keys",
+        "for key",
+        "expected value",
+        "---",
+        "expected to contain at least",
+        "testing whether",
+        "but was");
+    assertFailureValueIndexed("for key", 0, "ghi");
+    assertFailureValue("diff", "11");
+  }
+
+  @Test
+  public void comparingValuesUsing_inParallel_reportsFirstExceptionInKeyOrder() {
+    Map<Integer, Integer> expected = new LinkedHashMap<>();
+    Map<Integer, Integer> actual = new LinkedHashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      expected.put(i, i);
+      actual.put(i, i % 100 == 99 ? null : i);
+    }
+    expectFailureWhenTestingThat(actual)
+        .comparingValuesUsing(WITHIN_10_OF)
+        .inParallel()
+        .containsExactlyEntriesIn(expected);
+    assertThatFailure()
+        .factValue("first exception", 0)
+        .startsWith("compare(null, 99) threw java.lang.NullPointerException");
+  }
+
   @Test
   public void comparingValuesUsing_containsExactlyEntriesIn_inOrder_failsOutOfOrder() {
     ImmutableMap<String, Integer> expected = ImmutableMap.of("def", 456, "abc", 123);
@@ -2164,4 +2231,33 @@ public class MapSubjectTest extends BaseSubjectTestCase {
   private MapSubject expectFailureWhenTestingThat(Map<?, ?> actual) {
     return expectFailure.whenTesting().that(actual);
   }
+
+  /** A map that fails if anything tries to iterate over it. */
+  private static final class UniterableMap<K, V> extends ForwardingMap<K, V> {
+    private final Map<K, V> delegate;
+
+    UniterableMap(Map<K, V> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    protected Map<K, V> delegate() {
+      return delegate;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<K> keySet() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Collection<V> values() {
+      throw new UnsupportedOperationException();
+    }
+  }
 }
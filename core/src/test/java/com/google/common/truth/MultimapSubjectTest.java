@@ -29,6 +29,7 @@ import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -510,6 +511,24 @@ public class MultimapSubjectTest extends BaseSubjectTestCase {
     assertFailureValue("unexpected", "{4=[nine], 5=[eight]}");
   }
 
+  @Test
+  public void containsExactlyFailureBoth_groupedByKeyInActualOrder() {
+    ImmutableListMultimap<Integer, String> expected =
+        ImmutableListMultimap.of(1, "a", 2, "b", 2, "b", 3, "c");
+    ImmutableListMultimap<Integer, String> actual =
+        ImmutableListMultimap.<Integer, String>builder()
+            .put(4, "d")
+            .putAll(2, "b", "e", "e")
+            .put(1, "a")
+            .put(3, "c")
+            .build();
+
+    expectFailureWhenTestingThat(actual).containsExactlyEntriesIn(expected);
+    assertFailureKeys("missing", "unexpected", "---", "expected", "but was");
+    assertFailureValue("missing", "{2=[b]}");
+    assertFailureValue("unexpected", "{4=[d], 2=[e [2 copies]]}");
+  }
+
   @Test
   public void containsExactlyFailureWithEmptyStringMissing() {
     expectFailureWhenTestingThat(ImmutableMultimap.of()).containsExactly("", "a");
@@ -1258,6 +1277,59 @@ public class MultimapSubjectTest extends BaseSubjectTestCase {
         .containsExactlyEntriesIn(expected);
   }
 
+  @Test
+  public void comparingValuesUsing_inParallel_containsExactlyEntriesIn_success() {
+    ImmutableListMultimap<String, String> actual =
+        ImmutableListMultimap.of("abc", "+123", "def", "+64", "def", "0x40", "def", "+128");
+    ImmutableListMultimap<String, Integer> expected =
+        ImmutableListMultimap.of("def", 64, "def", 128, "def", 64, "abc", 123);
+    assertThat(actual)
+        .comparingValuesUsing(STRING_PARSES_TO_INTEGER_CORRESPONDENCE)
+        .inParallel()
+        .containsExactlyEntriesIn(expected);
+  }
+
+  @Test
+  public void comparingValuesUsing_inParallel_containsExactlyEntriesIn_largeKey() {
+    ImmutableListMultimap.Builder<String, String> actual = ImmutableListMultimap.builder();
+    ImmutableListMultimap.Builder<String, Integer> expected = ImmutableListMultimap.builder();
+    for (int i = 0; i < 5000; i++) {
+      actual.put("abc", "+" + i);
+      expected.put("abc", i);
+    }
+    final AtomicInteger comparisons = new AtomicInteger();
+    Correspondence<String, Integer> countingCorrespondence =
+        Correspondence.from(
+            new Correspondence.BinaryPredicate<String, Integer>() {
+              @Override
+              public boolean apply(String actual, Integer expected) {
+                comparisons.incrementAndGet();
+                return STRING_PARSES_TO_INTEGER_CORRESPONDENCE.compare(actual, expected);
+              }
+            },
+            "parses to");
+    assertThat(actual.build())
+        .comparingValuesUsing(countingCorrespondence)
+        .inParallel()
+        .containsExactlyEntriesIn(expected.build());
+    assertThat(comparisons.get()).isAtMost(2 * 5000);
+  }
+
+  @Test
+  public void comparingValuesUsing_inParallel_containsAtLeastEntriesIn_missingKey() {
+    ImmutableListMultimap<String, String> actual =
+        ImmutableListMultimap.of("def", "+64", "def", "0x40", "def", "+128", "ghi", "+1");
+    ImmutableListMultimap<String, Integer> expected =
+        ImmutableListMultimap.of("def", 64, "def", 128, "abc", 123);
+    expectFailureWhenTestingThat(actual)
+        .comparingValuesUsing(STRING_PARSES_TO_INTEGER_CORRESPONDENCE)
+        .inParallel()
+        .containsAtLeastEntriesIn(expected);
+    assertFailureKeys(
+        "missing (1)", "---", "expected to contain at least", "testing whether", "but was");
+    assertFailureValue("missing (1)", "abc=123");
+  }
+
   @Test
   public void comparingValuesUsing_containsExactlyEntriesIn_missingKey() {
     ImmutableListMultimap<String, String> actual =
@@ -19,6 +19,7 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.fail;
 
 import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
 import java.util.Set;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -134,6 +135,18 @@ public class ObjectArraySubjectTest extends BaseSubjectTestCase {
     assertFailureValueIndexed("but was", 1, "1");
   }
 
+  @Test
+  public void isEqualTo_Fail_LargeArrays() {
+    Object[] expected = new Object[5000];
+    Object[] actual = new Object[5000];
+    Arrays.fill(expected, "a");
+    Arrays.fill(actual, "a");
+    actual[4000] = "b";
+    expectFailureWhenTestingThat(actual).isEqualTo(expected);
+    assertFailureValue("differs at index", "[4000]");
+    assertThat(expectFailure.getFailure()).isInstanceOf(ComparisonFailureWithFacts.class);
+  }
+
   @Test
   public void isEqualTo_Fail_NotAnArray() {
     expectFailureWhenTestingThat(objectArray("A", 5L)).isEqualTo(new Object());
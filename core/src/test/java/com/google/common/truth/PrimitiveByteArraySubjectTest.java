@@ -60,6 +60,48 @@ public class PrimitiveByteArraySubjectTest extends BaseSubjectTestCase {
     assertThat(expectFailure.getFailure()).isInstanceOf(ComparisonFailureWithFacts.class);
   }
 
+  @Test
+  public void isEqualTo_Fail_LargeArrays() {
+    byte[] expected = new byte[100_000];
+    byte[] actual = new byte[100_000];
+    actual[70_000] = 'x';
+    actual[90_000] = 1;
+    expectFailureWhenTestingThat(actual).isEqualTo(expected);
+    assertFailureKeys(
+        "expected",
+        "but was",
+        "length",
+        "first difference at index",
+        "number of differing bytes",
+        "expected bytes",
+        "actual bytes");
+    assertFailureValue(
+        "expected",
+        "00000000000000000000000000000000"
+            + "00000000000000000000000000000000"
+            + "… (100000 bytes)");
+    assertFailureValue("first difference at index", "70000");
+    assertFailureValue("number of differing bytes", "2");
+    assertFailureValue(
+        "actual bytes",
+        "00011150: 0000 0000 0000 0000 0000 0000 0000 0000  ................\n"
+            + "00011160: 0000 0000 0000 0000 0000 0000 0000 0000  ................\n"
+            + "00011170: 7800 0000 0000 0000 0000 0000 0000 0000  x...............\n"
+            + "00011180: 0000 0000 0000 0000 0000 0000 0000 0000  ................\n"
+            + "00011190: 0000 0000 0000 0000 0000 0000 0000 0000  ................");
+  }
+
+  @Test
+  public void isEqualTo_Fail_LargeArrays_differentLengths() {
+    byte[] expected = new byte[2000];
+    byte[] actual = new byte[1500];
+    expectFailureWhenTestingThat(actual).isEqualTo(expected);
+    assertFailureValue("expected length", "2000");
+    assertFailureValue("actual length", "1500");
+    assertFailureValue("first difference at index", "1500");
+    assertFailureValue("number of differing bytes", "500");
+  }
+
   @Test
   public void isEqualTo_Fail_NotAnArray() {
     expectFailureWhenTestingThat(array(BYTE_0, BYTE_1)).isEqualTo(new int[] {});
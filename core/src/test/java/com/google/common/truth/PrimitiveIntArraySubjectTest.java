@@ -100,6 +100,20 @@ public class PrimitiveIntArraySubjectTest extends BaseSubjectTestCase {
     assertFailureValue("differs at index", "[0]");
   }
 
+  @Test
+  public void isEqualTo_Fail_LargeArrays() {
+    int[] expected = new int[5000];
+    int[] actual = new int[5000];
+    actual[4000] = 1;
+    expectFailureWhenTestingThat(actual).isEqualTo(expected);
+    assertFailureKeys("expected", "but was", "differs at index");
+    assertFailureValue(
+        "but was",
+        "[0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, "
+            + "0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, …] (5000 elements)");
+    assertFailureValue("differs at index", "[4000]");
+  }
+
   @Test
   public void isEqualTo_Fail_NotAnArray() {
     expectFailureWhenTestingThat(array(2, 3, 4)).isEqualTo(new Object());
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.annotations.GwtIncompatible;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link RegexCache}. */
+@RunWith(JUnit4.class)
+@GwtIncompatible("java.lang.System.getProperty")
+public class RegexCacheTest {
+  private @Nullable String originalSize;
+
+  @Before
+  public void saveProperty() {
+    originalSize = System.getProperty(RegexCache.SIZE_PROPERTY);
+  }
+
+  @After
+  public void restoreProperty() {
+    if (originalSize == null) {
+      System.clearProperty(RegexCache.SIZE_PROPERTY);
+    } else {
+      System.setProperty(RegexCache.SIZE_PROPERTY, originalSize);
+    }
+  }
+
+  @Test
+  public void unset() {
+    System.clearProperty(RegexCache.SIZE_PROPERTY);
+    assertThat(RegexCache.size()).isEqualTo(RegexCache.DEFAULT_SIZE);
+    assertCaches(newCache());
+  }
+
+  @Test
+  public void size() {
+    System.setProperty(RegexCache.SIZE_PROPERTY, " 2 ");
+    assertThat(RegexCache.size()).isEqualTo(2);
+
+    RegexCache<Pattern> cache = newCache();
+    Pattern a = cache.compile("a");
+    cache.compile("b");
+    assertThat(cache.compile("a")).isSameInstanceAs(a);
+    cache.compile("c");
+    cache.compile("d");
+    assertThat(cache.compile("a")).isNotSameInstanceAs(a);
+  }
+
+  @Test
+  public void zeroDisablesCache() {
+    System.setProperty(RegexCache.SIZE_PROPERTY, "0");
+    assertThat(RegexCache.size()).isEqualTo(0);
+
+    RegexCache<Pattern> cache = newCache();
+    assertThat(cache.compile("a")).isNotSameInstanceAs(cache.compile("a"));
+  }
+
+  @Test
+  public void badValue() {
+    System.setProperty(RegexCache.SIZE_PROPERTY, "lots");
+    assertThat(RegexCache.size()).isEqualTo(RegexCache.DEFAULT_SIZE);
+    assertCaches(newCache());
+  }
+
+  private static void assertCaches(RegexCache<Pattern> cache) {
+    assertThat(cache.compile("a+")).isSameInstanceAs(cache.compile("a+"));
+  }
+
+  private static RegexCache<Pattern> newCache() {
+    return new RegexCache<Pattern>() {
+      @Override
+      Pattern compileUncached(String regex) {
+        return Pattern.compile(regex);
+      }
+    };
+  }
+}
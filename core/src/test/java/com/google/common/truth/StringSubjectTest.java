@@ -21,6 +21,7 @@ import static org.junit.Assert.fail;
 
 import com.google.common.annotations.GwtIncompatible;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -292,6 +293,24 @@ public class StringSubjectTest extends BaseSubjectTestCase {
     assertThat("aba").containsMatch(Pattern.compile("[b]"));
   }
 
+  @Test
+  @GwtIncompatible("Pattern")
+  public void regexesAreCompiledOnce() {
+    assertThat(Platform.compile("a+b")).isSameInstanceAs(Platform.compile("a+b"));
+  }
+
+  @Test
+  @GwtIncompatible("Pattern")
+  public void invalidRegexIsNotCached() {
+    for (int i = 0; i < 2; i++) {
+      try {
+        assertThat("aba").containsMatch("[b");
+        fail();
+      } catch (PatternSyntaxException expected) {
+      }
+    }
+  }
+
   @Test
   public void stringContainsMatchString() {
     assertThat("aba").containsMatch(".*b.*");
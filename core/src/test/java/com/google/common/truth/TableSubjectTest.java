@@ -15,9 +15,11 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.truth.TestCorrespondences.WITHIN_10_OF;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.fail;
 
+import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
@@ -154,6 +156,115 @@ public class TableSubjectTest extends BaseSubjectTestCase {
     assertFailureValue("but was", "[(row,col)=val]");
   }
 
+  @Test
+  public void containsExactlyCellsIn() {
+    Table<String, String, Integer> table = HashBasedTable.create();
+    table.put("r1", "c1", 1);
+    table.put("r1", "c2", 2);
+    table.put("r2", "c1", 3);
+    assertThat(table).containsExactlyCellsIn(ImmutableTable.copyOf(table));
+  }
+
+  @Test
+  public void containsExactlyCellsInFailure() {
+    ImmutableTable<String, String, Integer> actual =
+        ImmutableTable.<String, String, Integer>builder()
+            .put("r1", "c1", 1)
+            .put("r1", "c2", 20)
+            .put("r1", "c4", 4)
+            .put("r3", "c1", 5)
+            .build();
+    ImmutableTable<String, String, Integer> expected =
+        ImmutableTable.<String, String, Integer>builder()
+            .put("r1", "c1", 1)
+            .put("r1", "c2", 2)
+            .put("r1", "c3", 3)
+            .put("r2", "c1", 6)
+            .build();
+    expectFailureWhenTestingThat(actual).containsExactlyCellsIn(expected);
+    assertFailureKeys(
+        "cells with wrong values (1)",
+        "missing (2)",
+        "unexpected (2)",
+        "---",
+        "expected to contain",
+        "but contained");
+    assertFailureValue("cells with wrong values (1)", "r1: {c2: expected 2, but was 20}");
+    assertFailureValue("missing (2)", "r1: {c3=3}\nr2: {c1=6}");
+    assertFailureValue("unexpected (2)", "r1: {c4=4}\nr3: {c1=5}");
+    assertFailureValue("expected to contain", "4 cells");
+    assertFailureValue("but contained", "4 cells");
+  }
+
+  @Test
+  public void containsExactlyCellsInFailure_truncated() {
+    Table<Integer, Integer, Integer> expected = HashBasedTable.create();
+    for (int i = 0; i < 100; i++) {
+      expected.put(i / 10, i % 10, i);
+    }
+    expectFailureWhenTestingThat(ImmutableTable.of()).containsExactlyCellsIn(expected);
+    assertFailureKeys("missing (100)", "---", "expected to contain", "but contained");
+    assertFailureValue(
+        "missing (100)",
+        "0: {0=0, 1=1, 2=2, 3=3, 4=4, 5=5, 6=6, 7=7, 8=8, 9=9}\n"
+            + "1: {0=10, 1=11, 2=12, 3=13, 4=14, 5=15, 6=16, 7=17, 8=18, 9=19}\n"
+            + "2: {0=20, 1=21, 2=22, 3=23, 4=24, 5=25, 6=26, 7=27, 8=28, 9=29}\n"
+            + "3: {0=30, 1=31, 2=32, 3=33, 4=34, 5=35, 6=36, 7=37, 8=38, 9=39}\n"
+            + "4: {0=40, 1=41, 2=42, 3=43, 4=44, 5=45, 6=46, 7=47, 8=48, 9=49}\n"
+            + "… (50 more)");
+  }
+
+  @Test
+  public void containsAtLeastCellsIn() {
+    ImmutableTable<String, String, Integer> actual =
+        ImmutableTable.<String, String, Integer>builder()
+            .put("r1", "c1", 1)
+            .put("r1", "c2", 2)
+            .put("r2", "c1", 3)
+            .build();
+    assertThat(actual).containsAtLeastCellsIn(ImmutableTable.of("r1", "c2", 2));
+
+    expectFailureWhenTestingThat(actual)
+        .containsAtLeastCellsIn(
+            ImmutableTable.<String, String, Integer>builder()
+                .put("r1", "c2", 3)
+                .put("r3", "c1", 3)
+                .build());
+    assertFailureKeys(
+        "cells with wrong values (1)",
+        "missing (1)",
+        "---",
+        "expected to contain at least",
+        "but contained");
+  }
+
+  @Test
+  public void comparingValuesUsing() {
+    ImmutableTable<String, String, Integer> actual =
+        ImmutableTable.<String, String, Integer>builder()
+            .put("r1", "c1", 1)
+            .put("r1", "c2", 20)
+            .build();
+    ImmutableTable<String, String, Integer> expected =
+        ImmutableTable.<String, String, Integer>builder()
+            .put("r1", "c1", 5)
+            .put("r1", "c2", 25)
+            .build();
+    assertThat(actual).comparingValuesUsing(WITHIN_10_OF).containsExactlyCellsIn(expected);
+
+    expectFailureWhenTestingThat(actual)
+        .comparingValuesUsing(WITHIN_10_OF)
+        .containsAtLeastCellsIn(ImmutableTable.of("r1", "c2", 40));
+    assertFailureKeys(
+        "cells with wrong values (1)",
+        "---",
+        "expected to contain at least",
+        "testing whether",
+        "but contained");
+    assertFailureValue(
+        "cells with wrong values (1)", "r1: {c2: expected 40, but was 20, diff: -20}");
+  }
+
   private static <R, C, V> Cell<R, C, V> cell(R row, C col, V val) {
     return Tables.immutableCell(row, col, val);
   }
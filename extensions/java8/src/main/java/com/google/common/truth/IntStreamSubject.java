@@ -15,10 +15,9 @@
  */
 package com.google.common.truth;
 
-import static java.util.stream.Collectors.toCollection;
-
+import com.google.common.primitives.Ints;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.IntStream;
@@ -28,7 +27,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 /**
  * Propositions for {@link IntStream} subjects.
  *
- * <p><b>Note:</b> the wrapped stream will be drained immediately into a private collection to
+ * <p><b>Note:</b> the wrapped stream will be drained immediately into a private {@code int[]} to
  * provide more readable failure messages. You should not use this class if you intend to leave the
  * stream un-consumed or if the stream is <i>very</i> large or infinite.
  *
@@ -42,17 +41,22 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  */
 public final class IntStreamSubject extends Subject {
 
-  private final List<?> actualList;
+  // The common checks are made on the array directly, without boxing. The list view boxes elements
+  // only as they're read, for the checks which need IterableSubject and for failure messages.
+  private final int @Nullable [] actual;
 
   private IntStreamSubject(FailureMetadata failureMetadata, @Nullable IntStream stream) {
     super(failureMetadata, stream);
-    this.actualList =
-        (stream == null) ? null : stream.boxed().collect(toCollection(ArrayList::new));
+    this.actual = (stream == null) ? null : stream.toArray();
   }
 
   @Override
   protected String actualCustomStringRepresentation() {
-    return String.valueOf(actualList);
+    return String.valueOf(actualList());
+  }
+
+  private @Nullable List<Integer> actualList() {
+    return (actual == null) ? null : Ints.asList(actual);
   }
 
   public static Factory<IntStreamSubject, IntStream> intStreams() {
@@ -61,12 +65,16 @@ public final class IntStreamSubject extends Subject {
 
   /** Fails if the subject is not empty. */
   public void isEmpty() {
-    check().that(actualList).isEmpty();
+    if (actual == null || actual.length != 0) {
+      check().that(actualList()).isEmpty();
+    }
   }
 
   /** Fails if the subject is empty. */
   public void isNotEmpty() {
-    check().that(actualList).isNotEmpty();
+    if (actual == null || actual.length == 0) {
+      check().that(actualList()).isNotEmpty();
+    }
   }
 
   /**
@@ -76,33 +84,43 @@ public final class IntStreamSubject extends Subject {
    * elements, use {@code assertThat(stream.count()).isEqualTo(...)}.
    */
   public void hasSize(int expectedSize) {
-    check().that(actualList).hasSize(expectedSize);
+    if (actual == null || actual.length != expectedSize) {
+      check().that(actualList()).hasSize(expectedSize);
+    }
   }
 
   /** Fails if the subject does not contain the given element. */
   public void contains(int element) {
-    check().that(actualList).contains(element);
+    if (actual == null || !Ints.contains(actual, element)) {
+      check().that(actualList()).contains(element);
+    }
   }
 
   /** Fails if the subject contains the given element. */
   public void doesNotContain(int element) {
-    check().that(actualList).doesNotContain(element);
+    if (actual == null || Ints.contains(actual, element)) {
+      check().that(actualList()).doesNotContain(element);
+    }
   }
 
   /** Fails if the subject contains duplicate elements. */
   public void containsNoDuplicates() {
-    check().that(actualList).containsNoDuplicates();
+    if (actual == null || UnboxedArrays.hasDuplicates(actual)) {
+      check().that(actualList()).containsNoDuplicates();
+    }
   }
 
   /** Fails if the subject does not contain at least one of the given elements. */
   @SuppressWarnings("GoodTime") // false positive; b/122617528
   public void containsAnyOf(int first, int second, int... rest) {
-    check().that(actualList).containsAnyOf(first, second, box(rest));
+    if (actual == null || !UnboxedArrays.containsAny(actual, concat(first, second, rest))) {
+      check().that(actualList()).containsAnyOf(first, second, box(rest));
+    }
   }
 
   /** Fails if the subject does not contain at least one of the given elements. */
   public void containsAnyIn(Iterable<?> expected) {
-    check().that(actualList).containsAnyIn(expected);
+    check().that(actualList()).containsAnyIn(expected);
   }
 
   /**
@@ -117,7 +135,15 @@ public final class IntStreamSubject extends Subject {
   @SuppressWarnings("GoodTime") // false positive; b/122617528
   @CanIgnoreReturnValue
   public Ordered containsAtLeast(int first, int second, int... rest) {
-    return check().that(actualList).containsAtLeast(first, second, box(rest));
+    int[] expected = concat(first, second, rest);
+    if (actual != null && UnboxedArrays.containsAll(actual, expected)) {
+      return () -> {
+        if (!UnboxedArrays.containsSubsequence(actual, expected)) {
+          check().that(actualList()).containsAtLeast(first, second, box(rest)).inOrder();
+        }
+      };
+    }
+    return check().that(actualList()).containsAtLeast(first, second, box(rest));
   }
 
   /**
@@ -131,7 +157,7 @@ public final class IntStreamSubject extends Subject {
    */
   @CanIgnoreReturnValue
   public Ordered containsAtLeastElementsIn(Iterable<?> expected) {
-    return check().that(actualList).containsAtLeastElementsIn(expected);
+    return check().that(actualList()).containsAtLeastElementsIn(expected);
   }
 
   /**
@@ -145,7 +171,17 @@ public final class IntStreamSubject extends Subject {
    */
   @CanIgnoreReturnValue
   public Ordered containsExactly(int... varargs) {
-    return check().that(actualList).containsExactly(box(varargs));
+    if (actual != null
+        && varargs != null
+        && actual.length == varargs.length
+        && UnboxedArrays.containsAll(actual, varargs)) {
+      return () -> {
+        if (!Arrays.equals(actual, varargs)) {
+          check().that(actualList()).containsExactly(box(varargs)).inOrder();
+        }
+      };
+    }
+    return check().that(actualList()).containsExactly(box(varargs));
   }
 
   /**
@@ -159,7 +195,7 @@ public final class IntStreamSubject extends Subject {
    */
   @CanIgnoreReturnValue
   public Ordered containsExactlyElementsIn(Iterable<?> expected) {
-    return check().that(actualList).containsExactlyElementsIn(expected);
+    return check().that(actualList()).containsExactlyElementsIn(expected);
   }
 
   /**
@@ -168,7 +204,9 @@ public final class IntStreamSubject extends Subject {
    */
   @SuppressWarnings("GoodTime") // false positive; b/122617528
   public void containsNoneOf(int first, int second, int... rest) {
-    check().that(actualList).containsNoneOf(first, second, box(rest));
+    if (actual == null || UnboxedArrays.containsAny(actual, concat(first, second, rest))) {
+      check().that(actualList()).containsNoneOf(first, second, box(rest));
+    }
   }
 
   /**
@@ -176,7 +214,7 @@ public final class IntStreamSubject extends Subject {
    * test, which fails if any of the actual elements equal any of the excluded.)
    */
   public void containsNoneIn(Iterable<?> excluded) {
-    check().that(actualList).containsNoneIn(excluded);
+    check().that(actualList()).containsNoneIn(excluded);
   }
 
   /**
@@ -188,7 +226,9 @@ public final class IntStreamSubject extends Subject {
    * @throws NullPointerException if any element is null
    */
   public void isInStrictOrder() {
-    check().that(actualList).isInStrictOrder();
+    if (actual == null || !UnboxedArrays.isInOrder(actual, /* strict= */ true)) {
+      check().that(actualList()).isInStrictOrder();
+    }
   }
 
   /**
@@ -199,7 +239,7 @@ public final class IntStreamSubject extends Subject {
    * @throws ClassCastException if any pair of elements is not mutually Comparable
    */
   public void isInStrictOrder(Comparator<? super Integer> comparator) {
-    check().that(actualList).isInStrictOrder(comparator);
+    check().that(actualList()).isInStrictOrder(comparator);
   }
 
   /**
@@ -210,7 +250,9 @@ public final class IntStreamSubject extends Subject {
    * @throws NullPointerException if any element is null
    */
   public void isInOrder() {
-    check().that(actualList).isInOrder();
+    if (actual == null || !UnboxedArrays.isInOrder(actual, /* strict= */ false)) {
+      check().that(actualList()).isInOrder();
+    }
   }
 
   /**
@@ -220,7 +262,11 @@ public final class IntStreamSubject extends Subject {
    * @throws ClassCastException if any pair of elements is not mutually Comparable
    */
   public void isInOrder(Comparator<? super Integer> comparator) {
-    check().that(actualList).isInOrder(comparator);
+    check().that(actualList()).isInOrder(comparator);
+  }
+
+  private static int[] concat(int first, int second, int[] rest) {
+    return Ints.concat(new int[] {first, second}, rest);
   }
 
   private static Object[] box(int[] rest) {
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.DiffUtils.generateUnifiedDiff;
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.Fact.simpleFact;
+import static com.google.common.truth.PathSubject.CHUNK_SIZE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.j2objc.annotations.J2ObjCIncompatible;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Computes the unified diff of two files, as {@link Platform#makeDiff} does for strings, without
+ * reading either file into memory.
+ *
+ * <p>The equal head and tail of the files are found by comparing their memory-mapped bytes, and
+ * only the lines between them (plus a few lines of context) are decoded and handed to {@link
+ * DiffUtils}. Lines are split at {@code \n}, and a {@code \r} before it is dropped, so that the
+ * output matches what {@code makeDiff} would produce for the files' contents.
+ */
+@GwtIncompatible
+@J2ObjCIncompatible
+final class LineDiff {
+  static final String DIFF_KEY = "diff (-expected +actual)";
+
+  // The number of equal lines shown around each difference, as in Platform.makeDiff.
+  private static final int CONTEXT_SIZE = 3;
+
+  // The most lines of each file that are diffed. DiffUtils needs time and memory proportional to
+  // the product of the two window sizes, so larger windows are cut off.
+  static final int MAX_WINDOW_LINES = 2_000;
+
+  // The most bytes of a line that are decoded. The rest of a longer line is only hashed, so that a
+  // file with no line breaks needn't fit in memory.
+  static final int MAX_LINE_BYTES = 10_000;
+
+  /**
+   * Returns facts describing how the lines of {@code actual} differ from those of {@code expected},
+   * or null if the files have the same content.
+   */
+  static @Nullable ImmutableList<Fact> diff(FileChannel expected, FileChannel actual)
+      throws IOException {
+    long expectedSize = expected.size();
+    long actualSize = actual.size();
+    long head = PathSubject.mismatch(actual, actualSize, new PathSubject.ChannelContent(expected));
+    if (head < 0) {
+      return null;
+    }
+    long tail =
+        equalSuffixLength(
+            expected, expectedSize, actual, actualSize, Math.min(expectedSize, actualSize) - head);
+
+    // The first head bytes are the same in both files, so the window starts at the same offset in
+    // each. The last tail bytes are the same, too, so the windows end at the same distance from the
+    // ends of the files.
+    MappedFile actualFile = new MappedFile(actual, actualSize);
+    long start = lineStart(actualFile, head);
+    for (int i = 0; i < CONTEXT_SIZE && start > 0; i++) {
+      start = lineStart(actualFile, start - 1);
+    }
+    long actualEnd = lineEnd(actualFile, actualSize - tail);
+    for (int i = 0; i < CONTEXT_SIZE && actualEnd < actualSize; i++) {
+      actualEnd = lineEnd(actualFile, actualEnd + 1);
+    }
+    long expectedEnd = actualEnd - actualSize + expectedSize;
+
+    List<String> expectedLines =
+        readLines(new MappedFile(expected, expectedSize), start, expectedEnd);
+    List<String> actualLines = readLines(actualFile, start, actualEnd);
+    boolean truncated =
+        expectedLines.size() > MAX_WINDOW_LINES || actualLines.size() > MAX_WINDOW_LINES;
+    long skippedLines = countNewlines(actual, start);
+    List<String> unifiedDiff =
+        generateUnifiedDiff(
+            expectedLines.subList(0, Math.min(expectedLines.size(), MAX_WINDOW_LINES)),
+            actualLines.subList(0, Math.min(actualLines.size(), MAX_WINDOW_LINES)),
+            CONTEXT_SIZE,
+            skippedLines,
+            truncated);
+    if (!truncated && unifiedDiff.isEmpty()) {
+      return ImmutableList.of(
+          fact(DIFF_KEY, "(line contents match, but line-break characters differ)"));
+    }
+    ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+    if (unifiedDiff.isEmpty()) {
+      // Nothing in the windows lines up again after the first difference.
+      facts.add(fact("first differing line", skippedLines + countLines(actualFile, start, head)));
+      facts.add(
+          simpleFact(
+              "(no diff is shown, since the files differ in more than the "
+                  + MAX_WINDOW_LINES
+                  + " lines from the first difference that are diffed)"));
+    } else {
+      facts.add(fact(DIFF_KEY, Joiner.on("\n").join(unifiedDiff)));
+      if (truncated) {
+        facts.add(
+            simpleFact(
+                "(diff stops at the last line in common within the first "
+                    + MAX_WINDOW_LINES
+                    + " lines of each file from the first difference; later differences are not"
+                    + " shown)"));
+      }
+    }
+    return facts.build();
+  }
+
+  /**
+   * Returns the number of equal bytes at the ends of the two files, comparing no more than {@code
+   * limit} bytes.
+   */
+  private static long equalSuffixLength(
+      FileChannel a, long aSize, FileChannel b, long bSize, long limit) throws IOException {
+    for (long length = 0; length < limit; length += CHUNK_SIZE) {
+      int chunkSize = (int) Math.min(CHUNK_SIZE, limit - length);
+      ByteBuffer aChunk = a.map(MapMode.READ_ONLY, aSize - length - chunkSize, chunkSize);
+      ByteBuffer bChunk = b.map(MapMode.READ_ONLY, bSize - length - chunkSize, chunkSize);
+      int i = chunkSize;
+      // Compare eight bytes at a time, then narrow down.
+      while (i >= Long.BYTES && aChunk.getLong(i - Long.BYTES) == bChunk.getLong(i - Long.BYTES)) {
+        i -= Long.BYTES;
+      }
+      while (i > 0 && aChunk.get(i - 1) == bChunk.get(i - 1)) {
+        i--;
+      }
+      if (i > 0) {
+        return length + chunkSize - i;
+      }
+    }
+    return limit;
+  }
+
+  // Returns the offset of the start of the line containing the given offset.
+  private static long lineStart(MappedFile file, long offset) throws IOException {
+    long position = offset;
+    while (position > 0 && file.get(position - 1) != '\n') {
+      position--;
+    }
+    return position;
+  }
+
+  // Returns the offset of the first line break at or after the given offset, or the file size.
+  private static long lineEnd(MappedFile file, long offset) throws IOException {
+    long position = offset;
+    while (position < file.size && file.get(position) != '\n') {
+      position++;
+    }
+    return position;
+  }
+
+  private static long countNewlines(FileChannel channel, long end) throws IOException {
+    long count = 0;
+    for (long position = 0; position < end; position += CHUNK_SIZE) {
+      ByteBuffer chunk =
+          channel.map(MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, end - position));
+      while (chunk.hasRemaining()) {
+        if (chunk.get() == '\n') {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  // Returns the 1-based number of the line containing offset, counting from the line at start.
+  private static long countLines(MappedFile file, long start, long offset) throws IOException {
+    long count = 1;
+    for (long position = start; position < offset; position++) {
+      if (file.get(position) == '\n') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Decodes the lines in {@code [start, end)}, where {@code start} is the start of a line and
+   * {@code end} is a line break or the end of the file. Stops after one more than {@link
+   * #MAX_WINDOW_LINES} lines, so that callers can tell that the window was cut off.
+   */
+  private static List<String> readLines(MappedFile file, long start, long end)
+      throws IOException {
+    List<String> lines = new ArrayList<>();
+    long lineStart = start;
+    for (long position = start; ; position++) {
+      if (position == end || file.get(position) == '\n') {
+        long length = position - lineStart;
+        if (position < file.size && length > 0 && file.get(position - 1) == '\r') {
+          length--;
+        }
+        lines.add(decodeLine(file, lineStart, length));
+        if (position == end || lines.size() > MAX_WINDOW_LINES) {
+          return lines;
+        }
+        lineStart = position + 1;
+      }
+    }
+  }
+
+  /**
+   * Decodes the line of {@code length} bytes at {@code start}. A line longer than {@link
+   * #MAX_LINE_BYTES} is cut off, and its length and a hash of the rest are appended, so that long
+   * lines which differ only past the cut still compare unequal.
+   */
+  private static String decodeLine(MappedFile file, long start, long length) throws IOException {
+    byte[] bytes = new byte[(int) Math.min(length, MAX_LINE_BYTES)];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = file.get(start + i);
+    }
+    String decoded = new String(bytes, UTF_8);
+    if (length == bytes.length) {
+      return decoded;
+    }
+    int hash = 0;
+    for (long position = start + bytes.length; position < start + length; position++) {
+      hash = 31 * hash + file.get(position);
+    }
+    return decoded
+        + "... ("
+        + length
+        + " bytes in all; rest hashes to "
+        + Integer.toHexString(hash)
+        + ")";
+  }
+
+  /** Random access to the bytes of a file, mapping one chunk of it at a time. */
+  private static final class MappedFile {
+    final FileChannel channel;
+    final long size;
+    long chunkStart = -1;
+    @Nullable ByteBuffer chunk;
+
+    MappedFile(FileChannel channel, long size) {
+      this.channel = channel;
+      this.size = size;
+    }
+
+    byte get(long position) throws IOException {
+      if (chunk == null || position < chunkStart || position >= chunkStart + chunk.limit()) {
+        chunkStart = position / CHUNK_SIZE * CHUNK_SIZE;
+        chunk =
+            channel.map(MapMode.READ_ONLY, chunkStart, Math.min(CHUNK_SIZE, size - chunkStart));
+      }
+      return chunk.get((int) (position - chunkStart));
+    }
+  }
+
+  private LineDiff() {}
+}
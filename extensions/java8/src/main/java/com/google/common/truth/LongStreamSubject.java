@@ -15,10 +15,9 @@
  */
 package com.google.common.truth;
 
-import static java.util.stream.Collectors.toCollection;
-
+import com.google.common.primitives.Longs;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.LongStream;
@@ -28,7 +27,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 /**
  * Propositions for {@link LongStream} subjects.
  *
- * <p><b>Note:</b> the wrapped stream will be drained immediately into a private collection to
+ * <p><b>Note:</b> the wrapped stream will be drained immediately into a private {@code long[]} to
  * provide more readable failure messages. You should not use this class if you intend to leave the
  * stream un-consumed or if the stream is <i>very</i> large or infinite.
  *
@@ -42,17 +41,22 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  */
 public final class LongStreamSubject extends Subject {
 
-  private final List<?> actualList;
+  // The common checks are made on the array directly, without boxing. The list view boxes elements
+  // only as they're read, for the checks which need IterableSubject and for failure messages.
+  private final long @Nullable [] actual;
 
   private LongStreamSubject(FailureMetadata failureMetadata, @Nullable LongStream stream) {
     super(failureMetadata, stream);
-    this.actualList =
-        (stream == null) ? null : stream.boxed().collect(toCollection(ArrayList::new));
+    this.actual = (stream == null) ? null : stream.toArray();
   }
 
   @Override
   protected String actualCustomStringRepresentation() {
-    return String.valueOf(actualList);
+    return String.valueOf(actualList());
+  }
+
+  private @Nullable List<Long> actualList() {
+    return (actual == null) ? null : Longs.asList(actual);
   }
 
   public static Factory<LongStreamSubject, LongStream> longStreams() {
@@ -61,12 +65,16 @@ public final class LongStreamSubject extends Subject {
 
   /** Fails if the subject is not empty. */
   public void isEmpty() {
-    check().that(actualList).isEmpty();
+    if (actual == null || actual.length != 0) {
+      check().that(actualList()).isEmpty();
+    }
   }
 
   /** Fails if the subject is empty. */
   public void isNotEmpty() {
-    check().that(actualList).isNotEmpty();
+    if (actual == null || actual.length == 0) {
+      check().that(actualList()).isNotEmpty();
+    }
   }
 
   /**
@@ -76,33 +84,43 @@ public final class LongStreamSubject extends Subject {
    * elements, use {@code assertThat(stream.count()).isEqualTo(...)}.
    */
   public void hasSize(int expectedSize) {
-    check().that(actualList).hasSize(expectedSize);
+    if (actual == null || actual.length != expectedSize) {
+      check().that(actualList()).hasSize(expectedSize);
+    }
   }
 
   /** Fails if the subject does not contain the given element. */
   public void contains(long element) {
-    check().that(actualList).contains(element);
+    if (actual == null || !Longs.contains(actual, element)) {
+      check().that(actualList()).contains(element);
+    }
   }
 
   /** Fails if the subject contains the given element. */
   public void doesNotContain(long element) {
-    check().that(actualList).doesNotContain(element);
+    if (actual == null || Longs.contains(actual, element)) {
+      check().that(actualList()).doesNotContain(element);
+    }
   }
 
   /** Fails if the subject contains duplicate elements. */
   public void containsNoDuplicates() {
-    check().that(actualList).containsNoDuplicates();
+    if (actual == null || UnboxedArrays.hasDuplicates(actual)) {
+      check().that(actualList()).containsNoDuplicates();
+    }
   }
 
   /** Fails if the subject does not contain at least one of the given elements. */
   @SuppressWarnings("GoodTime") // false positive; b/122617528
   public void containsAnyOf(long first, long second, long... rest) {
-    check().that(actualList).containsAnyOf(first, second, box(rest));
+    if (actual == null || !UnboxedArrays.containsAny(actual, concat(first, second, rest))) {
+      check().that(actualList()).containsAnyOf(first, second, box(rest));
+    }
   }
 
   /** Fails if the subject does not contain at least one of the given elements. */
   public void containsAnyIn(Iterable<?> expected) {
-    check().that(actualList).containsAnyIn(expected);
+    check().that(actualList()).containsAnyIn(expected);
   }
 
   /**
@@ -117,7 +135,15 @@ public final class LongStreamSubject extends Subject {
   @SuppressWarnings("GoodTime") // false positive; b/122617528
   @CanIgnoreReturnValue
   public Ordered containsAtLeast(long first, long second, long... rest) {
-    return check().that(actualList).containsAtLeast(first, second, box(rest));
+    long[] expected = concat(first, second, rest);
+    if (actual != null && UnboxedArrays.containsAll(actual, expected)) {
+      return () -> {
+        if (!UnboxedArrays.containsSubsequence(actual, expected)) {
+          check().that(actualList()).containsAtLeast(first, second, box(rest)).inOrder();
+        }
+      };
+    }
+    return check().that(actualList()).containsAtLeast(first, second, box(rest));
   }
 
   /**
@@ -131,7 +157,7 @@ public final class LongStreamSubject extends Subject {
    */
   @CanIgnoreReturnValue
   public Ordered containsAtLeastElementsIn(Iterable<?> expected) {
-    return check().that(actualList).containsAtLeastElementsIn(expected);
+    return check().that(actualList()).containsAtLeastElementsIn(expected);
   }
 
   /**
@@ -145,7 +171,17 @@ public final class LongStreamSubject extends Subject {
    */
   @CanIgnoreReturnValue
   public Ordered containsExactly(long... varargs) {
-    return check().that(actualList).containsExactly(box(varargs));
+    if (actual != null
+        && varargs != null
+        && actual.length == varargs.length
+        && UnboxedArrays.containsAll(actual, varargs)) {
+      return () -> {
+        if (!Arrays.equals(actual, varargs)) {
+          check().that(actualList()).containsExactly(box(varargs)).inOrder();
+        }
+      };
+    }
+    return check().that(actualList()).containsExactly(box(varargs));
   }
 
   /**
@@ -159,7 +195,7 @@ public final class LongStreamSubject extends Subject {
    */
   @CanIgnoreReturnValue
   public Ordered containsExactlyElementsIn(Iterable<?> expected) {
-    return check().that(actualList).containsExactlyElementsIn(expected);
+    return check().that(actualList()).containsExactlyElementsIn(expected);
   }
 
   /**
@@ -168,7 +204,9 @@ public final class LongStreamSubject extends Subject {
    */
   @SuppressWarnings("GoodTime") // false positive; b/122617528
   public void containsNoneOf(long first, long second, long... rest) {
-    check().that(actualList).containsNoneOf(first, second, box(rest));
+    if (actual == null || UnboxedArrays.containsAny(actual, concat(first, second, rest))) {
+      check().that(actualList()).containsNoneOf(first, second, box(rest));
+    }
   }
 
   /**
@@ -176,7 +214,7 @@ public final class LongStreamSubject extends Subject {
    * test, which fails if any of the actual elements equal any of the excluded.)
    */
   public void containsNoneIn(Iterable<?> excluded) {
-    check().that(actualList).containsNoneIn(excluded);
+    check().that(actualList()).containsNoneIn(excluded);
   }
 
   /**
@@ -188,7 +226,9 @@ public final class LongStreamSubject extends Subject {
    * @throws NullPointerException if any element is null
    */
   public void isInStrictOrder() {
-    check().that(actualList).isInStrictOrder();
+    if (actual == null || !UnboxedArrays.isInOrder(actual, /* strict= */ true)) {
+      check().that(actualList()).isInStrictOrder();
+    }
   }
 
   /**
@@ -199,7 +239,7 @@ public final class LongStreamSubject extends Subject {
    * @throws ClassCastException if any pair of elements is not mutually Comparable
    */
   public void isInStrictOrder(Comparator<? super Long> comparator) {
-    check().that(actualList).isInStrictOrder(comparator);
+    check().that(actualList()).isInStrictOrder(comparator);
   }
 
   /**
@@ -210,7 +250,9 @@ public final class LongStreamSubject extends Subject {
    * @throws NullPointerException if any element is null
    */
   public void isInOrder() {
-    check().that(actualList).isInOrder();
+    if (actual == null || !UnboxedArrays.isInOrder(actual, /* strict= */ false)) {
+      check().that(actualList()).isInOrder();
+    }
   }
 
   /**
@@ -220,7 +262,11 @@ public final class LongStreamSubject extends Subject {
    * @throws ClassCastException if any pair of elements is not mutually Comparable
    */
   public void isInOrder(Comparator<? super Long> comparator) {
-    check().that(actualList).isInOrder(comparator);
+    check().that(actualList()).isInOrder(comparator);
+  }
+
+  private static long[] concat(long first, long second, long[] rest) {
+    return Longs.concat(new long[] {first, second}, rest);
   }
 
   private static Object[] box(long[] rest) {
@@ -15,19 +15,755 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.Fact.simpleFact;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.j2objc.annotations.J2ObjCIncompatible;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-/** Assertions for {@link Path} instances. */
+/**
+ * Assertions for {@link Path} instances.
+ *
+ * <p>The content assertions read files through bounded memory-mapped windows or line by line, so
+ * they are suitable for files far larger than the heap. Their failure messages show where the
+ * content first differs, with a few bytes or lines of surrounding context, rather than the full
+ * content. I/O errors are rethrown as {@link UncheckedIOException}.
+ */
 @GwtIncompatible
 @J2ObjCIncompatible
 public final class PathSubject extends Subject {
-  private PathSubject(FailureMetadata failureMetadata, Path actual) {
+  // The largest region of a file mapped at once.
+  static final int CHUNK_SIZE = 1 << 26;
+
+  // The number of lines shown on each side of the first differing line.
+  private static final int LINE_CONTEXT = 3;
+
+  // The most threads used to compare file contents.
+  private static final int MAX_COMPARISON_THREADS = 4;
+
+  // The most entries listed in each section of a tree difference.
+  private static final int MAX_LISTED_ENTRIES = 20;
+
+  private final @Nullable Path actual;
+
+  private PathSubject(FailureMetadata failureMetadata, @Nullable Path actual) {
     super(failureMetadata, actual);
+    this.actual = actual;
   }
 
   public static Subject.Factory<PathSubject, Path> paths() {
     return PathSubject::new;
   }
+
+  /** Fails if the file does not have the given size in bytes. */
+  public void hasSize(long expectedSize) {
+    checkArgument(expectedSize >= 0, "expectedSize (%s) must be >= 0", expectedSize);
+    if (actual == null) {
+      failWithActual("expected a file with size", expectedSize);
+      return;
+    }
+    check("size()").that(size(actual)).isEqualTo(expectedSize);
+  }
+
+  /** Fails if the file does not have exactly the same bytes as the {@code expected} file. */
+  public void hasSameContentAs(Path expected) {
+    checkNotNull(expected);
+    if (actual == null) {
+      failWithActual("expected a file with the same content as", expected);
+      return;
+    }
+    try (FileChannel actualChannel = FileChannel.open(actual, StandardOpenOption.READ);
+        FileChannel expectedChannel = FileChannel.open(expected, StandardOpenOption.READ)) {
+      long actualSize = actualChannel.size();
+      long expectedSize = expectedChannel.size();
+      long offset = mismatch(actualChannel, actualSize, new ChannelContent(expectedChannel));
+      if (offset >= 0) {
+        failWithActual(
+            contentFacts(
+                fact("expected to have the same content as", expected),
+                offset,
+                actualSize,
+                actualChannel,
+                expectedSize,
+                readWindow(expectedChannel, offset, expectedSize)));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Fails if the file does not contain exactly the given bytes. */
+  public void hasContent(byte[] expected) {
+    checkNotNull(expected);
+    if (actual == null) {
+      failWithActual(simpleFact("expected a file with the given content"));
+      return;
+    }
+    try (FileChannel actualChannel = FileChannel.open(actual, StandardOpenOption.READ)) {
+      long actualSize = actualChannel.size();
+      long offset = mismatch(actualChannel, actualSize, new ArrayContent(expected));
+      if (offset >= 0) {
+        long start = HexDump.windowStart(offset);
+        int end = (int) HexDump.windowEnd(offset, expected.length);
+        failWithActual(
+            contentFacts(
+                simpleFact("expected to have the given content"),
+                offset,
+                actualSize,
+                actualChannel,
+                expected.length,
+                HexDump.hexdump(Arrays.copyOfRange(expected, (int) start, end), start)));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Fails if the digest of the file's content, computed with the given {@link MessageDigest}
+   * algorithm (e.g., {@code "SHA-256"}), is not {@code expectedHexDigest}. Hex digits may be
+   * uppercase or lowercase.
+   *
+   * @throws IllegalArgumentException if the algorithm is not available
+   */
+  public void hasContentDigest(String algorithm, String expectedHexDigest) {
+    checkNotNull(expectedHexDigest);
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalArgumentException(e);
+    }
+    if (actual == null) {
+      failWithActual("expected a file with " + algorithm + " digest", expectedHexDigest);
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(actual, StandardOpenOption.READ)) {
+      long size = channel.size();
+      for (long position = 0; position < size; position += CHUNK_SIZE) {
+        long length = Math.min(CHUNK_SIZE, size - position);
+        digest.update(channel.map(MapMode.READ_ONLY, position, length));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    String actualHexDigest = BaseEncoding.base16().lowerCase().encode(digest.digest());
+    if (!actualHexDigest.equalsIgnoreCase(expectedHexDigest)) {
+      failWithActual(
+          fact("expected " + algorithm + " digest", expectedHexDigest),
+          fact("but digest was", actualHexDigest));
+    }
+  }
+
+  /**
+   * Fails if the lines of the file, decoded as UTF-8, are not exactly the given lines, in order.
+   * Lines are terminated as by {@link BufferedReader#readLine}.
+   */
+  public void hasLinesExactly(String... expected) {
+    hasLinesExactly(Arrays.asList(expected));
+  }
+
+  /**
+   * Fails if the lines of the file, decoded as UTF-8, are not exactly the given lines, in order.
+   * Lines are terminated as by {@link BufferedReader#readLine}.
+   */
+  public void hasLinesExactly(Iterable<String> expected) {
+    checkNotNull(expected);
+    if (actual == null) {
+      failWithActual("expected a file with lines", expected);
+      return;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(actual, UTF_8)) {
+      Deque<String> previousLines = new ArrayDeque<>(LINE_CONTEXT);
+      Iterator<String> expectedLines = expected.iterator();
+      for (long lineNumber = 1; ; lineNumber++) {
+        String actualLine = reader.readLine();
+        String expectedLine = expectedLines.hasNext() ? checkNotNull(expectedLines.next()) : null;
+        if (actualLine == null && expectedLine == null) {
+          return;
+        }
+        if (actualLine == null || !actualLine.equals(expectedLine)) {
+          ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+          facts.add(fact("first difference at line", lineNumber));
+          facts.add(
+              expectedLine == null
+                  ? simpleFact("expected no more lines")
+                  : fact("expected line", expectedLine));
+          facts.add(
+              actualLine == null
+                  ? simpleFact("but the file ended")
+                  : fact("but line was", actualLine));
+          facts.add(
+              fact("lines around it", lineWindow(previousLines, lineNumber, actualLine, reader)));
+          failWithActual(facts.build());
+          return;
+        }
+        if (previousLines.size() == LINE_CONTEXT) {
+          previousLines.removeFirst();
+        }
+        previousLines.addLast(actualLine);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Fails if the file does not have the same content as the {@code golden} file. The failure
+   * message contains a unified diff of the lines of the two files, like the one {@link
+   * StringSubject#isEqualTo} shows for multiline strings.
+   *
+   * <p>Only the lines between the equal beginning and end of the files are decoded and diffed, so
+   * this is suitable for large generated files which differ in a few places. If the differing
+   * region is longer than a few thousand lines, the diff covers only its start.
+   */
+  public void matchesGoldenFile(Path golden) {
+    checkNotNull(golden);
+    if (actual == null) {
+      failWithActual("expected a file matching golden file", golden);
+      return;
+    }
+    try (FileChannel actualChannel = FileChannel.open(actual, StandardOpenOption.READ);
+        FileChannel goldenChannel = FileChannel.open(golden, StandardOpenOption.READ)) {
+      ImmutableList<Fact> diff = LineDiff.diff(goldenChannel, actualChannel);
+      if (diff != null) {
+        failWithActual(
+            ImmutableList.<Fact>builder()
+                .add(fact("expected to match golden file", golden))
+                .addAll(diff)
+                .build());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Fails if the directory tree rooted at the subject does not match the one rooted at {@code
+   * expected}. Trees match if they have entries at the same relative paths, and corresponding
+   * entries are of the same type (directory, file, symbolic link or other) and, where the file
+   * system supports POSIX permissions, have the same permissions. Corresponding files must have the
+   * same content, and symbolic links the same targets. Symbolic links are not followed.
+   *
+   * <p>The two trees are walked concurrently, and the contents of files of equal size are compared
+   * in parallel on a small, bounded pool of threads. Files of different sizes are reported without
+   * reading them.
+   */
+  public void hasSameTreeAs(Path expected) {
+    checkArgument(Files.isDirectory(expected), "%s is not a directory", expected);
+    if (actual == null) {
+      failWithActual("expected a directory with the same tree as", expected);
+      return;
+    }
+    if (!Files.isDirectory(actual, LinkOption.NOFOLLOW_LINKS)) {
+      failWithActual(simpleFact("expected to be a directory"));
+      return;
+    }
+    ExecutorService executor = ComparisonExecutor.INSTANCE;
+    Future<SortedMap<String, TreeEntry>> expectedEntries =
+        executor.submit(() -> walkTree(expected));
+    try {
+      SortedMap<String, TreeEntry> actualEntries = walkTree(actual);
+      TreeDifference diff =
+          TreeDifference.create(actualEntries, getUnchecked(expectedEntries), executor);
+      if (!diff.isEmpty()) {
+        failWithoutActual(
+            ImmutableList.<Fact>builder()
+                .addAll(diff.describe())
+                .add(simpleFact("---"))
+                .add(fact("expected tree", expected))
+                .add(butWas())
+                .build());
+      }
+    } finally {
+      expectedEntries.cancel(true);
+    }
+  }
+
+  /**
+   * Fails if the regular files in the directory tree rooted at the subject are not exactly those at
+   * the given paths, relative to the subject and separated by {@code /}. Directories and other
+   * entries are ignored.
+   */
+  public void containsFilesExactly(String... relativePaths) {
+    if (actual == null) {
+      failWithActual("expected a directory with exactly the files", Arrays.asList(relativePaths));
+      return;
+    }
+    if (!Files.isDirectory(actual, LinkOption.NOFOLLOW_LINKS)) {
+      failWithActual(simpleFact("expected to be a directory"));
+      return;
+    }
+    SortedSet<String> expected = new TreeSet<>(Arrays.asList(relativePaths));
+    SortedSet<String> files = new TreeSet<>();
+    for (Map.Entry<String, TreeEntry> entry : walkTree(actual).entrySet()) {
+      if (entry.getValue().type == EntryType.FILE) {
+        files.add(entry.getKey());
+      }
+    }
+    if (!files.equals(expected)) {
+      ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+      describePaths(facts, "missing files", Sets.difference(expected, files));
+      describePaths(facts, "unexpected files", Sets.difference(files, expected));
+      failWithoutActual(
+          facts
+              .add(simpleFact("---"))
+              .add(fact("expected files", expected))
+              .add(butWas())
+              .build());
+    }
+  }
+
+  private static long size(Path path) {
+    try {
+      return Files.size(path);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Iterable<Fact> contentFacts(
+      Fact headline,
+      long offset,
+      long actualSize,
+      FileChannel actualChannel,
+      long expectedSize,
+      String expectedBytes)
+      throws IOException {
+    ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+    facts.add(headline);
+    facts.add(fact("first difference at offset", offset));
+    if (actualSize != expectedSize) {
+      facts.add(fact("expected size", expectedSize));
+      facts.add(fact("actual size", actualSize));
+    }
+    facts.add(fact("expected bytes", expectedBytes));
+    facts.add(fact("actual bytes", readWindow(actualChannel, offset, actualSize)));
+    return facts.build();
+  }
+
+  // Renders the bytes of the file around the given offset.
+  private static String readWindow(FileChannel channel, long offset, long size) throws IOException {
+    long start = HexDump.windowStart(offset);
+    ByteBuffer window = ByteBuffer.allocate((int) (HexDump.windowEnd(offset, size) - start));
+    while (window.hasRemaining() && channel.read(window, start + window.position()) >= 0) {}
+    return HexDump.hexdump(Arrays.copyOf(window.array(), window.position()), start);
+  }
+
+  // Renders the lines on each side of the first differing line, reading the later ones.
+  private static String lineWindow(
+      Deque<String> previousLines, long lineNumber, @Nullable String line, BufferedReader reader)
+      throws IOException {
+    StringBuilder sb = new StringBuilder();
+    long number = lineNumber - previousLines.size();
+    for (String previous : previousLines) {
+      appendLine(sb, "  ", number++, previous);
+    }
+    if (line != null) {
+      appendLine(sb, "> ", number++, line);
+      for (int i = 0; i < LINE_CONTEXT; i++) {
+        String next = reader.readLine();
+        if (next == null) {
+          break;
+        }
+        appendLine(sb, "  ", number++, next);
+      }
+    } else {
+      appendLine(sb, "> ", number, "(end of file)");
+    }
+    return sb.toString();
+  }
+
+  private static void appendLine(StringBuilder sb, String marker, long number, String line) {
+    if (sb.length() > 0) {
+      sb.append('\n');
+    }
+    sb.append(marker).append(number).append(": ").append(line);
+  }
+
+  /**
+   * The pool on which {@link #hasSameTreeAs} walks the expected tree and compares file contents. It
+   * is shared by all subjects and only created on first use. Its threads are daemons, so it never
+   * keeps the JVM alive, and the assertion thread never waits on work submitted by another task, so
+   * concurrent assertions can't deadlock it.
+   */
+  private static final class ComparisonExecutor {
+    static final ExecutorService INSTANCE =
+        Executors.newFixedThreadPool(
+            Math.max(2, Math.min(MAX_COMPARISON_THREADS, availableProcessors())),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("PathSubject-%d").build());
+
+    private static int availableProcessors() {
+      return Runtime.getRuntime().availableProcessors();
+    }
+  }
+
+  private static <T> T getUnchecked(Future<T> future) {
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      throwIfUnchecked(e.getCause());
+      if (e.getCause() instanceof IOException) {
+        throw new UncheckedIOException((IOException) e.getCause());
+      }
+      throw new UncheckedExecutionException(e.getCause());
+    }
+  }
+
+  private static void describePaths(
+      ImmutableList.Builder<Fact> facts, String heading, Set<String> paths) {
+    if (paths.isEmpty()) {
+      return;
+    }
+    facts.add(simpleFact(heading));
+    int listed = 0;
+    for (String path : paths) {
+      if (listed++ == MAX_LISTED_ENTRIES) {
+        facts.add(simpleFact("(and " + (paths.size() - MAX_LISTED_ENTRIES) + " more)"));
+        break;
+      }
+      facts.add(fact("for path", path));
+    }
+  }
+
+  private enum EntryType {
+    DIRECTORY("directory"),
+    FILE("file"),
+    SYMBOLIC_LINK("symbolic link"),
+    OTHER("other");
+
+    private final String description;
+
+    EntryType(String description) {
+      this.description = description;
+    }
+
+    @Override
+    public String toString() {
+      return description;
+    }
+  }
+
+  /** The metadata of one entry of a directory tree. */
+  private static final class TreeEntry {
+    final Path path;
+    final EntryType type;
+    final long size;
+    final @Nullable Set<PosixFilePermission> permissions;
+
+    TreeEntry(Path path, BasicFileAttributes attributes) throws IOException {
+      this.path = path;
+      this.type =
+          attributes.isSymbolicLink()
+              ? EntryType.SYMBOLIC_LINK
+              : attributes.isDirectory()
+                  ? EntryType.DIRECTORY
+                  : attributes.isRegularFile() ? EntryType.FILE : EntryType.OTHER;
+      this.size = attributes.size();
+      PosixFileAttributeView posix =
+          Files.getFileAttributeView(path, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+      this.permissions =
+          (posix == null || type == EntryType.SYMBOLIC_LINK)
+              ? null
+              : posix.readAttributes().permissions();
+    }
+  }
+
+  /**
+   * Returns the entries of the tree rooted at {@code root}, other than the root itself, keyed by
+   * their {@code /}-separated paths relative to the root.
+   */
+  private static SortedMap<String, TreeEntry> walkTree(Path root) {
+    SortedMap<String, TreeEntry> entries = new TreeMap<>();
+    try {
+      Files.walkFileTree(
+          root,
+          new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes)
+                throws IOException {
+              if (!dir.equals(root)) {
+                entries.put(relativePath(root, dir), new TreeEntry(dir, attributes));
+              }
+              return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+                throws IOException {
+              entries.put(relativePath(root, file), new TreeEntry(file, attributes));
+              return FileVisitResult.CONTINUE;
+            }
+          });
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return entries;
+  }
+
+  private static String relativePath(Path root, Path path) {
+    StringBuilder sb = new StringBuilder();
+    for (Path name : root.relativize(path)) {
+      if (sb.length() > 0) {
+        sb.append('/');
+      }
+      sb.append(name);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * The differences between two directory trees, grouped like {@code MapSubject}'s report into
+   * entries which differ, entries which are missing, and entries which are unexpected.
+   */
+  private static final class TreeDifference {
+    final SortedMap<String, ImmutableList<Fact>> differing;
+    final SortedSet<String> missing;
+    final SortedSet<String> unexpected;
+
+    private TreeDifference(
+        SortedMap<String, ImmutableList<Fact>> differing,
+        SortedSet<String> missing,
+        SortedSet<String> unexpected) {
+      this.differing = differing;
+      this.missing = missing;
+      this.unexpected = unexpected;
+    }
+
+    static TreeDifference create(
+        SortedMap<String, TreeEntry> actual,
+        SortedMap<String, TreeEntry> expected,
+        ExecutorService executor) {
+      SortedSet<String> missing =
+          new TreeSet<>(Sets.difference(expected.keySet(), actual.keySet()));
+      SortedSet<String> unexpected =
+          new TreeSet<>(Sets.difference(actual.keySet(), expected.keySet()));
+
+      // Metadata is compared right away, and contents (only of files with matching metadata) in
+      // the background.
+      SortedMap<String, ImmutableList<Fact>> differing = new TreeMap<>();
+      SortedMap<String, Future<Long>> contentMismatches = new TreeMap<>();
+      for (Map.Entry<String, TreeEntry> entry : actual.entrySet()) {
+        TreeEntry expectedEntry = expected.get(entry.getKey());
+        if (expectedEntry == null) {
+          continue;
+        }
+        ImmutableList<Fact> facts;
+        try {
+          facts = compareMetadata(entry.getValue(), expectedEntry);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        if (!facts.isEmpty()) {
+          differing.put(entry.getKey(), facts);
+        } else if (entry.getValue().type == EntryType.FILE && entry.getValue().size > 0) {
+          Path actualFile = entry.getValue().path;
+          Path expectedFile = expectedEntry.path;
+          contentMismatches.put(
+              entry.getKey(), executor.submit(() -> contentMismatch(actualFile, expectedFile)));
+        }
+      }
+      try {
+        for (Map.Entry<String, Future<Long>> entry : contentMismatches.entrySet()) {
+          long offset = getUnchecked(entry.getValue());
+          if (offset >= 0) {
+            differing.put(
+                entry.getKey(), ImmutableList.of(fact("contents first differ at offset", offset)));
+          }
+        }
+      } finally {
+        // Don't leave work for the shared pool if a comparison failed.
+        for (Future<Long> future : contentMismatches.values()) {
+          future.cancel(true);
+        }
+      }
+      return new TreeDifference(differing, missing, unexpected);
+    }
+
+    private static ImmutableList<Fact> compareMetadata(TreeEntry actual, TreeEntry expected)
+        throws IOException {
+      ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+      if (actual.type != expected.type) {
+        return facts
+            .add(fact("expected type", expected.type))
+            .add(fact("but type was", actual.type))
+            .build();
+      }
+      if (actual.type == EntryType.FILE && actual.size != expected.size) {
+        facts.add(fact("expected size", expected.size)).add(fact("but size was", actual.size));
+      }
+      if (actual.type == EntryType.SYMBOLIC_LINK) {
+        Path actualTarget = Files.readSymbolicLink(actual.path);
+        Path expectedTarget = Files.readSymbolicLink(expected.path);
+        if (!actualTarget.toString().equals(expectedTarget.toString())) {
+          facts
+              .add(fact("expected link target", expectedTarget))
+              .add(fact("but link target was", actualTarget));
+        }
+      }
+      if (actual.permissions != null
+          && expected.permissions != null
+          && !actual.permissions.equals(expected.permissions)) {
+        facts
+            .add(fact("expected permissions", PosixFilePermissions.toString(expected.permissions)))
+            .add(fact("but permissions were", PosixFilePermissions.toString(actual.permissions)));
+      }
+      return facts.build();
+    }
+
+    private static long contentMismatch(Path actual, Path expected) throws IOException {
+      try (FileChannel actualChannel = FileChannel.open(actual, StandardOpenOption.READ);
+          FileChannel expectedChannel = FileChannel.open(expected, StandardOpenOption.READ)) {
+        return mismatch(actualChannel, actualChannel.size(), new ChannelContent(expectedChannel));
+      }
+    }
+
+    boolean isEmpty() {
+      return differing.isEmpty() && missing.isEmpty() && unexpected.isEmpty();
+    }
+
+    ImmutableList<Fact> describe() {
+      ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+      if (!differing.isEmpty()) {
+        facts.add(simpleFact("entries with differences"));
+      }
+      int listed = 0;
+      for (Map.Entry<String, ImmutableList<Fact>> entry : differing.entrySet()) {
+        if (listed++ == MAX_LISTED_ENTRIES) {
+          facts.add(simpleFact("(and " + (differing.size() - MAX_LISTED_ENTRIES) + " more)"));
+          break;
+        }
+        facts.add(fact("for path", entry.getKey()));
+        facts.addAll(entry.getValue());
+      }
+      describePaths(facts, "missing entries", missing);
+      describePaths(facts, "unexpected entries", unexpected);
+      return facts.build();
+    }
+  }
+
+  /** Content to compare a file with, read in chunks. */
+  interface Content {
+    /** Returns the bytes in {@code [position, position + length)}, which must be in bounds. */
+    ByteBuffer read(long position, int length) throws IOException;
+
+    long size() throws IOException;
+  }
+
+  static final class ChannelContent implements Content {
+    private final FileChannel channel;
+
+    ChannelContent(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public ByteBuffer read(long position, int length) throws IOException {
+      return channel.map(MapMode.READ_ONLY, position, length);
+    }
+
+    @Override
+    public long size() throws IOException {
+      return channel.size();
+    }
+  }
+
+  private static final class ArrayContent implements Content {
+    private final byte[] bytes;
+
+    ArrayContent(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public ByteBuffer read(long position, int length) {
+      return ByteBuffer.wrap(bytes, (int) position, length).slice();
+    }
+
+    @Override
+    public long size() {
+      return bytes.length;
+    }
+  }
+
+  /**
+   * Returns the offset of the first byte at which the file differs from {@code expected}, or -1 if
+   * they have the same content. If one is a prefix of the other, returns the size of the shorter
+   * one, as {@code Files.mismatch} does.
+   */
+  static long mismatch(FileChannel actual, long actualSize, Content expected)
+      throws IOException {
+    long expectedSize = expected.size();
+    long commonSize = Math.min(actualSize, expectedSize);
+    for (long position = 0; position < commonSize; position += CHUNK_SIZE) {
+      int length = (int) Math.min(CHUNK_SIZE, commonSize - position);
+      ByteBuffer actualChunk = actual.map(MapMode.READ_ONLY, position, length);
+      int index = mismatch(actualChunk, expected.read(position, length));
+      if (index >= 0) {
+        return position + index;
+      }
+    }
+    return actualSize == expectedSize ? -1 : commonSize;
+  }
+
+  // Returns the index of the first differing byte of two buffers of the same length, or -1.
+  private static int mismatch(ByteBuffer a, ByteBuffer b) {
+    int length = a.remaining();
+    int i = 0;
+    // Compare eight bytes at a time, then narrow down.
+    for (; i + Long.BYTES <= length; i += Long.BYTES) {
+      if (a.getLong(i) != b.getLong(i)) {
+        break;
+      }
+    }
+    for (; i < length; i++) {
+      if (a.get(i) != b.get(i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
 }
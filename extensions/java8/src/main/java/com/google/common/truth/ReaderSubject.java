@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.fact;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.CharStreams;
+import com.google.j2objc.annotations.J2ObjCIncompatible;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Assertions for the text read from a {@link Reader}. The assertions read the reader to its end,
+ * but do not close it.
+ */
+@GwtIncompatible
+@J2ObjCIncompatible
+public final class ReaderSubject extends Subject {
+  private final @Nullable Reader actual;
+
+  private ReaderSubject(FailureMetadata failureMetadata, @Nullable Reader actual) {
+    super(failureMetadata, actual);
+    this.actual = actual;
+  }
+
+  public static Subject.Factory<ReaderSubject, Reader> readers() {
+    return ReaderSubject::new;
+  }
+
+  /**
+   * Fails if the text read from the reader, encoded as UTF-8, is not the same as the content of the
+   * {@code golden} file. The failure message contains a unified diff of the lines of the two, as
+   * for {@link PathSubject#matchesGoldenFile}.
+   *
+   * <p>The text is copied to a temporary file rather than held in memory, so the reader may produce
+   * more text than fits in the heap.
+   */
+  public void matchesGoldenFile(Path golden) {
+    checkNotNull(golden);
+    if (actual == null) {
+      failWithActual("expected a reader matching golden file", golden);
+      return;
+    }
+    try {
+      Path copy = Files.createTempFile("truth", ".txt");
+      try {
+        try (Writer writer = Files.newBufferedWriter(copy, UTF_8)) {
+          CharStreams.copy(actual, writer);
+        }
+        try (FileChannel actualChannel = FileChannel.open(copy, StandardOpenOption.READ);
+            FileChannel goldenChannel = FileChannel.open(golden, StandardOpenOption.READ)) {
+          ImmutableList<Fact> diff = LineDiff.diff(goldenChannel, actualChannel);
+          if (diff != null) {
+            failWithoutActual(
+                ImmutableList.<Fact>builder()
+                    .add(fact("expected to match golden file", golden))
+                    .addAll(diff)
+                    .build());
+          }
+        }
+      } finally {
+        Files.deleteIfExists(copy);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -15,43 +15,176 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.Fact.simpleFact;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toCollection;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Ordering;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.DoNotCall;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Propositions for {@link Stream} subjects.
  *
- * <p><b>Note:</b> the wrapped stream will be drained immediately into a private collection to
- * provide more readable failure messages. You should not use this class if you intend to leave the
- * stream un-consumed or if the stream is <i>very</i> large or infinite.
+ * <p><b>Note:</b> the wrapped stream will be drained into a private collection by the first
+ * assertion which needs its contents, to provide more readable failure messages. You should not use
+ * this class if you intend to leave the stream un-consumed or if the stream is <i>very</i> large or
+ * infinite.
  *
  * <p>If you intend to make multiple assertions on the same stream of data you should instead first
  * collect the contents of the stream into a collection, and then assert directly on that.
  *
  * <p>For very large or infinite streams you may want to first {@linkplain Stream#limit limit} the
- * stream before asserting on it.
+ * stream before asserting on it, or to use the single-pass assertions of {@link #streaming()},
+ * which never hold more than a few elements in memory.
+ *
+ * <p>A {@linkplain Stream#isParallel parallel} stream is collected in parallel: each thread counts
+ * the elements of its part of the stream as it collects them, and the parts are merged in
+ * encounter order. Assertions which ignore order ({@code hasSize}, {@code contains}, {@code
+ * containsExactly} and {@code containsAtLeast} without {@code inOrder()}, and so on) pass using
+ * those counts alone. Failure messages, and {@code inOrder()}, use the elements in encounter order.
  *
  * @author Kurt Alfred Kluever
  */
 public final class StreamSubject extends Subject {
 
-  private final List<?> actualList;
+  private final @Nullable Stream<?> stream;
+  private @Nullable List<?> actualList;
+  // Only set for parallel streams, along with actualList.
+  private @Nullable Multiset<?> actualCounts;
+  private boolean streamed;
 
   private StreamSubject(FailureMetadata failureMetadata, @Nullable Stream<?> stream) {
     super(failureMetadata, stream);
-    this.actualList = (stream == null) ? null : stream.collect(toCollection(ArrayList::new));
+    this.stream = stream;
   }
 
   @Override
   protected String actualCustomStringRepresentation() {
-    return String.valueOf(actualList);
+    if (streamed && actualList == null) {
+      return "(a stream already consumed by streaming assertions)";
+    }
+    return String.valueOf(actualList());
+  }
+
+  private @Nullable List<?> actualList() {
+    if (actualList == null && stream != null) {
+      checkState(!streamed, "The stream was already consumed by streaming().");
+      if (stream.isParallel()) {
+        ParallelContents contents =
+            stream.collect(ParallelContents::new, ParallelContents::add, ParallelContents::addAll);
+        actualList = contents.elements;
+        actualCounts = contents.counts;
+      } else {
+        actualList = stream.collect(toCollection(ArrayList::new));
+      }
+    }
+    return actualList;
+  }
+
+  /**
+   * Returns the number of occurrences of each element if the stream is parallel, or null otherwise.
+   * Collects the stream if necessary.
+   */
+  private @Nullable Multiset<?> actualCounts() {
+    actualList();
+    return actualCounts;
+  }
+
+  /**
+   * The contents of part of a parallel stream, in encounter order and counted by value. {@link
+   * Stream#collect} gives each thread its own instance and merges them in encounter order.
+   */
+  private static final class ParallelContents {
+    final List<@Nullable Object> elements = new ArrayList<>();
+    final Multiset<@Nullable Object> counts = HashMultiset.create();
+
+    void add(@Nullable Object element) {
+      elements.add(element);
+      counts.add(element);
+    }
+
+    void addAll(ParallelContents other) {
+      elements.addAll(other.elements);
+      counts.addAll(other.counts);
+    }
+  }
+
+  /** Returns whether the (parallel) stream is already known to contain {@code element}. */
+  private boolean countsContain(@Nullable Object element) {
+    Multiset<?> counts = actualCounts();
+    return counts != null && counts.contains(element);
+  }
+
+  /**
+   * Returns whether the (parallel) stream is already known to contain exactly the elements of
+   * {@code expected}, in any order.
+   */
+  private boolean countsMatch(@Nullable Iterable<?> expected) {
+    Multiset<?> counts = actualCounts();
+    return counts != null && expected != null && counts.equals(HashMultiset.create(expected));
+  }
+
+  /**
+   * Returns whether the (parallel) stream is already known to contain at least the elements of
+   * {@code expected}, in any order.
+   */
+  private boolean countsContainAll(@Nullable Iterable<?> expected) {
+    Multiset<?> counts = actualCounts();
+    if (counts == null || expected == null) {
+      return false;
+    }
+    for (Multiset.Entry<?> entry : HashMultiset.create(expected).entrySet()) {
+      if (counts.count(entry.getElement()) < entry.getCount()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns whether the (parallel) stream is already known to contain none of {@code excluded}. */
+  private boolean countsExclude(@Nullable Iterable<?> excluded) {
+    Multiset<?> counts = actualCounts();
+    if (counts == null || excluded == null) {
+      return false;
+    }
+    for (Object element : excluded) {
+      if (counts.contains(element)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Returns the elements for a single streaming pass, without collecting them, or null if the stream
+  // is null.
+  private @Nullable Iterator<?> elements() {
+    if (actualList != null || actualCounts != null) {
+      return actualList().iterator();
+    }
+    if (stream == null) {
+      return null;
+    }
+    checkState(!streamed, "The stream was already consumed by streaming().");
+    streamed = true;
+    return stream.iterator();
   }
 
   public static Subject.Factory<StreamSubject, Stream<?>> streams() {
@@ -60,12 +193,12 @@ public final class StreamSubject extends Subject {
 
   /** Fails if the subject is not empty. */
   public void isEmpty() {
-    check().that(actualList).isEmpty();
+    check().that(actualList()).isEmpty();
   }
 
   /** Fails if the subject is empty. */
   public void isNotEmpty() {
-    check().that(actualList).isNotEmpty();
+    check().that(actualList()).isNotEmpty();
   }
 
   /**
@@ -75,33 +208,40 @@ public final class StreamSubject extends Subject {
    * elements, use {@code assertThat(stream.count()).isEqualTo(...)}.
    */
   public void hasSize(int expectedSize) {
-    check().that(actualList).hasSize(expectedSize);
+    check().that(actualList()).hasSize(expectedSize);
   }
 
   /** Fails if the subject does not contain the given element. */
   public void contains(@Nullable Object element) {
-    check().that(actualList).contains(element);
+    if (!countsContain(element)) {
+      check().that(actualList()).contains(element);
+    }
   }
 
   /** Fails if the subject contains the given element. */
   public void doesNotContain(@Nullable Object element) {
-    check().that(actualList).doesNotContain(element);
+    if (!countsExclude(singletonList(element))) {
+      check().that(actualList()).doesNotContain(element);
+    }
   }
 
   /** Fails if the subject contains duplicate elements. */
   public void containsNoDuplicates() {
-    check().that(actualList).containsNoDuplicates();
+    Multiset<?> counts = actualCounts();
+    if (counts == null || counts.elementSet().size() != counts.size()) {
+      check().that(actualList()).containsNoDuplicates();
+    }
   }
 
   /** Fails if the subject does not contain at least one of the given elements. */
   public void containsAnyOf(
       @Nullable Object first, @Nullable Object second, @Nullable Object @Nullable ... rest) {
-    check().that(actualList).containsAnyOf(first, second, rest);
+    check().that(actualList()).containsAnyOf(first, second, rest);
   }
 
   /** Fails if the subject does not contain at least one of the given elements. */
   public void containsAnyIn(Iterable<?> expected) {
-    check().that(actualList).containsAnyIn(expected);
+    check().that(actualList()).containsAnyIn(expected);
   }
 
   /**
@@ -116,7 +256,10 @@ public final class StreamSubject extends Subject {
   @CanIgnoreReturnValue
   public Ordered containsAtLeast(
       @Nullable Object first, @Nullable Object second, @Nullable Object @Nullable ... rest) {
-    return check().that(actualList).containsAtLeast(first, second, rest);
+    if (rest != null && countsContainAll(Lists.asList(first, second, rest))) {
+      return () -> check().that(actualList()).containsAtLeast(first, second, rest).inOrder();
+    }
+    return check().that(actualList()).containsAtLeast(first, second, rest);
   }
 
   /**
@@ -130,7 +273,10 @@ public final class StreamSubject extends Subject {
    */
   @CanIgnoreReturnValue
   public Ordered containsAtLeastElementsIn(Iterable<?> expected) {
-    return check().that(actualList).containsAtLeastElementsIn(expected);
+    if (countsContainAll(expected)) {
+      return () -> check().that(actualList()).containsAtLeastElementsIn(expected).inOrder();
+    }
+    return check().that(actualList()).containsAtLeastElementsIn(expected);
   }
 
   // TODO(cpovirk): Add array overload of contains*ElementsIn methods? Also for int and long stream.
@@ -146,7 +292,10 @@ public final class StreamSubject extends Subject {
    */
   @CanIgnoreReturnValue
   public Ordered containsExactly(@Nullable Object @Nullable ... varargs) {
-    return check().that(actualList).containsExactly(varargs);
+    if (varargs != null && countsMatch(Arrays.asList(varargs))) {
+      return () -> check().that(actualList()).containsExactly(varargs).inOrder();
+    }
+    return check().that(actualList()).containsExactly(varargs);
   }
 
   /**
@@ -160,7 +309,10 @@ public final class StreamSubject extends Subject {
    */
   @CanIgnoreReturnValue
   public Ordered containsExactlyElementsIn(Iterable<?> expected) {
-    return check().that(actualList).containsExactlyElementsIn(expected);
+    if (countsMatch(expected)) {
+      return () -> check().that(actualList()).containsExactlyElementsIn(expected).inOrder();
+    }
+    return check().that(actualList()).containsExactlyElementsIn(expected);
   }
 
   /**
@@ -169,7 +321,9 @@ public final class StreamSubject extends Subject {
    */
   public void containsNoneOf(
       @Nullable Object first, @Nullable Object second, @Nullable Object @Nullable ... rest) {
-    check().that(actualList).containsNoneOf(first, second, rest);
+    if (rest == null || !countsExclude(Lists.asList(first, second, rest))) {
+      check().that(actualList()).containsNoneOf(first, second, rest);
+    }
   }
 
   /**
@@ -177,7 +331,9 @@ public final class StreamSubject extends Subject {
    * test, which fails if any of the actual elements equal any of the excluded.)
    */
   public void containsNoneIn(Iterable<?> excluded) {
-    check().that(actualList).containsNoneIn(excluded);
+    if (!countsExclude(excluded)) {
+      check().that(actualList()).containsNoneIn(excluded);
+    }
   }
 
   /**
@@ -189,7 +345,7 @@ public final class StreamSubject extends Subject {
    * @throws NullPointerException if any element is null
    */
   public void isInStrictOrder() {
-    check().that(actualList).isInStrictOrder();
+    check().that(actualList()).isInStrictOrder();
   }
 
   /**
@@ -200,7 +356,7 @@ public final class StreamSubject extends Subject {
    * @throws ClassCastException if any pair of elements is not mutually Comparable
    */
   public void isInStrictOrder(Comparator<?> comparator) {
-    check().that(actualList).isInStrictOrder(comparator);
+    check().that(actualList()).isInStrictOrder(comparator);
   }
 
   /**
@@ -211,7 +367,7 @@ public final class StreamSubject extends Subject {
    * @throws NullPointerException if any element is null
    */
   public void isInOrder() {
-    check().that(actualList).isInOrder();
+    check().that(actualList()).isInOrder();
   }
 
   /**
@@ -221,7 +377,7 @@ public final class StreamSubject extends Subject {
    * @throws ClassCastException if any pair of elements is not mutually Comparable
    */
   public void isInOrder(Comparator<?> comparator) {
-    check().that(actualList).isInOrder(comparator);
+    check().that(actualList()).isInOrder(comparator);
   }
 
   /**
@@ -254,5 +410,292 @@ public final class StreamSubject extends Subject {
             + " equality semantics");
   }
 
+  /**
+   * Returns a view of this subject whose assertions consume the stream in a single pass, holding
+   * only a constant number of elements in memory and stopping as soon as the outcome is known.
+   * This makes them suitable for streams too large to collect, and in some cases for infinite
+   * streams.
+   *
+   * <p>Failure messages report the index of the offending element and a few of the elements around
+   * it, rather than the full contents of the stream.
+   *
+   * <p>Each streaming assertion consumes the stream, so only one of them can be made, and no other
+   * assertions on the contents of the stream can follow it. (If the contents of the stream were
+   * already collected by an earlier assertion, streaming assertions iterate over those instead.)
+   */
+  public Streaming streaming() {
+    return new Streaming();
+  }
+
+  /**
+   * Single-pass, constant-memory assertions about a stream. Obtain an instance from {@link
+   * #streaming()}.
+   */
+  public final class Streaming {
+    private Streaming() {}
+
+    /**
+     * Fails if the stream does not have the given number of elements. Stops reading the stream
+     * after {@code expectedSize + 1} elements.
+     */
+    public void hasSize(long expectedSize) {
+      checkArgument(expectedSize >= 0, "expectedSize(%s) must be >= 0", expectedSize);
+      Scan scan = scanOrFail(fact("expected size", expectedSize));
+      if (scan == null) {
+        return;
+      }
+      while (scan.hasNext()) {
+        scan.next();
+        if (scan.index() == expectedSize) {
+          failWithoutActual(
+              fact("expected size", expectedSize), fact("but had at least", expectedSize + 1));
+          return;
+        }
+      }
+      long actualSize = scan.index() + 1;
+      if (actualSize != expectedSize) {
+        failWithoutActual(fact("expected size", expectedSize), fact("but was", actualSize));
+      }
+    }
+
+    /** Fails if the stream does not contain the given element. */
+    public void contains(@Nullable Object element) {
+      Scan scan = scanOrFail(fact("expected to contain", element));
+      if (scan == null) {
+        return;
+      }
+      while (scan.hasNext()) {
+        if (Objects.equals(scan.next(), element)) {
+          return;
+        }
+      }
+      failWithoutActual(
+          fact("expected to contain", element),
+          simpleFact("but did not"),
+          fact("number of elements", scan.index() + 1),
+          fact("last elements", scan.tail()));
+    }
+
+    /** Fails if the stream contains the given element. */
+    public void doesNotContain(@Nullable Object element) {
+      Scan scan = scanOrFail(fact("expected not to contain", element));
+      if (scan == null) {
+        return;
+      }
+      while (scan.hasNext()) {
+        if (Objects.equals(scan.next(), element)) {
+          failAt(scan, fact("expected not to contain", element), simpleFact("but it did"));
+          return;
+        }
+      }
+    }
+
+    /**
+     * Fails if any element of the stream does not satisfy the given predicate. Stops at the first
+     * such element.
+     */
+    @SuppressWarnings("unchecked") // The caller is responsible for the element type.
+    public <T> void allMatch(Predicate<? super T> predicate) {
+      checkNotNull(predicate);
+      Scan scan = scanOrFail(simpleFact("expected all elements to match the predicate"));
+      if (scan == null) {
+        return;
+      }
+      while (scan.hasNext()) {
+        Object element = scan.next();
+        if (!predicate.test((T) element)) {
+          failAt(
+              scan,
+              simpleFact("expected all elements to match the predicate"),
+              fact("but this element did not", element));
+          return;
+        }
+      }
+    }
+
+    /**
+     * Fails if any element of the stream satisfies the given predicate. Stops at the first such
+     * element.
+     */
+    @SuppressWarnings("unchecked") // The caller is responsible for the element type.
+    public <T> void noneMatch(Predicate<? super T> predicate) {
+      checkNotNull(predicate);
+      Scan scan = scanOrFail(simpleFact("expected no elements to match the predicate"));
+      if (scan == null) {
+        return;
+      }
+      while (scan.hasNext()) {
+        Object element = scan.next();
+        if (predicate.test((T) element)) {
+          failAt(
+              scan,
+              simpleFact("expected no elements to match the predicate"),
+              fact("but this element did", element));
+          return;
+        }
+      }
+    }
+
+    /**
+     * Fails if the stream is not strictly ordered, according to the natural ordering of its
+     * elements. Stops at the first element which is out of order.
+     *
+     * @throws ClassCastException if any pair of elements is not mutually Comparable
+     * @throws NullPointerException if any element is null
+     */
+    public void isInStrictOrder() {
+      isInStrictOrder(Ordering.natural());
+    }
+
+    /**
+     * Fails if the stream is not strictly ordered, according to the given comparator. Stops at the
+     * first element which is out of order.
+     *
+     * @throws ClassCastException if any pair of elements is not mutually Comparable
+     */
+    @SuppressWarnings("unchecked")
+    public void isInStrictOrder(Comparator<?> comparator) {
+      checkNotNull(comparator);
+      pairwiseCheck("expected to be in strict order", (Comparator<Object>) comparator, true);
+    }
+
+    /**
+     * Fails if the stream is not ordered, according to the natural ordering of its elements. Stops
+     * at the first element which is out of order.
+     *
+     * @throws ClassCastException if any pair of elements is not mutually Comparable
+     * @throws NullPointerException if any element is null
+     */
+    public void isInOrder() {
+      isInOrder(Ordering.natural());
+    }
+
+    /**
+     * Fails if the stream is not ordered, according to the given comparator. Stops at the first
+     * element which is out of order.
+     *
+     * @throws ClassCastException if any pair of elements is not mutually Comparable
+     */
+    @SuppressWarnings("unchecked")
+    public void isInOrder(Comparator<?> comparator) {
+      checkNotNull(comparator);
+      pairwiseCheck("expected to be in order", (Comparator<Object>) comparator, false);
+    }
+
+    private void pairwiseCheck(String expectedFact, Comparator<Object> comparator, boolean strict) {
+      Scan scan = scanOrFail(simpleFact(expectedFact));
+      if (scan == null || !scan.hasNext()) {
+        return;
+      }
+      Object prev = scan.next();
+      while (scan.hasNext()) {
+        Object next = scan.next();
+        int comparison = comparator.compare(prev, next);
+        if (strict ? comparison >= 0 : comparison > 0) {
+          failAt(
+              scan,
+              simpleFact(expectedFact),
+              fact("but contained", prev),
+              fact("followed by", next));
+          return;
+        }
+        prev = next;
+      }
+    }
+
+    // Starts a pass over the stream, or fails with the given fact and returns null if it is null.
+    private @Nullable Scan scanOrFail(Fact expected) {
+      Iterator<?> elements = elements();
+      if (elements == null) {
+        failWithActual(expected);
+        return null;
+      }
+      return new Scan(elements);
+    }
+
+    // Fails with the given facts, followed by the position of the scan's current element.
+    private void failAt(Scan scan, Fact... facts) {
+      long index = scan.index();
+      String window = scan.window();
+      failWithoutActual(
+          ImmutableList.<Fact>builder()
+              .add(facts)
+              .add(fact("at index", index))
+              .add(fact("elements around index", window))
+              .build());
+    }
+  }
+
+  /**
+   * A single pass over a stream which remembers its last few elements, so that failures can show
+   * the neighborhood of the offending element.
+   */
+  private static final class Scan {
+    // The number of elements shown on each side of the offending element.
+    private static final int CONTEXT = 5;
+
+    private final Iterator<?> iterator;
+    private final @Nullable Object[] recent = new Object[CONTEXT + 1];
+    private long index = -1;
+
+    Scan(Iterator<?> iterator) {
+      this.iterator = iterator;
+    }
+
+    boolean hasNext() {
+      return iterator.hasNext();
+    }
+
+    @Nullable Object next() {
+      Object element = iterator.next();
+      index++;
+      recent[(int) (index % recent.length)] = element;
+      return element;
+    }
+
+    /** The index of the element last returned by {@link #next}, or -1 if there was none. */
+    long index() {
+      return index;
+    }
+
+    /**
+     * Renders the current element and up to {@link #CONTEXT} elements on each side of it, reading
+     * the elements after it from the stream.
+     */
+    String window() {
+      StringBuilder sb = new StringBuilder("[");
+      appendRecent(sb);
+      int after = 0;
+      while (after < CONTEXT && iterator.hasNext()) {
+        sb.append(", ").append(iterator.next());
+        after++;
+      }
+      if (iterator.hasNext()) {
+        sb.append(", ...");
+      }
+      return sb.append("]").toString();
+    }
+
+    /** Renders up to {@link #CONTEXT} + 1 elements, ending with the current element. */
+    String tail() {
+      StringBuilder sb = new StringBuilder("[");
+      appendRecent(sb);
+      return sb.append("]").toString();
+    }
+
+    private void appendRecent(StringBuilder sb) {
+      long first = Math.max(0, index - CONTEXT);
+      if (first > 0) {
+        sb.append("..., ");
+      }
+      for (long i = first; i <= index; i++) {
+        if (i > first) {
+          sb.append(", ");
+        }
+        sb.append(recent[(int) (i % recent.length)]);
+      }
+    }
+  }
+
   // TODO(user): Do we want to support comparingElementsUsing() on StreamSubject?
 }
@@ -19,6 +19,7 @@ import static com.google.common.truth.Truth.assertAbout;
 
 import com.google.common.annotations.GwtIncompatible;
 import com.google.j2objc.annotations.J2ObjCIncompatible;
+import java.io.Reader;
 import java.nio.file.Path;
 import java.util.Optional;
 import java.util.OptionalDouble;
@@ -82,5 +83,11 @@ public final class Truth8 {
     return assertAbout(PathSubject.paths()).that(target);
   }
 
+  @GwtIncompatible
+  @J2ObjCIncompatible
+  public static ReaderSubject assertThat(@Nullable Reader target) {
+    return assertAbout(ReaderSubject.readers()).that(target);
+  }
+
   private Truth8() {}
 }
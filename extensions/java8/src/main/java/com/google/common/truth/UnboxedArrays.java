@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import java.util.Arrays;
+
+/**
+ * Boxing-free versions of the checks made by {@link IterableSubject}, for {@code int[]} and {@code
+ * long[]} contents.
+ *
+ * <p>{@link IntStreamSubject} and {@link LongStreamSubject} run these first, and only fall back to
+ * {@code IterableSubject} (through an {@link com.google.common.primitives.Ints#asList} view, as the
+ * primitive array subjects do) when a check fails, so that failure messages are unchanged while
+ * passing assertions never box their elements. Multiset comparisons are done on sorted copies,
+ * except that a handful of expected elements are simply looked for in the actual array.
+ */
+final class UnboxedArrays {
+
+  // Up to this many expected elements, containsAll scans the actual array once per distinct
+  // expected value instead of sorting a copy of it, which is both faster and allocation-free.
+  private static final int MAX_PROBED_EXPECTED = 8;
+
+  /** Returns whether each element is greater than (or, if not strict, equal to) the previous. */
+  static boolean isInOrder(int[] actual, boolean strict) {
+    for (int i = 1; i < actual.length; i++) {
+      if (strict ? actual[i - 1] >= actual[i] : actual[i - 1] > actual[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns whether each element is greater than (or, if not strict, equal to) the previous. */
+  static boolean isInOrder(long[] actual, boolean strict) {
+    for (int i = 1; i < actual.length; i++) {
+      if (strict ? actual[i - 1] >= actual[i] : actual[i - 1] > actual[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static boolean hasDuplicates(int[] actual) {
+    return !isInOrder(sortedCopy(actual), /* strict= */ true);
+  }
+
+  static boolean hasDuplicates(long[] actual) {
+    return !isInOrder(sortedCopy(actual), /* strict= */ true);
+  }
+
+  /** Returns whether any element of {@code actual} is also in {@code targets}. */
+  static boolean containsAny(int[] actual, int[] targets) {
+    int[] sortedTargets = sortedCopy(targets);
+    for (int element : actual) {
+      if (Arrays.binarySearch(sortedTargets, element) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns whether any element of {@code actual} is also in {@code targets}. */
+  static boolean containsAny(long[] actual, long[] targets) {
+    long[] sortedTargets = sortedCopy(targets);
+    for (long element : actual) {
+      if (Arrays.binarySearch(sortedTargets, element) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether {@code actual} contains every element of {@code expected}, at least as many
+   * times as it appears there.
+   */
+  static boolean containsAll(int[] actual, int[] expected) {
+    if (expected.length > actual.length) {
+      return false;
+    }
+    if (expected.length <= MAX_PROBED_EXPECTED) {
+      return containsAllByProbing(actual, expected);
+    }
+    int[] sortedActual = sortedCopy(actual);
+    int[] sortedExpected = sortedCopy(expected);
+    int a = 0;
+    for (int e = 0; e < sortedExpected.length; e++, a++) {
+      while (a < sortedActual.length && sortedActual[a] < sortedExpected[e]) {
+        a++;
+      }
+      if (a == sortedActual.length || sortedActual[a] != sortedExpected[e]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether {@code actual} contains every element of {@code expected}, at least as many
+   * times as it appears there.
+   */
+  static boolean containsAll(long[] actual, long[] expected) {
+    if (expected.length > actual.length) {
+      return false;
+    }
+    if (expected.length <= MAX_PROBED_EXPECTED) {
+      return containsAllByProbing(actual, expected);
+    }
+    long[] sortedActual = sortedCopy(actual);
+    long[] sortedExpected = sortedCopy(expected);
+    int a = 0;
+    for (int e = 0; e < sortedExpected.length; e++, a++) {
+      while (a < sortedActual.length && sortedActual[a] < sortedExpected[e]) {
+        a++;
+      }
+      if (a == sortedActual.length || sortedActual[a] != sortedExpected[e]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean containsAllByProbing(int[] actual, int[] expected) {
+    for (int e = 0; e < expected.length; e++) {
+      if (indexOf(expected, expected[e]) < e) {
+        continue; // already checked this value
+      }
+      int needed = count(expected, expected[e]);
+      for (int a = 0; a < actual.length && needed > 0; a++) {
+        if (actual[a] == expected[e]) {
+          needed--;
+        }
+      }
+      if (needed > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int indexOf(int[] array, int target) {
+    for (int i = 0; i < array.length; i++) {
+      if (array[i] == target) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int count(int[] array, int target) {
+    int count = 0;
+    for (int element : array) {
+      if (element == target) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns whether the elements of {@code expected} appear in {@code actual} in the same order,
+   * though not necessarily adjacently.
+   */
+  static boolean containsSubsequence(int[] actual, int[] expected) {
+    int e = 0;
+    for (int a = 0; a < actual.length && e < expected.length; a++) {
+      if (actual[a] == expected[e]) {
+        e++;
+      }
+    }
+    return e == expected.length;
+  }
+
+  private static boolean containsAllByProbing(long[] actual, long[] expected) {
+    for (int e = 0; e < expected.length; e++) {
+      if (indexOf(expected, expected[e]) < e) {
+        continue; // already checked this value
+      }
+      int needed = count(expected, expected[e]);
+      for (int a = 0; a < actual.length && needed > 0; a++) {
+        if (actual[a] == expected[e]) {
+          needed--;
+        }
+      }
+      if (needed > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int indexOf(long[] array, long target) {
+    for (int i = 0; i < array.length; i++) {
+      if (array[i] == target) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int count(long[] array, long target) {
+    int count = 0;
+    for (long element : array) {
+      if (element == target) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns whether the elements of {@code expected} appear in {@code actual} in the same order,
+   * though not necessarily adjacently.
+   */
+  static boolean containsSubsequence(long[] actual, long[] expected) {
+    int e = 0;
+    for (int a = 0; a < actual.length && e < expected.length; a++) {
+      if (actual[a] == expected[e]) {
+        e++;
+      }
+    }
+    return e == expected.length;
+  }
+
+  private static int[] sortedCopy(int[] array) {
+    int[] copy = array.clone();
+    Arrays.sort(copy);
+    return copy;
+  }
+
+  private static long[] sortedCopy(long[] array) {
+    long[] copy = array.clone();
+    Arrays.sort(copy);
+    return copy;
+  }
+
+  private UnboxedArrays() {}
+}
@@ -282,6 +282,58 @@ public final class IntStreamSubjectTest {
     }
   }
 
+  @Test
+  public void testContainsAtLeast_respectsMultiplicity() throws Exception {
+    assertThat(IntStream.of(1, 2, 1)).containsAtLeast(1, 1).inOrder();
+  }
+
+  @Test
+  public void testContainsAtLeast_respectsMultiplicity_fails() throws Exception {
+    AssertionError unused =
+        expectFailure(
+            whenTesting -> whenTesting.that(IntStream.of(1, 2)).containsAtLeast(1, 1));
+  }
+
+  @Test
+  public void testContainsAtLeast_manyExpected_respectsMultiplicity() throws Exception {
+    assertThat(IntStream.of(9, 1, 8, 2, 7, 3, 6, 4, 5, 5, 0))
+        .containsAtLeast(1, 2, 3, 4, 5, 5, 6, 7, 8, 9);
+  }
+
+  @Test
+  public void testContainsAtLeast_manyExpected_respectsMultiplicity_fails() throws Exception {
+    AssertionError unused =
+        expectFailure(
+            whenTesting ->
+                whenTesting
+                    .that(IntStream.of(9, 1, 8, 2, 7, 3, 6, 4, 5, 5, 0))
+                    .containsAtLeast(1, 2, 3, 4, 5, 5, 5, 6, 7, 8));
+  }
+
+  @Test
+  public void testContainsExactly_respectsMultiplicity() throws Exception {
+    assertThat(IntStream.of(1, 2, 1)).containsExactly(1, 1, 2);
+  }
+
+  @Test
+  public void testContainsExactly_respectsMultiplicity_fails() throws Exception {
+    AssertionError unused =
+        expectFailure(
+            whenTesting ->
+                whenTesting.that(IntStream.of(1, 2, 2)).containsExactly(1, 1, 2));
+  }
+
+  @Test
+  public void testContainsExactly_sameElementsNotInOrder_fails() throws Exception {
+    AssertionError unused =
+        expectFailure(
+            whenTesting ->
+                whenTesting
+                    .that(IntStream.of(1, 2, 1))
+                    .containsExactly(1, 1, 2)
+                    .inOrder());
+  }
+
   @Test
   public void testContainsExactlyElementsIn() throws Exception {
     assertThat(IntStream.of(42, 43)).containsExactlyElementsIn(asList(42, 43));
@@ -304,6 +304,58 @@ public final class LongStreamSubjectTest {
     }
   }
 
+  @Test
+  public void testContainsAtLeast_respectsMultiplicity() throws Exception {
+    assertThat(LongStream.of(1L, 2L, 1L)).containsAtLeast(1L, 1L).inOrder();
+  }
+
+  @Test
+  public void testContainsAtLeast_respectsMultiplicity_fails() throws Exception {
+    AssertionError unused =
+        expectFailure(
+            whenTesting -> whenTesting.that(LongStream.of(1L, 2L)).containsAtLeast(1L, 1L));
+  }
+
+  @Test
+  public void testContainsAtLeast_manyExpected_respectsMultiplicity() throws Exception {
+    assertThat(LongStream.of(9L, 1L, 8L, 2L, 7L, 3L, 6L, 4L, 5L, 5L, 0L))
+        .containsAtLeast(1L, 2L, 3L, 4L, 5L, 5L, 6L, 7L, 8L, 9L);
+  }
+
+  @Test
+  public void testContainsAtLeast_manyExpected_respectsMultiplicity_fails() throws Exception {
+    AssertionError unused =
+        expectFailure(
+            whenTesting ->
+                whenTesting
+                    .that(LongStream.of(9L, 1L, 8L, 2L, 7L, 3L, 6L, 4L, 5L, 5L, 0L))
+                    .containsAtLeast(1L, 2L, 3L, 4L, 5L, 5L, 5L, 6L, 7L, 8L));
+  }
+
+  @Test
+  public void testContainsExactly_respectsMultiplicity() throws Exception {
+    assertThat(LongStream.of(1L, 2L, 1L)).containsExactly(1L, 1L, 2L);
+  }
+
+  @Test
+  public void testContainsExactly_respectsMultiplicity_fails() throws Exception {
+    AssertionError unused =
+        expectFailure(
+            whenTesting ->
+                whenTesting.that(LongStream.of(1L, 2L, 2L)).containsExactly(1L, 1L, 2L));
+  }
+
+  @Test
+  public void testContainsExactly_sameElementsNotInOrder_fails() throws Exception {
+    AssertionError unused =
+        expectFailure(
+            whenTesting ->
+                whenTesting
+                    .that(LongStream.of(1L, 2L, 1L))
+                    .containsExactly(1L, 1L, 2L)
+                    .inOrder());
+  }
+
   @Test
   public void testContainsExactlyElementsIn() throws Exception {
     assertThat(LongStream.of(42, 43)).containsExactlyElementsIn(asList(42L, 43L));
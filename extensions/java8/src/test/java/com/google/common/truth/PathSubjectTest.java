@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017 Google, Inc.
+ * Copyright (c) 2016 Google, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,17 +15,442 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.truth.FailureAssertions.assertFailureKeys;
+import static com.google.common.truth.FailureAssertions.assertFailureValue;
+import static com.google.common.truth.FailureAssertions.assertFailureValueIndexed;
+import static com.google.common.truth.PathSubject.paths;
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth8.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
 
+import com.google.common.base.Strings;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 @RunWith(JUnit4.class)
 public class PathSubjectTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Test
   public void basicEquality() {
     assertThat(Paths.get("foo")).isEqualTo(Paths.get("foo"));
   }
+
+  @Test
+  public void hasSize() throws IOException {
+    Path file = write("hello");
+    assertThat(file).hasSize(5);
+    AssertionError failure = expectFailure(whenTesting -> whenTesting.that(file).hasSize(4));
+    assertFailureKeys(failure, "value of", "expected", "but was", "path was");
+  }
+
+  @Test
+  public void contentAssertions_nullActual() throws IOException {
+    Path file = write("hello");
+    AssertionError failure = expectFailure(whenTesting -> whenTesting.that(null).hasSize(5));
+    assertFailureKeys(failure, "expected a file with size", "but was");
+    failure = expectFailure(whenTesting -> whenTesting.that(null).hasSameContentAs(file));
+    assertFailureKeys(failure, "expected a file with the same content as", "but was");
+    failure = expectFailure(whenTesting -> whenTesting.that(null).hasContent(new byte[0]));
+    assertFailureKeys(failure, "expected a file with the given content", "but was");
+    failure =
+        expectFailure(whenTesting -> whenTesting.that(null).hasContentDigest("SHA-256", "00"));
+    assertFailureKeys(failure, "expected a file with SHA-256 digest", "but was");
+    failure = expectFailure(whenTesting -> whenTesting.that(null).hasLinesExactly("hello"));
+    assertFailureKeys(failure, "expected a file with lines", "but was");
+  }
+
+  @Test
+  public void hasSameContentAs() throws IOException {
+    assertThat(write("hello")).hasSameContentAs(write("hello"));
+    assertThat(write("")).hasSameContentAs(write(""));
+  }
+
+  @Test
+  public void hasSameContentAs_fails() throws IOException {
+    byte[] actual = new byte[100];
+    byte[] expected = new byte[100];
+    expected[70] = 'x';
+    Path actualFile = write(actual);
+    Path expectedFile = write(expected);
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(actualFile).hasSameContentAs(expectedFile));
+    assertFailureKeys(
+        failure,
+        "expected to have the same content as",
+        "first difference at offset",
+        "expected bytes",
+        "actual bytes",
+        "but was");
+    assertFailureValue(failure, "first difference at offset", "70");
+    assertFailureValue(
+        failure,
+        "expected bytes",
+        "00000020: 0000 0000 0000 0000 0000 0000 0000 0000  ................\n"
+            + "00000030: 0000 0000 0000 0000 0000 0000 0000 0000  ................\n"
+            + "00000040: 0000 0000 0000 7800 0000 0000 0000 0000  ......x.........\n"
+            + "00000050: 0000 0000 0000 0000 0000 0000 0000 0000  ................\n"
+            + "00000060: 0000 0000                                ....");
+  }
+
+  @Test
+  public void hasSameContentAs_prefix() throws IOException {
+    Path actualFile = write("hello");
+    Path expectedFile = write("hello, world");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(actualFile).hasSameContentAs(expectedFile));
+    assertFailureKeys(
+        failure,
+        "expected to have the same content as",
+        "first difference at offset",
+        "expected size",
+        "actual size",
+        "expected bytes",
+        "actual bytes",
+        "but was");
+    assertFailureValue(failure, "first difference at offset", "5");
+    assertFailureValue(
+        failure, "actual bytes", "00000000: 6865 6c6c 6f                             hello");
+  }
+
+  @Test
+  public void hasContent() throws IOException {
+    byte[] content = new byte[1000];
+    Arrays.fill(content, (byte) 7);
+    Path file = write(content);
+    assertThat(file).hasContent(content);
+
+    byte[] other = content.clone();
+    other[999] = 8;
+    AssertionError failure = expectFailure(whenTesting -> whenTesting.that(file).hasContent(other));
+    assertFailureValue(failure, "first difference at offset", "999");
+  }
+
+  @Test
+  public void hasContentDigest() throws IOException {
+    Path file = write("hello");
+    assertThat(file)
+        .hasContentDigest(
+            "SHA-256", "2CF24DBA5FB0A30E26E83B2AC5B9E29E1B161E5C1FA7425E73043362938B9824");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(file).hasContentDigest("MD5", "00"));
+    assertFailureKeys(failure, "expected MD5 digest", "but digest was", "but was");
+    assertFailureValue(failure, "but digest was", "5d41402abc4b2a76b9719d911017c592");
+  }
+
+  @Test
+  public void hasContentDigest_unknownAlgorithm() throws IOException {
+    Path file = write("hello");
+    assertThrows(
+        IllegalArgumentException.class, () -> assertThat(file).hasContentDigest("NOPE", "00"));
+  }
+
+  @Test
+  public void hasLinesExactly() throws IOException {
+    assertThat(write("a\nb\r\nc")).hasLinesExactly("a", "b", "c");
+    assertThat(write("")).hasLinesExactly();
+  }
+
+  @Test
+  public void hasLinesExactly_fails() throws IOException {
+    Path file = write("1\n2\n3\n4\n5\n6\n7\n8\n9\n");
+    AssertionError failure =
+        expectFailure(
+            whenTesting ->
+                whenTesting.that(file).hasLinesExactly("1", "2", "3", "4", "five", "6", "7"));
+    assertFailureKeys(
+        failure,
+        "first difference at line",
+        "expected line",
+        "but line was",
+        "lines around it",
+        "but was");
+    assertFailureValue(failure, "first difference at line", "5");
+    assertFailureValue(
+        failure, "lines around it", "  2: 2\n  3: 3\n  4: 4\n> 5: 5\n  6: 6\n  7: 7\n  8: 8");
+  }
+
+  @Test
+  public void hasLinesExactly_fileTooShort() throws IOException {
+    Path file = write("1\n2\n");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(file).hasLinesExactly("1", "2", "3"));
+    assertFailureKeys(
+        failure,
+        "first difference at line",
+        "expected line",
+        "but the file ended",
+        "lines around it",
+        "but was");
+    assertFailureValue(failure, "lines around it", "  1: 1\n  2: 2\n> 3: (end of file)");
+  }
+
+  @Test
+  public void hasLinesExactly_fileTooLong() throws IOException {
+    Path file = write("1\n2\n");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(file).hasLinesExactly("1"));
+    assertFailureKeys(
+        failure,
+        "first difference at line",
+        "expected no more lines",
+        "but line was",
+        "lines around it",
+        "but was");
+  }
+
+  @Test
+  public void matchesGoldenFile() throws IOException {
+    assertThat(write("a\nb\n")).matchesGoldenFile(write("a\nb\n"));
+    assertThat(write("")).matchesGoldenFile(write(""));
+  }
+
+  @Test
+  public void matchesGoldenFile_fails() throws IOException {
+    StringBuilder expected = new StringBuilder();
+    StringBuilder actual = new StringBuilder();
+    for (int i = 1; i <= 100; i++) {
+      expected.append("line ").append(i).append('\n');
+      actual.append(i == 50 ? "changed" : "line " + i).append('\n');
+    }
+    Path golden = write(expected.toString());
+    Path file = write(actual.toString());
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(file).matchesGoldenFile(golden));
+    assertFailureKeys(
+        failure, "expected to match golden file", "diff (-expected +actual)", "but was");
+    assertFailureValue(
+        failure,
+        "diff (-expected +actual)",
+        "@@ -47,7 +47,7 @@\n"
+            + " line 47\n"
+            + " line 48\n"
+            + " line 49\n"
+            + "-line 50\n"
+            + "+changed\n"
+            + " line 51\n"
+            + " line 52\n"
+            + " line 53");
+  }
+
+  @Test
+  public void matchesGoldenFile_sameAsStringDiff() throws IOException {
+    StringBuilder expectedBuilder = new StringBuilder();
+    StringBuilder actualBuilder = new StringBuilder();
+    for (int i = 1; i <= 40; i++) {
+      expectedBuilder.append(i).append(i < 40 ? "\n" : "");
+      actualBuilder.append(i == 2 ? "" : i + "\n").append(i == 38 ? "extra\n" : "");
+    }
+    String expected = expectedBuilder.toString();
+    String actual = actualBuilder.toString();
+    Path golden = write(expected);
+    Path file = write(actual);
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(file).matchesGoldenFile(golden));
+    assertFailureValue(
+        failure,
+        "diff (-expected +actual)",
+        Platform.makeDiff(expected, actual).get(0).value);
+  }
+
+  @Test
+  public void matchesGoldenFile_lineBreaksDiffer() throws IOException {
+    Path golden = write("a\nb\n");
+    Path file = write("a\r\nb\r\n");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(file).matchesGoldenFile(golden));
+    assertFailureValue(
+        failure,
+        "diff (-expected +actual)",
+        "(line contents match, but line-break characters differ)");
+  }
+
+  @Test
+  public void matchesGoldenFile_longDifference_diffStopsAtLastCommonLine() throws IOException {
+    StringBuilder expected = new StringBuilder();
+    StringBuilder actual = new StringBuilder();
+    for (int i = 1; i <= 3000; i++) {
+      expected.append("line ").append(i).append('\n');
+      actual.append(i == 5 ? "LINE 5" : "line " + i).append('\n');
+      if (i == 20) {
+        for (int j = 1; j <= 2500; j++) {
+          actual.append("extra ").append(j).append('\n');
+        }
+      }
+    }
+    Path golden = write(expected.toString());
+    Path file = write(actual.toString());
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(file).matchesGoldenFile(golden));
+    assertFailureValue(
+        failure,
+        "diff (-expected +actual)",
+        "@@ -2,7 +2,7 @@\n line 2\n line 3\n line 4\n-line 5\n+LINE 5\n line 6\n line 7\n line 8");
+    assertThat(failure)
+        .hasMessageThat()
+        .contains("(diff stops at the last line in common within the first 2000 lines");
+  }
+
+  @Test
+  public void matchesGoldenFile_longDifference_noCommonLine() throws IOException {
+    StringBuilder expected = new StringBuilder("a\n");
+    StringBuilder actual = new StringBuilder("a\n");
+    for (int i = 1; i <= 3000; i++) {
+      expected.append("expected ").append(i).append('\n');
+      actual.append("actual ").append(i).append('\n');
+    }
+    Path golden = write(expected.append("z\n").toString());
+    Path file = write(actual.append("z\n").toString());
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(file).matchesGoldenFile(golden));
+    assertFailureKeys(
+        failure,
+        "expected to match golden file",
+        "first differing line",
+        "(no diff is shown, since the files differ in more than the 2000 lines from the first"
+            + " difference that are diffed)",
+        "but was");
+    assertFailureValue(failure, "first differing line", "2");
+  }
+
+  @Test
+  public void matchesGoldenFile_longLine() throws IOException {
+    String prefix = Strings.repeat("a", 50_000);
+    Path golden = write(prefix + "b\n");
+    Path file = write(prefix + "c\n");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(file).matchesGoldenFile(golden));
+    assertThat(failure).hasMessageThat().contains("-" + Strings.repeat("a", 10_000) + "... (");
+    assertThat(failure).hasMessageThat().contains("+" + Strings.repeat("a", 10_000) + "... (");
+    assertThat(failure).hasMessageThat().contains("(50001 bytes in all; rest hashes to ");
+  }
+
+  @Test
+  public void matchesGoldenFile_nullActual() throws IOException {
+    Path golden = write("a\n");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(null).matchesGoldenFile(golden));
+    assertFailureKeys(failure, "expected a file matching golden file", "but was");
+  }
+
+  @Test
+  public void hasSameTreeAs() throws IOException {
+    Path actual = tree("a.txt", "hello", "sub/b.txt", "world", "sub/empty", "");
+    Path expected = tree("a.txt", "hello", "sub/b.txt", "world", "sub/empty", "");
+    assertThat(actual).hasSameTreeAs(expected);
+  }
+
+  @Test
+  public void hasSameTreeAs_fails() throws IOException {
+    Path actual = tree("a.txt", "hello", "b.txt", "world", "c.txt", "same", "extra.txt", "");
+    Path expected = tree("a.txt", "hellO", "b.txt", "world!", "c.txt", "same", "sub/d.txt", "");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameTreeAs(expected));
+    assertFailureKeys(
+        failure,
+        "entries with differences",
+        "for path",
+        "contents first differ at offset",
+        "for path",
+        "expected size",
+        "but size was",
+        "missing entries",
+        "for path",
+        "for path",
+        "unexpected entries",
+        "for path",
+        "---",
+        "expected tree",
+        "but was");
+    assertFailureValueIndexed(failure, "for path", 0, "a.txt");
+    assertFailureValue(failure, "contents first differ at offset", "4");
+    assertFailureValueIndexed(failure, "for path", 1, "b.txt");
+    assertFailureValueIndexed(failure, "for path", 2, "sub");
+    assertFailureValueIndexed(failure, "for path", 3, "sub/d.txt");
+    assertFailureValueIndexed(failure, "for path", 4, "extra.txt");
+  }
+
+  @Test
+  public void hasSameTreeAs_differentTypes() throws IOException {
+    Path actual = tree("x", "");
+    Path expected = tree("x/y", "");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameTreeAs(expected));
+    assertFailureValue(failure, "expected type", "directory");
+    assertFailureValue(failure, "but type was", "file");
+  }
+
+  @Test
+  public void hasSameTreeAs_notADirectory() throws IOException {
+    Path file = write("hello");
+    Path expected = tree("a.txt", "hello");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(file).hasSameTreeAs(expected));
+    assertFailureKeys(failure, "expected to be a directory", "but was");
+  }
+
+  @Test
+  public void treeAssertions_nullActual() throws IOException {
+    Path expected = tree("a.txt", "hello");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(null).hasSameTreeAs(expected));
+    assertFailureKeys(failure, "expected a directory with the same tree as", "but was");
+    failure = expectFailure(whenTesting -> whenTesting.that(null).containsFilesExactly("a.txt"));
+    assertFailureKeys(failure, "expected a directory with exactly the files", "but was");
+    assertFailureValue(failure, "expected a directory with exactly the files", "[a.txt]");
+  }
+
+  @Test
+  public void containsFilesExactly() throws IOException {
+    Path root = tree("a.txt", "", "sub/b.txt", "");
+    assertThat(root).containsFilesExactly("sub/b.txt", "a.txt");
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(root).containsFilesExactly("a.txt", "c.txt"));
+    assertFailureKeys(
+        failure,
+        "missing files",
+        "for path",
+        "unexpected files",
+        "for path",
+        "---",
+        "expected files",
+        "but was");
+    assertFailureValueIndexed(failure, "for path", 0, "c.txt");
+    assertFailureValueIndexed(failure, "for path", 1, "sub/b.txt");
+  }
+
+  // Creates a directory with the given files, as alternating relative paths and contents.
+  private Path tree(String... pathsAndContents) throws IOException {
+    Path root = temporaryFolder.newFolder().toPath();
+    for (int i = 0; i < pathsAndContents.length; i += 2) {
+      Path file = root.resolve(pathsAndContents[i]);
+      Files.createDirectories(file.getParent());
+      Files.write(file, pathsAndContents[i + 1].getBytes(UTF_8));
+    }
+    return root;
+  }
+
+  private Path write(String content) throws IOException {
+    return write(content.getBytes(UTF_8));
+  }
+
+  private Path write(byte[] content) throws IOException {
+    Path file = temporaryFolder.newFile().toPath();
+    Files.write(file, content);
+    return file;
+  }
+
+  private static AssertionError expectFailure(
+      ExpectFailure.SimpleSubjectBuilderCallback<PathSubject, Path> assertionCallback) {
+    return ExpectFailure.expectFailureAbout(paths(), assertionCallback);
+  }
 }
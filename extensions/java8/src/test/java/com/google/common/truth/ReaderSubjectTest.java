@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.FailureAssertions.assertFailureKeys;
+import static com.google.common.truth.FailureAssertions.assertFailureValue;
+import static com.google.common.truth.ReaderSubject.readers;
+import static com.google.common.truth.Truth8.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ReaderSubjectTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void matchesGoldenFile() throws IOException {
+    assertThat(new StringReader("café\nb\n")).matchesGoldenFile(write("café\nb\n"));
+  }
+
+  @Test
+  public void matchesGoldenFile_fails() throws IOException {
+    Path golden = write("a\nb\nc\n");
+    AssertionError failure =
+        ExpectFailure.expectFailureAbout(
+            readers(),
+            whenTesting ->
+                whenTesting.that(new StringReader("a\nB\nc\n")).matchesGoldenFile(golden));
+    assertFailureKeys(failure, "expected to match golden file", "diff (-expected +actual)");
+    assertFailureValue(
+        failure, "diff (-expected +actual)", "@@ -1,4 +1,4 @@\n a\n-b\n+B\n c\n ");
+  }
+
+  @Test
+  public void matchesGoldenFile_nullActual() throws IOException {
+    Path golden = write("a\n");
+    AssertionError failure =
+        ExpectFailure.expectFailureAbout(
+            readers(), whenTesting -> whenTesting.that(null).matchesGoldenFile(golden));
+    assertFailureKeys(failure, "expected a reader matching golden file", "but was");
+  }
+
+  private Path write(String content) throws IOException {
+    Path file = temporaryFolder.newFile().toPath();
+    Files.write(file, content.getBytes(UTF_8));
+    return file;
+  }
+}
@@ -20,9 +20,12 @@ import static com.google.common.truth.FailureAssertions.assertFailureValue;
 import static com.google.common.truth.StreamSubject.streams;
 import static com.google.common.truth.Truth8.assertThat;
 import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.fail;
 
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -360,6 +363,208 @@ public final class StreamSubjectTest {
         expectFailure(whenTesting -> whenTesting.that(Stream.of(1, 2, 2, 4)).isInStrictOrder());
   }
 
+  @Test
+  public void testParallelStream_orderInsensitiveChecks() {
+    assertThat(IntStream.range(0, 10_000).boxed().parallel()).hasSize(10_000);
+    assertThat(IntStream.range(0, 10_000).boxed().parallel()).containsNoDuplicates();
+    assertThat(IntStream.range(0, 10_000).boxed().parallel()).contains(9_999);
+    assertThat(IntStream.range(0, 10_000).boxed().parallel()).doesNotContain(10_000);
+    assertThat(IntStream.range(0, 10_000).boxed().parallel()).containsNoneOf(-1, 10_000);
+    assertThat(Stream.of("a", null, "b", "a").parallel()).containsExactly(null, "a", "a", "b");
+    assertThat(Stream.of("a", null, "b", "a").parallel()).containsAtLeast("a", "a");
+  }
+
+  @Test
+  public void testParallelStream_inOrder() {
+    assertThat(IntStream.range(0, 10_000).boxed().parallel())
+        .containsExactlyElementsIn(IntStream.range(0, 10_000).boxed().collect(toList()))
+        .inOrder();
+    assertThat(Stream.of("a", "b", "c").parallel()).containsAtLeast("a", "c").inOrder();
+  }
+
+  @Test
+  public void testParallelStream_containsExactly_inOrder_fails() {
+    AssertionError failure =
+        expectFailure(
+            whenTesting ->
+                whenTesting
+                    .that(Stream.of("a", "b", "c").parallel())
+                    .containsExactly("a", "c", "b")
+                    .inOrder());
+    assertFailureKeys(failure, "contents match, but order was wrong", "expected", "but was");
+  }
+
+  @Test
+  public void testParallelStream_containsAtLeast_inOrder_fails() {
+    AssertionError unused =
+        expectFailure(
+            whenTesting ->
+                whenTesting
+                    .that(Stream.of("a", "b", "c").parallel())
+                    .containsAtLeast("c", "a")
+                    .inOrder());
+  }
+
+  @Test
+  public void testParallelStream_containsNoDuplicates_fails() {
+    AssertionError failure =
+        expectFailure(
+            whenTesting ->
+                whenTesting.that(Stream.of("a", "b", "a").parallel()).containsNoDuplicates());
+    assertFailureValue(failure, "but contained", "[a x 2]");
+  }
+
+  @Test
+  public void testParallelStream_contains_fails() {
+    AssertionError failure =
+        expectFailure(
+            whenTesting -> whenTesting.that(Stream.of("a", "b", "a").parallel()).contains("c"));
+    assertFailureValue(failure, "expected to contain", "c");
+  }
+
+  @Test
+  public void testParallelStream_orderAfterCounting() {
+    StreamSubject subject = assertThat(IntStream.range(0, 10_000).boxed().parallel());
+    subject.contains(5_000);
+    subject.containsExactlyElementsIn(IntStream.range(0, 10_000).boxed().collect(toList()));
+    subject.isInStrictOrder();
+  }
+
+  @Test
+  public void testParallelStream_failureListsElementsInEncounterOrder() {
+    AssertionError failure =
+        expectFailure(
+            whenTesting -> whenTesting.that(Stream.of("b", "a", "b").parallel()).contains("c"));
+    assertFailureValue(failure, "but was", "[b, a, b]");
+  }
+
+  @Test
+  public void testStreaming_hasSize() {
+    assertThat(Stream.of()).streaming().hasSize(0);
+    assertThat(LongStream.range(0, 100_000).boxed()).streaming().hasSize(100_000);
+  }
+
+  @Test
+  public void testStreaming_hasSize_fails() {
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(Stream.of(1, 2)).streaming().hasSize(3));
+    assertFailureKeys(failure, "expected size", "but was");
+    assertFailureValue(failure, "but was", "2");
+  }
+
+  @Test
+  public void testStreaming_hasSize_infiniteStream() {
+    AssertionError failure =
+        expectFailure(
+            whenTesting -> whenTesting.that(Stream.iterate(0, i -> i + 1)).streaming().hasSize(5));
+    assertFailureKeys(failure, "expected size", "but had at least");
+    assertFailureValue(failure, "but had at least", "6");
+  }
+
+  @Test
+  public void testStreaming_contains() {
+    assertThat(Stream.iterate(0, i -> i + 1)).streaming().contains(1_000);
+  }
+
+  @Test
+  public void testStreaming_contains_fails() {
+    AssertionError failure =
+        expectFailure(
+            whenTesting ->
+                whenTesting.that(IntStream.range(0, 20).boxed()).streaming().contains(20));
+    assertFailureKeys(
+        failure, "expected to contain", "but did not", "number of elements", "last elements");
+    assertFailureValue(failure, "number of elements", "20");
+    assertFailureValue(failure, "last elements", "[..., 14, 15, 16, 17, 18, 19]");
+  }
+
+  @Test
+  public void testStreaming_doesNotContain_fails() {
+    AssertionError failure =
+        expectFailure(
+            whenTesting ->
+                whenTesting.that(Stream.iterate(0, i -> i + 1)).streaming().doesNotContain(10));
+    assertFailureKeys(
+        failure, "expected not to contain", "but it did", "at index", "elements around index");
+    assertFailureValue(failure, "at index", "10");
+    assertFailureValue(
+        failure, "elements around index", "[..., 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, ...]");
+  }
+
+  @Test
+  public void testStreaming_allMatch() {
+    assertThat(Stream.of("a", "ab")).streaming().allMatch((String s) -> s.startsWith("a"));
+    AssertionError failure =
+        expectFailure(
+            whenTesting ->
+                whenTesting
+                    .that(Stream.of("a", "b", "ab"))
+                    .streaming()
+                    .allMatch((String s) -> s.startsWith("a")));
+    assertFailureKeys(
+        failure,
+        "expected all elements to match the predicate",
+        "but this element did not",
+        "at index",
+        "elements around index");
+    assertFailureValue(failure, "at index", "1");
+    assertFailureValue(failure, "elements around index", "[a, b, ab]");
+  }
+
+  @Test
+  public void testStreaming_noneMatch() {
+    assertThat(Stream.of("a", "ab")).streaming().noneMatch((String s) -> s.isEmpty());
+    AssertionError failure =
+        expectFailure(
+            whenTesting ->
+                whenTesting.that(Stream.of("a", "")).streaming().noneMatch(String::isEmpty));
+    assertFailureValue(failure, "at index", "1");
+  }
+
+  @Test
+  public void testStreaming_isInOrder() {
+    assertThat(Stream.of()).streaming().isInOrder();
+    assertThat(Stream.of(1, 1, 2)).streaming().isInOrder();
+    assertThat(Stream.of(1, 2, 3)).streaming().isInStrictOrder();
+    AssertionError failure =
+        expectFailure(
+            whenTesting -> whenTesting.that(Stream.of(1, 2, 2, 4)).streaming().isInStrictOrder());
+    assertFailureKeys(
+        failure,
+        "expected to be in strict order",
+        "but contained",
+        "followed by",
+        "at index",
+        "elements around index");
+    assertFailureValue(failure, "at index", "2");
+    assertFailureValue(failure, "elements around index", "[1, 2, 2, 4]");
+  }
+
+  @Test
+  public void testStreaming_nullStream() {
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(null).streaming().hasSize(0));
+    assertFailureKeys(failure, "expected size", "but was");
+    assertFailureValue(failure, "but was", "null");
+
+    failure = expectFailure(whenTesting -> whenTesting.that(null).streaming().isInOrder());
+    assertFailureKeys(failure, "expected to be in order", "but was");
+  }
+
+  @Test
+  public void testStreaming_afterCollectingAssertion() {
+    StreamSubject subject = assertThat(Stream.of(1, 2));
+    subject.hasSize(2);
+    subject.streaming().contains(2);
+  }
+
+  @Test
+  public void testStreaming_consumesStream() {
+    StreamSubject subject = assertThat(Stream.of(1, 2));
+    subject.streaming().contains(2);
+    assertThrows(IllegalStateException.class, () -> subject.hasSize(2));
+  }
+
   private static AssertionError expectFailure(
       ExpectFailure.SimpleSubjectBuilderCallback<StreamSubject, Stream<?>> assertionCallback) {
     return ExpectFailure.expectFailureAbout(streams(), assertionCallback);
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * An assertion that took at least the event's threshold, 1 ms unless it is configured otherwise.
+ * The duration runs from the creation of the assertion's subject until the assertion fails or the
+ * next assertion on the same thread starts, so it includes whatever the test did in between. The
+ * event is committed only then, so instead of a stack trace it records the assertion's call site.
+ */
+@Name("truth.AssertionEvaluated")
+@Label("Assertion Evaluated")
+@Category("Truth")
+@Description("A Truth assertion that took longer than the threshold")
+@Enabled(false)
+@StackTrace(false)
+@Threshold("1 ms")
+final class AssertionEvaluatedEvent extends jdk.jfr.Event {
+  @Label("Subject Class")
+  Class<?> subjectClass;
+
+  @Label("Call Site")
+  @Description("The first stack frame outside Truth when the subject was created")
+  String callSite;
+
+  @Label("Actual Size")
+  @Description("The size of the actual value, or -1 if it is not a collection, array or string")
+  long actualSize;
+
+  @Label("Failed")
+  boolean failed;
+}
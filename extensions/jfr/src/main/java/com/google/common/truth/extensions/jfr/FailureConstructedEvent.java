@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A failure that Truth built, with the time spent in the parts of building it that can be slow.
+ * The event's stack trace leads to the assertion that failed.
+ */
+@Name("truth.FailureConstructed")
+@Label("Failure Constructed")
+@Category("Truth")
+@Description("A Truth assertion failure, with the time spent building it")
+@Enabled(false)
+final class FailureConstructedEvent extends jdk.jfr.Event {
+  @Label("Subject Class")
+  @Description("The subject of the assertion that failed, if the failure came from one")
+  Class<?> subjectClass;
+
+  @Label("Message Length")
+  int messageLength;
+
+  @Label("Fact Count")
+  int factCount;
+
+  @Label("Stack Cleaning Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long stackCleaningTime;
+
+  @Label("Inference Time")
+  @Description("Time spent inferring a description of the actual value from the test's bytecode")
+  @Timespan(Timespan.NANOSECONDS)
+  long inferenceTime;
+
+  @Label("Diff Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long diffTime;
+}
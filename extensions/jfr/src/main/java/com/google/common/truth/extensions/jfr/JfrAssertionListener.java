@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.jfr;
+
+import com.google.common.truth.AssertionListener;
+import com.google.common.truth.Subject;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link AssertionListener} that emits Java Flight Recorder events for slow assertions and for
+ * the failures that Truth builds.
+ *
+ * <p>To use it, put this extension on the test classpath and run tests with {@code
+ * -Dcom.google.common.truth.assertion_listener=com.google.common.truth.extensions.jfr.JfrAssertionListener}.
+ * Its events are disabled by default, so they are recorded only when a recording enables them, for
+ * example with a copy of {@code default.jfc} that contains:
+ *
+ * <pre>{@code
+ * <event name="truth.AssertionEvaluated">
+ *   <setting name="enabled">true</setting>
+ *   <setting name="threshold">10 ms</setting>
+ * </event>
+ * <event name="truth.FailureConstructed">
+ *   <setting name="enabled">true</setting>
+ *   <setting name="stackTrace">true</setting>
+ * </event>
+ * }</pre>
+ *
+ * <p>passed as {@code -XX:StartFlightRecording:settings=truth.jfc}. {@code
+ * truth.AssertionEvaluated} is emitted for assertions that take at least the threshold, 1 ms by
+ * default, timed as {@link AssertionListener} describes. {@code truth.FailureConstructed} is
+ * emitted for every failure, with the time spent cleaning its stack trace, inferring a description
+ * of the actual value, and diffing.
+ *
+ * <p>Like any listener, this one makes Truth track the assertions in progress on each thread, which
+ * costs a little even while the events are disabled, so the listener is not registered unless that
+ * property names it. Set the property only for runs that are being profiled.
+ */
+public final class JfrAssertionListener implements AssertionListener {
+  /** The event for the assertion in progress on a thread, and where that assertion was made. */
+  private static final class Current {
+    final AssertionEvaluatedEvent event;
+    final Throwable creation = new Throwable();
+
+    Current(AssertionEvaluatedEvent event) {
+      this.event = event;
+    }
+  }
+
+  // Set only while the event is enabled.
+  private static final ThreadLocal<Current> CURRENT = new ThreadLocal<>();
+
+  @Override
+  public void assertionStarted(Class<? extends Subject> subjectClass, long actualSize) {
+    AssertionEvaluatedEvent event = new AssertionEvaluatedEvent();
+    if (event.isEnabled()) {
+      // Capture the stack before starting the clock, so that the capture isn't timed.
+      Current current = new Current(event);
+      event.begin();
+      CURRENT.set(current);
+    }
+  }
+
+  @Override
+  public void assertionFinished(
+      Class<? extends Subject> subjectClass, long actualSize, long elapsedNanos) {
+    Current current = CURRENT.get();
+    if (current == null) {
+      return;
+    }
+    CURRENT.remove();
+    AssertionEvaluatedEvent event = current.event;
+    event.end();
+    if (event.shouldCommit()) {
+      event.subjectClass = subjectClass;
+      event.callSite = callSite(current.creation);
+      event.actualSize = actualSize;
+      event.commit();
+    }
+  }
+
+  @Override
+  public void failureConstructed(
+      @Nullable Class<? extends Subject> subjectClass,
+      int messageLength,
+      int factCount,
+      long stackCleaningNanos,
+      long inferenceNanos,
+      long diffNanos) {
+    Current current = CURRENT.get();
+    if (current != null) {
+      current.event.failed = true;
+    }
+    FailureConstructedEvent event = new FailureConstructedEvent();
+    if (event.isEnabled()) {
+      event.subjectClass = subjectClass;
+      event.messageLength = messageLength;
+      event.factCount = factCount;
+      event.stackCleaningTime = stackCleaningNanos;
+      event.inferenceTime = inferenceNanos;
+      event.diffTime = diffNanos;
+      event.commit();
+    }
+  }
+
+  /** Returns the first frame of the given stack that is not in Truth or the JDK. */
+  private static String callSite(Throwable creation) {
+    for (StackTraceElement frame : creation.getStackTrace()) {
+      if (!isTruthOrJdk(frame.getClassName())) {
+        return frame.toString();
+      }
+    }
+    return "(unknown)";
+  }
+
+  private static boolean isTruthOrJdk(String className) {
+    if (className.startsWith("java.") || className.startsWith("jdk.")) {
+      return true;
+    }
+    if (!className.startsWith("com.google.common.truth.")) {
+      return false;
+    }
+    // Truth's own tests are call sites, too.
+    int nested = className.indexOf('$');
+    String outer = nested < 0 ? className : className.substring(0, nested);
+    return !outer.endsWith("Test");
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.jfr;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.truth.ExpectFailure;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link JfrAssertionListener}. */
+@RunWith(JUnit4.class)
+public class JfrAssertionListenerTest {
+  @Rule public final ExpectFailure expectFailure = new ExpectFailure();
+
+  private Recording recording;
+
+  @Before
+  public void startRecording() {
+    // A failure finishes the assertion in progress, if any, so that it isn't recorded.
+    ExpectFailure.expectFailure(whenTesting -> whenTesting.fail());
+    recording = new Recording();
+    recording.enable("truth.AssertionEvaluated").withThreshold(Duration.ZERO);
+    recording.enable("truth.FailureConstructed");
+  }
+
+  @After
+  public void closeRecording() {
+    recording.close();
+  }
+
+  @Test
+  public void assertionEvaluated() throws Exception {
+    recording.start();
+    assertWithMessage("x").that(ImmutableList.of(1, 2, 3)).containsAtLeastElementsIn(list(3, 1));
+    List<RecordedEvent> events = stop();
+
+    RecordedEvent event = onlyEvent(events, "truth.AssertionEvaluated");
+    assertThat(event.getClass("subjectClass").getName())
+        .isEqualTo("com.google.common.truth.IterableSubject");
+    assertThat(event.getString("callSite")).contains("JfrAssertionListenerTest.assertionEvaluated");
+    assertThat(event.getLong("actualSize")).isEqualTo(3);
+    assertThat(event.getBoolean("failed")).isFalse();
+  }
+
+  @Test
+  public void assertionEvaluated_belowThreshold() throws Exception {
+    recording.enable("truth.AssertionEvaluated").withThreshold(Duration.ofHours(1));
+    recording.start();
+    assertWithMessage("x").that("abc").contains("b");
+
+    assertThat(stop()).isEmpty();
+  }
+
+  @Test
+  public void failureConstructed() throws Exception {
+    recording.start();
+    expectFailure.whenTesting().that("a\nb\nc").isEqualTo("a\nx\nc");
+    List<RecordedEvent> events = stop();
+
+    RecordedEvent failure = onlyEvent(events, "truth.FailureConstructed");
+    assertThat(failure.getClass("subjectClass").getName())
+        .isEqualTo("com.google.common.truth.StringSubject");
+    assertThat(failure.getInt("messageLength"))
+        .isEqualTo(expectFailure.getFailure().getMessage().length());
+    ExpectFailure.assertThat(expectFailure.getFailure())
+        .factKeys()
+        .hasSize(failure.getInt("factCount"));
+    assertThat(failure.getDuration("diffTime")).isGreaterThan(Duration.ZERO);
+    assertThat(failure.getDuration("stackCleaningTime")).isGreaterThan(Duration.ZERO);
+
+    RecordedEvent assertion = onlyEvent(events, "truth.AssertionEvaluated");
+    assertThat(assertion.getBoolean("failed")).isTrue();
+  }
+
+  @Test
+  public void disabledByDefault() throws Exception {
+    recording.close();
+    recording = new Recording();
+    recording.start();
+    expectFailure.whenTesting().that(1).isEqualTo(2);
+
+    assertThat(stop()).isEmpty();
+  }
+
+  private List<RecordedEvent> stop() throws Exception {
+    // Starting another assertion finishes the one under test, which commits its event.
+    assertThat(recording).isNotNull();
+    recording.stop();
+    Path file = Files.createTempFile("truth", ".jfr");
+    try {
+      recording.dump(file);
+      List<RecordedEvent> events = new ArrayList<>();
+      for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+        if (event.getEventType().getName().startsWith("truth.")) {
+          events.add(event);
+        }
+      }
+      return events;
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private static RecordedEvent onlyEvent(List<RecordedEvent> events, String name) {
+    List<RecordedEvent> matching = new ArrayList<>();
+    for (RecordedEvent event : events) {
+      if (event.getEventType().getName().equals(name)) {
+        matching.add(event);
+      }
+    }
+    assertWithMessage("events named %s", name).that(matching).hasSize(1);
+    return matching.get(0);
+  }
+
+  private static List<Integer> list(Integer... values) {
+    return ImmutableList.copyOf(values);
+  }
+}
@@ -18,6 +18,7 @@ package com.google.common.truth.extensions.proto;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
 import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Descriptors.Descriptor;
@@ -27,6 +28,8 @@ import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
 import com.google.protobuf.TypeRegistry;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /** Helper methods for working with Any protos. */
 class AnyUtils {
@@ -69,27 +72,93 @@ class AnyUtils {
     return DEFAULT_EXTENSION_REGISTRY;
   }
 
-  /** Unpack an `Any` proto using the TypeRegistry and ExtensionRegistry on `config`. */
-  static Optional<Message> unpack(Message any, FluentEqualityConfig config) {
+  /** Unpack an `Any` proto as the given type, using the given ExtensionRegistry. */
+  private static Optional<Message> unpack(
+      Message any, Optional<Descriptor> descriptor, ExtensionRegistry extensionRegistry) {
+    if (!descriptor.isPresent()) {
+      return Optional.absent();
+    }
+
+    ByteString value = (ByteString) any.getField(valueFieldDescriptor());
+    try {
+      Message defaultMessage = DynamicMessage.parseFrom(descriptor.get(), value, extensionRegistry);
+      return Optional.of(defaultMessage);
+    } catch (InvalidProtocolBufferException e) {
+      return Optional.absent();
+    }
+  }
+
+  private static void checkIsAny(Message any) {
     Preconditions.checkArgument(
         any.getDescriptorForType().equals(Any.getDescriptor()),
         "Expected type google.protobuf.Any, but was: %s",
         any.getDescriptorForType().getFullName());
+  }
 
-    String typeUrl = (String) any.getField(typeUrlFieldDescriptor());
-    ByteString value = (ByteString) any.getField(valueFieldDescriptor());
+  /**
+   * Returns a new {@link UnpackCache} using the TypeRegistry and ExtensionRegistry on `config`.
+   *
+   * <p>The cache should not outlive the comparison it is created for, since it holds on to the
+   * unpacked messages. {@link ProtoTruthMessageDifferencer#diffMessages} creates one per call.
+   */
+  static UnpackCache newUnpackCache(FluentEqualityConfig config) {
+    return new UnpackCache(config.useTypeRegistry(), config.useExtensionRegistry());
+  }
 
-    try {
-      Descriptor descriptor = config.useTypeRegistry().getDescriptorForTypeUrl(typeUrl);
-      if (descriptor == null) {
-        return Optional.absent();
+  /**
+   * Unpacks `Any` protos using a TypeRegistry and ExtensionRegistry, remembering the result for
+   * each `Any` instance and the descriptor for each type URL.
+   *
+   * <p>Ignoring the order of a repeated `Any` field compares every actual element with every
+   * expected element, and each of those comparisons would otherwise re-parse both payloads.
+   *
+   * <p>Not thread-safe. A cache lives only as long as one comparison, so it holds its entries
+   * strongly and without a bound: they are no more than the `Any` messages being compared.
+   */
+  static final class UnpackCache {
+    private final TypeRegistry typeRegistry;
+    private final ExtensionRegistry extensionRegistry;
+
+    // Created on first use, since most comparisons involve no `Any` messages.
+    private @Nullable Map<String, Optional<Descriptor>> descriptors;
+    // Keyed by identity: equal `Any`s would unpack equally anyway, and identity checks are much
+    // cheaper than Message.equals().
+    private @Nullable Map<Message, Optional<Message>> unpacked;
+
+    private UnpackCache(TypeRegistry typeRegistry, ExtensionRegistry extensionRegistry) {
+      this.typeRegistry = typeRegistry;
+      this.extensionRegistry = extensionRegistry;
+    }
+
+    /** Unpacks the given `Any` proto, or returns the result of a previous call for it. */
+    Optional<Message> unpack(Message any) {
+      checkIsAny(any);
+      if (unpacked == null) {
+        unpacked = Maps.newIdentityHashMap();
+      }
+      Optional<Message> result = unpacked.get(any);
+      if (result == null) {
+        String typeUrl = (String) any.getField(typeUrlFieldDescriptor());
+        result = AnyUtils.unpack(any, descriptorFor(typeUrl), extensionRegistry);
+        unpacked.put(any, result);
       }
+      return result;
+    }
 
-      Message defaultMessage =
-          DynamicMessage.parseFrom(descriptor, value, config.useExtensionRegistry());
-      return Optional.of(defaultMessage);
-    } catch (InvalidProtocolBufferException e) {
-      return Optional.absent();
+    private Optional<Descriptor> descriptorFor(String typeUrl) {
+      if (descriptors == null) {
+        descriptors = Maps.newHashMap();
+      }
+      Optional<Descriptor> result = descriptors.get(typeUrl);
+      if (result == null) {
+        try {
+          result = Optional.fromNullable(typeRegistry.getDescriptorForTypeUrl(typeUrl));
+        } catch (InvalidProtocolBufferException e) {
+          result = Optional.absent();
+        }
+        descriptors.put(typeUrl, result);
+      }
+      return result;
     }
   }
 
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.ByteBufferSubject.byteBuffers;
+
+import com.google.common.truth.ByteBufferSubject;
+import com.google.common.truth.FailureMetadata;
+import com.google.common.truth.Subject;
+import com.google.protobuf.ByteString;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Truth subject for {@link ByteString}s.
+ *
+ * <p>Passing assertions use the {@code ByteString}'s own comparisons. Failing ones, and {@link
+ * #containsSubsequence}, read the content through {@link ByteString#asReadOnlyByteBuffer}, which
+ * does not copy it unless the {@code ByteString} is a concatenation of others, and report it as
+ * {@link ByteBufferSubject} does: where the content first differs, as a hexdump of the bytes around
+ * that index.
+ */
+public final class ByteStringSubject extends Subject {
+  private final @Nullable ByteString actual;
+
+  ByteStringSubject(FailureMetadata failureMetadata, @Nullable ByteString actual) {
+    super(failureMetadata, actual);
+    this.actual = actual;
+  }
+
+  /**
+   * Returns a {@code Subject.Factory} for {@link ByteString} subjects which you can use to assert
+   * things about them.
+   */
+  public static Subject.Factory<ByteStringSubject, ByteString> byteStrings() {
+    return new Subject.Factory<ByteStringSubject, ByteString>() {
+      @Override
+      public ByteStringSubject createSubject(
+          FailureMetadata failureMetadata, @Nullable ByteString actual) {
+        return new ByteStringSubject(failureMetadata, actual);
+      }
+    };
+  }
+
+  /**
+   * Fails if the subject is not equal to the given object. If it is a {@link ByteString}, a failure
+   * describes where the content first differs.
+   */
+  @Override
+  public void isEqualTo(@Nullable Object expected) {
+    if (actual == null || !(expected instanceof ByteString) || actual.equals(expected)) {
+      super.isEqualTo(expected);
+      return;
+    }
+    content().isEqualTo(((ByteString) expected).asReadOnlyByteBuffer());
+  }
+
+  /** Fails if the subject does not have the given size. */
+  public void hasSize(int expectedSize) {
+    checkArgument(expectedSize >= 0, "expectedSize (%s) must be >= 0", expectedSize);
+    if (actual == null) {
+      failWithActual("expected a byte string with size", expectedSize);
+      return;
+    }
+    check("size()").that(actual.size()).isEqualTo(expectedSize);
+  }
+
+  /** Fails if the subject does not start with the given bytes. */
+  public void startsWith(ByteString prefix) {
+    checkNotNull(prefix);
+    if (actual == null) {
+      failWithActual("expected to start with", prefix);
+      return;
+    }
+    if (!actual.startsWith(prefix)) {
+      content().startsWith(prefix.toByteArray());
+    }
+  }
+
+  /** Fails if the subject does not contain the given bytes contiguously. */
+  public void containsSubsequence(ByteString subsequence) {
+    checkNotNull(subsequence);
+    if (actual == null) {
+      failWithActual("expected to contain", subsequence);
+      return;
+    }
+    content().containsSubsequence(subsequence.toByteArray());
+  }
+
+  private ByteBufferSubject content() {
+    return check("asReadOnlyByteBuffer()").about(byteBuffers()).that(actual.asReadOnlyByteBuffer());
+  }
+}
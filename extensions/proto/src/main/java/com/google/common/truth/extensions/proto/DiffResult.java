@@ -31,6 +31,8 @@ import com.google.protobuf.Message;
 import com.google.protobuf.TextFormat;
 import com.google.protobuf.UnknownFieldSet;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -45,6 +47,15 @@ import java.util.Set;
 @AutoValue
 abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
 
+  /** The maximum length of the report printed by {@link #printToString}. */
+  static final long DEFAULT_PRINT_BUDGET = 1 << 20;
+
+  /** The number of consecutive matched entries printed before the rest of the run is elided. */
+  static final int MAX_MATCHED_RUN = 32;
+
+  /** The number of entries printed for a single repeated field before the rest are summarized. */
+  static final int MAX_ENTRIES_PER_FIELD = 100;
+
   /**
    * Structural summary of the difference between two singular (non-repeated) fields.
    *
@@ -99,7 +110,7 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
     }
 
     @Override
-    final void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
+    final void printContents(boolean includeMatches, String fieldPrefix, TruncatingAppendable sb) {
       if (!includeMatches && isMatched()) {
         return;
       }
@@ -258,7 +269,8 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
       }
 
       @Override
-      final void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
+      final void printContents(
+          boolean includeMatches, String fieldPrefix, TruncatingAppendable sb) {
         printContentsForRepeatedField(
             /* includeSelfAlways = */ false, includeMatches, fieldPrefix, sb);
       }
@@ -267,7 +279,10 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
       // !includeMatches if there's a mismatch on the repeated field itself, but not recursively.
       // So we define a second printing method for use by the parent.
       final void printContentsForRepeatedField(
-          boolean includeSelfAlways, boolean includeMatches, String fieldPrefix, StringBuilder sb) {
+          boolean includeSelfAlways,
+          boolean includeMatches,
+          String fieldPrefix,
+          TruncatingAppendable sb) {
         if (!includeSelfAlways && !includeMatches && isMatched()) {
           return;
         }
@@ -428,12 +443,19 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
     }
 
     @Override
-    final void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
+    final void printContents(boolean includeMatches, String fieldPrefix, TruncatingAppendable sb) {
       fieldPrefix = newFieldPrefix(fieldPrefix, fieldDescriptor().getName());
+      boolean includeSelfAlways = !isMatched();
+      Elider elider = new Elider(sb);
+      elider.startField(fieldPrefix);
       for (PairResult pairResult : pairResults()) {
-        pairResult.printContentsForRepeatedField(
-            /* includeSelfAlways = */ !isMatched(), includeMatches, fieldPrefix, sb);
+        if ((includeSelfAlways || includeMatches || !pairResult.isMatched())
+            && elider.admit(pairResult.isMatched())) {
+          pairResult.printContentsForRepeatedField(
+              includeSelfAlways, includeMatches, fieldPrefix, sb);
+        }
       }
+      elider.finish();
     }
 
     @Override
@@ -491,16 +513,17 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
     }
 
     @Override
-    final void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
+    final void printContents(boolean includeMatches, String fieldPrefix, TruncatingAppendable sb) {
       if (!includeMatches && isMatched()) {
         return;
       }
 
+      Elider elider = new Elider(sb);
       for (int fieldNumber : singularFields().keySet()) {
-        for (SingularField singularField : singularFields().get(fieldNumber)) {
-          singularField.printContents(includeMatches, fieldPrefix, sb);
-        }
+        elider.startField(newFieldPrefix(fieldPrefix, String.valueOf(fieldNumber)));
+        printSingularFields(singularFields().get(fieldNumber), includeMatches, fieldPrefix, elider);
       }
+      elider.finish();
     }
 
     @Override
@@ -541,7 +564,7 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
   interface ProtoPrintable {
     TextFormat.Printer protoPrinter();
 
-    default void printMessage(Message m, StringBuilder sb) {
+    default void printMessage(Message m, TruncatingAppendable sb) {
       try {
         protoPrinter().print(m, sb);
       } catch (IOException impossible) {
@@ -549,7 +572,7 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
       }
     }
 
-    default void printFieldValue(SubScopeId subScopeId, Object o, StringBuilder sb) {
+    default void printFieldValue(SubScopeId subScopeId, Object o, TruncatingAppendable sb) {
       switch (subScopeId.kind()) {
         case FIELD_DESCRIPTOR:
           printFieldValue(subScopeId.fieldDescriptor(), o, sb);
@@ -561,7 +584,7 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
       throw new AssertionError(subScopeId.kind());
     }
 
-    default void printFieldValue(FieldDescriptor field, Object value, StringBuilder sb) {
+    default void printFieldValue(FieldDescriptor field, Object value, TruncatingAppendable sb) {
       try {
         protoPrinter().printFieldValue(field, value, sb);
       } catch (IOException impossible) {
@@ -570,7 +593,7 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
     }
 
     default void printFieldValue(
-        UnknownFieldDescriptor unknownField, Object value, StringBuilder sb) {
+        UnknownFieldDescriptor unknownField, Object value, TruncatingAppendable sb) {
       try {
         TextFormat.printUnknownFieldValue(unknownField.type().wireType(), value, sb);
       } catch (IOException impossible) {
@@ -618,10 +641,40 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
     return builder.build();
   }
 
-  /** Prints the full {@link DiffResult} to a human-readable string, for use in test outputs. */
+  /**
+   * Prints the full {@link DiffResult} to a human-readable string, for use in test outputs.
+   *
+   * <p>The report is limited to {@link #DEFAULT_PRINT_BUDGET} characters.
+   */
   final String printToString(boolean reportMismatchesOnly) {
     StringBuilder sb = new StringBuilder();
+    printTo(sb, reportMismatchesOnly, DEFAULT_PRINT_BUDGET);
+    return sb.toString();
+  }
+
+  /**
+   * Streams the full {@link DiffResult} to {@code out}, in the format of {@link #printToString}.
+   *
+   * <p>At most {@code budget} characters of the report are written. If the report is longer, it is
+   * cut short, the rest of the diff is not rendered at all, and a one-line note is appended. In
+   * addition, however large the budget, long runs of matched fields and long lists of elements in a
+   * single repeated field are summarized rather than printed in full.
+   */
+  final void printTo(Appendable out, boolean reportMismatchesOnly, long budget) {
+    TruncatingAppendable sb = new TruncatingAppendable(out, budget);
+    try {
+      printTo(sb, reportMismatchesOnly);
+    } catch (TruncatingAppendable.BudgetExhaustedException e) {
+      try {
+        out.append("\n... (diff report truncated after ").append(Long.toString(budget));
+        out.append(" characters)\n");
+      } catch (IOException ioException) {
+        throw new UncheckedIOException(ioException);
+      }
+    }
+  }
 
+  private void printTo(TruncatingAppendable sb, boolean reportMismatchesOnly) {
     if (!isMatched()) {
       sb.append("Differences were found:\n");
       printContents(/* includeMatches = */ false, /* fieldPrefix = */ "", sb);
@@ -641,14 +694,127 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
         printContents(/* includeMatches = */ true, /* fieldPrefix = */ "", sb);
       }
     }
-
-    return sb.toString();
   }
 
   @Override
-  final void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
-    for (RecursableDiffEntity child : childEntities()) {
-      child.printContents(includeMatches, fieldPrefix, sb);
+  final void printContents(boolean includeMatches, String fieldPrefix, TruncatingAppendable sb) {
+    // Same order as childEntities(), but grouped by field so that the elider can summarize long
+    // repeated fields.
+    Elider elider = new Elider(sb);
+    Set<Integer> fieldNumbers = Sets.union(singularFields().keySet(), repeatedFields().keySet());
+    for (int fieldNumber : Ordering.natural().sortedCopy(fieldNumbers)) {
+      ImmutableList<SingularField> singulars = singularFields().get(fieldNumber);
+      if (!singulars.isEmpty()) {
+        SingularField first = singulars.get(0);
+        elider.startField(
+            newFieldPrefix(
+                fieldPrefix,
+                first.subScopeId().isPresent()
+                    ? first.subScopeId().get().shortName()
+                    : first.fieldName()));
+        printSingularFields(singulars, includeMatches, fieldPrefix, elider);
+      }
+      for (RepeatedField repeatedField : repeatedFields().get(fieldNumber)) {
+        elider.flush();
+        repeatedField.printContents(includeMatches, fieldPrefix, sb);
+      }
+    }
+    for (UnknownFieldSetDiff unknownFieldSetDiff : unknownFields().asSet()) {
+      elider.flush();
+      unknownFieldSetDiff.printContents(includeMatches, fieldPrefix, sb);
+    }
+    elider.finish();
+  }
+
+  private static void printSingularFields(
+      List<SingularField> singularFields,
+      boolean includeMatches,
+      String fieldPrefix,
+      Elider elider) {
+    for (SingularField singularField : singularFields) {
+      if ((includeMatches || !singularField.isMatched())
+          && elider.admit(singularField.isMatched())) {
+        singularField.printContents(includeMatches, fieldPrefix, elider.sb);
+      }
+    }
+  }
+
+  /**
+   * Decides which of a list of sibling entries get printed, and prints summaries of the rest.
+   *
+   * <p>Two kinds of entries are left out: matched entries beyond the first {@link
+   * #MAX_MATCHED_RUN} of an uninterrupted run, and all entries of a single field beyond the first
+   * {@link #MAX_ENTRIES_PER_FIELD}. Only entries which would print something should be passed to
+   * {@link #admit}.
+   */
+  private static final class Elider {
+    final TruncatingAppendable sb;
+
+    private String field = "";
+    private int admittedInField;
+    private int omittedInField;
+    private int omittedMismatchesInField;
+
+    private int matchedRun;
+    private int elidedMatches;
+
+    Elider(TruncatingAppendable sb) {
+      this.sb = sb;
+    }
+
+    /** Starts a new field, summarizing any entries of the previous one which were left out. */
+    void startField(String fieldName) {
+      finishField();
+      field = fieldName;
+      admittedInField = 0;
+    }
+
+    /** Returns whether the next entry, which matched or not, should be printed. */
+    boolean admit(boolean matched) {
+      if (admittedInField >= MAX_ENTRIES_PER_FIELD) {
+        omittedInField++;
+        if (!matched) {
+          omittedMismatchesInField++;
+        }
+        return false;
+      }
+      if (matched) {
+        if (++matchedRun > MAX_MATCHED_RUN) {
+          elidedMatches++;
+          return false;
+        }
+      } else {
+        flush();
+      }
+      admittedInField++;
+      return true;
+    }
+
+    /** Summarizes any pending run of elided matches, and ends the run. */
+    void flush() {
+      if (elidedMatches > 0) {
+        sb.append("... (").append(Integer.toString(elidedMatches));
+        sb.append(" more matched entries not shown)\n");
+      }
+      elidedMatches = 0;
+      matchedRun = 0;
+    }
+
+    /** Summarizes anything left out since the last call to {@link #admit}. */
+    void finish() {
+      finishField();
+      flush();
+    }
+
+    private void finishField() {
+      if (omittedInField > 0) {
+        flush();
+        sb.append("... (").append(Integer.toString(omittedInField));
+        sb.append(" more entries of ").append(field).append(" not shown, ");
+        sb.append(Integer.toString(omittedMismatchesInField)).append(" of them mismatched)\n");
+      }
+      omittedInField = 0;
+      omittedMismatchesInField = 0;
     }
   }
 
@@ -29,7 +29,9 @@ import com.google.errorprone.annotations.ForOverride;
 import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Implementations of all variations of {@link FieldScope} logic.
@@ -76,7 +78,9 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
    * Returns {@link #subScope} for {@code NONRECURSIVE} results.
    *
    * <p>Throws an {@link UnsupportedOperationException} by default. Subclasses which can return
-   * {@code NONRECURSIVE} results must override this method.
+   * {@code NONRECURSIVE} results must override this method. Subclasses which build a new logic
+   * here memoize it in a {@link SubScopeCache}, so recursive diffs reuse the same sub-scope for
+   * every occurrence of a field.
    */
   @ForOverride
   FieldScopeLogic subScopeImpl(Descriptor rootDescriptor, SubScopeId subScopeId) {
@@ -98,6 +102,33 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
   public void validate(
       Descriptor rootDescriptor, FieldDescriptorValidator fieldDescriptorValidator) {}
 
+  /**
+   * The fields matched by a {@code FieldScopeLogic} whose {@link #contains} result depends only on
+   * the field being tested, in a form that can be looked up without evaluating the logic.
+   */
+  static final class MatchedFields {
+    /** Whether every field is matched. */
+    boolean all = false;
+
+    /** Field numbers which are matched if the field belongs to the root message type. */
+    final Set<Integer> fieldNumbers = new LinkedHashSet<>();
+
+    /** Field descriptors which are matched regardless of the root message type. */
+    final Set<FieldDescriptor> fieldDescriptors = new LinkedHashSet<>();
+  }
+
+  /**
+   * Adds the fields contained in this logic to {@code matchedFields}, if {@link #contains} is a
+   * pure function of the tested field's number or descriptor.
+   *
+   * <p>Returns false if the logic requires full evaluation (e.g., partial scopes, negations and
+   * intersections), in which case {@code matchedFields} may have been partially populated and must
+   * be discarded.
+   */
+  boolean collectMatchedFields(MatchedFields matchedFields) {
+    return false;
+  }
+
   private static boolean isEmpty(Iterable<?> container) {
     boolean isEmpty = true;
     for (Object element : container) {
@@ -182,6 +213,12 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
         final boolean isAll() {
           return true;
         }
+
+        @Override
+        final boolean collectMatchedFields(MatchedFields matchedFields) {
+          matchedFields.all = true;
+          return true;
+        }
       };
 
   private static final FieldScopeLogic NONE =
@@ -195,6 +232,11 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
         final FieldScopeResult policyFor(Descriptor rootDescriptor, SubScopeId subScopeId) {
           return FieldScopeResult.EXCLUDED_RECURSIVELY;
         }
+
+        @Override
+        final boolean collectMatchedFields(MatchedFields matchedFields) {
+          return true;
+        }
       };
 
   static FieldScopeLogic all() {
@@ -209,6 +251,13 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
     private static final PartialScopeLogic EMPTY = new PartialScopeLogic(FieldNumberTree.empty());
 
     private final FieldNumberTree fieldNumberTree;
+    private final SubScopeCache<FieldScopeLogic> subScopes =
+        new SubScopeCache<FieldScopeLogic>() {
+          @Override
+          FieldScopeLogic compute(Descriptor rootDescriptor, SubScopeId subScopeId) {
+            return newPartialScopeLogic(fieldNumberTree.child(subScopeId));
+          }
+        };
 
     PartialScopeLogic(FieldNumberTree fieldNumberTree) {
       this.fieldNumberTree = fieldNumberTree;
@@ -228,7 +277,7 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
 
     @Override
     final FieldScopeLogic subScopeImpl(Descriptor rootDescriptor, SubScopeId subScopeId) {
-      return newPartialScopeLogic(fieldNumberTree.child(subScopeId));
+      return subScopes.get(rootDescriptor, subScopeId);
     }
 
     private static PartialScopeLogic newPartialScopeLogic(FieldNumberTree fieldNumberTree) {
@@ -369,6 +418,12 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
           && fieldNumbers.contains(fieldDescriptor.getNumber());
     }
 
+    @Override
+    boolean collectMatchedFields(MatchedFields matchedFields) {
+      matchedFields.fieldNumbers.addAll(fieldNumbers);
+      return true;
+    }
+
     @Override
     public String toString() {
       return String.format("FieldScopes.allowingFields(%s)", join(fieldNumbers));
@@ -389,6 +444,12 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
       return fieldDescriptors.contains(fieldDescriptor);
     }
 
+    @Override
+    boolean collectMatchedFields(MatchedFields matchedFields) {
+      matchedFields.fieldDescriptors.addAll(fieldDescriptors);
+      return true;
+    }
+
     @Override
     public void validate(
         Descriptor rootDescriptor, FieldDescriptorValidator fieldDescriptorValidator) {
@@ -411,6 +472,18 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
   private abstract static class CompoundFieldScopeLogic<T extends CompoundFieldScopeLogic<T>>
       extends FieldScopeLogic {
     final ImmutableList<FieldScopeLogic> elements;
+    private final SubScopeCache<FieldScopeLogic> subScopes =
+        new SubScopeCache<FieldScopeLogic>() {
+          @Override
+          FieldScopeLogic compute(Descriptor rootDescriptor, SubScopeId subScopeId) {
+            ImmutableList.Builder<FieldScopeLogic> builder =
+                ImmutableList.builderWithExpectedSize(elements.size());
+            for (FieldScopeLogic elem : elements) {
+              builder.add(elem.subScope(rootDescriptor, subScopeId));
+            }
+            return newLogicOfSameType(builder.build());
+          }
+        };
 
     CompoundFieldScopeLogic(FieldScopeLogic singleElem) {
       this.elements = ImmutableList.of(singleElem);
@@ -433,12 +506,7 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
 
     @Override
     final FieldScopeLogic subScopeImpl(Descriptor rootDescriptor, SubScopeId subScopeId) {
-      ImmutableList.Builder<FieldScopeLogic> builder =
-          ImmutableList.builderWithExpectedSize(elements.size());
-      for (FieldScopeLogic elem : elements) {
-        builder.add(elem.subScope(rootDescriptor, subScopeId));
-      }
-      return newLogicOfSameType(builder.build());
+      return subScopes.get(rootDescriptor, subScopeId);
     }
   }
 
@@ -506,6 +574,13 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
           elements.get(1).policyFor(rootDescriptor, subScopeId));
     }
 
+    @Override
+    boolean collectMatchedFields(MatchedFields matchedFields) {
+      // A field is contained in a union iff it is contained in either element.
+      return elements.get(0).collectMatchedFields(matchedFields)
+          && elements.get(1).collectMatchedFields(matchedFields);
+    }
+
     private static FieldScopeResult union(FieldScopeResult result1, FieldScopeResult result2) {
       if (result1 == FieldScopeResult.INCLUDED_RECURSIVELY
           || result2 == FieldScopeResult.INCLUDED_RECURSIVELY) {
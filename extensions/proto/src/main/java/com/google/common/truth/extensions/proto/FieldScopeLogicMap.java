@@ -18,8 +18,15 @@ package com.google.common.truth.extensions.proto;
 
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import java.util.HashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * An immutable map of {@link FieldScopeLogic} to an arbitrary value type.
@@ -30,9 +37,11 @@ import com.google.protobuf.Descriptors.Descriptor;
  * {@code v}. This overrides any previous {FieldScopeLogic -> value} pairs/mappings.
  *
  * <p>Unlike {@link com.google.common.collect.RangeMap}, this class does not support analysis of its
- * internals, only {@link #get} operations, and it is not performant. All {@code get} and {@code
- * with} operations are O(N), where N = number of mappings, so this class is intended only for small
- * numbers of entries.
+ * internals, only {@link #get} operations. {@code with} and {@code subScope} operations are O(N),
+ * where N = number of mappings. {@code get} operations are O(1) for mappings whose logic is a plain
+ * set of field numbers or field descriptors (as produced by the {@code ...ForFields} and {@code
+ * ...ForFieldDescriptors} configuration methods), and O(N) only in the number of mappings with more
+ * complex logic, which are still evaluated one at a time.
  */
 class FieldScopeLogicMap<V> implements FieldScopeLogicContainer<FieldScopeLogicMap<V>> {
 
@@ -53,6 +62,25 @@ class FieldScopeLogicMap<V> implements FieldScopeLogicContainer<FieldScopeLogicM
   // Key -> value mappings for this map.  Earlier entries override later ones.
   private final ImmutableList<Entry<V>> entries;
 
+  private final SubScopeCache<FieldScopeLogicMap<V>> subScopes =
+      new SubScopeCache<FieldScopeLogicMap<V>>() {
+        @Override
+        FieldScopeLogicMap<V> compute(Descriptor rootDescriptor, SubScopeId subScopeId) {
+          return subScopeImpl(rootDescriptor, subScopeId);
+        }
+      };
+
+  // Lazily computed, since maps are frequently built up by chains of 'with' calls and most of the
+  // intermediate maps are never queried.
+  private final Supplier<Index> index =
+      Suppliers.memoize(
+          new Supplier<Index>() {
+            @Override
+            public Index get() {
+              return new Index(entries);
+            }
+          });
+
   private FieldScopeLogicMap(Iterable<Entry<V>> entries) {
     this.entries = ImmutableList.copyOf(entries);
   }
@@ -62,13 +90,13 @@ class FieldScopeLogicMap<V> implements FieldScopeLogicContainer<FieldScopeLogicM
   }
 
   public Optional<V> get(Descriptor rootDescriptor, SubScopeId subScopeId) {
-    // Earlier entries override later ones, so we don't need to iterate backwards.
-    for (Entry<V> entry : entries) {
-      if (entry.fieldScopeLogic().contains(rootDescriptor, subScopeId)) {
-        return Optional.of(entry.value());
-      }
+    if (entries.isEmpty()) {
+      return Optional.absent();
     }
-    return Optional.absent();
+    int position = index.get().firstMatch(entries, rootDescriptor, subScopeId);
+    return position < entries.size()
+        ? Optional.of(entries.get(position).value())
+        : Optional.<V>absent();
   }
 
   /** Returns a new immutable map that adds the given fields -> value mapping. */
@@ -82,6 +110,10 @@ class FieldScopeLogicMap<V> implements FieldScopeLogicContainer<FieldScopeLogicM
 
   @Override
   public FieldScopeLogicMap<V> subScope(Descriptor rootDescriptor, SubScopeId subScopeId) {
+    return isEmpty() ? this : subScopes.get(rootDescriptor, subScopeId);
+  }
+
+  private FieldScopeLogicMap<V> subScopeImpl(Descriptor rootDescriptor, SubScopeId subScopeId) {
     ImmutableList.Builder<Entry<V>> newEntries =
         ImmutableList.builderWithExpectedSize(entries.size());
     for (Entry<V> entry : entries) {
@@ -99,6 +131,89 @@ class FieldScopeLogicMap<V> implements FieldScopeLogicContainer<FieldScopeLogicM
     }
   }
 
+  /**
+   * Lookup tables from fields to the position of the first entry containing them.
+   *
+   * <p>Entries whose logic can't be expressed as a set of fields are kept aside and scanned in
+   * order, but only those which precede the best indexed match.
+   */
+  private static final class Index {
+    // Position of the first entry which contains every field, or entries.size() if there is none.
+    private final int firstMatchingAll;
+    private final ImmutableMap<FieldDescriptor, Integer> byFieldDescriptor;
+    // Only applicable to fields of the root message type.
+    private final ImmutableMap<Integer, Integer> byFieldNumber;
+    // Positions of entries which must be evaluated directly, in ascending order.
+    private final ImmutableList<Integer> unindexed;
+
+    Index(ImmutableList<? extends Entry<?>> entries) {
+      int firstMatchingAll = entries.size();
+      Map<FieldDescriptor, Integer> byFieldDescriptor = new HashMap<>();
+      Map<Integer, Integer> byFieldNumber = new HashMap<>();
+      ImmutableList.Builder<Integer> unindexed = ImmutableList.builder();
+      for (int i = 0; i < entries.size(); i++) {
+        FieldScopeLogic.MatchedFields matchedFields = new FieldScopeLogic.MatchedFields();
+        if (!entries.get(i).fieldScopeLogic().collectMatchedFields(matchedFields)) {
+          unindexed.add(i);
+        } else if (matchedFields.all) {
+          // Nothing after this entry can ever be returned.
+          firstMatchingAll = i;
+          break;
+        } else {
+          // Earlier entries override later ones, so keep the first position for each field.
+          for (FieldDescriptor fieldDescriptor : matchedFields.fieldDescriptors) {
+            putIfAbsent(byFieldDescriptor, fieldDescriptor, i);
+          }
+          for (Integer fieldNumber : matchedFields.fieldNumbers) {
+            putIfAbsent(byFieldNumber, fieldNumber, i);
+          }
+        }
+      }
+      this.firstMatchingAll = firstMatchingAll;
+      this.byFieldDescriptor = ImmutableMap.copyOf(byFieldDescriptor);
+      this.byFieldNumber = ImmutableMap.copyOf(byFieldNumber);
+      this.unindexed = unindexed.build();
+    }
+
+    /**
+     * Returns the position of the first entry containing the given field, or {@code
+     * entries.size()} if there is none.
+     */
+    int firstMatch(
+        ImmutableList<? extends Entry<?>> entries,
+        Descriptor rootDescriptor,
+        SubScopeId subScopeId) {
+      int best = firstMatchingAll;
+      // Field matchers never contain unknown fields.
+      if (subScopeId.kind() == SubScopeId.Kind.FIELD_DESCRIPTOR) {
+        FieldDescriptor fieldDescriptor = subScopeId.fieldDescriptor();
+        best = min(best, byFieldDescriptor.get(fieldDescriptor));
+        if (fieldDescriptor.getContainingType() == rootDescriptor) {
+          best = min(best, byFieldNumber.get(fieldDescriptor.getNumber()));
+        }
+      }
+      for (int position : unindexed) {
+        if (position >= best) {
+          break;
+        }
+        if (entries.get(position).fieldScopeLogic().contains(rootDescriptor, subScopeId)) {
+          return position;
+        }
+      }
+      return best;
+    }
+
+    private static int min(int best, @Nullable Integer candidate) {
+      return candidate != null && candidate < best ? candidate : best;
+    }
+
+    private static <K> void putIfAbsent(Map<K, Integer> map, K key, int position) {
+      if (!map.containsKey(key)) {
+        map.put(key, position);
+      }
+    }
+  }
+
   @SuppressWarnings("unchecked") // Implementation is fully variant.
   public static <V> FieldScopeLogicMap<V> empty() {
     return (FieldScopeLogicMap<V>) EMPTY_INSTANCE;
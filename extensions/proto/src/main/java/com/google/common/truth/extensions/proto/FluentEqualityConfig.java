@@ -75,6 +75,14 @@ abstract class FluentEqualityConfig implements FieldScopeLogicContainer<FluentEq
                 }
               });
 
+  private final SubScopeCache<FluentEqualityConfig> subScopes =
+      new SubScopeCache<FluentEqualityConfig>() {
+        @Override
+        FluentEqualityConfig compute(Descriptor rootDescriptor, SubScopeId subScopeId) {
+          return subScopeImpl(rootDescriptor, subScopeId);
+        }
+      };
+
   //////////////////////////////////////////////////////////////////////////////////////////////////
   // Storage of AbstractProtoFluentEquals configuration data.
   //////////////////////////////////////////////////////////////////////////////////////////////////
@@ -324,8 +332,18 @@ abstract class FluentEqualityConfig implements FieldScopeLogicContainer<FluentEq
         .build();
   }
 
+  /**
+   * Returns the config for the sub-message at {@code subScopeId}.
+   *
+   * <p>Results are memoized per config, so that the sub-configs (and their cached message
+   * differencers) are shared by every occurrence of the same field in a recursive diff.
+   */
   @Override
   public final FluentEqualityConfig subScope(Descriptor rootDescriptor, SubScopeId subScopeId) {
+    return subScopes.get(rootDescriptor, subScopeId);
+  }
+
+  private FluentEqualityConfig subScopeImpl(Descriptor rootDescriptor, SubScopeId subScopeId) {
     return toBuilder()
         .setIgnoreFieldAbsenceScope(ignoreFieldAbsenceScope().subScope(rootDescriptor, subScopeId))
         .setIgnoreRepeatedFieldOrderScope(
@@ -366,19 +384,30 @@ abstract class FluentEqualityConfig implements FieldScopeLogicContainer<FluentEq
 
   final <M extends Message> Correspondence<M, M> toCorrespondence(
       final Optional<Descriptor> optDescriptor) {
+    return toCorrespondence(
+        optDescriptor,
+        // If we were allowed lambdas, this would be:
+        // (M a, M e) -> FluentEqualityConfig.this.compare(a, e),
+        new Correspondence.BinaryPredicate<M, M>() {
+          @Override
+          public boolean apply(@Nullable M actual, @Nullable M expected) {
+            return compare(actual, expected);
+          }
+        });
+  }
+
+  /**
+   * Returns a {@link Correspondence} which is described and formats diffs like {@link
+   * #toCorrespondence(Optional)}, but which uses the given predicate to compare elements.
+   *
+   * <p>The predicate must agree with {@link #compare}; this exists so that callers can serve
+   * precomputed comparison results.
+   */
+  final <M extends Message> Correspondence<M, M> toCorrespondence(
+      Optional<Descriptor> optDescriptor, Correspondence.BinaryPredicate<M, M> predicate) {
     checkState(hasExpectedMessages(), "withExpectedMessages() not called");
     return Correspondence.from(
-            // If we were allowed lambdas, this would be:
-            // (M a, M e) ->
-            //     ProtoTruth.assertThat(a).usingConfig(FluentEqualityConfig.this).testIsEqualTo(e),
-            new Correspondence.BinaryPredicate<M, M>() {
-              @Override
-              public boolean apply(@Nullable M actual, @Nullable M expected) {
-                return ProtoTruth.assertThat(actual)
-                    .usingConfig(FluentEqualityConfig.this)
-                    .testIsEqualTo(expected);
-              }
-            },
+            predicate,
             "is equivalent according to assertThat(proto)"
                 + usingCorrespondenceString(optDescriptor)
                 + ".isEqualTo(target) to")
@@ -392,6 +421,11 @@ abstract class FluentEqualityConfig implements FieldScopeLogicContainer<FluentEq
             });
   }
 
+  /** Returns whether {@code actual} and {@code expected} are equal according to this config. */
+  final boolean compare(@Nullable Message actual, @Nullable Message expected) {
+    return ProtoTruth.assertThat(actual).usingConfig(this).testIsEqualTo(expected);
+  }
+
   private <M extends Message> String formatDiff(@Nullable M actual, @Nullable M expected) {
     if (actual == null || expected == null) {
       return "";
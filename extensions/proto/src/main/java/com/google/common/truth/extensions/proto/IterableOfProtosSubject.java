@@ -22,6 +22,7 @@ import static com.google.common.truth.extensions.proto.FieldScopeUtil.asList;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
+import com.google.common.truth.Correspondence;
 import com.google.common.truth.FailureMetadata;
 import com.google.common.truth.IterableSubject;
 import com.google.common.truth.Ordered;
@@ -727,18 +728,43 @@ public class IterableOfProtosSubject<M extends Message> extends IterableSubject
     }
 
     private IterableSubject.UsingCorrespondence<M, M> delegate(Iterable<? extends M> messages) {
+      return delegate(
+          subject
+              .config
+              .withExpectedMessages(messages)
+              .<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(subject.actual)));
+    }
+
+    private IterableSubject.UsingCorrespondence<M, M> delegate(
+        Correspondence<M, M> correspondence) {
       IterableSubject.UsingCorrespondence<M, M> usingCorrespondence =
-          subject.comparingElementsUsing(
-              subject
-                  .config
-                  .withExpectedMessages(messages)
-                  .<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(subject.actual)));
+          subject.comparingElementsUsing(correspondence);
       if (keyFunction != null) {
         usingCorrespondence = usingCorrespondence.displayingDiffsPairedBy(keyFunction);
       }
       return usingCorrespondence;
     }
 
+    // Returns a delegate whose correspondence serves pairwise comparison results computed up front.
+    // If the elements don't correspond in order, IterableSubject is going to compare every actual
+    // element with every expected element, so we do that in bulk, in parallel if it's big enough.
+    private IterableSubject.UsingCorrespondence<M, M> bulkDelegate(
+        Iterable<? extends M> expected, boolean allowUnexpected) {
+      if (subject.actual == null) {
+        return delegate(expected);
+      }
+      PairwiseMatches<M> matches =
+          new PairwiseMatches<M>(
+              subject.config.withExpectedMessages(expected), subject.actual, expected);
+      boolean inOrder =
+          allowUnexpected ? matches.correspondInOrderAllIn() : matches.correspondInOrderExactly();
+      if (!inOrder) {
+        matches.compareAllInParallel();
+      }
+      return delegate(
+          matches.toCorrespondence(FieldScopeUtil.getSingleDescriptor(subject.actual)));
+    }
+
     @Override
     public IterableOfProtosUsingCorrespondence<M> displayingDiffsPairedBy(
         Function<? super M, ?> keyFunction) {
@@ -758,37 +784,43 @@ public class IterableOfProtosSubject<M extends Message> extends IterableSubject
     @Override
     @CanIgnoreReturnValue
     public Ordered containsExactly(@Nullable M... expected) {
-      return delegate(Arrays.asList(expected)).containsExactly(expected);
+      return bulkDelegate(Arrays.asList(expected), /* allowUnexpected= */ false)
+          .containsExactly(expected);
     }
 
     @Override
     @CanIgnoreReturnValue
     public Ordered containsExactlyElementsIn(Iterable<? extends M> expected) {
-      return delegate(expected).containsExactlyElementsIn(expected);
+      return bulkDelegate(expected, /* allowUnexpected= */ false)
+          .containsExactlyElementsIn(expected);
     }
 
     @Override
     @CanIgnoreReturnValue
     public Ordered containsExactlyElementsIn(M[] expected) {
-      return delegate(Arrays.asList(expected)).containsExactlyElementsIn(expected);
+      return bulkDelegate(Arrays.asList(expected), /* allowUnexpected= */ false)
+          .containsExactlyElementsIn(expected);
     }
 
     @Override
     @CanIgnoreReturnValue
     public Ordered containsAtLeast(@Nullable M first, @Nullable M second, @Nullable M... rest) {
-      return delegate(Lists.asList(first, second, rest)).containsAtLeast(first, second, rest);
+      return bulkDelegate(Lists.asList(first, second, rest), /* allowUnexpected= */ true)
+          .containsAtLeast(first, second, rest);
     }
 
     @Override
     @CanIgnoreReturnValue
     public Ordered containsAtLeastElementsIn(Iterable<? extends M> expected) {
-      return delegate(expected).containsAtLeastElementsIn(expected);
+      return bulkDelegate(expected, /* allowUnexpected= */ true)
+          .containsAtLeastElementsIn(expected);
     }
 
     @Override
     @CanIgnoreReturnValue
     public Ordered containsAtLeastElementsIn(M[] expected) {
-      return delegate(Arrays.asList(expected)).containsAtLeastElementsIn(expected);
+      return bulkDelegate(Arrays.asList(expected), /* allowUnexpected= */ true)
+          .containsAtLeastElementsIn(expected);
     }
 
     @Override
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.truth.Correspondence;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Message;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The results of comparing actual messages with expected messages in an iterable assertion,
+ * computed on demand or in bulk.
+ *
+ * <p>When the elements of an iterable don't correspond in order, {@code
+ * IterableSubject.UsingCorrespondence} compares every actual element with every expected element,
+ * one pair at a time. For iterables of protos, each of those comparisons is a full diff. This class
+ * lets {@link IterableOfProtosSubject} compute that matrix up front, splitting it by expected
+ * element across the common {@link ForkJoinPool}, and then serve the results through {@link
+ * #toCorrespondence}. The core matching algorithms, and therefore the failure messages, are
+ * unchanged.
+ *
+ * <p>Instances are not thread-safe, except that {@link #compareAllInParallel} may use multiple
+ * threads internally. Each expected element is only ever compared by one thread at a time, and each
+ * fork-join task creates its own message differencers, so workers share only the configs.
+ */
+final class PairwiseMatches<M extends Message> {
+
+  // Below this many comparisons, parallelism isn't worth the overhead.
+  private static final long PARALLELISM_THRESHOLD = 1024;
+
+  // The minimum number of comparisons performed by a single fork-join task.
+  private static final long TASK_GRANULARITY = 64;
+
+  private final FluentEqualityConfig config;
+  private final List<M> actual;
+  private final List<M> expected;
+  private final Map<M, Integer> actualIndices;
+  private final Map<M, Integer> expectedIndices;
+
+  // For each expected element, the configs to compare it with. Indexed by expected index.
+  private final @Nullable FluentEqualityConfig[] expectedConfigs;
+
+  // The results of the comparisons made so far, by pairIndex(). Until every pair is about to be
+  // compared, only a few are, so they are kept in a map rather than in a matrix of size
+  // actual.size() * expected.size(), which might not even fit in memory.
+  private final Map<Long, Boolean> sparseResults = Maps.newHashMap();
+
+  // Once every pair is about to be compared, the actual elements which have been compared with each
+  // expected element, and those which matched. Indexed by expected index.
+  private BitSet @Nullable [] compared;
+  private BitSet @Nullable [] matched;
+
+  /**
+   * Creates a lazily populated matrix for the given elements.
+   *
+   * @param config the config for the whole assertion, on which {@code withExpectedMessages} has
+   *     already been called with {@code expected}
+   */
+  PairwiseMatches(
+      FluentEqualityConfig config, Iterable<? extends M> actual, Iterable<? extends M> expected) {
+    this.config = config;
+    this.actual = Lists.newArrayList(actual);
+    this.expected = Lists.newArrayList(expected);
+    this.actualIndices = indexByIdentity(this.actual);
+    this.expectedIndices = indexByIdentity(this.expected);
+    this.expectedConfigs = new FluentEqualityConfig[this.expected.size()];
+  }
+
+  // Correspondences are called with the elements themselves, so we look them up by identity. Equal
+  // but distinct instances get distinct indices; repeated instances share their first index, which
+  // is harmless because the comparison is deterministic.
+  private static <M> Map<M, Integer> indexByIdentity(List<M> elements) {
+    Map<M, Integer> indices = Maps.newIdentityHashMap();
+    for (int i = elements.size() - 1; i >= 0; i--) {
+      indices.put(elements.get(i), i);
+    }
+    return indices;
+  }
+
+  /**
+   * Returns whether the elements correspond pairwise in order, as in {@code
+   * containsExactlyElementsIn(...).inOrder()}. Exceptions are treated as mismatches.
+   */
+  boolean correspondInOrderExactly() {
+    if (actual.size() != expected.size()) {
+      return false;
+    }
+    for (int i = 0; i < actual.size(); i++) {
+      if (!safeMatches(i, i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the expected elements correspond in order to a subset of the actual elements,
+   * as in {@code containsAtLeastElementsIn(...).inOrder()}. Exceptions are treated as mismatches.
+   */
+  boolean correspondInOrderAllIn() {
+    // Greedily pair each expected element with the first remaining actual element which matches,
+    // like IterableSubject does.
+    int actualIndex = 0;
+    for (int expectedIndex = 0; expectedIndex < expected.size(); expectedIndex++) {
+      while (actualIndex < actual.size() && !safeMatches(actualIndex, expectedIndex)) {
+        actualIndex++;
+      }
+      if (actualIndex == actual.size()) {
+        return false;
+      }
+      actualIndex++;
+    }
+    return true;
+  }
+
+  /**
+   * Prepares for every pair of elements to be compared, and compares those which haven't been
+   * compared yet, using the common {@link ForkJoinPool} if there are enough of them. Otherwise,
+   * leaves the comparisons to be computed on demand.
+   *
+   * <p>Comparisons which throw are left uncomputed, so that the exception is rethrown to the {@link
+   * Correspondence} caller when the pair is requested.
+   */
+  void compareAllInParallel() {
+    compared = new BitSet[expected.size()];
+    matched = new BitSet[expected.size()];
+    for (int i = 0; i < expected.size(); i++) {
+      compared[i] = new BitSet(actual.size());
+      matched[i] = new BitSet(actual.size());
+    }
+    for (Map.Entry<Long, Boolean> result : sparseResults.entrySet()) {
+      int expectedIndex = (int) (result.getKey() / actual.size());
+      int actualIndex = (int) (result.getKey() % actual.size());
+      compared[expectedIndex].set(actualIndex);
+      matched[expectedIndex].set(actualIndex, result.getValue());
+    }
+    sparseResults.clear();
+    if ((long) actual.size() * expected.size() < PARALLELISM_THRESHOLD
+        || ForkJoinPool.getCommonPoolParallelism() < 2) {
+      return;
+    }
+    ForkJoinPool.commonPool().invoke(new CompareExpected(0, expected.size()));
+  }
+
+  /** Returns a {@link Correspondence} which serves the comparison results of this matrix. */
+  Correspondence<M, M> toCorrespondence(Optional<Descriptor> optDescriptor) {
+    return config.toCorrespondence(
+        optDescriptor,
+        new Correspondence.BinaryPredicate<M, M>() {
+          @Override
+          public boolean apply(@Nullable M actualElement, @Nullable M expectedElement) {
+            Integer actualIndex = actualIndices.get(actualElement);
+            Integer expectedIndex = expectedIndices.get(expectedElement);
+            if (actualIndex == null || expectedIndex == null) {
+              // Not one of ours, so fall back to a direct comparison.
+              return config.compare(actualElement, expectedElement);
+            }
+            return matches(actualIndex, expectedIndex);
+          }
+        });
+  }
+
+  private boolean safeMatches(int actualIndex, int expectedIndex) {
+    return safeMatches(actualIndex, expectedIndex, null);
+  }
+
+  private boolean safeMatches(
+      int actualIndex,
+      int expectedIndex,
+      @Nullable Map<Descriptor, ProtoTruthMessageDifferencer> taskDifferencers) {
+    try {
+      return matches(actualIndex, expectedIndex, taskDifferencers);
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  private boolean matches(int actualIndex, int expectedIndex) {
+    return matches(actualIndex, expectedIndex, null);
+  }
+
+  /**
+   * Returns whether the given elements match, comparing them if they haven't been compared yet.
+   *
+   * @param taskDifferencers the differencers of the calling fork-join task, by descriptor, or null
+   *     to use the ones cached on the config
+   */
+  private boolean matches(
+      int actualIndex,
+      int expectedIndex,
+      @Nullable Map<Descriptor, ProtoTruthMessageDifferencer> taskDifferencers) {
+    BitSet[] compared = this.compared;
+    BitSet[] matched = this.matched;
+    if (compared == null || matched == null) {
+      long pairIndex = pairIndex(actualIndex, expectedIndex);
+      Boolean result = sparseResults.get(pairIndex);
+      if (result == null) {
+        result = compare(actualIndex, expectedIndex, taskDifferencers);
+        sparseResults.put(pairIndex, result);
+      }
+      return result;
+    }
+    if (!compared[expectedIndex].get(actualIndex)) {
+      boolean result = compare(actualIndex, expectedIndex, taskDifferencers);
+      compared[expectedIndex].set(actualIndex);
+      matched[expectedIndex].set(actualIndex, result);
+    }
+    return matched[expectedIndex].get(actualIndex);
+  }
+
+  private long pairIndex(int actualIndex, int expectedIndex) {
+    return (long) expectedIndex * actual.size() + actualIndex;
+  }
+
+  // Equivalent to config.compare(), without constructing a ProtoSubject per comparison.
+  private boolean compare(
+      int actualIndex,
+      int expectedIndex,
+      @Nullable Map<Descriptor, ProtoTruthMessageDifferencer> taskDifferencers) {
+    M actualElement = actual.get(actualIndex);
+    M expectedElement = expected.get(expectedIndex);
+    if (actualElement == null
+        || expectedElement == null
+        || actualElement.getDescriptorForType() != expectedElement.getDescriptorForType()) {
+      return Objects.equal(actualElement, expectedElement);
+    }
+    return differencerFor(expectedIndex, actualElement.getDescriptorForType(), taskDifferencers)
+        .diffMessages(actualElement, expectedElement)
+        .isMatched();
+  }
+
+  private ProtoTruthMessageDifferencer differencerFor(
+      int expectedIndex,
+      Descriptor descriptor,
+      @Nullable Map<Descriptor, ProtoTruthMessageDifferencer> taskDifferencers) {
+    FluentEqualityConfig expectedConfig = configFor(expectedIndex);
+    if (taskDifferencers == null) {
+      return expectedConfig.toMessageDifferencer(descriptor);
+    }
+    ProtoTruthMessageDifferencer differencer = taskDifferencers.get(descriptor);
+    if (differencer == null) {
+      differencer = ProtoTruthMessageDifferencer.create(expectedConfig, descriptor);
+      taskDifferencers.put(descriptor, differencer);
+    }
+    return differencer;
+  }
+
+  private FluentEqualityConfig configFor(int expectedIndex) {
+    // As in ProtoSubject.isEqualTo(), the config is narrowed to the expected message, which only
+    // makes a difference when comparing expected fields only.
+    if (!config.compareExpectedFieldsOnly()) {
+      return config;
+    }
+    FluentEqualityConfig expectedConfig = expectedConfigs[expectedIndex];
+    if (expectedConfig == null) {
+      expectedConfig =
+          config.withExpectedMessages(Collections.singletonList(expected.get(expectedIndex)));
+      expectedConfigs[expectedIndex] = expectedConfig;
+    }
+    return expectedConfig;
+  }
+
+  /** Compares all actual elements with the expected elements in {@code [from, to)}. */
+  private final class CompareExpected extends RecursiveAction {
+    private final int from;
+    private final int to;
+
+    CompareExpected(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > 1 && (long) (to - from) * actual.size() > TASK_GRANULARITY) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new CompareExpected(from, mid), new CompareExpected(mid, to));
+        return;
+      }
+      // Differencers are created per task rather than taken from the config, so that no two
+      // workers use the same one. They are only valid for one config, which differs per expected
+      // element when comparing expected fields only.
+      Map<Descriptor, ProtoTruthMessageDifferencer> differencers = Maps.newHashMap();
+      for (int expectedIndex = from; expectedIndex < to; expectedIndex++) {
+        if (config.compareExpectedFieldsOnly()) {
+          differencers.clear();
+        }
+        for (int actualIndex = 0; actualIndex < actual.size(); actualIndex++) {
+          // Exceptions are rethrown on demand by matches(), on the asserting thread.
+          safeMatches(actualIndex, expectedIndex, differencers);
+        }
+      }
+    }
+  }
+}
@@ -640,9 +640,7 @@ public class ProtoSubject extends LiteProtoSubject {
           makeDifferencer((Message) expected).diffMessages(actual, (Message) expected);
       if (!diffResult.isMatched()) {
         failWithoutActual(
-            simpleFact(
-                "Not true that messages compare equal.\n"
-                    + diffResult.printToString(config.reportMismatchesOnly())));
+            simpleFact(diffReport("Not true that messages compare equal.\n", diffResult)));
       }
     }
   }
@@ -656,13 +654,18 @@ public class ProtoSubject extends LiteProtoSubject {
           makeDifferencer((Message) expected).diffMessages(actual, (Message) expected);
       if (diffResult.isMatched()) {
         failWithoutActual(
-            simpleFact(
-                "Not true that messages compare not equal.\n"
-                    + diffResult.printToString(config.reportMismatchesOnly())));
+            simpleFact(diffReport("Not true that messages compare not equal.\n", diffResult)));
       }
     }
   }
 
+  // Streams the report straight after the headline, so that only the bounded report is rendered.
+  private String diffReport(String headline, DiffResult diffResult) {
+    StringBuilder sb = new StringBuilder(headline);
+    diffResult.printTo(sb, config.reportMismatchesOnly(), DiffResult.DEFAULT_PRINT_BUDGET);
+    return sb.toString();
+  }
+
   @Override
   public void hasAllRequiredFields() {
     if (!actual.isInitialized()) {
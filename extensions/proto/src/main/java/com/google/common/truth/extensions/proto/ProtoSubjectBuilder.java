@@ -19,6 +19,7 @@ package com.google.common.truth.extensions.proto;
 import com.google.common.collect.Multimap;
 import com.google.common.truth.CustomSubjectBuilder;
 import com.google.common.truth.FailureMetadata;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
 import com.google.protobuf.MessageLite;
 import java.util.Map;
@@ -50,6 +51,10 @@ public final class ProtoSubjectBuilder extends CustomSubjectBuilder {
     super(failureMetadata);
   }
 
+  public ByteStringSubject that(@Nullable ByteString byteString) {
+    return new ByteStringSubject(metadata(), byteString);
+  }
+
   public LiteProtoSubject that(@Nullable MessageLite messageLite) {
     return new LiteProtoSubject(metadata(), messageLite);
   }
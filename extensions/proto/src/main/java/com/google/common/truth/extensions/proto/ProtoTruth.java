@@ -24,6 +24,7 @@ import com.google.common.truth.IterableSubject;
 import com.google.common.truth.MapSubject;
 import com.google.common.truth.MultimapSubject;
 import com.google.common.truth.StandardSubjectBuilder;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
 import com.google.protobuf.MessageLite;
 import java.util.Map;
@@ -47,6 +48,11 @@ public final class ProtoTruth {
     return ProtoSubjectBuilder.factory();
   }
 
+  /** Assert on the content of a {@link ByteString}. */
+  public static ByteStringSubject assertThat(@Nullable ByteString byteString) {
+    return assertAbout(protos()).that(byteString);
+  }
+
   /** Assert on a single {@link MessageLite} instance. */
   public static LiteProtoSubject assertThat(@Nullable MessageLite messageLite) {
     return assertAbout(protos()).that(messageLite);
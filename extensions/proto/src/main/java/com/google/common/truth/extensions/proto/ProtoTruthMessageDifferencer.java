@@ -56,8 +56,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * Tool to differentiate two messages with the same {@link Descriptor}, subject to the rules set out
  * in a {@link FluentEqualityConfig}.
  *
- * <p>A {@code ProtoTruthMessageDifferencer} is immutable and thread-safe. Its outputs, however,
- * have caching behaviors and are not thread-safe.
+ * <p>A {@code ProtoTruthMessageDifferencer} is immutable and thread-safe. Its outputs, however, have
+ * caching behaviors and are not thread-safe.
  */
 final class ProtoTruthMessageDifferencer {
   private final FluentEqualityConfig rootConfig;
@@ -78,7 +78,13 @@ final class ProtoTruthMessageDifferencer {
     return new ProtoTruthMessageDifferencer(rootConfig, descriptor);
   }
 
-  /** Compare the two non-null messages, and return a detailed comparison report. */
+  /**
+   * Compare the two non-null messages, and return a detailed comparison report.
+   *
+   * <p>Each call unpacks {@code Any} messages through a cache of its own, which it drops when it
+   * returns. Sub-configs share the root config's registries, so one cache serves the whole message
+   * tree.
+   */
   DiffResult diffMessages(Message actual, Message expected) {
     checkNotNull(actual);
     checkNotNull(expected);
@@ -88,12 +94,16 @@ final class ProtoTruthMessageDifferencer {
         actual.getDescriptorForType(),
         expected.getDescriptorForType());
 
-    return diffMessages(actual, expected, rootConfig);
+    return diffMessages(actual, expected, rootConfig, AnyUtils.newUnpackCache(rootConfig));
   }
 
-  private DiffResult diffMessages(Message actual, Message expected, FluentEqualityConfig config) {
+  private DiffResult diffMessages(
+      Message actual,
+      Message expected,
+      FluentEqualityConfig config,
+      AnyUtils.UnpackCache unpackCache) {
     if (actual.getDescriptorForType().equals(Any.getDescriptor())) {
-      return diffAnyMessages(actual, expected, config);
+      return diffAnyMessages(actual, expected, config, unpackCache);
     }
     DiffResult.Builder builder = DiffResult.newBuilder().setActual(actual).setExpected(expected);
 
@@ -129,7 +139,8 @@ final class ProtoTruthMessageDifferencer {
                   expectedMap,
                   actualAndExpectedKeys,
                   fieldDescriptor,
-                  config.subScope(rootDescriptor, subScopeId)));
+                  config.subScope(rootDescriptor, subScopeId),
+                  unpackCache));
         } else {
           List<?> actualList = toProtoList(actualFields.get(fieldDescriptor));
           List<?> expectedList = toProtoList(expectedFields.get(fieldDescriptor));
@@ -147,7 +158,8 @@ final class ProtoTruthMessageDifferencer {
                     shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
                     fieldDescriptor,
                     ignoreExtraRepeatedFieldElements,
-                    config.subScope(rootDescriptor, subScopeId)));
+                    config.subScope(rootDescriptor, subScopeId),
+                    unpackCache));
           } else if (ignoreExtraRepeatedFieldElements && !expectedList.isEmpty()) {
             builder.addRepeatedField(
                 fieldDescriptor.getNumber(),
@@ -156,7 +168,8 @@ final class ProtoTruthMessageDifferencer {
                     expectedList,
                     shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
                     fieldDescriptor,
-                    config.subScope(rootDescriptor, subScopeId)));
+                    config.subScope(rootDescriptor, subScopeId),
+                    unpackCache));
           } else {
             builder.addAllSingularFields(
                 fieldDescriptor.getNumber(),
@@ -165,7 +178,8 @@ final class ProtoTruthMessageDifferencer {
                     expectedList,
                     shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
                     fieldDescriptor,
-                    config.subScope(rootDescriptor, subScopeId)));
+                    config.subScope(rootDescriptor, subScopeId),
+                    unpackCache));
           }
         }
       } else {
@@ -178,7 +192,8 @@ final class ProtoTruthMessageDifferencer {
                 shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
                 fieldDescriptor,
                 name(fieldDescriptor),
-                config.subScope(rootDescriptor, subScopeId)));
+                config.subScope(rootDescriptor, subScopeId),
+                unpackCache));
       }
     }
 
@@ -193,7 +208,10 @@ final class ProtoTruthMessageDifferencer {
   }
 
   private DiffResult diffAnyMessages(
-      Message actual, Message expected, FluentEqualityConfig config) {
+      Message actual,
+      Message expected,
+      FluentEqualityConfig config,
+      AnyUtils.UnpackCache unpackCache) {
     DiffResult.Builder builder = DiffResult.newBuilder().setActual(actual).setExpected(expected);
 
     // Compare the TypeUrl fields.
@@ -222,8 +240,8 @@ final class ProtoTruthMessageDifferencer {
     if (shouldCompareValue == FieldScopeResult.EXCLUDED_RECURSIVELY) {
       valueDiffResult = SingularField.ignored(name(AnyUtils.valueFieldDescriptor()));
     } else {
-      Optional<Message> unpackedActual = AnyUtils.unpack(actual, config);
-      Optional<Message> unpackedExpected = AnyUtils.unpack(expected, config);
+      Optional<Message> unpackedActual = unpackCache.unpack(actual);
+      Optional<Message> unpackedExpected = unpackCache.unpack(expected);
       if (unpackedActual.isPresent()
           && unpackedExpected.isPresent()
           && descriptorsMatch(unpackedActual.get(), unpackedExpected.get())) {
@@ -236,7 +254,8 @@ final class ProtoTruthMessageDifferencer {
                 shouldCompareValue == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
                 AnyUtils.valueFieldDescriptor(),
                 name(AnyUtils.valueFieldDescriptor()),
-                config.subScope(rootDescriptor, AnyUtils.valueSubScopeId()));
+                config.subScope(rootDescriptor, AnyUtils.valueSubScopeId()),
+                unpackCache);
       } else {
         valueDiffResult =
             compareSingularValue(
@@ -246,7 +265,8 @@ final class ProtoTruthMessageDifferencer {
                 shouldCompareValue == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
                 AnyUtils.valueFieldDescriptor(),
                 name(AnyUtils.valueFieldDescriptor()),
-                config.subScope(rootDescriptor, AnyUtils.valueSubScopeId()));
+                config.subScope(rootDescriptor, AnyUtils.valueSubScopeId()),
+                unpackCache);
       }
     }
     builder.addSingularField(Any.VALUE_FIELD_NUMBER, valueDiffResult);
@@ -304,7 +324,8 @@ final class ProtoTruthMessageDifferencer {
       Map<Object, Object> expectedMap,
       Set<Object> actualAndExpectedKeys,
       FieldDescriptor mapFieldDescriptor,
-      FluentEqualityConfig mapConfig) {
+      FluentEqualityConfig mapConfig,
+      AnyUtils.UnpackCache unpackCache) {
     FieldDescriptor keyFieldDescriptor = mapFieldDescriptor.getMessageType().findFieldByNumber(1);
     FieldDescriptor valueFieldDescriptor = mapFieldDescriptor.getMessageType().findFieldByNumber(2);
     SubScopeId valueSubScopeId = SubScopeId.of(valueFieldDescriptor);
@@ -340,7 +361,8 @@ final class ProtoTruthMessageDifferencer {
                 compareValues == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
                 valueFieldDescriptor,
                 indexedName(mapFieldDescriptor, key, keyFieldDescriptor),
-                valuesConfig));
+                valuesConfig,
+                unpackCache));
       }
     }
 
@@ -353,7 +375,8 @@ final class ProtoTruthMessageDifferencer {
       boolean excludeNonRecursive,
       FieldDescriptor fieldDescriptor,
       boolean ignoreExtraRepeatedFieldElements,
-      FluentEqualityConfig config) {
+      FluentEqualityConfig config,
+      AnyUtils.UnpackCache unpackCache) {
     RepeatedField.Builder builder =
         RepeatedField.newBuilder()
             .setFieldDescriptor(fieldDescriptor)
@@ -369,7 +392,7 @@ final class ProtoTruthMessageDifferencer {
         Object expected = expectedList.get(j);
         RepeatedField.PairResult pairResult =
             compareRepeatedFieldElementPair(
-                actual, expected, excludeNonRecursive, fieldDescriptor, i, j, config);
+                actual, expected, excludeNonRecursive, fieldDescriptor, i, j, config, unpackCache);
         if (pairResult.isMatched()) {
           // Found a match - remove both these elements from the candidate pools.
           builder.addPairResult(pairResult);
@@ -400,7 +423,8 @@ final class ProtoTruthMessageDifferencer {
                 fieldDescriptor,
                 i,
                 /*expectedFieldIndex=*/ null,
-                config));
+                config,
+                unpackCache));
       }
     }
     for (int j : unmatchedExpected) {
@@ -412,7 +436,8 @@ final class ProtoTruthMessageDifferencer {
               fieldDescriptor,
               /*actualFieldIndex=*/ null,
               j,
-              config));
+              config,
+              unpackCache));
     }
 
     return builder.build();
@@ -423,7 +448,8 @@ final class ProtoTruthMessageDifferencer {
       List<?> expectedList,
       boolean excludeNonRecursive,
       FieldDescriptor fieldDescriptor,
-      FluentEqualityConfig config) {
+      FluentEqualityConfig config,
+      AnyUtils.UnpackCache unpackCache) {
     RepeatedField.Builder builder =
         RepeatedField.newBuilder()
             .setFieldDescriptor(fieldDescriptor)
@@ -452,7 +478,8 @@ final class ProtoTruthMessageDifferencer {
               expected,
               excludeNonRecursive,
               fieldDescriptor,
-              config);
+              config,
+              unpackCache);
 
       if (matchingResult != null) {
         // Move all prior elements to actualNotInOrder.
@@ -471,7 +498,8 @@ final class ProtoTruthMessageDifferencer {
                 expected,
                 excludeNonRecursive,
                 fieldDescriptor,
-                config);
+                config,
+                unpackCache);
         if (matchingResult != null) {
           // Report an out-of-order match, which is treated as not-matched.
           matchingResult = matchingResult.toBuilder().setResult(Result.MOVED_OUT_OF_ORDER).build();
@@ -517,7 +545,8 @@ final class ProtoTruthMessageDifferencer {
       Object expectedValue,
       boolean excludeNonRecursive,
       FieldDescriptor fieldDescriptor,
-      FluentEqualityConfig config) {
+      FluentEqualityConfig config,
+      AnyUtils.UnpackCache unpackCache) {
     Iterator<Integer> actualIndexIter = actualIndices.iterator();
     while (actualIndexIter.hasNext()) {
       int actualIndex = actualIndexIter.next();
@@ -529,7 +558,8 @@ final class ProtoTruthMessageDifferencer {
               fieldDescriptor,
               actualIndex,
               expectedIndex,
-              config);
+              config,
+              unpackCache);
       if (pairResult.isMatched()) {
         actualIndexIter.remove();
         return pairResult;
@@ -546,7 +576,8 @@ final class ProtoTruthMessageDifferencer {
       FieldDescriptor fieldDescriptor,
       @Nullable Integer actualFieldIndex,
       @Nullable Integer expectedFieldIndex,
-      FluentEqualityConfig config) {
+      FluentEqualityConfig config,
+      AnyUtils.UnpackCache unpackCache) {
     SingularField comparison =
         compareSingularValue(
             actual,
@@ -555,7 +586,8 @@ final class ProtoTruthMessageDifferencer {
             excludeNonRecursive,
             fieldDescriptor,
             "<no field path>",
-            config);
+            config,
+            unpackCache);
 
     RepeatedField.PairResult.Builder pairResultBuilder =
         RepeatedField.PairResult.newBuilder()
@@ -595,7 +627,8 @@ final class ProtoTruthMessageDifferencer {
       List<?> expectedList,
       boolean excludeNonRecursive,
       FieldDescriptor fieldDescriptor,
-      FluentEqualityConfig config) {
+      FluentEqualityConfig config,
+      AnyUtils.UnpackCache unpackCache) {
     int maxSize = Math.max(actualList.size(), expectedList.size());
     ImmutableList.Builder<SingularField> builder = ImmutableList.builderWithExpectedSize(maxSize);
     for (int i = 0; i < maxSize; i++) {
@@ -609,7 +642,8 @@ final class ProtoTruthMessageDifferencer {
               excludeNonRecursive,
               fieldDescriptor,
               indexedName(fieldDescriptor, i),
-              config));
+              config,
+              unpackCache));
     }
 
     return builder.build();
@@ -622,7 +656,8 @@ final class ProtoTruthMessageDifferencer {
       boolean excludeNonRecursive,
       FieldDescriptor fieldDescriptor,
       String fieldName,
-      FluentEqualityConfig config) {
+      FluentEqualityConfig config,
+      AnyUtils.UnpackCache unpackCache) {
     if (fieldDescriptor.getJavaType() == JavaType.MESSAGE) {
       return compareSingularMessage(
           (Message) actual,
@@ -631,7 +666,8 @@ final class ProtoTruthMessageDifferencer {
           excludeNonRecursive,
           fieldDescriptor,
           fieldName,
-          config);
+          config,
+          unpackCache);
     } else if (excludeNonRecursive) {
       return SingularField.ignored(fieldName);
     } else {
@@ -660,7 +696,8 @@ final class ProtoTruthMessageDifferencer {
       boolean excludeNonRecursive,
       FieldDescriptor fieldDescriptor,
       String fieldName,
-      FluentEqualityConfig config) {
+      FluentEqualityConfig config,
+      AnyUtils.UnpackCache unpackCache) {
     Result.Builder result = Result.builder();
 
     // Use the default if it's set and we're ignoring field absence.
@@ -679,7 +716,7 @@ final class ProtoTruthMessageDifferencer {
       actual = orDefaultForType(actual, expected);
       expected = orDefaultForType(expected, actual);
 
-      breakdown = diffMessages(actual, expected, config);
+      breakdown = diffMessages(actual, expected, config, unpackCache);
       if (breakdown.isIgnored() && excludeNonRecursive) {
         // Ignore this field entirely, report nothing.
         return SingularField.ignored(fieldName);
@@ -100,17 +100,21 @@ abstract class RecursableDiffEntity {
   /**
    * Prints the contents of this diff entity to {@code sb}.
    *
+   * <p>Printing stops with a {@link TruncatingAppendable.BudgetExhaustedException} once {@code sb}
+   * has no budget left.
+   *
    * @param includeMatches Whether to include reports for fields which matched.
    * @param fieldPrefix The human-readable field path leading to this entity. Empty if this is the
    *     root entity.
-   * @param sb Builder to print the text to.
+   * @param sb Appendable to print the text to.
    */
-  abstract void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb);
+  abstract void printContents(boolean includeMatches, String fieldPrefix, TruncatingAppendable sb);
 
   /** Returns true if this entity has no contents to print, with or without includeMatches. */
   abstract boolean isContentEmpty();
 
-  final void printChildContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
+  final void printChildContents(
+      boolean includeMatches, String fieldPrefix, TruncatingAppendable sb) {
     for (RecursableDiffEntity entity : childEntities()) {
       entity.printContents(includeMatches, fieldPrefix, sb);
     }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.protobuf.Descriptors.Descriptor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A bounded memo of {@link FieldScopeLogicContainer#subScope} results for a single container.
+ *
+ * <p>The message differencer asks for the same sub-scopes once per sub-message it visits, so
+ * without memoization a recursive diff allocates a fresh container tree for every nested message.
+ * Each container owns one of these, which means that the number of distinct containers reachable
+ * from a root is bounded by the schema rather than by the size of the messages being compared.
+ *
+ * <p>Subclasses implement {@link #compute}. The backing cache is only created on the first lookup,
+ * since most containers are never asked for a sub-scope. Concurrent lookups of the same key may
+ * both compute it, but only the first result is kept and returned.
+ *
+ * <p>Containers reachable from {@link FluentEqualityConfig#defaultInstance()} live as long as the
+ * JVM and see sub-scopes from every test, so the memo evicts the least recently used entries
+ * rather than growing without bound.
+ */
+abstract class SubScopeCache<T> {
+
+  // Messages rarely have more fields than this, and the memo only exists to avoid repeated work, so
+  // there is no harm in recomputing evicted entries.
+  @VisibleForTesting static final int MAX_SIZE = 256;
+
+  @AutoValue
+  abstract static class Key {
+    abstract Descriptor rootDescriptor();
+
+    abstract SubScopeId subScopeId();
+
+    static Key of(Descriptor rootDescriptor, SubScopeId subScopeId) {
+      return new AutoValue_SubScopeCache_Key(rootDescriptor, subScopeId);
+    }
+  }
+
+  private volatile @Nullable Cache<Key, T> memo;
+
+  /** Computes the sub-scope for the given key. Must not return null. */
+  abstract T compute(Descriptor rootDescriptor, SubScopeId subScopeId);
+
+  /** Returns the memoized sub-scope, computing it if necessary. */
+  final T get(Descriptor rootDescriptor, SubScopeId subScopeId) {
+    Cache<Key, T> cache = memo();
+    Key key = Key.of(rootDescriptor, subScopeId);
+    T cached = cache.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    T computed = compute(rootDescriptor, subScopeId);
+    T raced = cache.asMap().putIfAbsent(key, computed);
+    return raced != null ? raced : computed;
+  }
+
+  private Cache<Key, T> memo() {
+    Cache<Key, T> result = memo;
+    if (result == null) {
+      synchronized (this) {
+        result = memo;
+        if (result == null) {
+          memo = result = CacheBuilder.newBuilder().maximumSize(MAX_SIZE).build();
+        }
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link Appendable} which forwards at most a fixed number of characters to its delegate.
+ *
+ * <p>Once the budget is spent, the next append writes whatever still fits and then throws {@link
+ * BudgetExhaustedException}, which lets callers abandon an arbitrarily deep print (including one
+ * in progress inside {@link com.google.protobuf.TextFormat}) instead of rendering text that will
+ * never be shown. Unlike a plain {@code Appendable}, the append methods never throw {@link
+ * IOException}; delegate failures are rethrown as {@link UncheckedIOException}.
+ */
+final class TruncatingAppendable implements Appendable {
+
+  /** Thrown when a {@link TruncatingAppendable} has used up its budget. */
+  static final class BudgetExhaustedException extends RuntimeException {
+    private BudgetExhaustedException() {
+      super(null, null, /* enableSuppression = */ false, /* writableStackTrace = */ false);
+    }
+  }
+
+  private final Appendable delegate;
+  private long remaining;
+
+  TruncatingAppendable(Appendable delegate, long budget) {
+    checkArgument(budget >= 0, "budget (%s) must be non-negative", budget);
+    this.delegate = checkNotNull(delegate);
+    this.remaining = budget;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public TruncatingAppendable append(@Nullable CharSequence csq) {
+    CharSequence nonNull = csq == null ? "null" : csq;
+    return append(nonNull, 0, nonNull.length());
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public TruncatingAppendable append(@Nullable CharSequence csq, int start, int end) {
+    CharSequence nonNull = csq == null ? "null" : csq;
+    int length = end - start;
+    try {
+      if (length <= remaining) {
+        delegate.append(nonNull, start, end);
+        remaining -= length;
+        return this;
+      }
+      delegate.append(nonNull, start, start + (int) remaining);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    remaining = 0;
+    throw new BudgetExhaustedException();
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public TruncatingAppendable append(char c) {
+    if (remaining == 0) {
+      throw new BudgetExhaustedException();
+    }
+    try {
+      delegate.append(c);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    remaining--;
+    return this;
+  }
+}
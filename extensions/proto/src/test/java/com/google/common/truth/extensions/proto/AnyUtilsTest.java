@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.base.Optional;
+import com.google.common.truth.extensions.proto.AnyUtils.UnpackCache;
+import com.google.protobuf.Any;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.Message;
+import com.google.protobuf.TypeRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link AnyUtils.UnpackCache}. */
+@RunWith(JUnit4.class)
+public class AnyUtilsTest {
+  private static final FluentEqualityConfig CONFIG =
+      FluentEqualityConfig.defaultInstance()
+          .unpackingAnyUsing(
+              TypeRegistry.newBuilder().add(TestMessage2.getDescriptor()).build(),
+              ExtensionRegistry.getEmptyRegistry());
+
+  @Test
+  public void unpack_cacheHit() {
+    UnpackCache cache = AnyUtils.newUnpackCache(CONFIG);
+    Any any = Any.pack(TestMessage2.newBuilder().setOInt(3).build());
+
+    Optional<Message> unpacked = cache.unpack(any);
+    assertThat(unpacked.isPresent()).isTrue();
+    assertThat(unpacked.get().getDescriptorForType()).isEqualTo(TestMessage2.getDescriptor());
+    assertThat(unpacked.get().toByteString()).isEqualTo(any.getValue());
+    assertThat(cache.unpack(any).get()).isSameInstanceAs(unpacked.get());
+  }
+
+  @Test
+  public void unpack_unresolvableTypeUrl() {
+    UnpackCache cache = AnyUtils.newUnpackCache(CONFIG);
+    Any any =
+        Any.newBuilder()
+            .setTypeUrl("type.googleapis.com/com.example.NoSuchMessage")
+            .setValue(TestMessage2.newBuilder().setOInt(3).build().toByteString())
+            .build();
+
+    assertThat(cache.unpack(any).isPresent()).isFalse();
+    assertThat(cache.unpack(any).isPresent()).isFalse();
+  }
+
+  @Test
+  public void unpack_typeNotInRegistry() {
+    UnpackCache cache = AnyUtils.newUnpackCache(FluentEqualityConfig.defaultInstance());
+
+    assertThat(cache.unpack(Any.pack(TestMessage2.getDefaultInstance())).isPresent()).isFalse();
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.ExpectFailure.assertThat;
+import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
+
+import com.google.common.truth.ExpectFailure;
+import com.google.protobuf.ByteString;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ByteStringSubject}. */
+@RunWith(JUnit4.class)
+public class ByteStringSubjectTest {
+  @Rule public final ExpectFailure expectFailure = new ExpectFailure();
+
+  private static final ByteString HELLO = ByteString.copyFromUtf8("hello, world");
+
+  @Test
+  public void isEqualTo() {
+    assertThat(HELLO).isEqualTo(ByteString.copyFromUtf8("hello, ").concat(copy("world")));
+  }
+
+  @Test
+  public void isEqualTo_fail() {
+    byte[] bytes = new byte[100_000];
+    ByteString expected = ByteString.copyFrom(bytes);
+    bytes[70_000] = 'x';
+    expectFailureWhenTesting().that(ByteString.copyFrom(bytes)).isEqualTo(expected);
+    assertThat(expectFailure.getFailure())
+        .factKeys()
+        .containsExactly(
+            "value of",
+            "first difference at index",
+            "number of differing bytes",
+            "expected bytes",
+            "actual bytes",
+            "but was",
+            "byteString was")
+        .inOrder();
+    assertThat(expectFailure.getFailure())
+        .factValue("first difference at index")
+        .isEqualTo("70000");
+    assertThat(expectFailure.getFailure())
+        .factValue("value of")
+        .isEqualTo("byteString.asReadOnlyByteBuffer()");
+  }
+
+  @Test
+  public void isEqualTo_notAByteString() {
+    expectFailureWhenTesting().that(HELLO).isEqualTo("hello, world");
+    assertThat(expectFailure.getFailure()).factKeys().contains("expected");
+  }
+
+  @Test
+  public void hasSize() {
+    assertThat(HELLO).hasSize(12);
+
+    expectFailureWhenTesting().that(HELLO).hasSize(5);
+    assertThat(expectFailure.getFailure()).factValue("value of").isEqualTo("byteString.size()");
+  }
+
+  @Test
+  public void startsWith() {
+    assertThat(HELLO).startsWith(copy("hello"));
+
+    expectFailureWhenTesting().that(HELLO).startsWith(copy("help"));
+    assertThat(expectFailure.getFailure()).factValue("first difference at index").isEqualTo("3");
+  }
+
+  @Test
+  public void containsSubsequence() {
+    assertThat(HELLO).containsSubsequence(copy("lo, wo"));
+    assertThat(copy("hello, ").concat(copy("world"))).containsSubsequence(copy("lo, wo"));
+
+    expectFailureWhenTesting().that(HELLO).containsSubsequence(copy("low"));
+    assertThat(expectFailure.getFailure()).factKeys().contains("expected to contain");
+  }
+
+  @Test
+  public void hasSize_nullActual() {
+    expectFailureWhenTesting().that((ByteString) null).hasSize(5);
+    assertThat(expectFailure.getFailure())
+        .factKeys()
+        .containsExactly("expected a byte string with size", "but was");
+  }
+
+  @Test
+  public void startsWith_nullActual() {
+    expectFailureWhenTesting().that((ByteString) null).startsWith(copy("help"));
+    assertThat(expectFailure.getFailure())
+        .factKeys()
+        .containsExactly("expected to start with", "but was");
+  }
+
+  @Test
+  public void containsSubsequence_nullActual() {
+    expectFailureWhenTesting().that((ByteString) null).containsSubsequence(copy("low"));
+    assertThat(expectFailure.getFailure())
+        .factKeys()
+        .containsExactly("expected to contain", "but was");
+  }
+
+  private static ByteString copy(String text) {
+    return ByteString.copyFromUtf8(text);
+  }
+
+  private ProtoSubjectBuilder expectFailureWhenTesting() {
+    return expectFailure.whenTesting().about(ProtoTruth.protos());
+  }
+}
@@ -502,6 +502,41 @@ public class IterableOfProtosSubjectTest extends ProtoSubjectTestBase {
     expectThatFailure().factValue("diff", 1).contains("modified: r_string[0]: \"qux\" -> \"bar\"");
   }
 
+  @Test
+  public void testLargeIterables_outOfOrder() {
+    // Large enough that all pairs are compared in parallel.
+    ImmutableList.Builder<Message> actual = ImmutableList.builder();
+    ImmutableList.Builder<Message> expected = ImmutableList.builder();
+    ImmutableList.Builder<Message> expectedPartial = ImmutableList.builder();
+    for (int i = 0; i < 100; i++) {
+      actual.add(parse("o_int: " + i + " r_string: 'foo' r_string: 'bar'"));
+      expected.add(parse("o_int: " + (99 - i) + " r_string: 'bar' r_string: 'foo'"));
+      if (i % 2 == 0) {
+        expectedPartial.add(parse("o_int: " + (99 - i)));
+      }
+    }
+
+    expectThat(actual.build())
+        .ignoringRepeatedFieldOrder()
+        .containsExactlyElementsIn(expected.build());
+    expectThat(actual.build())
+        .comparingExpectedFieldsOnly()
+        .containsAtLeastElementsIn(expectedPartial.build());
+
+    expectFailureWhenTesting()
+        .that(actual.build())
+        .ignoringRepeatedFieldOrder()
+        .containsExactlyElementsIn(expected.build())
+        .inOrder();
+    expectThatFailure().isNotNull();
+
+    expectFailureWhenTesting()
+        .that(actual.build())
+        .containsExactlyElementsIn(expected.build());
+    expectThatFailure().factKeys().contains("missing (100)");
+    expectThatFailure().factKeys().contains("unexpected (100)");
+  }
+
   @Test
   public void testCompareMultipleMessageTypes() {
     // Don't run this test twice.
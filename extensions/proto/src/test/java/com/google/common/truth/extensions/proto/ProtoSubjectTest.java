@@ -294,6 +294,36 @@ public class ProtoSubjectTest extends ProtoSubjectTestBase {
     expectThatFailure().hasMessageThat().contains("added: r_string[1]: \"foo\"");
   }
 
+  @Test
+  public void testLongRepeatedField_diffIsSummarized() {
+    StringBuilder actual = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 150; i++) {
+      actual.append("r_string: 'a").append(i).append("' ");
+      expected.append("r_string: 'e").append(i).append("' ");
+    }
+    for (int i = 0; i < 50; i++) {
+      actual.append("r_sub_test_message: { o_int: ").append(i).append(" } ");
+      expected.append("r_sub_test_message: { o_int: ").append(i).append(" } ");
+    }
+    actual.append("r_sub_test_message: { o_int: 50 }");
+    expected.append("r_sub_test_message: { o_int: -1 }");
+
+    expectFailureWhenTesting().that(parse(actual.toString())).isEqualTo(parse(expected.toString()));
+    expectIsEqualToFailed();
+    expectThatFailure().hasMessageThat().contains("modified: r_string[99]: \"e99\" -> \"a99\"");
+    expectThatFailure().hasMessageThat().doesNotContain("r_string[100]");
+    expectThatFailure()
+        .hasMessageThat()
+        .contains("... (50 more entries of r_string not shown, 50 of them mismatched)");
+    expectThatFailure().hasMessageThat().contains("matched: r_sub_test_message[31].o_int: 31");
+    expectThatFailure().hasMessageThat().doesNotContain("r_sub_test_message[32]");
+    expectThatFailure().hasMessageThat().contains("... (18 more matched entries not shown)");
+    expectThatFailure()
+        .hasMessageThat()
+        .contains("modified: r_sub_test_message[50].o_int: -1 -> 50");
+  }
+
   @Test
   public void testRepeatedFieldOrder_scoped() {
     Message message =
@@ -447,6 +477,40 @@ public class ProtoSubjectTest extends ProtoSubjectTestBase {
     }
   }
 
+  @Test
+  public void testDoubleTolerance_scopedFieldsAndFieldDescriptors() {
+    Message message = parse("o_double: 1.0 o_sub_test_message: { o_double: 1.0 }");
+    Message diffMessage = parse("o_double: 1.1 o_sub_test_message: { o_double: 1.5 }");
+
+    int doubleFieldNumber = getFieldNumber("o_double");
+    FieldDescriptor subDoubleFieldDescriptor =
+        getFieldDescriptor("o_sub_test_message").getMessageType().findFieldByName("o_double");
+
+    expectThat(diffMessage)
+        .usingDoubleToleranceForFieldDescriptors(0.6, subDoubleFieldDescriptor)
+        .usingDoubleToleranceForFields(0.2, doubleFieldNumber)
+        .isEqualTo(message);
+    expectThat(diffMessage)
+        .usingDoubleToleranceForFields(0.2, doubleFieldNumber)
+        .usingDoubleToleranceForFieldDescriptors(0.6, subDoubleFieldDescriptor)
+        .isEqualTo(message);
+
+    // The most recent mapping for a field wins, whether it's by number or by descriptor.
+    expectThat(diffMessage)
+        .usingDoubleToleranceForFieldDescriptors(0.6, subDoubleFieldDescriptor)
+        .usingDoubleToleranceForFields(0.2, doubleFieldNumber)
+        .usingDoubleToleranceForFieldDescriptors(0.2, subDoubleFieldDescriptor)
+        .isNotEqualTo(message);
+    expectThat(diffMessage)
+        .usingDoubleTolerance(0.6)
+        .usingDoubleToleranceForFields(0.05, doubleFieldNumber)
+        .isNotEqualTo(message);
+    expectThat(diffMessage)
+        .usingDoubleToleranceForFields(0.05, doubleFieldNumber)
+        .usingDoubleTolerance(0.6)
+        .isEqualTo(message);
+  }
+
   @Test
   public void testFloatTolerance() {
     Message message = parse("o_float: 1.0");
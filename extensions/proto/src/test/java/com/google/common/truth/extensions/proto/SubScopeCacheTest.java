@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.protobuf.Descriptors.Descriptor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests that {@link FieldScopeLogicContainer#subScope} results are memoized per container. */
+@RunWith(JUnit4.class)
+public class SubScopeCacheTest {
+  private static final Descriptor DESCRIPTOR = TestMessage2.getDescriptor();
+  private static final SubScopeId SUB_MESSAGE =
+      SubScopeId.of(DESCRIPTOR.findFieldByName("o_sub_test_message"));
+  private static final SubScopeId TEST_MESSAGE =
+      SubScopeId.of(DESCRIPTOR.findFieldByName("o_test_message"));
+
+  private static FieldScopeLogic partialScope() {
+    return FieldScopeLogic.partialScope(
+        TestMessage2.newBuilder()
+            .setOSubTestMessage(SubTestMessage2.newBuilder().setOInt(3))
+            .setOTestMessage(TestMessage2.newBuilder().setOInt(4))
+            .build());
+  }
+
+  @Test
+  public void fieldScopeLogic() {
+    FieldScopeLogic logic = partialScope();
+
+    FieldScopeLogic subScope = logic.subScope(DESCRIPTOR, SUB_MESSAGE);
+    assertThat(logic.subScope(DESCRIPTOR, SUB_MESSAGE)).isSameInstanceAs(subScope);
+    assertThat(logic.subScope(DESCRIPTOR, TEST_MESSAGE)).isNotSameInstanceAs(subScope);
+  }
+
+  @Test
+  public void fieldScopeLogicMap() {
+    FieldScopeLogicMap<String> map = FieldScopeLogicMap.<String>empty().with(partialScope(), "a");
+
+    FieldScopeLogicMap<String> subScope = map.subScope(DESCRIPTOR, SUB_MESSAGE);
+    assertThat(map.subScope(DESCRIPTOR, SUB_MESSAGE)).isSameInstanceAs(subScope);
+    assertThat(map.subScope(DESCRIPTOR, TEST_MESSAGE)).isNotSameInstanceAs(subScope);
+  }
+
+  @Test
+  public void fluentEqualityConfig() {
+    FluentEqualityConfig config = FluentEqualityConfig.defaultInstance();
+
+    FluentEqualityConfig subScope = config.subScope(DESCRIPTOR, SUB_MESSAGE);
+    assertThat(config.subScope(DESCRIPTOR, SUB_MESSAGE)).isSameInstanceAs(subScope);
+    assertThat(subScope.subScope(DESCRIPTOR, SUB_MESSAGE))
+        .isSameInstanceAs(subScope.subScope(DESCRIPTOR, SUB_MESSAGE));
+  }
+
+  @Test
+  public void keepsMemoizingOnceFull() {
+    SubScopeCache<Object> cache =
+        new SubScopeCache<Object>() {
+          @Override
+          Object compute(Descriptor rootDescriptor, SubScopeId subScopeId) {
+            return new Object();
+          }
+        };
+    for (int i = 1; i <= SubScopeCache.MAX_SIZE; i++) {
+      cache.get(DESCRIPTOR, unknownField(i));
+    }
+
+    SubScopeId newField = unknownField(SubScopeCache.MAX_SIZE + 1);
+    Object subScope = cache.get(DESCRIPTOR, newField);
+    assertThat(cache.get(DESCRIPTOR, newField)).isSameInstanceAs(subScope);
+  }
+
+  private static SubScopeId unknownField(int fieldNumber) {
+    return SubScopeId.of(
+        UnknownFieldDescriptor.create(fieldNumber, UnknownFieldDescriptor.Type.VARINT));
+  }
+}
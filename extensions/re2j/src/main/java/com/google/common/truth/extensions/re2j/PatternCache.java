@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.re2j;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.re2j.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Keeps the most recently used compiled RE2/J patterns, since RE2/J builds its automata when a
+ * pattern is compiled, and data-driven tests often check the same few regexes against many values.
+ *
+ * <p>As for core Truth's {@code java.util.regex} cache, the cache's size can be set (or set to 0 to
+ * disable it) with the {@value #SIZE_PROPERTY} system property, which is read when this class is
+ * initialized.
+ */
+@GwtIncompatible
+final class PatternCache {
+  static final String SIZE_PROPERTY = "com.google.common.truth.regex_cache_size";
+
+  private static final int DEFAULT_SIZE = 256;
+
+  private static final @Nullable Cache<String, Pattern> CACHE = newCache();
+
+  private static @Nullable Cache<String, Pattern> newCache() {
+    int size = size();
+    return size > 0 ? CacheBuilder.newBuilder().maximumSize(size).<String, Pattern>build() : null;
+  }
+
+  /** Returns the compiled form of the given regex, reusing an earlier compilation if possible. */
+  static Pattern compile(String regex) {
+    if (CACHE == null) {
+      return Pattern.compile(regex);
+    }
+    Pattern pattern = CACHE.getIfPresent(regex);
+    if (pattern == null) {
+      // Compile outside the cache so that a PatternSyntaxException reaches the caller unwrapped.
+      pattern = Pattern.compile(regex);
+      CACHE.put(regex, pattern);
+    }
+    return pattern;
+  }
+
+  private static int size() {
+    // Reading system properties might be forbidden.
+    try {
+      String size = System.getProperty(SIZE_PROPERTY);
+      return size == null ? DEFAULT_SIZE : Integer.parseInt(size.trim());
+    } catch (SecurityException e) {
+      // Hope for the best.
+      return DEFAULT_SIZE;
+    } catch (NumberFormatException e) {
+      return DEFAULT_SIZE;
+    }
+  }
+
+  private PatternCache() {}
+}
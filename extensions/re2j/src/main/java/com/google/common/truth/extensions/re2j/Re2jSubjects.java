@@ -15,10 +15,20 @@
  */
 package com.google.common.truth.extensions.re2j;
 
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.extensions.re2j.PatternCache.compile;
+
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.truth.FailureMetadata;
 import com.google.common.truth.Subject;
 import com.google.re2j.Pattern;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Truth subjects for re2j regular expressions.
@@ -70,7 +80,7 @@ public final class Re2jSubjects {
 
     /** Fails if the string does not match the given regex. */
     public void matches(String regex) {
-      if (!Pattern.matches(regex, actual)) {
+      if (!compile(regex).matches(actual)) {
         failWithActual("expected to match ", regex);
       }
     }
@@ -85,7 +95,7 @@ public final class Re2jSubjects {
 
     /** Fails if the string matches the given regex. */
     public void doesNotMatch(String regex) {
-      if (Pattern.matches(regex, actual)) {
+      if (compile(regex).matches(actual)) {
         failWithActual("expected to fail to match", regex);
       }
     }
@@ -133,9 +143,161 @@ public final class Re2jSubjects {
     }
 
     private static boolean doContainsMatch(String subject, String regex) {
-      return Pattern.compile(regex).matcher(subject).find();
+      return compile(regex).matcher(subject).find();
+    }
+  }
+
+  /**
+   * Returns a subject factory for {@link CharSequence} subjects which you can use to assert whether
+   * they contain matches of {@link com.google.re2j.Pattern} regexes, without first copying them
+   * into a {@link String}.
+   */
+  @GwtIncompatible("java.io.Reader")
+  public static Subject.Factory<Re2jTextSubject, CharSequence> re2jCharSequence() {
+    return new Subject.Factory<Re2jTextSubject, CharSequence>() {
+      @Override
+      public Re2jTextSubject createSubject(FailureMetadata failureMetadata, CharSequence target) {
+        return new Re2jTextSubject(failureMetadata, target);
+      }
+    };
+  }
+
+  /**
+   * Returns a subject factory for {@link Reader} subjects which you can use to assert whether the
+   * text they produce contains matches of {@link com.google.re2j.Pattern} regexes. The text is
+   * searched as it is read, holding only a bounded window of it in memory. Assertions read the
+   * reader to the end (or, for {@code doesNotContainMatch}, to the first match), but do not close
+   * it, so only one assertion can be made on each reader.
+   */
+  @GwtIncompatible("java.io.Reader")
+  public static Subject.Factory<Re2jTextSubject, Reader> re2jReader() {
+    return new Subject.Factory<Re2jTextSubject, Reader>() {
+      @Override
+      public Re2jTextSubject createSubject(FailureMetadata failureMetadata, Reader target) {
+        return new Re2jTextSubject(failureMetadata, target);
+      }
+    };
+  }
+
+  /**
+   * Returns a subject factory for {@link Path} subjects which you can use to assert whether the
+   * UTF-8 text of the files contains matches of {@link com.google.re2j.Pattern} regexes. The file
+   * is decoded and searched through memory-mapped chunks, so it may be far larger than the heap.
+   */
+  @GwtIncompatible("java.nio.file.Path")
+  public static Subject.Factory<Re2jTextSubject, Path> re2jPath() {
+    return new Subject.Factory<Re2jTextSubject, Path>() {
+      @Override
+      public Re2jTextSubject createSubject(FailureMetadata failureMetadata, Path target) {
+        return new Re2jTextSubject(failureMetadata, target);
+      }
+    };
+  }
+
+  /**
+   * Subject for text that may be too large to hold in a {@link String}, which you can use to
+   * assert things about {@link com.google.re2j.Pattern} matches in it. RE2/J matches in linear
+   * time, and text from a {@link Reader} or {@link Path} is searched in windows of about a million
+   * characters. Matches of up to 65,536 characters are found wherever they fall; longer matches
+   * that span two windows may be missed.
+   *
+   * <p>Failure messages report the offset of the match, counted in {@code char}s from the start
+   * of the text, and an excerpt of the match and its surroundings, shortened if necessary.
+   *
+   * @see #re2jCharSequence
+   * @see #re2jReader
+   * @see #re2jPath
+   */
+  @GwtIncompatible("java.io.Reader")
+  public static final class Re2jTextSubject extends Subject {
+    private final @Nullable Object actual;
+
+    private Re2jTextSubject(FailureMetadata failureMetadata, @Nullable Object subject) {
+      super(failureMetadata, subject);
+      this.actual = subject;
+    }
+
+    @Override
+    protected String actualCustomStringRepresentation() {
+      if (actual instanceof CharSequence) {
+        CharSequence text = (CharSequence) actual;
+        return text.length() <= MAX_REPRESENTATION_LENGTH
+            ? Re2jStringSubject.quote(text)
+            : Re2jStringSubject.quote(text.subSequence(0, MAX_REPRESENTATION_LENGTH))
+                + "… ("
+                + text.length()
+                + " characters)";
+      }
+      return super.actualCustomStringRepresentation();
+    }
+
+    /** Fails if the text does not contain a match on the given regex. */
+    public void containsMatch(String regex) {
+      containsMatch(compile(regex), regex);
+    }
+
+    /** Fails if the text does not contain a match on the given regex. */
+    public void containsMatch(Pattern pattern) {
+      containsMatch(pattern, pattern);
+    }
+
+    /** Fails if the text contains a match on the given regex. */
+    public void doesNotContainMatch(String regex) {
+      doesNotContainMatch(compile(regex), regex);
+    }
+
+    /** Fails if the text contains a match on the given regex. */
+    public void doesNotContainMatch(Pattern pattern) {
+      doesNotContainMatch(pattern, pattern);
+    }
+
+    private void containsMatch(Pattern pattern, Object regex) {
+      if (actual == null) {
+        failWithActual("expected text that contains a match for", regex);
+        return;
+      }
+      StreamingFind find = find(pattern);
+      if (!find.found()) {
+        failWithActual(
+            fact("expected to contain a match for", regex),
+            fact("characters searched", find.charactersSearched));
+      }
+    }
+
+    private void doesNotContainMatch(Pattern pattern, Object regex) {
+      if (actual == null) {
+        failWithActual("expected text that does not contain a match for", regex);
+        return;
+      }
+      StreamingFind find = find(pattern);
+      if (find.found()) {
+        failWithActual(
+            fact("expected not to contain a match for", regex),
+            fact("but contained", find.excerpt),
+            fact("at offset", find.offset),
+            fact("in context", find.context));
+      }
+    }
+
+    private StreamingFind find(Pattern pattern) {
+      try {
+        if (actual instanceof CharSequence) {
+          return StreamingFind.find(pattern, (CharSequence) actual);
+        } else if (actual instanceof Reader) {
+          return StreamingFind.find(pattern, (Reader) actual);
+        } else {
+          try (FileChannel channel = FileChannel.open((Path) actual, StandardOpenOption.READ)) {
+            return StreamingFind.find(pattern, new StreamingFind.MappedFileReader(channel));
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
     }
   }
 
+  // The most characters of a CharSequence shown as the actual value in failure messages.
+  private static final int MAX_REPRESENTATION_LENGTH = 100;
+
   private Re2jSubjects() {}
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2023 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.re2j;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.re2j.Matcher;
+import com.google.re2j.Pattern;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The outcome of searching text for a match of a {@link Pattern}, without holding more than a
+ * bounded window of the text in memory.
+ *
+ * <p>Text from a {@link Reader} is searched in windows of {@link #WINDOW_SIZE} characters, each of
+ * which repeats the last {@link #OVERLAP} characters of the one before it. Any match that fits in
+ * the overlap is found even if it spans two windows; longer matches may be missed.
+ */
+@GwtIncompatible
+final class StreamingFind {
+  static final int WINDOW_SIZE = 1 << 20;
+  static final int OVERLAP = 1 << 16;
+
+  // The most characters of a match, and of the text on each side of it, that are reported.
+  private static final int EXCERPT_LENGTH = 100;
+  private static final int CONTEXT_LENGTH = 40;
+
+  /** The largest region of a file mapped at once. */
+  private static final int CHUNK_SIZE = 1 << 26;
+
+  /** The number of characters searched, which is all of them if there was no match. */
+  final long charactersSearched;
+
+  /** The offset of the match in characters, or -1 if there was no match. */
+  final long offset;
+
+  /** The start of the match, shortened if it is long. */
+  final @Nullable String excerpt;
+
+  /** The match and the text on each side of it, shortened if they are long. */
+  final @Nullable String context;
+
+  private StreamingFind(
+      long charactersSearched, long offset, @Nullable String excerpt, @Nullable String context) {
+    this.charactersSearched = charactersSearched;
+    this.offset = offset;
+    this.excerpt = excerpt;
+    this.context = context;
+  }
+
+  boolean found() {
+    return offset >= 0;
+  }
+
+  /** Searches text that is already in memory, in a single pass. */
+  static StreamingFind find(Pattern pattern, CharSequence text) {
+    Matcher matcher = pattern.matcher(text);
+    if (!matcher.find()) {
+      return notFound(text.length());
+    }
+    return found(text.length(), 0, text, matcher.start(), matcher.end());
+  }
+
+  /** Searches the text read from {@code reader}, one window at a time. */
+  static StreamingFind find(Pattern pattern, Reader reader) throws IOException {
+    boolean checkEnd = mayAssertAtEnd(pattern);
+    char[] buffer = new char[WINDOW_SIZE];
+    long bufferStart = 0;
+    int length = 0;
+    // The first index of the buffer at which a match may start that hasn't been searched for yet.
+    int searchFrom = 0;
+    while (true) {
+      boolean endOfInput = false;
+      while (length < buffer.length) {
+        int read = reader.read(buffer, length, buffer.length - length);
+        if (read < 0) {
+          endOfInput = true;
+          break;
+        }
+        length += read;
+      }
+      CharBuffer window = CharBuffer.wrap(buffer, 0, length);
+      Matcher matcher = pattern.matcher(window);
+      int keepFrom = length - OVERLAP;
+      if (matcher.find(searchFrom)) {
+        // A match that runs up to the end of the window might only have matched because the regex
+        // saw the end of the window as the end of the text. If the regex can't tell, it's real.
+        if (endOfInput || !checkEnd || matcher.end() < length) {
+          return found(bufferStart + length, bufferStart, window, matcher.start(), matcher.end());
+        }
+        // Otherwise, search again from the start of the match, with more text after it. (If the
+        // match is longer than the overlap, it's lost, and so is any match that starts inside it.)
+        keepFrom = Math.max(keepFrom, matcher.start() - 1);
+      } else if (endOfInput) {
+        return notFound(bufferStart + length);
+      }
+      // Keep one character before the first one that still needs to be searched, so that
+      // assertions like ^ and \b can see it.
+      keepFrom = Math.max(keepFrom, 0);
+      System.arraycopy(buffer, keepFrom, buffer, 0, length - keepFrom);
+      bufferStart += keepFrom;
+      length -= keepFrom;
+      searchFrom = bufferStart == 0 ? 0 : 1;
+    }
+  }
+
+  /**
+   * Returns whether the pattern might use an assertion about the character after a match, like
+   * {@code $} or {@code \b}. This errs on the side of yes, since escaped characters look the same.
+   */
+  private static boolean mayAssertAtEnd(Pattern pattern) {
+    String regex = pattern.pattern();
+    return regex.contains("$")
+        || regex.contains("\\b")
+        || regex.contains("\\B")
+        || regex.contains("\\z");
+  }
+
+  private static StreamingFind notFound(long charactersSearched) {
+    return new StreamingFind(charactersSearched, -1, null, null);
+  }
+
+  private static StreamingFind found(
+      long charactersSearched, long textStart, CharSequence text, int start, int end) {
+    String match = shorten(text.subSequence(start, end));
+    int contextStart = Math.max(0, start - CONTEXT_LENGTH);
+    int contextEnd = Math.min(text.length(), end + CONTEXT_LENGTH);
+    String context =
+        (contextStart > 0 ? "…" : "")
+            + text.subSequence(contextStart, start)
+            + match
+            + text.subSequence(end, contextEnd)
+            + (contextEnd < text.length() ? "…" : "");
+    return new StreamingFind(charactersSearched, textStart + start, match, context);
+  }
+
+  private static String shorten(CharSequence text) {
+    return text.length() <= EXCERPT_LENGTH
+        ? text.toString()
+        : text.subSequence(0, EXCERPT_LENGTH) + "… (" + text.length() + " characters)";
+  }
+
+  /**
+   * A {@link Reader} of the UTF-8 text of a file, which decodes the file through memory-mapped
+   * chunks instead of copying it into a buffer. Malformed input is replaced with U+FFFD.
+   */
+  static final class MappedFileReader extends Reader {
+    private final FileChannel channel;
+    private final long size;
+    private final CharsetDecoder decoder =
+        UTF_8
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private long chunkStart;
+    private ByteBuffer chunk;
+    private boolean done;
+
+    MappedFileReader(FileChannel channel) throws IOException {
+      this.channel = channel;
+      this.size = channel.size();
+      this.chunk = map(0);
+    }
+
+    @Override
+    public int read(char[] chars, int offset, int length) throws IOException {
+      if (done) {
+        return -1;
+      }
+      CharBuffer out = CharBuffer.wrap(chars, offset, length);
+      while (out.position() == offset && length > 0) {
+        boolean endOfInput = chunkStart + chunk.limit() == size;
+        decoder.decode(chunk, out, endOfInput);
+        if (endOfInput && !chunk.hasRemaining()) {
+          decoder.flush(out);
+          done = true;
+          break;
+        }
+        if (out.position() == offset) {
+          // What's left of the chunk is the start of a character that continues in the next one.
+          chunk = map(chunkStart + chunk.position());
+        }
+      }
+      int read = out.position() - offset;
+      return read == 0 && done ? -1 : read;
+    }
+
+    private ByteBuffer map(long position) throws IOException {
+      chunkStart = position;
+      return channel.map(MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, size - position));
+    }
+
+    @Override
+    public void close() {}
+  }
+}
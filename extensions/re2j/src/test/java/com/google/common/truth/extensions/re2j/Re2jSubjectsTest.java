@@ -16,10 +16,24 @@
 package com.google.common.truth.extensions.re2j;
 
 import static com.google.common.truth.Truth.assertAbout;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.ExpectFailure.assertThat;
+import static com.google.common.truth.ExpectFailure.expectFailureAbout;
+import static com.google.common.truth.extensions.re2j.Re2jSubjects.re2jCharSequence;
+import static com.google.common.truth.extensions.re2j.Re2jSubjects.re2jPath;
+import static com.google.common.truth.extensions.re2j.Re2jSubjects.re2jReader;
 import static com.google.common.truth.extensions.re2j.Re2jSubjects.re2jString;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.re2j.Pattern;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
@@ -29,6 +43,8 @@ public class Re2jSubjectsTest {
   private static final String PATTERN_STR = "(?:hello )+world";
   private static final Pattern PATTERN = Pattern.compile(PATTERN_STR);
 
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Test
   public void matches_string_succeeds() {
     assertAbout(re2jString()).that("hello world").matches(PATTERN_STR);
@@ -68,4 +84,108 @@ public class Re2jSubjectsTest {
   public void doesNotContainMatch_pattern_succeeds() {
     assertAbout(re2jString()).that("hello cruel world").doesNotContainMatch(PATTERN);
   }
+
+  @Test
+  public void stringRegexesAreCompiledOnce() {
+    assertThat(PatternCache.compile(PATTERN_STR))
+        .isSameInstanceAs(PatternCache.compile(PATTERN_STR));
+  }
+
+  @Test
+  public void charSequence_containsMatch() {
+    StringBuilder text = new StringBuilder("this is a hello world");
+    assertAbout(re2jCharSequence()).that(text).containsMatch(PATTERN_STR);
+    assertAbout(re2jCharSequence()).that(text).doesNotContainMatch("goodbye");
+  }
+
+  @Test
+  public void text_null_fails() {
+    AssertionError failure =
+        expectFailureAbout(
+            re2jCharSequence(), whenTesting -> whenTesting.that(null).containsMatch(PATTERN_STR));
+    assertThat(failure)
+        .factKeys()
+        .containsExactly("expected text that contains a match for", "but was")
+        .inOrder();
+    failure =
+        expectFailureAbout(
+            re2jReader(), whenTesting -> whenTesting.that(null).doesNotContainMatch(PATTERN));
+    assertThat(failure)
+        .factKeys()
+        .containsExactly("expected text that does not contain a match for", "but was")
+        .inOrder();
+  }
+
+  @Test
+  public void charSequence_doesNotContainMatch_fails() {
+    AssertionError failure =
+        expectFailureAbout(
+            re2jCharSequence(),
+            whenTesting -> whenTesting.that("say hello world!").doesNotContainMatch(PATTERN));
+    assertThat(failure)
+        .factKeys()
+        .containsExactly(
+            "expected not to contain a match for",
+            "but contained",
+            "at offset",
+            "in context",
+            "but was")
+        .inOrder();
+    assertThat(failure).factValue("but contained").isEqualTo("hello world");
+    assertThat(failure).factValue("at offset").isEqualTo("4");
+  }
+
+  @Test
+  public void reader_findsMatchAcrossWindows() {
+    String text = repeat('x', StreamingFind.WINDOW_SIZE - 3) + "hello world" + repeat('x', 10);
+    assertAbout(re2jReader()).that(new StringReader(text)).containsMatch(PATTERN_STR);
+    AssertionError failure =
+        expectFailureAbout(
+            re2jReader(),
+            whenTesting -> whenTesting.that(new StringReader(text)).doesNotContainMatch(PATTERN));
+    assertThat(failure)
+        .factValue("at offset")
+        .isEqualTo(String.valueOf(StreamingFind.WINDOW_SIZE - 3));
+  }
+
+  @Test
+  public void reader_anchorsSeeWholeText() {
+    String text = "y" + repeat('x', StreamingFind.WINDOW_SIZE + 5);
+    assertAbout(re2jReader()).that(new StringReader(text)).doesNotContainMatch("^x{10}$");
+    assertAbout(re2jReader()).that(new StringReader(text)).doesNotContainMatch("\\bx");
+    assertAbout(re2jReader()).that(new StringReader(text)).containsMatch("x{10}$");
+  }
+
+  @Test
+  public void reader_containsMatch_fails() {
+    AssertionError failure =
+        expectFailureAbout(
+            re2jReader(),
+            whenTesting ->
+                whenTesting.that(new StringReader("goodbye")).containsMatch(PATTERN_STR));
+    assertThat(failure)
+        .factKeys()
+        .containsExactly("expected to contain a match for", "characters searched", "but was")
+        .inOrder();
+    assertThat(failure).factValue("characters searched").isEqualTo("7");
+  }
+
+  @Test
+  public void path_containsMatch() throws IOException {
+    Path file = temporaryFolder.newFile().toPath();
+    Files.write(file, "caf\u00e9 au lait\nhello world\n".getBytes(UTF_8));
+    assertAbout(re2jPath()).that(file).containsMatch("caf\u00e9");
+    assertAbout(re2jPath()).that(file).containsMatch(PATTERN);
+    AssertionError failure =
+        expectFailureAbout(
+            re2jPath(), whenTesting -> whenTesting.that(file).doesNotContainMatch("w.rld"));
+    assertThat(failure).factValue("at offset").isEqualTo("19");
+    assertThat(failure).factValue("but was").isEqualTo(file.toString());
+  }
+
+  private static String repeat(char c, int count) {
+    char[] chars = new char[count];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
 }